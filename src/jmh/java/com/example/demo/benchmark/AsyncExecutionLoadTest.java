@@ -0,0 +1,208 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.service.UserService;
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步执行模式压测, 对比容器线程池同步执行和异步执行两种模式的最大持续吞吐量和 p99 延迟
+ *
+ * 同一进程内先后启动两次应用(容器线程数都限制为 server.tomcat.max-threads), 压测接口
+ * /user/profile 在 UserService 查询后固定等待一段时间, 模拟慢速存储; 客户端为闭环长连接,
+ * 并发数逐级增加, 每级先预热再统计。
+ *
+ * 运行: mvn -P benchmark test-compile exec:exec -Dbenchmark.main=com.example.demo.benchmark.AsyncExecutionLoadTest
+ *      -Djmh.args="load.latency-ms=50 load.max-threads=50"
+ * 可选参数: load.latency-ms(默认 50), load.max-threads(默认 50), load.concurrency(默认 25,50,100,200,400),
+ * load.seconds(每级统计时长, 默认 5)
+ *
+ * @author 程思琦
+ * @date 2026/10/19 02:35
+ * @description
+ **/
+public class AsyncExecutionLoadTest {
+
+    private static long latencyMs;
+
+    public static void main(String[] args) throws Exception {
+        // exec:exec 不传递 -D 参数, 压测参数以 key=value 形式通过 jmh.args 传入
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            System.setProperty(arg.substring(0, index), arg.substring(index + 1));
+        }
+        latencyMs = Long.getLong("load.latency-ms", 50);
+        int maxThreads = Integer.getInteger("load.max-threads", 50);
+        int seconds = Integer.getInteger("load.seconds", 5);
+        // HttpURLConnection 默认每个地址只保留 5 个空闲长连接
+        System.setProperty("http.maxConnections", "1000");
+        int[] levels = Arrays.stream(System.getProperty("load.concurrency", "25,50,100,200,400").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        List<GrantedAuthority> authorities = Collections.singletonList(new GrantedAuthorityImpl("sys:user:view"));
+        JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+
+        List<String> report = new ArrayList<>();
+        for (boolean async : new boolean[]{false, true}) {
+            String mode = async ? "async" : "sync";
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class, SlowController.class)
+                    // 以命令行参数传入, 覆盖 application.properties 中的配置
+                    .run("--server.port=0", "--server.tomcat.max-threads=" + maxThreads
+                            , "--server.tomcat.max-connections=10000", "--web.async.enabled=" + async
+                            , "--logging.level.root=WARN");
+            try {
+                // 应用启动后才加载签名密钥和权限字典
+                String token = JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String url = "http://127.0.0.1:" + port + "/user/profile";
+                for (int concurrency : levels) {
+                    run(url, token, concurrency, 2);
+                    Result result = run(url, token, concurrency, seconds);
+                    String line = String.format("%-5s concurrency=%4d rps=%8.1f p50=%6.1fms p99=%7.1fms errors=%d"
+                            , mode, concurrency, result.rps, result.p50, result.p99, result.errors);
+                    System.out.println(line);
+                    report.add(line);
+                }
+            } finally {
+                context.close();
+            }
+        }
+        System.out.println();
+        System.out.println("latency=" + latencyMs + "ms max-threads=" + maxThreads);
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(String url, String token, int concurrency, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        List<long[]> samples = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                byte[] buffer = new byte[1024];
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (request(url, token, buffer) != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    samples.add(Arrays.copyOf(latencies, count));
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        int total = 0;
+        for (long[] sample : samples) {
+            total += sample.length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] sample : samples) {
+            System.arraycopy(sample, 0, all, offset, sample.length);
+            offset += sample.length;
+        }
+        Arrays.sort(all);
+        return new Result(total / (double) seconds, percentile(all, 0.50), percentile(all, 0.99), errors.get());
+    }
+
+    private static int request(String url, String token, byte[] buffer) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestProperty("Authorization", "Bearer " + token);
+        connection.setConnectTimeout(10_000);
+        connection.setReadTimeout(60_000);
+        int status = connection.getResponseCode();
+        // 读完响应体, 长连接才能复用
+        try (InputStream is = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (is != null) {
+                while (is.read(buffer) >= 0) {
+                    // discard
+                }
+            }
+        }
+        return status;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1_000_000.0;
+    }
+
+    private static final class Result {
+
+        private final double rps;
+
+        private final double p50;
+
+        private final double p99;
+
+        private final long errors;
+
+        Result(double rps, double p50, double p99, long errors) {
+            this.rps = rps;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * 压测接口, 不加 @Controller 以免被组件扫描到, 只在压测时注册
+     */
+    @RequestMapping("/user")
+    public static class SlowController {
+
+        @Autowired
+        private UserService userService;
+
+        @PreAuthorize("hasAuthority('sys:user:view')")
+        @GetMapping("/profile")
+        @ResponseBody
+        public Set<String> profile() throws InterruptedException {
+            Set<String> permissions = userService.findPermissions("admin");
+            // 模拟慢速存储
+            Thread.sleep(latencyMs);
+            return permissions;
+        }
+    }
+}
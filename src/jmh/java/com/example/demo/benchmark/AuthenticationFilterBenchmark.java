@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.JwtTokenUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录状态检查基准测试
+ *
+ * 覆盖按请求解析令牌 (JwtTokenUtils.getAuthenticationFromToken) 和
+ * 完整执行一次 JwtAuthenticationFilter 两条路径
+ *
+ * @author 程思琦
+ * @date 2026/10/18 16:10
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+    private MockHttpServletRequest request;
+
+    private JwtAuthenticationFilter filter;
+
+    @Setup
+    public void setup() {
+        List<GrantedAuthority> authorities = Arrays.asList(new GrantedAuthorityImpl("sys:user:view")
+                , new GrantedAuthorityImpl("sys:user:add"), new GrantedAuthorityImpl("sys:user:edit")
+                , new GrantedAuthorityImpl("sys:user:delete"));
+        JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+        String token = JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+
+        request = new MockHttpServletRequest("GET", "/user/findAll");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter = new JwtAuthenticationFilter(authentication -> authentication, new JwtTokenCache(10000));
+        if (getAuthenticationFromToken() == null) {
+            throw new IllegalStateException("benchmark token is not accepted");
+        }
+    }
+
+    @Benchmark
+    public Authentication getAuthenticationFromToken() {
+        // 上下文非空时会走另一条校验分支, 每次先清空
+        SecurityContextHolder.clearContext();
+        return JwtTokenUtils.getAuthenticationFromToken(request);
+    }
+
+    @Benchmark
+    public Object doFilter() throws IOException, ServletException {
+        // OncePerRequestFilter 会在请求上记录已过滤标记, 每次使用新的请求副本
+        MockHttpServletRequest filterRequest = new MockHttpServletRequest("GET", "/user/findAll");
+        filterRequest.addHeader("Authorization", request.getHeader("Authorization"));
+        filter.doFilter(filterRequest, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.utils.HttpUtils;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpResult;
+import com.example.demo.vo.HttpStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应输出基准测试, 对应登录成功后返回令牌的序列化和写出,
+ * 以及错误结果按请求序列化与预先编码两种写出方式
+ *
+ * MockHttpServletResponse 的输出流逐字节写入并刷新, 与容器的实现差别很大,
+ * 这里换成批量写入的输出流; legacyWrite 按原实现经 getWriter 输出 JSON 字符串, 用于对比
+ *
+ * @author 程思琦
+ * @date 2026/10/18 16:25
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpUtilsBenchmark {
+
+    private JwtAuthenticationToken token;
+
+    @Setup
+    public void setup() {
+        // 与登录成功时返回的对象结构一致, 令牌长度取典型值
+        StringBuilder sb = new StringBuilder(400);
+        for (int i = 0; i < 400; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        token = new JwtAuthenticationToken(null, null, sb.toString());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse legacyWrite() throws IOException {
+        MockHttpServletResponse response = new BufferedResponse();
+        response.setContentType("application/json; charset=utf-8");
+        String json = JSONObject.toJSONString(HttpResult.ok(token));
+        response.getWriter().print(json);
+        response.getWriter().flush();
+        response.getWriter().close();
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse write() throws IOException {
+        MockHttpServletResponse response = new BufferedResponse();
+        HttpUtils.write(response, token);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse writeError() throws IOException {
+        MockHttpServletResponse response = new BufferedResponse();
+        HttpUtils.write(response, HttpStatus.SC_SERVICE_UNAVAILABLE
+                , HttpResult.error(HttpStatus.SC_SERVICE_UNAVAILABLE, "登录请求过多, 请稍后重试"));
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse writeEncodedError() throws IOException {
+        MockHttpServletResponse response = new BufferedResponse();
+        HttpUtils.write(response, EncodedHttpResult.error(HttpStatus.SC_SERVICE_UNAVAILABLE, "登录请求过多, 请稍后重试"));
+        return response;
+    }
+
+    /**
+     * 输出流支持批量写入的模拟响应
+     */
+    private static class BufferedResponse extends MockHttpServletResponse {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+            @Override
+            public void write(int b) {
+                content.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                content.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public byte[] getContentAsByteArray() {
+            return content.size() > 0 ? content.toByteArray() : super.getContentAsByteArray();
+        }
+    }
+}
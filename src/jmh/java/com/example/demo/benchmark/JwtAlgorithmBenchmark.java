@@ -0,0 +1,100 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.HmacJwtKey;
+import com.example.demo.security.JwtKey;
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.security.SignatureJwtKey;
+import com.example.demo.utils.JwsCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各签名算法的签发、验签吞吐量, 用于选择算法
+ *
+ * 载荷与 JwtTokenUtils 签发的令牌大小相近, 只包括签名和 Base64, 不包括 JSON;
+ * verifyPublished 使用从 JWKS 文档还原的只验签密钥, 对应其他实例上的验签
+ *
+ * @author 程思琦
+ * @date 2026/10/19 00:55
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS512", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtKey key;
+
+    private JwtKeyring keyring;
+
+    private JwtKeyring publishedKeyring;
+
+    private byte[] payload;
+
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        switch (algorithm) {
+            case "HS512":
+                key = new HmacJwtKey("bench", algorithm, "benchmark-secret-benchmark-secret".getBytes(StandardCharsets.UTF_8));
+                break;
+            case "ES256": {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                KeyPair pair = generator.generateKeyPair();
+                key = new SignatureJwtKey("bench", algorithm, pair.getPublic(), pair.getPrivate());
+                break;
+            }
+            default: {
+                KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                key = new SignatureJwtKey("bench", algorithm, pair.getPublic(), pair.getPrivate());
+            }
+        }
+        keyring = new JwtKeyring(Collections.singletonList(key), "bench");
+        JwtKey published = key.toJwk() == null ? key : SignatureJwtKey.fromJwk(key.toJwk());
+        publishedKeyring = new JwtKeyring(Collections.singletonList(published), "bench");
+        payload = ("{\"jti\":\"4f1c0f5e-8a0b-4a53-9d0e-3b1f0a6f5c2d\",\"sub\":\"admin\",\"created\":1792334769253"
+                + ",\"authorities\":[{\"authority\":\"sys:user:view\"},{\"authority\":\"sys:user:add\"}"
+                + ",{\"authority\":\"sys:user:edit\"},{\"authority\":\"sys:user:delete\"}],\"exp\":1792377969}")
+                .getBytes(StandardCharsets.UTF_8);
+        token = JwsCodec.sign(key, payload);
+    }
+
+    @Benchmark
+    public String sign() {
+        return JwsCodec.sign(keyring.getSigningKey(), payload);
+    }
+
+    @Benchmark
+    public byte[] verify() {
+        return JwsCodec.verify(keyring, token);
+    }
+
+    @Benchmark
+    public byte[] verifyPublished() {
+        return JwsCodec.verify(publishedKeyring, token);
+    }
+}
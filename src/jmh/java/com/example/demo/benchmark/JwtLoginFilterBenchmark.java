@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.JwtLoginFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录请求体解析基准测试
+ *
+ * AuthenticationManager 直接返回待认证对象, 只测量 attemptAuthentication
+ * 中读取请求体和解析用户名密码的开销, 不包含 BCrypt 校验
+ *
+ * @author 程思琦
+ * @date 2026/10/18 16:20
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtLoginFilterBenchmark {
+
+    private static final byte[] BODY = "{\"username\":\"admin\",\"password\":\"123\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private JwtLoginFilter filter;
+
+    @Setup
+    public void setup() {
+        filter = new JwtLoginFilter(authentication -> authentication);
+    }
+
+    @Benchmark
+    public Authentication attemptAuthentication() {
+        // 请求体输入流只能读取一次, 每次使用新的请求
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setContentType("application/json");
+        request.setContent(BODY);
+        return filter.attemptAuthentication(request, new MockHttpServletResponse());
+    }
+}
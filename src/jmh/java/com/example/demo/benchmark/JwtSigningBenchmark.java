@@ -0,0 +1,128 @@
+package com.example.demo.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.example.demo.security.HmacJwtKey;
+import com.example.demo.security.JwtKey;
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.utils.JwsCodec;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌签名、验签吞吐量基准测试
+ *
+ * jjwt* 方法按原实现调用 jjwt, 每次都重新构造密钥并查找 Mac;
+ * keyring* 方法使用密钥环和每线程预先初始化的 Mac。
+ * *Mac 方法只计算签名, 不包括 JSON 和 Base64, 用于单独比较 Mac 的获取开销;
+ * keyringVerifyRotated 的密钥环中有多个密钥, 令牌由轮换前的密钥签发
+ *
+ * @author 程思琦
+ * @date 2026/10/19 00:15
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private Map<String, Object> claims;
+
+    private JwtKeyring keyring;
+
+    private JwtKeyring rotatedKeyring;
+
+    private String jjwtToken;
+
+    private String keyringToken;
+
+    private byte[] signingInput;
+
+    @Setup
+    public void setup() {
+        claims = new LinkedHashMap<>();
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("sub", "admin");
+        claims.put("created", System.currentTimeMillis());
+        claims.put("authorities", Arrays.asList(Collections.singletonMap("authority", "sys:user:view")
+                , Collections.singletonMap("authority", "sys:user:add")
+                , Collections.singletonMap("authority", "sys:user:edit")
+                , Collections.singletonMap("authority", "sys:user:delete")));
+        claims.put("exp", System.currentTimeMillis() / 1000 + 3600);
+
+        // 与 jjwt 使用相同的 HS512 密钥内容, 早期密钥不能用于签发, 换一个 kid
+        JwtKey legacy = new HmacJwtKey("k0", "HS512", Base64.getDecoder().decode(JwtKeyring.LEGACY_SECRET));
+        keyring = new JwtKeyring(Collections.singletonList(legacy), "k0");
+        rotatedKeyring = new JwtKeyring(Arrays.asList(legacy
+                , new HmacJwtKey("k1", "HS512", "first-rotated-secret".getBytes(StandardCharsets.UTF_8))
+                , new HmacJwtKey("k2", "HS512", "second-rotated-secret".getBytes(StandardCharsets.UTF_8))), "k2");
+
+        jjwtToken = Jwts.builder().setClaims(claims).signWith(SignatureAlgorithm.HS512, JwtKeyring.LEGACY_SECRET)
+                .compact();
+        keyringToken = JwsCodec.sign(legacy, JSON.toJSONBytes(claims));
+        signingInput = keyringToken.substring(0, keyringToken.lastIndexOf('.')).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String jjwtSign() {
+        return Jwts.builder().setClaims(claims).signWith(SignatureAlgorithm.HS512, JwtKeyring.LEGACY_SECRET)
+                .compact();
+    }
+
+    @Benchmark
+    public String keyringSign() {
+        return JwsCodec.sign(keyring.getSigningKey(), JSON.toJSONBytes(claims));
+    }
+
+    @Benchmark
+    public Object jjwtVerify() {
+        return Jwts.parser().setSigningKey(JwtKeyring.LEGACY_SECRET).parseClaimsJws(jjwtToken).getBody();
+    }
+
+    @Benchmark
+    public Object keyringVerify() {
+        return JSON.parseObject(new String(JwsCodec.verify(keyring, keyringToken), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object keyringVerifyRotated() {
+        return JSON.parseObject(new String(JwsCodec.verify(rotatedKeyring, keyringToken), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] jjwtMac() throws GeneralSecurityException {
+        // jjwt 0.9 的 MacSigner 每次签名的做法
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(JwtKeyring.LEGACY_SECRET), "HmacSHA512"));
+        return mac.doFinal(signingInput);
+    }
+
+    @Benchmark
+    public byte[] keyringMac() {
+        return keyring.getSigningKey().sign(signingInput, 0, signingInput.length);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.PermissionDictionary;
+import com.example.demo.utils.JwtTokenUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenUtils 令牌校验基准测试
+ *
+ * legacy* 方法按原实现的调用方式逐次解析令牌 (validateToken 解析两次),
+ * 用于和单次解析的 verifyToken 路径对比 ns/op 以及 -prof gc 下的 alloc/op;
+ * verifyLegacyFormatToken 解析早期格式(权限为 {"authority": "..."} 列表)的令牌, 与紧凑格式对比
+ *
+ * @author 程思琦
+ * @date 2026/10/18 15:40
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilsBenchmark {
+
+    /**
+     * 与 JwtTokenUtils 中保持一致的密钥
+     */
+    private static final String SECRET = "abcdefgh";
+
+    private JwtAuthenticationToken authentication;
+
+    private String token;
+
+    private String legacyFormatToken;
+
+    @Setup
+    public void setup() {
+        List<GrantedAuthority> authorities = Arrays.asList(new GrantedAuthorityImpl("sys:user:view")
+                , new GrantedAuthorityImpl("sys:user:add"), new GrantedAuthorityImpl("sys:user:edit")
+                , new GrantedAuthorityImpl("sys:user:delete"));
+        JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+        authentication = new JwtAuthenticationToken(userDetails, null, authorities, null);
+        JwtTokenUtils.setPermissionDictionary(new PermissionDictionary(1, Arrays.asList("sys:user:view"
+                , "sys:user:add", "sys:user:edit", "sys:user:delete")));
+        token = JwtTokenUtils.generateToken(authentication);
+        Map<String, Object> claims = new HashMap<>(4);
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("sub", "admin");
+        claims.put("created", new Date());
+        claims.put("authorities", authorities);
+        legacyFormatToken = Jwts.builder().setClaims(claims)
+                .setExpiration(new Date(System.currentTimeMillis() + 12 * 60 * 60 * 1000))
+                .signWith(SignatureAlgorithm.HS512, SECRET).compact();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtTokenUtils.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean legacyValidateToken() {
+        // 原实现: getUsernameFromToken 与 isTokenExpired 各解析一次
+        String username = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return username.equals("admin") && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return JwtTokenUtils.validateToken(token, "admin");
+    }
+
+    @Benchmark
+    public Object verifyToken() {
+        return JwtTokenUtils.verifyToken(token);
+    }
+
+    @Benchmark
+    public Object verifyLegacyFormatToken() {
+        return JwtTokenUtils.verifyToken(legacyFormatToken);
+    }
+
+    @Benchmark
+    public String legacyRefreshToken() {
+        // 原实现: 解析 Claims 后直接修改并重新签名
+        Claims claims = legacyClaims(token);
+        claims.put("created", new Date());
+        return Jwts.builder().setClaims(claims)
+                .setExpiration(new Date(System.currentTimeMillis() + 12 * 60 * 60 * 1000))
+                .signWith(SignatureAlgorithm.HS512, SECRET).compact();
+    }
+
+    @Benchmark
+    public String refreshToken() {
+        return JwtTokenUtils.refreshToken(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+}
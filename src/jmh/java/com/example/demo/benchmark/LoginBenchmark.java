@@ -0,0 +1,98 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.User;
+import com.example.demo.security.JwtAuthenticationProvider;
+import com.example.demo.security.RoleHierarchyIndex;
+import com.example.demo.security.UserDetailsServiceImpl;
+import com.example.demo.service.UserService;
+import com.example.demo.service.impl.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整登录认证基准测试 (用户查询 + 密码校验)
+ *
+ * legacyLogin 模拟原 UserServiceImpl 每次查询都重新 BCrypt 编码密码的实现,
+ * login 使用预先计算好密码哈希的用户数据, 一次登录只做一次 BCrypt 校验
+ *
+ * @author 程思琦
+ * @date 2026/10/18 17:50
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private JwtAuthenticationProvider legacyProvider;
+
+    private JwtAuthenticationProvider provider;
+
+    @Setup
+    public void setup() throws IOException {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+
+        UserServiceImpl userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "location", new ClassPathResource("users.json"));
+        ReflectionTestUtils.setField(userService, "rolesLocation", new ClassPathResource("roles.json"));
+        userService.load();
+        provider = new JwtAuthenticationProvider(userDetailsService(userService), passwordEncoder, null);
+
+        UserService legacyUserService = new UserService() {
+            @Override
+            public User findByUsername(String username) {
+                User user = new User();
+                user.setId(1L);
+                user.setUsername("admin");
+                user.setPassword(passwordEncoder.encode("123"));
+                return user;
+            }
+
+            @Override
+            public Set<String> findPermissions(String username) {
+                return Collections.singleton("sys:user:view");
+            }
+        };
+        legacyProvider = new JwtAuthenticationProvider(userDetailsService(legacyUserService), passwordEncoder, null);
+    }
+
+    @Benchmark
+    public Authentication legacyLogin() {
+        return legacyProvider.authenticate(new UsernamePasswordAuthenticationToken("admin", "123"));
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken("admin", "123"));
+    }
+
+    private static UserDetailsServiceImpl userDetailsService(UserService userService) {
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userService", userService);
+        RoleHierarchyIndex roleHierarchyIndex = new RoleHierarchyIndex();
+        roleHierarchyIndex.defineAll(userService.findRoles());
+        ReflectionTestUtils.setField(userDetailsService, "roleHierarchyIndex", roleHierarchyIndex);
+        return userDetailsService;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.demo.controller.UserController;
+import com.example.demo.security.CompiledAuthorizationMetadataSource;
+import com.example.demo.security.CompiledAuthorizationVoter;
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.PermissionMethodSecurityExpressionHandler;
+import com.example.demo.utils.JwtTokenUtils;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.method.DelegatingMethodSecurityMetadataSource;
+import org.springframework.security.access.method.MethodSecurityMetadataSource;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法级授权判断基准测试
+ *
+ * 对 UserController.findAll 上的 @PreAuthorize("hasAuthority('sys:user:view')")
+ * 比较默认 SpEL 流程、位图表达式根的 SpEL 流程与预编译规则三条路径,
+ * 每次调用都包含取元数据和 AccessDecisionManager.decide, 与 MethodSecurityInterceptor 一致
+ *
+ * @author 程思琦
+ * @date 2026/10/18 20:50
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodAuthorizationBenchmark {
+
+    private Authentication authentication;
+
+    private MethodInvocation invocation;
+
+    private MethodSecurityMetadataSource defaultMetadataSource;
+
+    private AccessDecisionManager defaultDecisionManager;
+
+    private MethodSecurityMetadataSource permissionMetadataSource;
+
+    private AccessDecisionManager permissionDecisionManager;
+
+    private MethodSecurityMetadataSource compiledMetadataSource;
+
+    private AccessDecisionManager compiledDecisionManager;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        // 与应用默认日志级别一致, 避免 AffirmativeBased 的 debug 日志计入耗时
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        List<GrantedAuthority> authorities = Arrays.asList(new GrantedAuthorityImpl("sys:user:view")
+                , new GrantedAuthorityImpl("sys:user:add"), new GrantedAuthorityImpl("sys:user:edit")
+                , new GrantedAuthorityImpl("sys:user:delete"));
+        JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+        String token = JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+        authentication = JwtTokenUtils.getAuthenticationFromToken(token);
+        invocation = new SimpleMethodInvocation(new UserController(), UserController.class.getMethod("findAll"));
+
+        DefaultMethodSecurityExpressionHandler defaultHandler = new DefaultMethodSecurityExpressionHandler();
+        defaultMetadataSource = prePostMetadataSource(defaultHandler);
+        defaultDecisionManager = preInvocationDecisionManager(defaultHandler);
+
+        PermissionMethodSecurityExpressionHandler permissionHandler = new PermissionMethodSecurityExpressionHandler();
+        permissionMetadataSource = prePostMetadataSource(permissionHandler);
+        permissionDecisionManager = preInvocationDecisionManager(permissionHandler);
+
+        compiledMetadataSource = delegating(new CompiledAuthorizationMetadataSource());
+        List<AccessDecisionVoter<?>> compiledVoters = new ArrayList<>();
+        compiledVoters.add(new CompiledAuthorizationVoter());
+        compiledVoters.add(new PreInvocationAuthorizationAdviceVoter(new ExpressionBasedPreInvocationAdvice()));
+        compiledDecisionManager = new AffirmativeBased(compiledVoters);
+
+        // 三条路径都应该通过授权
+        defaultDecision();
+        permissionDecision();
+        compiledDecision();
+    }
+
+    private static MethodSecurityMetadataSource prePostMetadataSource(MethodSecurityExpressionHandler handler) {
+        return delegating(new PrePostAnnotationSecurityMetadataSource(
+                new ExpressionBasedAnnotationAttributeFactory(handler)));
+    }
+
+    /**
+     * 与 GlobalMethodSecurityConfiguration 一致, 外层包一层带缓存的 DelegatingMethodSecurityMetadataSource
+     */
+    private static MethodSecurityMetadataSource delegating(MethodSecurityMetadataSource metadataSource) {
+        return new DelegatingMethodSecurityMetadataSource(Collections.singletonList(metadataSource));
+    }
+
+    private static AccessDecisionManager preInvocationDecisionManager(MethodSecurityExpressionHandler handler) {
+        ExpressionBasedPreInvocationAdvice advice = new ExpressionBasedPreInvocationAdvice();
+        advice.setExpressionHandler(handler);
+        List<AccessDecisionVoter<?>> voters = new ArrayList<>();
+        voters.add(new PreInvocationAuthorizationAdviceVoter(advice));
+        return new AffirmativeBased(voters);
+    }
+
+    private Collection<ConfigAttribute> decide(MethodSecurityMetadataSource metadataSource
+            , AccessDecisionManager decisionManager) {
+        Collection<ConfigAttribute> attributes = metadataSource.getAttributes(invocation);
+        decisionManager.decide(authentication, invocation, attributes);
+        return attributes;
+    }
+
+    @Benchmark
+    public Object defaultDecision() {
+        return decide(defaultMetadataSource, defaultDecisionManager);
+    }
+
+    @Benchmark
+    public Object permissionDecision() {
+        return decide(permissionMetadataSource, permissionDecisionManager);
+    }
+
+    @Benchmark
+    public Object compiledDecision() {
+        return decide(compiledMetadataSource, compiledDecisionManager);
+    }
+}
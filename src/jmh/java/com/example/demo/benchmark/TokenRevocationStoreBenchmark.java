@@ -0,0 +1,111 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.InMemoryTokenRevocationStore;
+import com.example.demo.security.MappedTokenRevocationStore;
+import com.example.demo.security.TokenRevocationStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌吊销记录查询基准测试
+ *
+ * 在不同记录数下查询已吊销(命中)和未吊销(未命中)的令牌ID, 对应每次请求的吊销检查,
+ * 分别测试进程内的 InMemoryTokenRevocationStore 和多进程共享的 MappedTokenRevocationStore
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:00
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TokenRevocationStoreBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"1000", "1000000", "10000000"})
+    private int entries;
+
+    @Param({"memory", "mapped"})
+    private String type;
+
+    private TokenRevocationStore store;
+
+    private Path mappedFile;
+
+    private UUID[] revoked;
+
+    private UUID[] active;
+
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        if ("mapped".equals(type)) {
+            // 负载因子 0.5
+            mappedFile = Files.createTempFile("revoked-tokens", ".map");
+            Files.delete(mappedFile);
+            store = new MappedTokenRevocationStore(mappedFile, entries * 2);
+        } else {
+            store = new InMemoryTokenRevocationStore();
+        }
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(12);
+        revoked = new UUID[SAMPLES];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < entries; i++) {
+            UUID tokenId = new UUID(random.nextLong(), random.nextLong());
+            store.revoke(tokenId, expiresAt);
+            if (i < SAMPLES) {
+                revoked[i] = tokenId;
+            }
+        }
+        // 记录数少于样本数时循环使用已吊销的令牌ID
+        for (int i = entries; i < SAMPLES; i++) {
+            revoked[i] = revoked[i % entries];
+        }
+        active = new UUID[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            active[i] = UUID.randomUUID();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (mappedFile != null) {
+            ((MappedTokenRevocationStore) store).close();
+            Files.deleteIfExists(mappedFile);
+        }
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        index = (index + 1) & (SAMPLES - 1);
+        return store.isRevoked(revoked[index]);
+    }
+
+    @Benchmark
+    public boolean activeToken() {
+        index = (index + 1) & (SAMPLES - 1);
+        return store.isRevoked(active[index]);
+    }
+}
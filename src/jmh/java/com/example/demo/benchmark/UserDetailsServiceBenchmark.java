@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.RoleHierarchyIndex;
+import com.example.demo.security.UserDetailsServiceImpl;
+import com.example.demo.service.impl.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户认证信息加载基准测试
+ *
+ * @author 程思琦
+ * @date 2026/10/18 16:30
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsServiceBenchmark {
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Setup
+    public void setup() throws IOException {
+        UserServiceImpl userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "location", new ClassPathResource("users.json"));
+        ReflectionTestUtils.setField(userService, "rolesLocation", new ClassPathResource("roles.json"));
+        userService.load();
+        userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userService", userService);
+        RoleHierarchyIndex roleHierarchyIndex = new RoleHierarchyIndex();
+        roleHierarchyIndex.defineAll(userService.findRoles());
+        ReflectionTestUtils.setField(userDetailsService, "roleHierarchyIndex", roleHierarchyIndex);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername("admin");
+    }
+}
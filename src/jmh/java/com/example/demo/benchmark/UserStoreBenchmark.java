@@ -0,0 +1,111 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import com.example.demo.service.impl.AppendLogUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 追加日志用户存储查询基准测试
+ *
+ * 在不同用户数下按用户名查询用户和直接权限, 对应登录时 UserDetailsServiceImpl 的两次查询,
+ * 用户分布在 64 个角色上, 日志写好后重新打开, 包含重建索引的过程
+ *
+ * @author 程思琦
+ * @date 2026/10/19 07:20
+ * @description
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserStoreBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private static final String PASSWORD = "$2a$10$8TICPTHzJKfs8g6d9YiA1OZGqFazF6mDEZhjbhb1/DyKp.W4wH0Ja";
+
+    @Param({"1000", "1000000", "10000000"})
+    private int users;
+
+    private AppendLogUserService store;
+
+    private Path logFile;
+
+    private String[] usernames;
+
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        logFile = Files.createTempFile("users", ".log");
+        Files.delete(logFile);
+        try (AppendLogUserService writer = new AppendLogUserService(logFile, false)) {
+            for (int role = 0; role < 64; role++) {
+                writer.saveRole(new Role("role" + role, null, Collections.singleton("sys:role" + role + ":view")));
+            }
+            List<AppendLogUserService.UserRecord> batch = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                User user = new User();
+                user.setId((long) i);
+                user.setUsername("user" + i);
+                user.setPassword(PASSWORD);
+                batch.add(new AppendLogUserService.UserRecord(user, Collections.singletonList("role" + (i & 63))
+                        , null));
+                if (batch.size() == 10000) {
+                    writer.saveAll(batch);
+                    batch.clear();
+                }
+            }
+            writer.saveAll(batch);
+        }
+        store = new AppendLogUserService(logFile, false);
+
+        usernames = new String[SAMPLES];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SAMPLES; i++) {
+            usernames[i] = "user" + random.nextInt(users);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public User findByUsername() {
+        index = (index + 1) & (SAMPLES - 1);
+        return store.findByUsername(usernames[index]);
+    }
+
+    @Benchmark
+    public Set<String> findPermissions() {
+        index = (index + 1) & (SAMPLES - 1);
+        return store.findPermissions(usernames[index]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.config;
+
+import com.example.demo.utils.AsyncRequestMappingHandlerAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 02:15
+ * @description 异步执行模式配置
+ *
+ * 1、web.async.enabled=true 时开启, 匹配 web.async.paths 的接口在独立线程池中执行控制器方法,
+ *    等待慢速存储期间不占用容器线程, 其他接口不受影响
+ * 2、线程池队列已满时由容器线程直接执行, 退化为同步模式, 不拒绝请求
+ * 3、执行超时返回 503
+ **/
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "web.async.enabled", havingValue = "true")
+public class AsyncExecutionConfig implements WebMvcConfigurer {
+
+    @Value("${web.async.paths:/user/**}")
+    private String[] asyncPaths;
+
+    @Value("${web.async.pool-size:256}")
+    private int poolSize;
+
+    @Value("${web.async.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${web.async.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Bean
+    public ThreadPoolTaskExecutor asyncRequestExecutor(){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("request-async-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(asyncRequestExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+
+    @Bean
+    public WebMvcRegistrations asyncWebMvcRegistrations(){
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new AsyncRequestMappingHandlerAdapter(Arrays.asList(asyncPaths));
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.security.JwtKeyringLoader;
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.time.Instant;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 00:10
+ * @description 令牌签名密钥配置
+ *
+ * 1、jwt.signing.keys 配置 "kid:Base64密钥" 列表, jwt.signing.keystore.location 配置本地密钥库,
+ *    两者可以同时使用, 签发的令牌头部携带 kid, 验签时按 kid 选择密钥
+ * 2、配置了密钥库时定时检查文件变化, 向密钥库添加新条目即完成轮换, 不需要重启
+ * 3、jwt.signing.legacy-enabled=true 时在过渡期内继续接受轮换之前签发的、没有 kid 的令牌,
+ *    必须同时配置切换时间 jwt.signing.legacy-accept-until, 过期时间晚于切换时间加12小时的早期令牌一律拒绝;
+ *    早期密钥已经公开, 不会用于签发, 没有配置其他密钥时启动失败
+ * 4、密钥库中的 EC P-256 / Ed25519 私钥条目按 ES256 / EdDSA 签发, 公钥通过 /.well-known/jwks.json 发布;
+ *    其他实例配置 jwt.signing.jwks-uri 获取公钥, 只验签, 不需要共享密钥
+ **/
+@Configuration
+public class JwtKeyConfig {
+
+    @Value("${jwt.signing.algorithm:HS512}")
+    private String algorithm;
+
+    @Value("${jwt.signing.keys:}")
+    private String keys;
+
+    @Value("${jwt.signing.active-kid:}")
+    private String activeKid;
+
+    @Value("${jwt.signing.legacy-enabled:false}")
+    private boolean legacyEnabled;
+
+    /**
+     * 早期令牌的切换时间, ISO-8601 格式, 如 2026-10-19T00:00:00Z
+     */
+    @Value("${jwt.signing.legacy-accept-until:}")
+    private String legacyAcceptUntil;
+
+    @Value("${jwt.signing.keystore.location:}")
+    private String keyStoreLocation;
+
+    @Value("${jwt.signing.keystore.type:JCEKS}")
+    private String keyStoreType;
+
+    @Value("${jwt.signing.keystore.password:}")
+    private String keyStorePassword;
+
+    @Value("${jwt.signing.keystore.reload-interval-seconds:30}")
+    private long reloadIntervalSeconds;
+
+    @Value("${jwt.signing.jwks-uri:}")
+    private String jwksUri;
+
+    /**
+     * JwtTokenUtils 是静态工具类, 直接使用其中的密钥环
+     */
+    @Bean
+    public JwtKeyring jwtKeyring(){
+        return JwtTokenUtils.getKeyring();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public JwtKeyringLoader jwtKeyringLoader(){
+        long legacyCutover = legacyAcceptUntil.trim().isEmpty() ? 0L
+                : Instant.parse(legacyAcceptUntil.trim()).toEpochMilli();
+        return new JwtKeyringLoader(jwtKeyring(), algorithm, keys, activeKid, legacyEnabled, legacyCutover
+                , keyStoreLocation.isEmpty() ? null : Paths.get(keyStoreLocation), keyStoreType, keyStorePassword
+                , reloadIntervalSeconds, jwksUri);
+    }
+}
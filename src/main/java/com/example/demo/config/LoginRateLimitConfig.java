@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import com.example.demo.security.LoginRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 04:20
+ * @description 登录限流配置
+ *
+ * 1、login.rate-limit.enabled=true(默认) 时启用, 关闭后登录过滤器和登录接口不做限流
+ * 2、按客户端 IP 和用户名分别限制单位时间内的登录尝试次数, 超出后返回 429
+ * 3、同一用户名在失败窗口内失败次数超出上限后锁定, 锁定期间的尝试直接返回 429
+ * 4、客户端 IP 取自 request.getRemoteAddr(), 部署在反向代理之后时需要容器按代理头还原真实地址
+ **/
+@Configuration
+@ConditionalOnProperty(name = "login.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class LoginRateLimitConfig {
+
+    @Value("${login.rate-limit.username.capacity:10}")
+    private int usernameCapacity;
+
+    @Value("${login.rate-limit.username.period-seconds:60}")
+    private long usernamePeriodSeconds;
+
+    @Value("${login.rate-limit.client.capacity:30}")
+    private int clientCapacity;
+
+    @Value("${login.rate-limit.client.period-seconds:60}")
+    private long clientPeriodSeconds;
+
+    @Value("${login.rate-limit.lockout.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${login.rate-limit.lockout.failure-window-seconds:300}")
+    private long failureWindowSeconds;
+
+    @Value("${login.rate-limit.lockout.duration-seconds:900}")
+    private long lockoutSeconds;
+
+    @Value("${login.rate-limit.maximum-size:100000}")
+    private int maximumSize;
+
+    @Bean
+    public LoginRateLimiter loginRateLimiter(){
+        return new LoginRateLimiter(usernameCapacity, TimeUnit.SECONDS.toMillis(usernamePeriodSeconds)
+                , clientCapacity, TimeUnit.SECONDS.toMillis(clientPeriodSeconds), maxFailures
+                , TimeUnit.SECONDS.toMillis(failureWindowSeconds), TimeUnit.SECONDS.toMillis(lockoutSeconds)
+                , maximumSize);
+    }
+}
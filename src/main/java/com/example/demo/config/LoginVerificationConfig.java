@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import com.example.demo.security.LoginVerificationExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/18 17:05
+ * @description 登录密码校验配置
+ *
+ * 1、BCrypt 工作因子可配置, 默认 10, 取值范围 4~31, 每加 1 校验耗时翻倍
+ * 2、密码校验线程池大小和队列长度可配置, 线程数默认取 CPU 核数
+ **/
+@Configuration
+public class LoginVerificationConfig {
+
+    @Value("${login.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${login.verification.pool-size:0}")
+    private int poolSize;
+
+    @Value("${login.verification.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(){
+        return new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public LoginVerificationExecutor loginVerificationExecutor(){
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new LoginVerificationExecutor(threads, queueCapacity);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.config;
+
+import com.example.demo.security.CompiledAuthorizationMetadataSource;
+import com.example.demo.security.CompiledAuthorizationVoter;
+import com.example.demo.security.PermissionMethodSecurityExpressionHandler;
+import com.example.demo.security.TimedAccessDecisionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.method.MethodSecurityMetadataSource;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/18 20:00
+ * @description 方法级安全配置
+ *
+ * --@EnableGlobalMethodSecurity(prePostEnabled = true) 开启 @PreAuthorize 等注解,
+ * 并把表达式处理器替换为 PermissionMethodSecurityExpressionHandler,
+ * hasAuthority/hasAnyAuthority 在权限位图上判断
+ *
+ * 简单的 hasAuthority/hasAnyAuthority/hasRole/hasAnyRole 表达式在启动时由
+ * CompiledAuthorizationMetadataSource 预编译, 由 CompiledAuthorizationVoter 直接判断,
+ * 只有复杂表达式才走 SpEL, 两种情况的授权耗时都由 TimedAccessDecisionManager 记入 SecurityMetrics
+ **/
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    protected MethodSecurityExpressionHandler createExpressionHandler() {
+        PermissionMethodSecurityExpressionHandler expressionHandler = new PermissionMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        return expressionHandler;
+    }
+
+    @Override
+    protected MethodSecurityMetadataSource customMethodSecurityMetadataSource() {
+        return new CompiledAuthorizationMetadataSource();
+    }
+
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        // 在默认投票器前加入预编译规则投票器, 其余投票器对预编译规则弃权
+        AffirmativeBased defaultManager = (AffirmativeBased) super.accessDecisionManager();
+        List<AccessDecisionVoter<?>> decisionVoters = new ArrayList<>();
+        decisionVoters.add(new CompiledAuthorizationVoter());
+        decisionVoters.addAll(defaultManager.getDecisionVoters());
+        return new TimedAccessDecisionManager(new AffirmativeBased(decisionVoters));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.example.demo.security.PermissionDictionary;
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 01:35
+ * @description 令牌权限字典配置
+ *
+ * 1、字典文件(默认 classpath:permission-dictionary.json)按顺序列出权限标识, 令牌中只写出序号位图
+ * 2、新增权限只能追加到末尾; 删除或调整顺序时必须增加 version, 旧版本令牌失效, 需要重新登录
+ * 3、所有签发和验签令牌的实例必须使用同一份字典
+ **/
+@Configuration
+public class PermissionDictionaryConfig {
+
+    @Value("${jwt.permission-dictionary.location:classpath:permission-dictionary.json}")
+    private Resource location;
+
+    @Bean
+    public PermissionDictionary permissionDictionary() throws IOException {
+        String json;
+        try (InputStream is = location.getInputStream()) {
+            json = StreamUtils.copyToString(is, StandardCharsets.UTF_8);
+        }
+        JSONObject document = JSON.parseObject(json);
+        PermissionDictionary dictionary = new PermissionDictionary(document.getIntValue("version")
+                , document.getJSONArray("permissions").toJavaList(String.class));
+        JwtTokenUtils.setPermissionDictionary(dictionary);
+        return dictionary;
+    }
+}
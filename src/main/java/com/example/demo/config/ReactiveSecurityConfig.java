@@ -0,0 +1,149 @@
+package com.example.demo.config;
+
+import com.example.demo.security.HandlerMethodAuthorizationManager;
+import com.example.demo.security.JwtLoginServerAuthenticationConverter;
+import com.example.demo.security.JwtLoginWebFilter;
+import com.example.demo.security.JwtLogoutHandler;
+import com.example.demo.security.JwtReactiveAuthenticationManager;
+import com.example.demo.security.JwtReactiveLoginAuthenticationManager;
+import com.example.demo.security.JwtServerAuthenticationConverter;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.security.LoginVerificationExecutor;
+import com.example.demo.security.ReactiveUserDetailsServiceAdapter;
+import com.example.demo.security.TokenRevocationStore;
+import com.example.demo.utils.ServerHttpUtils;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.logout.HttpStatusReturningServerLogoutSuccessHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 03:40
+ * @description reactive(WebFlux) 安全配置
+ *
+ * 使用 reactive 配置文件(--spring.profiles.active=reactive)启动时生效, 代替 WebSecurityConfig,
+ * 令牌格式、权限模型和接口与 servlet 配置相同, 少量事件循环线程即可处理大量并发连接:
+ * 1、访问路径URL的授权策略与 WebSecurityConfig 相同, 其余请求按控制器方法上的 @PreAuthorize 授权
+ * 2、JwtLoginWebFilter 处理 POST /login, 用户查询和 BCrypt 校验都不在事件循环线程上执行, 限流规则与 JwtLoginFilter 相同
+ * 3、JwtServerAuthenticationConverter 和 JwtReactiveAuthenticationManager 代替 JwtAuthenticationFilter,
+ *    令牌无效时按未登录继续处理
+ * 4、POST /logout 吊销请求携带的令牌
+ * 5、无状态, 不保存 WebSession, 未登录和无权限都返回 403
+ **/
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginVerificationExecutor loginVerificationExecutor;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    /**
+     * 登录限流, login.rate-limit.enabled=false 时为空
+     */
+    @Autowired(required = false)
+    private LoginRateLimiter loginRateLimiter;
+
+    /**
+     * 令牌验证缓存最大条目数
+     */
+    @Value("${jwt.cache.maximum-size:10000}")
+    private int tokenCacheMaximumSize;
+
+    @Value("${login.body.max-bytes:4096}")
+    private int loginBodyMaxBytes;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http
+            , RequestMappingHandlerMapping requestMappingHandlerMapping) {
+        // 禁用 csrf; 跨域由 WebFluxConfig 中的配置处理
+        http.csrf().disable()
+                .httpBasic().disable()
+                .formLogin().disable()
+                // 无状态: 登录状态每次请求由令牌重建
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange()
+                // 跨域预检请求
+                .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // 登录URL
+                .pathMatchers("/login").permitAll()
+                // 刷新令牌, 请求携带的是刷新令牌而不是访问令牌
+                .pathMatchers(HttpMethod.POST, "/token/refresh").permitAll()
+                // 签名公钥
+                .pathMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                // 监控端点, 只在绑定本机地址的管理端口上暴露, 见 management.server.*
+                .pathMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                // 其它所有请求需要身份认证, 并按控制器方法上的 @PreAuthorize 授权
+                .anyExchange().access(new HandlerMethodAuthorizationManager(requestMappingHandlerMapping))
+                .and()
+                .exceptionHandling()
+                .authenticationEntryPoint((exchange, e) -> ServerHttpUtils.write(exchange.getResponse()
+                        , EncodedHttpResult.error(HttpStatus.SC_FORBIDDEN, "没有访问权限")))
+                .accessDeniedHandler((exchange, e) -> ServerHttpUtils.write(exchange.getResponse()
+                        , EncodedHttpResult.error(HttpStatus.SC_FORBIDDEN, "没有访问权限")))
+                .and()
+                // 退出登录处理器, 退出时吊销请求携带的令牌
+                .logout()
+                .logoutHandler(new JwtLogoutHandler(tokenRevocationStore, jwtTokenCache()))
+                .logoutSuccessHandler(new HttpStatusReturningServerLogoutSuccessHandler());
+
+        // 登录认证流程过滤器
+        http.addFilterAt(new JwtLoginWebFilter(new JwtLoginServerAuthenticationConverter(loginBodyMaxBytes)
+                , new JwtReactiveLoginAuthenticationManager(reactiveUserDetailsService(), passwordEncoder
+                , loginVerificationExecutor), loginRateLimiter), SecurityWebFiltersOrder.FORM_LOGIN);
+
+        // 访问控制时登录状态检查过滤器
+        http.addFilterAt(jwtAuthenticationWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION);
+        return http.build();
+    }
+
+    private AuthenticationWebFilter jwtAuthenticationWebFilter() {
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(
+                new JwtReactiveAuthenticationManager(jwtTokenCache(), tokenRevocationStore));
+        filter.setServerAuthenticationConverter(new JwtServerAuthenticationConverter());
+        // 令牌无效时按未登录继续处理, 由授权决定是否拒绝, 与 JwtAuthenticationFilter 一致
+        filter.setAuthenticationFailureHandler((webFilterExchange, e) -> webFilterExchange.getChain()
+                .filter(webFilterExchange.getExchange()));
+        return filter;
+    }
+
+    /**
+     * 用户查询在 elastic 调度器上执行
+     */
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(){
+        return new ReactiveUserDetailsServiceAdapter(userDetailsService, Schedulers.elastic());
+    }
+
+    @Bean
+    public JwtTokenCache jwtTokenCache(){
+        return new JwtTokenCache(tokenCacheMaximumSize);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import com.example.demo.security.SecurityMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 09:55
+ * @description 安全链路指标配置
+ *
+ * 1、security.metrics.enabled=true 时记录令牌检查、令牌验签、BCrypt 密码校验、用户查询和 @PreAuthorize 授权的耗时,
+ *    以及按原因(expired、bad_signature、malformed、missing)统计的令牌校验失败次数
+ * 2、计时器发布百分位直方图, 由本机管理端口上的 /actuator/prometheus 抓取, 见 management.server.*
+ * 3、未启用时各处使用 SecurityMetrics.NOOP, 不读取时钟也不更新计数
+ **/
+@Configuration
+@ConditionalOnProperty(name = "security.metrics.enabled", havingValue = "true")
+public class SecurityMetricsConfig {
+
+    @Bean
+    public SecurityMetrics securityMetrics(MeterRegistry meterRegistry){
+        SecurityMetrics metrics = new SecurityMetrics(meterRegistry);
+        // 过滤器和 JwtTokenUtils 等静态入口通过 SecurityMetrics.get() 取得, 容器关闭时由 close() 卸载
+        SecurityMetrics.install(metrics);
+        return metrics;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import com.example.demo.security.JwtTokenRefresher;
+import com.example.demo.security.TokenRevocationStore;
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 06:05
+ * @description 令牌刷新配置
+ *
+ * 1、登录时与访问令牌一起签发刷新令牌, 有效期 jwt.refresh.expire-seconds, 默认7天
+ * 2、POST /token/refresh 用刷新令牌换取新的令牌对, 旧刷新令牌被吊销
+ * 3、令牌对签发后 jwt.refresh.threshold-seconds 内的重复刷新直接返回同一对令牌, 不再签名
+ **/
+@Configuration
+public class TokenRefreshConfig {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Value("${jwt.refresh.expire-seconds:604800}")
+    private long expireSeconds;
+
+    @Value("${jwt.refresh.threshold-seconds:60}")
+    private long thresholdSeconds;
+
+    @Value("${jwt.refresh.cache.maximum-size:10000}")
+    private int cacheMaximumSize;
+
+    @Bean
+    public JwtTokenRefresher jwtTokenRefresher(){
+        JwtTokenUtils.setRefreshExpireTime(TimeUnit.SECONDS.toMillis(expireSeconds));
+        return new JwtTokenRefresher(userDetailsService, tokenRevocationStore
+                , TimeUnit.SECONDS.toMillis(thresholdSeconds), cacheMaximumSize);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import com.example.demo.security.InMemoryTokenRevocationStore;
+import com.example.demo.security.MappedTokenRevocationStore;
+import com.example.demo.security.TokenRevocationSnapshotter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/18 22:50
+ * @description 令牌吊销配置
+ *
+ * 1、退出登录时吊销令牌, 吊销记录保留到令牌过期为止
+ * 2、jwt.revocation.store=memory(默认) 时记录保存在本实例内存中,
+ *    配置了 jwt.revocation.snapshot-location 时定时写入快照文件, 启动时加载
+ * 3、jwt.revocation.store=mapped 时记录保存在内存映射文件中, 同一台主机上映射同一文件的实例共享吊销记录
+ **/
+@Configuration
+public class TokenRevocationConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "memory", matchIfMissing = true)
+    static class InMemoryStoreConfig {
+
+        @Value("${jwt.revocation.initial-capacity:1024}")
+        private int initialCapacity;
+
+        @Value("${jwt.revocation.snapshot-location:}")
+        private String snapshotLocation;
+
+        @Value("${jwt.revocation.snapshot-interval-seconds:60}")
+        private long snapshotIntervalSeconds;
+
+        @Bean
+        public InMemoryTokenRevocationStore tokenRevocationStore(){
+            return new InMemoryTokenRevocationStore(initialCapacity);
+        }
+
+        @Bean(initMethod = "start", destroyMethod = "shutdown")
+        @ConditionalOnProperty("jwt.revocation.snapshot-location")
+        public TokenRevocationSnapshotter tokenRevocationSnapshotter(){
+            return new TokenRevocationSnapshotter(tokenRevocationStore(), Paths.get(snapshotLocation)
+                    , snapshotIntervalSeconds);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "mapped")
+    static class MappedStoreConfig {
+
+        @Value("${jwt.revocation.mapped-file:data/revoked-tokens.map}")
+        private String mappedFile;
+
+        @Value("${jwt.revocation.mapped-capacity:1048576}")
+        private int mappedCapacity;
+
+        @Bean(destroyMethod = "close")
+        public MappedTokenRevocationStore tokenRevocationStore() throws IOException {
+            return new MappedTokenRevocationStore(Paths.get(mappedFile), mappedCapacity);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import com.example.demo.security.CachedUserDetailsService;
+import com.example.demo.service.UserService;
+import com.example.demo.service.impl.CachedUserService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/18 18:35
+ * @description 用户缓存配置
+ *
+ * 在用户存储(见 UserStoreConfig)和 UserDetailsServiceImpl 外面包一层缓存, 并标记为 @Primary,
+ * 按类型注入 UserService、UserDetailsService 的地方拿到的都是带缓存的实现
+ **/
+@Configuration
+public class UserCacheConfig {
+
+    @Value("${user.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${user.cache.negative-ttl-seconds:30}")
+    private long negativeTtlSeconds;
+
+    @Value("${user.cache.maximum-size:10000}")
+    private int maximumSize;
+
+    @Bean
+    @Primary
+    public CachedUserService cachedUserService(@Qualifier("userStore") UserService userService){
+        return new CachedUserService(userService, ttlSeconds * 1000, negativeTtlSeconds * 1000, maximumSize);
+    }
+
+    @Bean
+    @Primary
+    public CachedUserDetailsService cachedUserDetailsService(
+            @Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService){
+        return new CachedUserDetailsService(userDetailsService, ttlSeconds * 1000, negativeTtlSeconds * 1000
+                , maximumSize);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.config;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import com.example.demo.security.RoleHierarchyIndex;
+import com.example.demo.service.UserService;
+import com.example.demo.service.impl.AppendLogUserService;
+import com.example.demo.service.impl.UserServiceImpl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 07:00
+ * @description 用户存储配置
+ *
+ * 1、user.store.type=json(默认) 时启动时从用户数据文件加载全部用户, 只读
+ * 2、user.store.type=log 时用户保存在追加日志文件中, 内存中只有哈希索引, 支持千万级用户和批量写入;
+ *    日志为空时从用户数据文件导入一次
+ *
+ * 存储以 userStore 为名注册, UserCacheConfig 在外面包一层缓存;
+ * 启动时从存储读取全部角色定义, 在 RoleHierarchyIndex 中预先计算每个角色的权限闭包;
+ * 追加日志存储的角色变更同步更新同一个 RoleHierarchyIndex
+ **/
+@Configuration
+public class UserStoreConfig {
+
+    @Bean
+    public RoleHierarchyIndex roleHierarchyIndex(@Qualifier("userStore") UserService userStore){
+        RoleHierarchyIndex roleHierarchyIndex = new RoleHierarchyIndex();
+        roleHierarchyIndex.defineAll(userStore.findRoles());
+        if (userStore instanceof AppendLogUserService) {
+            ((AppendLogUserService) userStore).setRoleHierarchyIndex(roleHierarchyIndex);
+        }
+        return roleHierarchyIndex;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "user.store.type", havingValue = "json", matchIfMissing = true)
+    static class JsonStoreConfig {
+
+        @Bean
+        public UserServiceImpl userStore(){
+            return new UserServiceImpl();
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "user.store.type", havingValue = "log")
+    static class LogStoreConfig {
+
+        /**
+         * 每批导入的用户数
+         */
+        private static final int IMPORT_BATCH_SIZE = 10000;
+
+        @Value("${user.store.log-file:data/users.log}")
+        private String logFile;
+
+        @Value("${user.store.log-sync:true}")
+        private boolean sync;
+
+        @Value("${user.store.location:classpath:users.json}")
+        private Resource location;
+
+        @Value("${user.store.roles-location:classpath:roles.json}")
+        private Resource rolesLocation;
+
+        @Bean(destroyMethod = "close")
+        public AppendLogUserService userStore() throws IOException {
+            AppendLogUserService store = new AppendLogUserService(Paths.get(logFile), sync);
+            try {
+                if (store.size() == 0 && store.findRoles().isEmpty()) {
+                    importRoles(store);
+                    importUsers(store);
+                }
+            } catch (IOException | RuntimeException e) {
+                store.close();
+                throw e;
+            }
+            return store;
+        }
+
+        /**
+         * 从角色数据文件导入角色定义
+         */
+        private void importRoles(AppendLogUserService store) throws IOException {
+            if (!rolesLocation.exists()) {
+                return;
+            }
+            JSONArray records = JSON.parseArray(read(rolesLocation));
+            for (int i = 0; i < records.size(); i++) {
+                JSONObject record = records.getJSONObject(i);
+                store.saveRole(new Role(record.getString("name"), strings(record.getJSONArray("parents"))
+                        , strings(record.getJSONArray("permissions"))));
+            }
+        }
+
+        /**
+         * 从用户数据文件导入, 记录中的 roles 为可选的角色列表
+         */
+        private void importUsers(AppendLogUserService store) throws IOException {
+            if (!location.exists()) {
+                return;
+            }
+            JSONArray records = JSON.parseArray(read(location));
+            List<AppendLogUserService.UserRecord> batch = new ArrayList<>();
+            for (int i = 0; i < records.size(); i++) {
+                JSONObject record = records.getJSONObject(i);
+                User user = new User();
+                user.setId(record.getLong("id"));
+                user.setUsername(record.getString("username"));
+                user.setPassword(record.getString("password"));
+                batch.add(new AppendLogUserService.UserRecord(user, strings(record.getJSONArray("roles"))
+                        , strings(record.getJSONArray("permissions"))));
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    store.saveAll(batch);
+                    batch.clear();
+                }
+            }
+            store.saveAll(batch);
+        }
+
+        private static String read(Resource resource) throws IOException {
+            try (InputStream is = resource.getInputStream()) {
+                return StreamUtils.copyToString(is, StandardCharsets.UTF_8);
+            }
+        }
+
+        private static Set<String> strings(JSONArray array) {
+            return array == null ? Collections.emptySet() : new LinkedHashSet<>(array.toJavaList(String.class));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import com.example.demo.utils.EncodedHttpResultEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/19 03:40
+ * @description WebFlux 配置类, reactive 配置文件下代替 WebMvcConfig 和 CorsConfig
+ *
+ * 1、使用 Netty, servlet 依赖同时存在时 Spring Boot 默认选择 Tomcat
+ * 2、注册 EncodedHttpResultEncoder, 控制器返回的预先编码结果信息直接输出字节
+ * 3、CORS 跨域配置与 CorsConfig 相同
+ **/
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(){
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().encoder(new EncodedHttpResultEncoder());
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        // 允许跨域访问的路径
+        registry.addMapping("/**")
+                // 允许跨域访问的源
+                .allowedOrigins("*")
+                // 允许请求方法
+                .allowedMethods("POST","GET","PUT","OPTIONS","DELETE")
+                // 预检时间间隔
+                .maxAge(168000)
+                // 允许头部设置
+                .allowedHeaders("*")
+                // 是否发送cookie
+                .allowCredentials(true);
+    }
+}
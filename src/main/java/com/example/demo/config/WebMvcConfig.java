@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.utils.EncodedHttpResultMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * @author 程思琦
+ * @date 2026/10/18 21:50
+ * @description Spring MVC 配置类
+ *
+ * 注册 EncodedHttpResultMessageConverter, 控制器返回的预先编码结果信息直接输出字节
+ **/
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new EncodedHttpResultMessageConverter());
+    }
+}
@@ -3,20 +3,31 @@ package com.example.demo.config;
 import com.example.demo.security.JwtAuthenticationFilter;
 import com.example.demo.security.JwtAuthenticationProvider;
 import com.example.demo.security.JwtLoginFilter;
+import com.example.demo.security.JwtLogoutHandler;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.security.LoginVerificationExecutor;
+import com.example.demo.security.RequestPathClassifier;
+import com.example.demo.security.TokenRevocationStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
 
+import static com.example.demo.security.RequestPathClassifier.permitAll;
+
 /**
  *
  * Authentication   认证
@@ -39,12 +50,15 @@ import org.springframework.security.web.authentication.logout.HttpStatusReturnin
  * 2、指定了登录认证流程过滤器JwtLoginFilter,由它来触发登录认证
  * 3、指定了自定义身份认证组件JwtAuthenticationProvider,并注入UserDetailsService
  * 4、指定了访问控制过滤器JwtAuthenticationFilter,在授权时解析令牌和设置登录状态
- * 5、指定了退出登录处理器,因为是前后端分离,防止内置的登录处理器在后台进行跳转
+ * 5、指定了退出登录处理器,因为是前后端分离,防止内置的登录处理器在后台进行跳转, 退出时吊销令牌
+ * 6、无状态会话策略, 登录状态只来自请求携带的令牌, 不创建 HttpSession
+ * 7、登录认证流程过滤器按客户端 IP 和用户名限流, 见 LoginRateLimitConfig
+ * 8、免登录路径在启动时编译成 RequestPathClassifier, 这些路径上的请求不解析令牌
  *
  *
- * Spring Security默认是禁用注解的，想要开启注解，需要在继承
- * WebSecurityConfigurerAdapter的类上加 @EnableGlobalMethodSecurity注解来判断
- * 用户对某个控制层的方法是否具有访问权限
+ * Spring Security默认是禁用注解的，想要开启注解，需要在配置类上加
+ * --@EnableGlobalMethodSecurity注解来判断用户对某个控制层的方法是否具有访问权限,
+ * 方法级安全配置见 MethodSecurityConfig
  *
  * --@EnableGlobalMethodSecurity(prePostEnabled = true) 使用表达式时间方法级别的安全性 有4个注解可用
  *  --@PreAuthorize 在方法调用之前,基于表达式的计算结果来限制对方法的访问
@@ -54,16 +68,41 @@ import org.springframework.security.web.authentication.logout.HttpStatusReturnin
  **/
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginVerificationExecutor loginVerificationExecutor;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    /**
+     * 登录限流, login.rate-limit.enabled=false 时为空
+     */
+    @Autowired(required = false)
+    private LoginRateLimiter loginRateLimiter;
+
+    /**
+     * 令牌验证缓存最大条目数
+     */
+    @Value("${jwt.cache.maximum-size:10000}")
+    private int tokenCacheMaximumSize;
+
+    @Value("${login.body.max-bytes:4096}")
+    private int loginBodyMaxBytes;
+
     @Override
     public void configure(AuthenticationManagerBuilder auth) {
         // 使用自定义登录身份认证组件
-        auth.authenticationProvider(new JwtAuthenticationProvider(userDetailsService));
+        auth.authenticationProvider(new JwtAuthenticationProvider(userDetailsService, passwordEncoder
+                , loginVerificationExecutor));
     }
 
     @Override
@@ -71,33 +110,60 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         // 禁用 csrf, 由于使用的是JWT, 我们这里不需要csrf
         http.cors().and().csrf().disable()
                 .authorizeRequests()
-                // 跨域预检请求
-                .antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                // 登录URL
-                .antMatchers("/login").permitAll()
-                // swagger
-                .antMatchers("/swagger**/**").permitAll()
-                .antMatchers("/webjars/**").permitAll()
-                .antMatchers("/v2/**").permitAll()
+                // 免登录路径, 见 requestPathClassifier
+                .requestMatchers(requestPathClassifier()).permitAll()
                 // 其它所有请求需要身份认证
                 .anyRequest().authenticated();
 
-        // 退出登录处理器
-        http.logout().logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler());
+        // 无状态: 登录状态每次请求由令牌重建, 不创建也不读写 HttpSession, 请求结束时清空上下文
+        http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+
+        // 退出登录处理器, 退出时吊销请求携带的令牌
+        http.logout().addLogoutHandler(new JwtLogoutHandler(tokenRevocationStore, jwtTokenCache()))
+                .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler());
 
         /**
          * 注意： 如果使用LoginController 登录控制器触发登录认证操作, 需要禁用登录认证过滤器 JwtLoginFilter ,
          * 即将 WebSecurityConfig 中的以下配置项注释即可, 否则访问LoginController中的登录接口会被过滤拦截, 执行不会进入LoginController 中的登录接口
          */
         // 开启登录认证流程过滤器, 如果使用LoginController的login接口, 需要注释掉此过滤器，根据使用习惯二选一即可
-        http.addFilterBefore(new JwtLoginFilter(authenticationManager()),
+        http.addFilterBefore(new JwtLoginFilter(authenticationManager(), loginBodyMaxBytes, loginRateLimiter),
                 UsernamePasswordAuthenticationFilter.class);
 
         // 访问控制时登录状态检查过滤器
-        http.addFilterBefore(new JwtAuthenticationFilter(authenticationManager()),
+        http.addFilterBefore(new JwtAuthenticationFilter(authenticationManager(), jwtTokenCache()
+                , tokenRevocationStore, requestPathClassifier()),
                 UsernamePasswordAuthenticationFilter.class);
     }
 
+    /**
+     * 免登录路径, 授权策略和 JwtAuthenticationFilter 共用, 这些路径上的请求不解析令牌
+     */
+    @Bean
+    public RequestPathClassifier requestPathClassifier(){
+        return new RequestPathClassifier(
+                // 跨域预检请求
+                permitAll(HttpMethod.OPTIONS, "/**"),
+                // 登录URL
+                permitAll("/login"),
+                // 刷新令牌, 请求携带的是刷新令牌而不是访问令牌
+                permitAll(HttpMethod.POST, "/token/refresh"),
+                // 签名公钥
+                permitAll(HttpMethod.GET, "/.well-known/jwks.json"),
+                // swagger
+                permitAll("/swagger**/**"),
+                permitAll("/webjars/**"),
+                permitAll("/v2/**"),
+                // 监控端点, 只在绑定本机地址的管理端口上暴露, 见 management.server.*
+                permitAll(HttpMethod.GET, "/actuator/health"),
+                permitAll(HttpMethod.GET, "/actuator/prometheus"));
+    }
+
+    @Bean
+    public JwtTokenCache jwtTokenCache(){
+        return new JwtTokenCache(tokenCacheMaximumSize);
+    }
+
     @Bean
     @Override
     public AuthenticationManager authenticationManager() throws Exception{
@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import com.example.demo.security.JwtKey;
+import com.example.demo.security.JwtKeyring;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 签名公钥发布, 其他实例从这里获取 ES256 / EdDSA 公钥验签, 对称密钥不会出现在文档中
+ *
+ * @author 程思琦
+ * @date 2026/10/19 00:50
+ * @description
+ **/
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyring jwtKeyring;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @ApiOperation(value = "令牌签名公钥 JWKS 文档")
+    public Map<String, Object> jwks(){
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (JwtKey key : jwtKeyring.getKeys()) {
+            Map<String, Object> jwk = key.toJwk();
+            if (jwk != null) {
+                keys.add(jwk);
+            }
+        }
+        return Collections.singletonMap("keys", keys);
+    }
+}
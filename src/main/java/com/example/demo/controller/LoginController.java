@@ -1,13 +1,24 @@
 package com.example.demo.controller;
 
 import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.LoginBodyException;
+import com.example.demo.security.LoginOverloadedException;
+import com.example.demo.security.LoginRateLimitedException;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.utils.LoginBodyParser;
 import com.example.demo.utils.SecurityUtils;
+import com.example.demo.vo.EncodedHttpResult;
 import com.example.demo.vo.HttpResult;
+import com.example.demo.vo.HttpStatus;
 import com.example.demo.vo.LoginBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
@@ -20,22 +31,87 @@ import java.io.IOException;
  * @date 2019/8/15 17:17
  **/
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class LoginController {
 
     @Autowired
     private AuthenticationManager authenticationManager;
 
     /**
-     * 登录接口
+     * 登录限流, login.rate-limit.enabled=false 时为空
+     */
+    @Autowired(required = false)
+    private LoginRateLimiter loginRateLimiter;
+
+    @Value("${login.body.max-bytes:4096}")
+    private int maxBodyBytes;
+
+    /**
+     * 登录接口, 请求体与 JwtLoginFilter 使用同一个流式解析器读取, 限流规则与 JwtLoginFilter 相同
      */
     @PostMapping("/login")
-    public HttpResult login(@RequestBody LoginBean loginBean, HttpServletRequest request) throws IOException {
+    public HttpResult login(HttpServletRequest request) throws IOException {
+        if (loginRateLimiter != null) {
+            loginRateLimiter.checkClient(request.getRemoteAddr());
+        }
+        LoginBean loginBean = LoginBodyParser.parse(request, maxBodyBytes);
         String username = loginBean.getUsername();
         String password = loginBean.getPassword();
 
-        // 系统登录认证
-        JwtAuthenticationToken token = SecurityUtils.login(request, username, password, authenticationManager);
+        // 与 JwtLoginFilter 一致, 缺少的字段按空字符串处理, 用户名去掉首尾空白
+        if (username == null) {
+            username = "";
+        }
+
+        if (password == null) {
+            password = "";
+        }
+
+        username = username.trim();
+
+        if (loginRateLimiter == null) {
+            // 系统登录认证
+            return HttpResult.ok(SecurityUtils.login(request, username, password, authenticationManager));
+        }
+
+        // 系统登录认证, 密码错误计入失败次数
+        loginRateLimiter.checkUsername(username);
+        JwtAuthenticationToken token;
+        try {
+            token = SecurityUtils.login(request, username, password, authenticationManager);
+        } catch (BadCredentialsException e) {
+            loginRateLimiter.loginFailed(username);
+            throw e;
+        }
+        loginRateLimiter.loginSucceeded(username);
 
         return HttpResult.ok(token);
     }
+
+    /**
+     * 登录尝试过于频繁或用户名已被锁定, 返回 429
+     */
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<EncodedHttpResult> loginRateLimited(LoginRateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.SC_TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(EncodedHttpResult.error(HttpStatus.SC_TOO_MANY_REQUESTS, e.getMessage()));
+    }
+
+    /**
+     * 登录校验线程池已满, 返回 503
+     */
+    @ExceptionHandler(LoginOverloadedException.class)
+    public ResponseEntity<EncodedHttpResult> loginOverloaded(LoginOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SC_SERVICE_UNAVAILABLE).header("Retry-After", "1")
+                .body(EncodedHttpResult.error(HttpStatus.SC_SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    /**
+     * 登录请求体过大返回 413, 格式错误返回 400
+     */
+    @ExceptionHandler(LoginBodyException.class)
+    public ResponseEntity<EncodedHttpResult> loginBodyRejected(LoginBodyException e) {
+        return ResponseEntity.status(e.getStatus()).body(EncodedHttpResult.error(e.getStatus(), e.getMessage()));
+    }
 }
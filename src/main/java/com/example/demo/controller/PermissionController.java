@@ -0,0 +1,91 @@
+package com.example.demo.controller;
+
+import com.example.demo.security.PermissionBatchChecker;
+import com.example.demo.security.PermissionSet;
+import com.example.demo.utils.PermissionCheckBeanDeserializer;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpResult;
+import com.example.demo.vo.HttpStatus;
+import com.example.demo.vo.PermissionCheckBean;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限控制器
+ *
+ * @author 程思琦
+ * @date 2026/10/19 08:55
+ * @description
+ **/
+@RestController
+public class PermissionController {
+
+    /**
+     * 一次请求最多判断的权限标识数和菜单节点数, 绑定请求时已经检查
+     */
+    private static final int MAX_ITEMS = PermissionCheckBeanDeserializer.MAX_ITEMS;
+
+    /**
+     * 批量判断当前用户的权限, 使用请求令牌中已经验签的权限集合, 不再查询用户。
+     * 返回 permissions: 权限标识 -> 是否拥有, bitmap: 第 i 位对应请求中第 i 个权限标识(Base64URL),
+     * menus: 菜单编号 -> 是否可见。
+     * bitmap 是 BitSet.toByteArray() 的结果, 末尾全为 0 的字节被省略, 长度随最高的已拥有权限位变化,
+     * 一个都不拥有时为空字符串, 客户端应把超出长度的位视为 0。
+     * 请求体超过大小上限返回 413, 嵌套层级或条目数超出上限返回 400
+     */
+    @PostMapping("/permissions/check")
+    @ApiOperation(value = "批量判断当前用户是否拥有权限, 用于渲染菜单", response = HttpResult.class)
+    public HttpResult check(@RequestBody PermissionCheckBean request, Principal principal) {
+        PermissionSet granted = principal instanceof Authentication
+                ? PermissionSet.of((Authentication) principal) : PermissionSet.EMPTY;
+        Map<String, Object> data = new LinkedHashMap<>();
+        List<String> permissions = request.getPermissions();
+        if (permissions != null) {
+            if (permissions.size() > MAX_ITEMS) {
+                throw new IllegalArgumentException("权限标识数超出上限 " + MAX_ITEMS);
+            }
+            BitSet bits = PermissionBatchChecker.check(granted, permissions);
+            Map<String, Boolean> results = new LinkedHashMap<>(permissions.size() * 2);
+            for (int i = 0; i < permissions.size(); i++) {
+                results.put(permissions.get(i), bits.get(i));
+            }
+            data.put("permissions", results);
+            data.put("bitmap", Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+        }
+        if (request.getMenus() != null) {
+            data.put("menus", PermissionBatchChecker.checkMenus(granted, request.getMenus(), MAX_ITEMS));
+        }
+        return HttpResult.ok(data);
+    }
+
+    /**
+     * 请求体超出大小上限, 返回 413
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<EncodedHttpResult> rejected(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatus())
+                .body(EncodedHttpResult.error(e.getStatus().value(), e.getReason()));
+    }
+
+    /**
+     * 请求嵌套层级或条目数超出上限, 或菜单编号为空, 返回 400
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<EncodedHttpResult> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.SC_BAD_REQUEST)
+                .body(EncodedHttpResult.error(HttpStatus.SC_BAD_REQUEST, e.getMessage()));
+    }
+}
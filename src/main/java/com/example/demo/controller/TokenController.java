@@ -0,0 +1,49 @@
+package com.example.demo.controller;
+
+import com.example.demo.security.JwtTokenRefresher;
+import com.example.demo.utils.JwtTokenUtils;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpResult;
+import com.example.demo.vo.HttpStatus;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 令牌控制器
+ *
+ * @author 程思琦
+ * @date 2026/10/19 06:00
+ * @description
+ **/
+@RestController
+public class TokenController {
+
+    @Autowired
+    private JwtTokenRefresher jwtTokenRefresher;
+
+    /**
+     * 刷新令牌, 请求头 Authorization: Bearer 携带登录或上次刷新时返回的刷新令牌,
+     * 返回格式与登录接口相同
+     */
+    @PostMapping("/token/refresh")
+    @ApiOperation(value = "用刷新令牌换取新的访问令牌和刷新令牌", response = HttpResult.class)
+    public HttpResult refresh(@RequestHeader HttpHeaders headers) {
+        return HttpResult.ok(jwtTokenRefresher.refresh(JwtTokenUtils.getToken(headers)));
+    }
+
+    /**
+     * 刷新令牌无效、已过期、已吊销或用户不可用, 返回 401
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<EncodedHttpResult> refreshRejected(AuthenticationException e) {
+        return ResponseEntity.status(HttpStatus.SC_UNAUTHORIZED)
+                .body(EncodedHttpResult.error(HttpStatus.SC_UNAUTHORIZED, e.getMessage()));
+    }
+}
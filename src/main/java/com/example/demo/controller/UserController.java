@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.vo.EncodedHttpResult;
 import com.example.demo.vo.HttpResult;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,24 +20,33 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/user")
 public class UserController {
 
+    /**
+     * 固定提示语的返回结果, 启动时编码一次
+     */
+    private static final EncodedHttpResult FIND_ALL_OK = EncodedHttpResult.ok("this findAll service is called success.");
+
+    private static final EncodedHttpResult EDIT_OK = EncodedHttpResult.ok("this edit service is called success.");
+
+    private static final EncodedHttpResult DELETE_OK = EncodedHttpResult.ok("this delete service is called success.");
+
     @PreAuthorize("hasAuthority('sys:user:view')")
     @GetMapping("/findAll")
-    @ApiOperation("测试权限 查询所有用户")
-    public HttpResult findAll(){
-        return HttpResult.ok("this findAll service is called success.");
+    @ApiOperation(value = "测试权限 查询所有用户", response = HttpResult.class)
+    public EncodedHttpResult findAll(){
+        return FIND_ALL_OK;
     }
 
     @PreAuthorize("hasAuthority('sys:user:edit')")
     @GetMapping("/edit")
-    @ApiOperation("测试权限 编辑用户")
-    public HttpResult edit(){
-        return HttpResult.ok("this edit service is called success.");
+    @ApiOperation(value = "测试权限 编辑用户", response = HttpResult.class)
+    public EncodedHttpResult edit(){
+        return EDIT_OK;
     }
 
     @PreAuthorize("hasAuthority('sys:user:delete')")
     @GetMapping("/delete")
-    @ApiOperation("查询权限 删除用户")
-    public HttpResult delete(){
-        return HttpResult.ok("this delete service is called success.");
+    @ApiOperation(value = "查询权限 删除用户", response = HttpResult.class)
+    public EncodedHttpResult delete(){
+        return DELETE_OK;
     }
 }
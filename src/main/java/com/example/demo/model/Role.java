@@ -0,0 +1,55 @@
+package com.example.demo.model;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 角色模型
+ *
+ * 角色可以继承其他角色(parents), 拥有父角色的全部权限
+ *
+ * @author 程思琦
+ * @date 2026/10/19 07:40
+ * @description
+ **/
+public class Role implements Serializable {
+    private String name;
+
+    private Set<String> parents = Collections.emptySet();
+
+    private Set<String> permissions = Collections.emptySet();
+
+    public Role() {
+    }
+
+    public Role(String name, Set<String> parents, Set<String> permissions) {
+        this.name = name;
+        setParents(parents);
+        setPermissions(permissions);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Set<String> getParents() {
+        return parents;
+    }
+
+    public void setParents(Set<String> parents) {
+        this.parents = parents == null ? Collections.emptySet() : parents;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(Set<String> permissions) {
+        this.permissions = permissions == null ? Collections.emptySet() : permissions;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.model;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * 用户模型
@@ -16,6 +18,8 @@ public class User implements Serializable {
 
     private String password;
 
+    private Set<String> roles = Collections.emptySet();
+
     public Long getId() {
         return id;
     }
@@ -39,4 +43,12 @@ public class User implements Serializable {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Set<String> roles) {
+        this.roles = roles == null ? Collections.emptySet() : roles;
+    }
 }
@@ -0,0 +1,91 @@
+package com.example.demo.security;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限注册表
+ *
+ * 整个系统只有少量不同的权限标识(如 sys:user:view), 每个权限标识在这里注册一次,
+ * 分配一个从 0 开始的连续编号, 并对应一个共享、不可变的 GrantedAuthorityImpl 实例。
+ * 用户的权限集合 PermissionSet 是基于这些编号的位图。
+ *
+ * @author 程思琦
+ * @date 2026/10/18 19:00
+ * @description
+ **/
+public class AuthorityRegistry {
+
+    private AuthorityRegistry(){}
+
+    private static final ConcurrentHashMap<String, GrantedAuthorityImpl> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private static final Object LOCK = new Object();
+
+    /**
+     * 按编号索引的权限实例
+     */
+    private static volatile GrantedAuthorityImpl[] byId = new GrantedAuthorityImpl[64];
+
+    private static int size;
+
+    /**
+     * 获取权限标识对应的共享实例, 未注册时注册
+     * @author 程思琦
+     * @date 19:05 2026/10/18
+     * @param authority 权限标识
+     * @return GrantedAuthorityImpl
+     */
+    public static GrantedAuthorityImpl intern(String authority){
+        GrantedAuthorityImpl existing = AUTHORITIES.get(authority);
+        if(existing != null){
+            return existing;
+        }
+        synchronized (LOCK){
+            existing = AUTHORITIES.get(authority);
+            if(existing != null){
+                return existing;
+            }
+            GrantedAuthorityImpl created = new GrantedAuthorityImpl(authority, size);
+            GrantedAuthorityImpl[] table = byId;
+            if(size == table.length){
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[size++] = created;
+            byId = table;
+            AUTHORITIES.put(authority, created);
+            return created;
+        }
+    }
+
+    /**
+     * 查找已注册的权限, 不会注册新的权限
+     * @author 程思琦
+     * @date 19:08 2026/10/18
+     * @param authority 权限标识
+     * @return 未注册时返回 null
+     */
+    public static GrantedAuthorityImpl find(String authority){
+        return authority == null ? null : AUTHORITIES.get(authority);
+    }
+
+    /**
+     * 根据编号获取权限
+     * @author 程思琦
+     * @date 19:10 2026/10/18
+     * @param id 编号
+     * @return GrantedAuthorityImpl
+     */
+    static GrantedAuthorityImpl get(int id){
+        return byId[id];
+    }
+
+    /**
+     * 已注册的权限数量
+     */
+    public static int size(){
+        synchronized (LOCK){
+            return size;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.security;
+
+import com.example.demo.service.UserChangedEvent;
+import com.example.demo.utils.ExpiringCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+/**
+ *
+ * 带缓存的用户登录认证信息查询
+ *
+ * 包装 UserDetailsServiceImpl, 登录时不再每次查询用户和权限并重新构造权限列表。
+ * 不存在的用户同样缓存较短时间, 用户或权限变更时调用 invalidate, 或发布 UserChangedEvent 使缓存失效
+ *
+ * 认证成功后 ProviderManager 会擦除 UserDetails 中的密码, 因此每次返回的是缓存对象的副本
+ *
+ * @author 程思琦
+ * @date 2026/10/18 18:25
+ * @description
+ **/
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final long ttlMillis;
+
+    private final long negativeTtlMillis;
+
+    private final ExpiringCache<String, Optional<UserDetails>> cache;
+
+    public CachedUserDetailsService(UserDetailsService delegate, long ttlMillis, long negativeTtlMillis
+            , int maximumSize) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.cache = new ExpiringCache<>(maximumSize);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        Optional<UserDetails> userDetails = cache.get(username);
+        if (userDetails == null) {
+            try {
+                userDetails = Optional.of(delegate.loadUserByUsername(username));
+                cache.put(username, userDetails, System.currentTimeMillis() + ttlMillis);
+            } catch (UsernameNotFoundException e) {
+                cache.put(username, Optional.empty(), System.currentTimeMillis() + negativeTtlMillis);
+                throw e;
+            }
+        }
+        if (!userDetails.isPresent()) {
+            throw new UsernameNotFoundException("该用户不存在");
+        }
+        UserDetails cached = userDetails.get();
+        return new JwtUserDetails(cached.getUsername(), cached.getPassword(), cached.isEnabled()
+                , cached.isAccountNonExpired(), cached.isCredentialsNonExpired(), cached.isAccountNonLocked()
+                , cached instanceof JwtUserDetails ? ((JwtUserDetails) cached).getPermissions() : cached.getAuthorities());
+    }
+
+    /**
+     * 使指定用户的缓存失效
+     * @author 程思琦
+     * @date 18:30 2026/10/18
+     * @param username 用户名
+     */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * 使全部缓存失效
+     * @author 程思琦
+     * @date 18:30 2026/10/18
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isAllUsers()) {
+            invalidateAll();
+        } else {
+            invalidate(event.getUsername());
+        }
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
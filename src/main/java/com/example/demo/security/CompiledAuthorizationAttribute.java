@@ -0,0 +1,64 @@
+package com.example.demo.security;
+
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.core.Authentication;
+
+import java.util.Arrays;
+
+/**
+ * 预编译的授权规则
+ *
+ * 由 @PreAuthorize 中的简单表达式(hasAuthority、hasAnyAuthority、hasRole、hasAnyRole)编译而来,
+ * 直接在登录认证信息的权限位图上判断, 不再经过 SpEL 解析和求值
+ *
+ * @author 程思琦
+ * @date 2026/10/18 20:20
+ * @description
+ **/
+public class CompiledAuthorizationAttribute implements ConfigAttribute {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 原始表达式
+     */
+    private final String expression;
+
+    /**
+     * 任意拥有其一即可通过的权限标识, 角色已经加上前缀
+     */
+    private final String[] authorities;
+
+    public CompiledAuthorizationAttribute(String expression, String[] authorities) {
+        this.expression = expression;
+        this.authorities = authorities;
+    }
+
+    /**
+     * 判断是否授权
+     * @author 程思琦
+     * @date 20:22 2026/10/18
+     * @param authentication 登录认证信息
+     * @return boolean
+     */
+    public boolean isGranted(Authentication authentication) {
+        return PermissionSet.of(authentication).containsAny(authorities);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * 返回 null, 避免被 RoleVoter 等按字符串处理的投票器误认
+     */
+    @Override
+    public String getAttribute() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledAuthorization[" + expression + " -> " + Arrays.toString(authorities) + "]";
+    }
+}
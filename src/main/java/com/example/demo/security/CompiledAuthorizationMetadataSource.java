@@ -0,0 +1,131 @@
+package com.example.demo.security;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.method.AbstractMethodSecurityMetadataSource;
+import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.access.prepost.PostFilter;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreFilter;
+import org.springframework.util.ClassUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译授权规则的元数据来源
+ *
+ * 在创建代理时(启动阶段)识别 @PreAuthorize 中的简单表达式:
+ * hasAuthority('a')、hasAnyAuthority('a','b')、hasRole('R')、hasAnyRole('R1','R2'),
+ * 编译成 CompiledAuthorizationAttribute, 由 CompiledAuthorizationVoter 直接判断。
+ *
+ * 复杂表达式, 或同时使用了 @PreFilter/@PostAuthorize/@PostFilter 的方法返回空集合,
+ * 仍然交给 Spring Security 默认的 SpEL 流程处理
+ *
+ * @author 程思琦
+ * @date 2026/10/18 20:30
+ * @description
+ **/
+public class CompiledAuthorizationMetadataSource extends AbstractMethodSecurityMetadataSource {
+
+    private static final Pattern SIMPLE_EXPRESSION = Pattern.compile(
+            "^\\s*(hasAuthority|hasAnyAuthority|hasRole|hasAnyRole)\\s*\\(\\s*('[^'\\\\]*'(?:\\s*,\\s*'[^'\\\\]*')*)\\s*\\)\\s*$");
+
+    private static final Pattern ARGUMENT = Pattern.compile("'([^'\\\\]*)'");
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Map<Method, Collection<ConfigAttribute>> attributeCache = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<ConfigAttribute> getAttributes(Method method, Class<?> targetClass) {
+        if (method.getDeclaringClass() == Object.class) {
+            return Collections.emptyList();
+        }
+        Method specificMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+        Collection<ConfigAttribute> attributes = attributeCache.get(specificMethod);
+        if (attributes == null) {
+            attributes = compile(specificMethod, targetClass);
+            attributeCache.put(specificMethod, attributes);
+        }
+        return attributes;
+    }
+
+    private Collection<ConfigAttribute> compile(Method method, Class<?> targetClass) {
+        if (findAnnotation(method, targetClass, PreFilter.class) != null
+                || findAnnotation(method, targetClass, PostAuthorize.class) != null
+                || findAnnotation(method, targetClass, PostFilter.class) != null) {
+            return Collections.emptyList();
+        }
+        PreAuthorize preAuthorize = findAnnotation(method, targetClass, PreAuthorize.class);
+        if (preAuthorize == null) {
+            return Collections.emptyList();
+        }
+        CompiledAuthorizationAttribute attribute = compile(preAuthorize.value());
+        if (attribute == null) {
+            return Collections.emptyList();
+        }
+        logger.debug("Compiled @PreAuthorize on " + method + ": " + attribute);
+        return Collections.singletonList(attribute);
+    }
+
+    /**
+     * 编译表达式, 不是简单表达式时返回 null
+     * @author 程思琦
+     * @date 20:35 2026/10/18
+     * @param expression 表达式
+     * @return CompiledAuthorizationAttribute
+     */
+    public static CompiledAuthorizationAttribute compile(String expression) {
+        Matcher matcher = SIMPLE_EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String function = matcher.group(1);
+        boolean role = function.endsWith("Role");
+        boolean any = function.startsWith("hasAny");
+
+        List<String> authorities = new ArrayList<>();
+        Matcher argument = ARGUMENT.matcher(matcher.group(2));
+        while (argument.find()) {
+            String value = argument.group(1);
+            if (role && !value.startsWith(ROLE_PREFIX)) {
+                value = ROLE_PREFIX + value;
+            }
+            authorities.add(value);
+        }
+        if (!any && authorities.size() != 1) {
+            return null;
+        }
+        // 提前注册, 启动后授权判断不再需要注册新权限
+        for (String authority : authorities) {
+            AuthorityRegistry.intern(authority);
+        }
+        return new CompiledAuthorizationAttribute(expression, authorities.toArray(new String[0]));
+    }
+
+    /**
+     * 先找方法上的注解, 再找类上的注解, 与 PrePostAnnotationSecurityMetadataSource 一致
+     */
+    private static <A extends Annotation> A findAnnotation(Method method, Class<?> targetClass
+            , Class<A> annotationClass) {
+        A annotation = AnnotationUtils.findAnnotation(method, annotationClass);
+        if (annotation != null) {
+            return annotation;
+        }
+        return AnnotationUtils.findAnnotation(method.getDeclaringClass(), annotationClass);
+    }
+
+    @Override
+    public Collection<ConfigAttribute> getAllConfigAttributes() {
+        return null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collection;
+
+/**
+ * 预编译授权规则投票器, 只处理 CompiledAuthorizationAttribute, 其他情况弃权
+ *
+ * @author 程思琦
+ * @date 2026/10/18 20:40
+ * @description
+ **/
+public class CompiledAuthorizationVoter implements AccessDecisionVoter<MethodInvocation> {
+
+    @Override
+    public boolean supports(ConfigAttribute attribute) {
+        return attribute instanceof CompiledAuthorizationAttribute;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return MethodInvocation.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public int vote(Authentication authentication, MethodInvocation invocation
+            , Collection<ConfigAttribute> attributes) {
+        for (ConfigAttribute attribute : attributes) {
+            if (attribute instanceof CompiledAuthorizationAttribute) {
+                return ((CompiledAuthorizationAttribute) attribute).isGranted(authentication)
+                        ? ACCESS_GRANTED : ACCESS_DENIED;
+            }
+        }
+        return ACCESS_ABSTAIN;
+    }
+}
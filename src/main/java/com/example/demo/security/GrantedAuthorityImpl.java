@@ -4,6 +4,10 @@ import org.springframework.security.core.GrantedAuthority;
 
 /**
  * 权限封装
+ *
+ * 创建后不可修改, 系统内的权限标识通过 AuthorityRegistry 统一注册,
+ * 同一个权限标识只对应一个共享实例
+ *
  * @author 程思琦
  * @date 2019/8/16 17:55
  * @description
@@ -12,18 +16,57 @@ public class GrantedAuthorityImpl implements GrantedAuthority {
 
     private static final long serialVersionUID = 1L;
 
-    private String authority;
+    private final String authority;
+
+    /**
+     * 注册编号, 未经 AuthorityRegistry 注册时为 -1
+     */
+    private final transient int id;
 
     public GrantedAuthorityImpl(String authority){
-        this.authority = authority;
+        this(authority, -1);
     }
 
-    public void setAuthority(String authority) {
+    GrantedAuthorityImpl(String authority, int id){
         this.authority = authority;
+        this.id = id;
     }
 
     @Override
     public String getAuthority() {
         return authority;
     }
+
+    int id() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GrantedAuthorityImpl)) {
+            return false;
+        }
+        String other = ((GrantedAuthorityImpl) o).authority;
+        return authority == null ? other == null : authority.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return authority == null ? 0 : authority.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return authority;
+    }
+
+    /**
+     * 反序列化时换成共享实例
+     */
+    private Object readResolve() {
+        return authority == null ? this : AuthorityRegistry.intern(authority);
+    }
 }
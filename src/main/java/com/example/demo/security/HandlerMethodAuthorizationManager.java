@@ -0,0 +1,138 @@
+package com.example.demo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.access.prepost.PostFilter;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreFilter;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import reactor.core.publisher.Mono;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按控制器方法上的 @PreAuthorize 授权, reactive 配置下代替方法级安全
+ *
+ * WebFlux 的方法级安全(@EnableReactiveMethodSecurity)只支持返回 Mono/Flux 的方法, 控制器不需要为此修改:
+ * 在授权阶段找到请求对应的控制器方法, 用 CompiledAuthorizationMetadataSource 把 @PreAuthorize 中的简单表达式
+ * 编译成 CompiledAuthorizationAttribute, 与 servlet 配置下的 CompiledAuthorizationVoter 判断方式相同。
+ *
+ * 没有注解的方法只要求已登录; 无法编译的复杂表达式和 @PostAuthorize 等注解在这里无法求值, 一律拒绝。
+ * 规则判断的耗时记入 SecurityMetrics, 与 servlet 配置下的授权耗时使用同一个计时器
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:35
+ * @description
+ **/
+public class HandlerMethodAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(HandlerMethodAuthorizationManager.class);
+
+    /**
+     * 只要求已登录
+     */
+    private static final Rule AUTHENTICATED = new Rule(null, false);
+
+    /**
+     * 无法在 web 层求值, 拒绝
+     */
+    private static final Rule DENY = new Rule(null, true);
+
+    private final HandlerMapping handlerMapping;
+
+    private final CompiledAuthorizationMetadataSource metadataSource = new CompiledAuthorizationMetadataSource();
+
+    private final Map<Method, Rule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * @param handlerMapping WebFlux 的 RequestMappingHandlerMapping
+     */
+    public HandlerMethodAuthorizationManager(HandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        return handlerMapping.getHandler(context.getExchange())
+                .map(this::ruleFor)
+                .defaultIfEmpty(AUTHENTICATED)
+                .flatMap(rule -> authentication
+                        .filter(Authentication::isAuthenticated)
+                        .map(auth -> isGranted(rule, auth))
+                        .defaultIfEmpty(false))
+                .map(AuthorizationDecision::new);
+    }
+
+    private static boolean isGranted(Rule rule, Authentication authentication) {
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
+        try {
+            return rule.isGranted(authentication);
+        } finally {
+            metrics.recordAuthorization(start);
+        }
+    }
+
+    private Rule ruleFor(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return AUTHENTICATED;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        Method method = handlerMethod.getMethod();
+        Rule rule = rules.get(method);
+        if (rule == null) {
+            rule = compile(method, handlerMethod.getBeanType());
+            rules.put(method, rule);
+        }
+        return rule;
+    }
+
+    private Rule compile(Method method, Class<?> beanType) {
+        Collection<ConfigAttribute> attributes = metadataSource.getAttributes(method, beanType);
+        if (!attributes.isEmpty()) {
+            return new Rule((CompiledAuthorizationAttribute) attributes.iterator().next(), false);
+        }
+        if (hasAnnotation(method, PreAuthorize.class) || hasAnnotation(method, PostAuthorize.class)
+                || hasAnnotation(method, PreFilter.class) || hasAnnotation(method, PostFilter.class)) {
+            log.warn("Security expression on {} is not supported in reactive mode, access denied", method);
+            return DENY;
+        }
+        return AUTHENTICATED;
+    }
+
+    private static boolean hasAnnotation(Method method, Class<? extends Annotation> annotationClass) {
+        return AnnotationUtils.findAnnotation(method, annotationClass) != null
+                || AnnotationUtils.findAnnotation(method.getDeclaringClass(), annotationClass) != null;
+    }
+
+    private static final class Rule {
+
+        private final CompiledAuthorizationAttribute attribute;
+
+        private final boolean deny;
+
+        Rule(CompiledAuthorizationAttribute attribute, boolean deny) {
+            this.attribute = attribute;
+            this.deny = deny;
+        }
+
+        boolean isGranted(Authentication authentication) {
+            if (deny) {
+                return false;
+            }
+            return attribute == null || attribute.isGranted(authentication);
+        }
+    }
+}
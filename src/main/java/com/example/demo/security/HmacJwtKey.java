@@ -0,0 +1,100 @@
+package com.example.demo.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * HMAC 签名密钥(HS256/HS384/HS512)
+ *
+ * jjwt 每次签名、验签都重新构造 SecretKeySpec 并通过 Mac.getInstance 查找提供者,
+ * 这里在创建密钥时初始化一个 Mac 原型, 每个线程第一次使用时从原型克隆一份,
+ * 之后签名、验签直接复用本线程的 Mac, 不再查找提供者也不再初始化密钥
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:45
+ * @description
+ **/
+public class HmacJwtKey extends JwtKey {
+
+    private final byte[] secret;
+
+    /**
+     * 已初始化的 Mac 原型, 只用于克隆
+     */
+    private final Mac prototype;
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param kid 密钥编号
+     * @param algorithm HS256、HS384 或 HS512
+     * @param secret 密钥内容
+     */
+    public HmacJwtKey(String kid, String algorithm, byte[] secret) {
+        super(kid, algorithm);
+        if (secret == null || secret.length == 0) {
+            throw new IllegalArgumentException("secret must not be empty");
+        }
+        this.secret = secret.clone();
+        try {
+            this.prototype = Mac.getInstance(macAlgorithm(algorithm));
+            this.prototype.init(new SecretKeySpec(this.secret, prototype.getAlgorithm()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid HMAC key " + kid, e);
+        }
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public byte[] sign(byte[] input, int off, int len) {
+        // doFinal 会重置 Mac, 可以直接给下一次调用使用
+        Mac mac = macs.get();
+        mac.update(input, off, len);
+        return mac.doFinal();
+    }
+
+    @Override
+    public boolean verify(byte[] input, int off, int len, byte[] signature) {
+        // 定长比较, 不泄露签名前缀是否匹配
+        return MessageDigest.isEqual(sign(input, off, len), signature);
+    }
+
+    @Override
+    public boolean sameKeyAs(JwtKey other) {
+        return other instanceof HmacJwtKey && getKid().equals(other.getKid())
+                && getAlgorithm().equals(other.getAlgorithm()) && Arrays.equals(secret, ((HmacJwtKey) other).secret);
+    }
+
+    private Mac newMac() {
+        try {
+            synchronized (prototype) {
+                return (Mac) prototype.clone();
+            }
+        } catch (CloneNotSupportedException e) {
+            // 提供者不支持克隆时退回查找一次
+            try {
+                Mac mac = Mac.getInstance(prototype.getAlgorithm(), prototype.getProvider());
+                mac.init(new SecretKeySpec(secret, prototype.getAlgorithm()));
+                return mac;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private static String macAlgorithm(String algorithm) {
+        switch (algorithm) {
+            case "HS256":
+                return "HmacSHA256";
+            case "HS384":
+                return "HmacSHA384";
+            case "HS512":
+                return "HmacSHA512";
+            default:
+                throw new IllegalArgumentException("Unsupported HMAC algorithm: " + algorithm);
+        }
+    }
+}
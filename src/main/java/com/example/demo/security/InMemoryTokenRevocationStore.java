@@ -0,0 +1,291 @@
+package com.example.demo.security;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 内存中的令牌吊销记录
+ *
+ * 所有记录放在一个 long[] 开放寻址哈希表中, 每条记录占三个 long: 令牌ID高位、低位、过期时间,
+ * 没有对象头和引用, 千万级记录也只是一个大数组, 不增加 GC 扫描负担。
+ *
+ * 查询使用 StampedLock 乐观读, 正常情况下不加锁; 写入和扩容使用写锁。
+ * 过期记录在扩容或清理时重建哈希表一并丢弃, 不需要逐条删除。
+ *
+ * 支持快照到文件, 重启时重新加载, 避免已退出登录的令牌在重启后重新生效
+ *
+ * @author 程思琦
+ * @date 2026/10/18 22:25
+ * @description
+ **/
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    /**
+     * 每条记录占用的 long 个数
+     */
+    private static final int STRIDE = 3;
+
+    /**
+     * 快照文件标识 "JREV" 和格式版本
+     */
+    private static final int SNAPSHOT_MAGIC = 0x4A524556;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * 哈希表, 过期时间为 0 的槽位为空
+     */
+    private long[] table;
+
+    private int mask;
+
+    /**
+     * 已占用槽位数, 包括已过期尚未清理的记录
+     */
+    private int size;
+
+    public InMemoryTokenRevocationStore() {
+        this(MINIMUM_CAPACITY);
+    }
+
+    public InMemoryTokenRevocationStore(int initialCapacity) {
+        int capacity = tableSizeFor(Math.max(initialCapacity, MINIMUM_CAPACITY));
+        this.table = new long[capacity * STRIDE];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public void revoke(UUID tokenId, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            // 负载因子 0.75
+            if (size + 1 > (mask + 1) - ((mask + 1) >>> 2)) {
+                rehash(size + 1);
+            }
+            insert(tokenId.getMostSignificantBits(), tokenId.getLeastSignificantBits(), expiresAt);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(UUID tokenId) {
+        long msb = tokenId.getMostSignificantBits();
+        long lsb = tokenId.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        long expiresAt = find(table, msb, lsb);
+        if (!lock.validate(stamp)) {
+            // 读取期间有写入, 加读锁重新查询
+            stamp = lock.readLock();
+            try {
+                expiresAt = find(table, msb, lsb);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void purgeExpired() {
+        long stamp = lock.writeLock();
+        try {
+            rehash(0);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 把未过期的记录写入快照文件, 先写临时文件再替换, 写入过程中不会留下不完整的快照
+     * @author 程思琦
+     * @date 22:30 2026/10/18
+     * @param file 快照文件
+     * @return 写入的记录条数
+     */
+    public int writeSnapshot(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        // 只在复制存活记录时持有读锁, 写文件期间吊销不需要等待
+        long[] entries;
+        long stamp = lock.readLock();
+        try {
+            long now = System.currentTimeMillis();
+            int count = 0;
+            for (int i = 0; i < table.length; i += STRIDE) {
+                if (table[i + 2] > now) {
+                    count++;
+                }
+            }
+            entries = new long[count * STRIDE];
+            int position = 0;
+            for (int i = 0; i < table.length; i += STRIDE) {
+                if (table[i + 2] > now) {
+                    entries[position++] = table[i];
+                    entries[position++] = table[i + 1];
+                    entries[position++] = table[i + 2];
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        int count = entries.length / STRIDE;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(count);
+            for (long value : entries) {
+                out.writeLong(value);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * 从快照文件加载记录, 已过期的记录直接跳过
+     * @author 程思琦
+     * @date 22:30 2026/10/18
+     * @param file 快照文件
+     * @return 加载的记录条数
+     */
+    public int loadSnapshot(Path file) throws IOException {
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported token revocation snapshot: " + file);
+            }
+            int count = in.readInt();
+            long now = System.currentTimeMillis();
+            long stamp = lock.writeLock();
+            try {
+                rehash(size + count);
+                for (int i = 0; i < count; i++) {
+                    long msb = in.readLong();
+                    long lsb = in.readLong();
+                    long expiresAt = in.readLong();
+                    if (expiresAt > now) {
+                        insert(msb, lsb, expiresAt);
+                        loaded++;
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 线性探测查找, 返回过期时间, 不存在时返回 0
+     *
+     * 乐观读期间数组可能被并发修改或替换, 掩码由数组长度计算, 最多探测一轮, 结果由调用方校验
+     */
+    private static long find(long[] table, long msb, long lsb) {
+        int mask = table.length / STRIDE - 1;
+        int index = hash(msb, lsb) & mask;
+        for (int probe = 0; probe <= mask; probe++) {
+            int base = index * STRIDE;
+            long expiresAt = table[base + 2];
+            if (expiresAt == 0) {
+                return 0;
+            }
+            if (table[base] == msb && table[base + 1] == lsb) {
+                return expiresAt;
+            }
+            index = (index + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * 插入或更新记录, 调用方持有写锁且保证有空槽位
+     */
+    private void insert(long msb, long lsb, long expiresAt) {
+        int index = hash(msb, lsb) & mask;
+        while (true) {
+            int base = index * STRIDE;
+            long current = table[base + 2];
+            if (current == 0) {
+                table[base] = msb;
+                table[base + 1] = lsb;
+                table[base + 2] = expiresAt;
+                size++;
+                return;
+            }
+            if (table[base] == msb && table[base + 1] == lsb) {
+                table[base + 2] = Math.max(current, expiresAt);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 丢弃过期记录并按存活记录数重建哈希表, 调用方持有写锁
+     * @param required 重建后至少要容纳的记录数
+     */
+    private void rehash(int required) {
+        long now = System.currentTimeMillis();
+        int live = 0;
+        for (int i = 0; i < table.length; i += STRIDE) {
+            if (table[i + 2] > now) {
+                live++;
+            }
+        }
+        int capacity = tableSizeFor(Math.max(MINIMUM_CAPACITY, Math.max(live, required) * 2));
+        long[] oldTable = table;
+        table = new long[capacity * STRIDE];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldTable.length; i += STRIDE) {
+            if (oldTable[i + 2] > now) {
+                insert(oldTable[i], oldTable[i + 1], oldTable[i + 2]);
+            }
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        if (n <= 0 || n > (1 << 29)) {
+            throw new IllegalStateException("Token revocation table too large: " + capacity);
+        }
+        return n;
+    }
+}
@@ -18,22 +18,59 @@ import java.io.IOException;
  * 访问接口的时候, 登录认证检查过滤器JwtAuthenticationFilter 会拦截
  * 请求并检验令牌和登录状态, 并根据情况设置登录状态
  *
+ * 免登录路径(登录、swagger、跨域预检等)上的请求不需要登录状态, 直接放行, 即使携带了过期令牌也不解析验签
+ *
+ * 令牌检查的耗时记入 SecurityMetrics, 不含后续过滤器和接口的执行时间
+ *
  * @author 程思琦
  * @date 2019/8/16 15:17
  * @description
  **/
 public class JwtAuthenticationFilter extends BasicAuthenticationFilter {
 
+    private final JwtTokenCache tokenCache;
+
+    private final TokenRevocationStore revocationStore;
+
+    /**
+     * 免登录路径, 为空时所有请求都解析令牌
+     */
+    private final RequestPathClassifier pathClassifier;
+
+    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtTokenCache tokenCache) {
+        this(authenticationManager, tokenCache, null);
+    }
+
+    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtTokenCache tokenCache
+            , TokenRevocationStore revocationStore) {
+        this(authenticationManager, tokenCache, revocationStore, null);
+    }
+
     @Autowired
-    public JwtAuthenticationFilter(AuthenticationManager authenticationManager) {
+    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtTokenCache tokenCache
+            , TokenRevocationStore revocationStore, RequestPathClassifier pathClassifier) {
         super(authenticationManager);
+        this.tokenCache = tokenCache;
+        this.revocationStore = revocationStore;
+        this.pathClassifier = pathClassifier;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response
             , FilterChain chain) throws IOException, ServletException {
-        // 获取token, 并检查登录状态
-        SecurityUtils.checkAuthentication(request);
+        if (pathClassifier != null && !pathClassifier.requiresAuthentication(request)) {
+            // 免登录路径, 不解析令牌
+            chain.doFilter(request, response);
+            return;
+        }
+        // 获取token, 并检查登录状态, 已验证过的令牌直接从缓存获取, 已吊销的令牌视为未登录
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
+        try {
+            SecurityUtils.checkAuthentication(request, tokenCache, revocationStore);
+        } finally {
+            metrics.recordFilter(start);
+        }
         chain.doFilter(request, response);
     }
 
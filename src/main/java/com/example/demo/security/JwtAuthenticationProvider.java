@@ -7,6 +7,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * 身份验证提供者
@@ -26,10 +27,21 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
  **/
 public class JwtAuthenticationProvider extends DaoAuthenticationProvider {
 
+    /**
+     * 密码校验线程池, 为空时在当前线程校验
+     */
+    private final LoginVerificationExecutor verificationExecutor;
+
     public JwtAuthenticationProvider(UserDetailsService userDetailsService){
+        this(userDetailsService, new BCryptPasswordEncoder(), null);
+    }
+
+    public JwtAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder
+            , LoginVerificationExecutor verificationExecutor){
         setUserDetailsService(userDetailsService);
         // 设置密码编码
-        setPasswordEncoder(new BCryptPasswordEncoder());
+        setPasswordEncoder(passwordEncoder);
+        this.verificationExecutor = verificationExecutor;
     }
 
     /**
@@ -54,8 +66,27 @@ public class JwtAuthenticationProvider extends DaoAuthenticationProvider {
             , UsernamePasswordAuthenticationToken authenticationToken) throws AuthenticationException{
         /**
          * 可以在此处覆写密码验证逻辑
+         *
+         * BCrypt 校验放到有界的校验线程池中执行, 线程池已满时抛出 LoginOverloadedException
          */
-        super.additionalAuthenticationChecks(userDetails,authenticationToken);
+        if(verificationExecutor == null){
+            checkPassword(userDetails, authenticationToken);
+            return;
+        }
+        verificationExecutor.verify(() -> checkPassword(userDetails, authenticationToken));
+    }
+
+    /**
+     * BCrypt 校验, 耗时记入 SecurityMetrics, 不含在校验线程池中排队的时间
+     */
+    private void checkPassword(UserDetails userDetails, UsernamePasswordAuthenticationToken authenticationToken){
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
+        try {
+            super.additionalAuthenticationChecks(userDetails, authenticationToken);
+        } finally {
+            metrics.recordPasswordCheck(start);
+        }
     }
 
 }
@@ -18,6 +18,11 @@ public class JwtAuthenticationToken extends UsernamePasswordAuthenticationToken
 
     private String token;
 
+    /**
+     * 刷新令牌, 登录和刷新时与访问令牌一起返回
+     */
+    private String refreshToken;
+
     public JwtAuthenticationToken(Object principal, Object credentials) {
         super(principal, credentials);
     }
@@ -39,4 +44,12 @@ public class JwtAuthenticationToken extends UsernamePasswordAuthenticationToken
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
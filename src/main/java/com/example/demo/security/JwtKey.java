@@ -0,0 +1,96 @@
+package com.example.demo.security;
+
+import com.alibaba.fastjson.JSON;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 令牌签名密钥
+ *
+ * 每个密钥有唯一的编号(kid), 签发的令牌在头部携带编号, 验签时按编号选择密钥。
+ * 令牌头部只由算法和编号决定, 创建时预先编码好, 签发时直接拼接
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:40
+ * @description
+ **/
+public abstract class JwtKey {
+
+    private final String kid;
+
+    private final String algorithm;
+
+    /**
+     * Base64URL 编码后的令牌头部
+     */
+    private final String encodedHeader;
+
+    protected JwtKey(String kid, String algorithm) {
+        if (kid == null || kid.isEmpty()) {
+            throw new IllegalArgumentException("kid must not be empty");
+        }
+        this.kid = kid;
+        this.algorithm = algorithm;
+        Map<String, Object> header = new LinkedHashMap<>(2);
+        header.put("alg", algorithm);
+        if (!JwtKeyring.LEGACY_KID.equals(kid)) {
+            // 早期密钥沿用 jjwt 签发时不带 kid 的头部, 与早期令牌一致, 也更短
+            header.put("kid", kid);
+        }
+        this.encodedHeader = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(JSON.toJSONString(header).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    /**
+     * JWS 算法名称, 如 HS512
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getEncodedHeader() {
+        return encodedHeader;
+    }
+
+    /**
+     * 对签名输入计算签名
+     * @author 程思琦
+     * @date 23:40 2026/10/18
+     * @param input 签名输入, 即 "头部.载荷" 的 ASCII 字节
+     * @param off 起始位置
+     * @param len 长度
+     * @return 签名字节
+     */
+    public abstract byte[] sign(byte[] input, int off, int len);
+
+    /**
+     * 校验签名
+     * @author 程思琦
+     * @date 23:40 2026/10/18
+     * @param input 签名输入, 即 "头部.载荷" 的 ASCII 字节
+     * @param off 起始位置
+     * @param len 长度
+     * @param signature 令牌携带的签名
+     * @return 签名是否正确
+     */
+    public abstract boolean verify(byte[] input, int off, int len, byte[] signature);
+
+    /**
+     * 密钥内容是否与另一个密钥相同, 重新加载密钥时内容未变的密钥继续使用原实例
+     */
+    public abstract boolean sameKeyAs(JwtKey other);
+
+    /**
+     * 可以公开的 JWK 表示, 对称密钥不能公开, 返回 null
+     */
+    public Map<String, Object> toJwk() {
+        return null;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.security;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 令牌签名密钥环
+ *
+ * 保存所有可用于验签的密钥和当前签发使用的密钥, 令牌头部的 kid 决定验签使用哪个密钥。
+ * 轮换密钥时新建一份不可变的密钥表, 通过 volatile 引用整体替换, 签发和验签只读一次引用,
+ * 不加锁; 轮换后旧密钥仍在表中时, 旧密钥签发的令牌继续有效直到过期。
+ * 移除或替换了某个密钥、或者修改了早期令牌的切换时间时信任代数加一, JwtTokenCache 据此清空已验证的令牌。
+ *
+ * 没有 kid 的令牌是支持密钥轮换之前签发的, 按 LEGACY_KID 对应的密钥验签。早期密钥已经公开, 只在过渡期内接受:
+ * 令牌的过期时间不能晚于切换时间加一个令牌有效期(12小时), 没有设置切换时间时一律拒绝; 早期密钥不能用于签发
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:50
+ * @description
+ **/
+public class JwtKeyring {
+
+    /**
+     * 早期签发令牌使用的密钥编号, 这些令牌头部没有 kid
+     */
+    public static final String LEGACY_KID = "legacy";
+
+    /**
+     * 早期令牌的密钥, jjwt 把字符串密钥按 Base64 解码后使用
+     */
+    public static final String LEGACY_SECRET = "abcdefgh";
+
+    /**
+     * 早期令牌的有效期(毫秒)
+     */
+    public static final long LEGACY_TOKEN_LIFETIME = 12 * 60 * 60 * 1000L;
+
+    /**
+     * 启动时随机生成的临时密钥编号, JwtKeyConfig 加载配置的密钥之前使用
+     */
+    public static final String EPHEMERAL_KID = "ephemeral";
+
+    private volatile Keys keys;
+
+    public JwtKeyring(Collection<? extends JwtKey> keys, String activeKid) {
+        this(keys, activeKid, 0L);
+    }
+
+    /**
+     * @param keys 可用于验签的密钥
+     * @param activeKid 签发使用的密钥编号, 为 null 时只验签不签发
+     * @param legacyCutover 早期令牌的切换时间(毫秒), 0 表示不接受早期令牌
+     */
+    public JwtKeyring(Collection<? extends JwtKey> keys, String activeKid, long legacyCutover) {
+        this.keys = new Keys(keys, activeKid, legacyCutover);
+    }
+
+    /**
+     * 早期密钥, 只用于在过渡期内验签早期令牌
+     */
+    public static HmacJwtKey legacyKey() {
+        return new HmacJwtKey(LEGACY_KID, "HS512", Base64.getDecoder().decode(LEGACY_SECRET));
+    }
+
+    /**
+     * 只包含一个随机临时密钥的密钥环, 进程重启后之前签发的令牌全部失效
+     */
+    public static JwtKeyring ephemeral() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        return new JwtKeyring(Collections.singletonList(new HmacJwtKey(EPHEMERAL_KID, "HS512", secret))
+                , EPHEMERAL_KID);
+    }
+
+    /**
+     * 替换全部密钥, 不需要重启; 正在进行的签发和验签继续使用替换前的密钥表
+     * @author 程思琦
+     * @date 23:50 2026/10/18
+     * @param keys 可用于验签的密钥
+     * @param activeKid 签发使用的密钥编号, 必须在 keys 中
+     */
+    public void update(Collection<? extends JwtKey> keys, String activeKid) {
+        update(keys, activeKid, 0L);
+    }
+
+    /**
+     * 替换全部密钥和早期令牌的切换时间
+     * @author 程思琦
+     * @date 10:20 2026/10/19
+     * @param keys 可用于验签的密钥
+     * @param activeKid 签发使用的密钥编号, 必须在 keys 中且不能是早期密钥, 为 null 时只验签不签发
+     * @param legacyCutover 早期令牌的切换时间(毫秒), 0 表示不接受早期令牌
+     */
+    public synchronized void update(Collection<? extends JwtKey> keys, String activeKid, long legacyCutover) {
+        Keys previous = this.keys;
+        Keys updated = new Keys(keys, activeKid, legacyCutover);
+        updated.generation = previous.generation + (updated.trustsAllOf(previous) ? 0 : 1);
+        this.keys = updated;
+    }
+
+    /**
+     * 信任代数, 之前信任的密钥被移除或替换时加一; 只新增密钥或切换签发密钥时不变
+     */
+    public long getGeneration() {
+        return keys.generation;
+    }
+
+    /**
+     * 签发使用的密钥
+     * @throws IllegalStateException 只验签的密钥环没有签发密钥
+     */
+    public JwtKey getSigningKey() {
+        JwtKey active = keys.active;
+        if (active == null) {
+            throw new IllegalStateException("No jwt signing key, this keyring only verifies tokens");
+        }
+        return active;
+    }
+
+    /**
+     * 签发使用的密钥编号, 只验签时返回 null
+     */
+    public String getActiveKid() {
+        JwtKey active = keys.active;
+        return active == null ? null : active.getKid();
+    }
+
+    /**
+     * 早期令牌的切换时间(毫秒), 0 表示不接受早期令牌
+     */
+    public long getLegacyCutover() {
+        return keys.legacyCutover;
+    }
+
+    /**
+     * 早期密钥验签通过的令牌是否仍在过渡期内
+     * @author 程思琦
+     * @date 10:20 2026/10/19
+     * @param expiration 令牌的过期时间(毫秒)
+     * @return 过期时间不晚于切换时间加早期令牌有效期时返回 true
+     */
+    public boolean acceptsLegacy(long expiration) {
+        long cutover = keys.legacyCutover;
+        return cutover > 0 && expiration <= cutover + LEGACY_TOKEN_LIFETIME;
+    }
+
+    /**
+     * 按编号查找密钥, 编号为空时返回早期密钥
+     */
+    public JwtKey getKey(String kid) {
+        return keys.byKid.get(kid == null ? LEGACY_KID : kid);
+    }
+
+    /**
+     * 按编码后的令牌头部查找密钥, 本密钥环签发的令牌不需要解析头部
+     */
+    public JwtKey getKeyByEncodedHeader(String encodedHeader) {
+        return keys.byHeader.get(encodedHeader);
+    }
+
+    public Collection<JwtKey> getKeys() {
+        return keys.byKid.values();
+    }
+
+    private static final class Keys {
+
+        private final Map<String, JwtKey> byKid;
+
+        private final Map<String, JwtKey> byHeader;
+
+        private final JwtKey active;
+
+        private final long legacyCutover;
+
+        /**
+         * 发布前设置, 随 volatile 引用一起可见
+         */
+        private long generation;
+
+        Keys(Collection<? extends JwtKey> keys, String activeKid, long legacyCutover) {
+            Map<String, JwtKey> byKid = new LinkedHashMap<>();
+            Map<String, JwtKey> byHeader = new HashMap<>();
+            for (JwtKey key : keys) {
+                if (byKid.put(key.getKid(), key) != null) {
+                    throw new IllegalArgumentException("Duplicate kid: " + key.getKid());
+                }
+                byHeader.put(key.getEncodedHeader(), key);
+            }
+            if (LEGACY_KID.equals(activeKid)) {
+                throw new IllegalArgumentException("The legacy key is public and must not sign tokens");
+            }
+            JwtKey active = activeKid == null ? null : byKid.get(activeKid);
+            if (activeKid != null && active == null) {
+                throw new IllegalArgumentException("Active kid not found: " + activeKid);
+            }
+            this.byKid = Collections.unmodifiableMap(byKid);
+            this.byHeader = byHeader;
+            this.active = active;
+            this.legacyCutover = legacyCutover;
+        }
+
+        /**
+         * 之前的每个密钥仍然是同一个实例, 且早期令牌的切换时间不变
+         */
+        boolean trustsAllOf(Keys previous) {
+            if (legacyCutover != previous.legacyCutover) {
+                return false;
+            }
+            for (Map.Entry<String, JwtKey> entry : previous.byKid.entrySet()) {
+                if (byKid.get(entry.getKey()) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.demo.security;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 令牌签名密钥加载
+ *
+ * 密钥来自三处: 配置中的 "kid:Base64密钥" 列表; 本地密钥库文件(JCEKS/PKCS12), 对称密钥条目作为 HMAC 密钥,
+ * EC P-256 / Ed25519 私钥条目作为 ES256 / EdDSA 密钥, 条目别名即 kid; 以及签发实例发布的 JWKS 文档,
+ * 其中的公钥只用于验签。
+ * 配置了密钥库时定时检查文件修改时间, 文件变化后重新加载并替换密钥环中的密钥,
+ * 轮换密钥只需要向密钥库添加新条目, 不需要重启; 配置了 JWKS 时每次检查都重新获取。
+ *
+ * 签发密钥: 配置了 active-kid 时使用该密钥, 否则使用密钥库中最新创建的条目,
+ * 没有密钥库时使用配置列表中的最后一个密钥; 只有 JWKS 公钥时只验签不签发。
+ * 早期密钥已经公开, 不会被选为签发密钥; 除早期密钥外没有任何密钥时加载失败, 启动时直接报错。
+ * 接受早期令牌时必须配置切换时间, 早期令牌的过期时间不能晚于切换时间加12小时, 见 JwtKeyring
+ * 内容未变的密钥重新加载后继续使用原实例, 各线程已初始化的 Mac 不会失效
+ *
+ * @author 程思琦
+ * @date 2026/10/19 00:05
+ * @description
+ **/
+public class JwtKeyringLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyringLoader.class);
+
+    private final JwtKeyring keyring;
+
+    private final String algorithm;
+
+    private final String configuredKeys;
+
+    private final String activeKid;
+
+    private final boolean legacyEnabled;
+
+    private final long legacyCutover;
+
+    private final Path keyStoreLocation;
+
+    private final String keyStoreType;
+
+    private final char[] keyStorePassword;
+
+    private final long reloadIntervalSeconds;
+
+    private final String jwksUri;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 上一次加载的密钥编号和签发密钥, 没有变化时不重复记录日志
+     */
+    private String loaded;
+
+    private FileTime keyStoreModified;
+
+    /**
+     * @param keyring 要更新的密钥环
+     * @param algorithm HMAC 算法, 如 HS512
+     * @param configuredKeys 配置的密钥列表, 格式为 "kid:Base64密钥", 多个用逗号分隔
+     * @param activeKid 签发使用的密钥编号, 为空时自动选择
+     * @param legacyEnabled 是否在过渡期内继续接受没有 kid 的早期令牌
+     * @param legacyCutover 早期令牌的切换时间(毫秒), legacyEnabled 为 true 时必须大于 0
+     * @param keyStoreLocation 密钥库文件, 为 null 时不使用密钥库
+     * @param keyStoreType 密钥库类型
+     * @param keyStorePassword 密钥库和条目的密码
+     * @param reloadIntervalSeconds 检查密钥库变化、重新获取 JWKS 的间隔(秒)
+     * @param jwksUri 签发实例的 JWKS 文档地址(http/https/file), 为空时不获取
+     */
+    public JwtKeyringLoader(JwtKeyring keyring, String algorithm, String configuredKeys, String activeKid
+            , boolean legacyEnabled, long legacyCutover, Path keyStoreLocation, String keyStoreType
+            , String keyStorePassword, long reloadIntervalSeconds, String jwksUri) {
+        if (legacyEnabled && legacyCutover <= 0) {
+            throw new IllegalArgumentException("legacyCutover is required when legacy tokens are accepted");
+        }
+        this.jwksUri = jwksUri == null || jwksUri.trim().isEmpty() ? null : jwksUri.trim();
+        if ((keyStoreLocation != null || this.jwksUri != null) && reloadIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("reloadIntervalSeconds must be positive");
+        }
+        this.keyring = keyring;
+        this.algorithm = algorithm;
+        this.configuredKeys = configuredKeys == null ? "" : configuredKeys.trim();
+        this.activeKid = activeKid == null || activeKid.trim().isEmpty() ? null : activeKid.trim();
+        this.legacyEnabled = legacyEnabled;
+        this.legacyCutover = legacyEnabled ? legacyCutover : 0L;
+        this.keyStoreLocation = keyStoreLocation;
+        this.keyStoreType = keyStoreType;
+        this.keyStorePassword = keyStorePassword == null ? new char[0] : keyStorePassword.toCharArray();
+        this.reloadIntervalSeconds = reloadIntervalSeconds;
+    }
+
+    /**
+     * 加载密钥, 配置了密钥库时开始定时检查; 启动时加载失败直接抛出, 避免使用错误的密钥启动
+     * @author 程思琦
+     * @date 00:05 2026/10/19
+     */
+    public void start() throws IOException, GeneralSecurityException {
+        load();
+        if (keyStoreLocation == null && jwksUri == null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-keyring-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reloadIfModified, reloadIntervalSeconds, reloadIntervalSeconds
+                , TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 重新加载全部密钥并替换密钥环中的密钥
+     * @author 程思琦
+     * @date 00:05 2026/10/19
+     */
+    public synchronized void load() throws IOException, GeneralSecurityException {
+        List<JwtKey> keys = new ArrayList<>();
+        if (legacyEnabled) {
+            keys.add(JwtKeyring.legacyKey());
+        }
+        String lastConfigured = null;
+        if (!configuredKeys.isEmpty()) {
+            for (String entry : configuredKeys.split(",")) {
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Invalid jwt signing key, expected kid:secret");
+                }
+                lastConfigured = entry.substring(0, separator).trim();
+                keys.add(new HmacJwtKey(lastConfigured, algorithm
+                        , Base64.getDecoder().decode(entry.substring(separator + 1).trim())));
+            }
+        }
+        String newest = null;
+        if (keyStoreLocation != null) {
+            keyStoreModified = Files.getLastModifiedTime(keyStoreLocation);
+            newest = loadKeyStore(keys);
+        }
+        if (jwksUri != null) {
+            loadJwks(keys);
+        }
+        if (keys.stream().allMatch(key -> JwtKeyring.LEGACY_KID.equals(key.getKid()))) {
+            throw new IllegalStateException("No jwt signing key configured, set jwt.signing.keys"
+                    + ", jwt.signing.keystore.location or jwt.signing.jwks-uri");
+        }
+        String active = activeKid != null ? activeKid
+                : newest != null ? newest
+                : lastConfigured;
+        keyring.update(reuseExisting(keys), active, legacyCutover);
+        String current = keyring.getKeys().stream().map(JwtKey::getKid).collect(Collectors.toList())
+                + (active == null ? " verify only" : " active " + active);
+        if (!current.equals(loaded)) {
+            log.info("Loaded jwt signing keys {}", current);
+            loaded = current;
+        }
+    }
+
+    /**
+     * 读取密钥库中的对称密钥和私钥条目
+     * @return 最新创建的条目别名, 没有条目时返回 null
+     */
+    private String loadKeyStore(List<JwtKey> keys) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(keyStoreType);
+        try (InputStream in = Files.newInputStream(keyStoreLocation)) {
+            keyStore.load(in, keyStorePassword);
+        }
+        KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(keyStorePassword);
+        String newest = null;
+        Date newestDate = null;
+        for (Enumeration<String> aliases = keyStore.aliases(); aliases.hasMoreElements(); ) {
+            String alias = aliases.nextElement();
+            if (!keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)
+                    && !keyStore.entryInstanceOf(alias, KeyStore.PrivateKeyEntry.class)) {
+                // 证书条目不需要密码, 也不能用于签名
+                continue;
+            }
+            KeyStore.Entry entry = keyStore.getEntry(alias, protection);
+            if (entry instanceof KeyStore.SecretKeyEntry) {
+                SecretKey secretKey = ((KeyStore.SecretKeyEntry) entry).getSecretKey();
+                keys.add(new HmacJwtKey(alias, algorithm, secretKey.getEncoded()));
+            } else if (entry instanceof KeyStore.PrivateKeyEntry) {
+                KeyStore.PrivateKeyEntry privateKeyEntry = (KeyStore.PrivateKeyEntry) entry;
+                PublicKey publicKey = privateKeyEntry.getCertificate().getPublicKey();
+                String signatureAlgorithm = SignatureJwtKey.algorithmOf(publicKey);
+                if (signatureAlgorithm == null) {
+                    log.warn("Ignored keystore entry {}, only EC P-256 and Ed25519 keys are supported", alias);
+                    continue;
+                }
+                keys.add(new SignatureJwtKey(alias, signatureAlgorithm, publicKey, privateKeyEntry.getPrivateKey()));
+            }
+            Date created = keyStore.getCreationDate(alias);
+            if (newestDate == null || (created != null && created.after(newestDate))) {
+                newest = alias;
+                newestDate = created;
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * 获取 JWKS 文档中的公钥, 与本地已有的密钥编号相同时以本地为准
+     */
+    private void loadJwks(List<JwtKey> keys) throws IOException, GeneralSecurityException {
+        URLConnection connection = new URL(jwksUri).openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        JSONObject document;
+        try (InputStream in = connection.getInputStream()) {
+            document = JSON.parseObject(new String(readAll(in), StandardCharsets.UTF_8));
+        }
+        JSONArray jwks = document == null ? null : document.getJSONArray("keys");
+        if (jwks == null) {
+            throw new IOException("Invalid JWKS document: " + jwksUri);
+        }
+        for (int i = 0; i < jwks.size(); i++) {
+            SignatureJwtKey key = SignatureJwtKey.fromJwk(jwks.getJSONObject(i));
+            if (key != null && keys.stream().noneMatch(k -> k.getKid().equals(key.getKid()))) {
+                keys.add(key);
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private List<JwtKey> reuseExisting(List<JwtKey> keys) {
+        List<JwtKey> result = new ArrayList<>(keys.size());
+        for (JwtKey key : keys) {
+            JwtKey existing = keyring.getKey(key.getKid());
+            result.add(existing != null && existing.sameKeyAs(key) ? existing : key);
+        }
+        return result;
+    }
+
+    private void reloadIfModified() {
+        try {
+            if (jwksUri == null && Files.getLastModifiedTime(keyStoreLocation).equals(keyStoreModified)) {
+                return;
+            }
+            load();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // 加载失败继续使用原有密钥, 下一轮重试
+            log.warn("Failed to reload jwt signing keys", e);
+        }
+    }
+}
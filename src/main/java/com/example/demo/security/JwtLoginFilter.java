@@ -1,10 +1,13 @@
 package com.example.demo.security;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.example.demo.utils.HttpUtils;
 import com.example.demo.utils.JwtTokenUtils;
+import com.example.demo.utils.LoginBodyParser;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpStatus;
+import com.example.demo.vo.LoginBean;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -17,11 +20,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
 
 /**
  *
@@ -54,8 +53,29 @@ import java.nio.charset.Charset;
  **/
 public class JwtLoginFilter extends UsernamePasswordAuthenticationFilter {
 
+    /**
+     * 登录请求体大小上限, 单位字节
+     */
+    private final int maxBodyBytes;
+
+    /**
+     * 登录限流, 为空时不限流
+     */
+    private final LoginRateLimiter rateLimiter;
+
     public JwtLoginFilter(AuthenticationManager authenticationManager){
+        this(authenticationManager, LoginBodyParser.DEFAULT_MAX_BYTES);
+    }
+
+    public JwtLoginFilter(AuthenticationManager authenticationManager, int maxBodyBytes){
+        this(authenticationManager, maxBodyBytes, null);
+    }
+
+    public JwtLoginFilter(AuthenticationManager authenticationManager, int maxBodyBytes
+            , LoginRateLimiter rateLimiter){
         setAuthenticationManager(authenticationManager);
+        this.maxBodyBytes = maxBodyBytes;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
@@ -78,12 +98,15 @@ public class JwtLoginFilter extends UsernamePasswordAuthenticationFilter {
          * 读取方式不能读取到如 application/json等 post请求数据, 需要把
          * 用户名密码的读取逻辑修改为到流中读取 request.getInputStream()
          */
-        String body = getBody(request);
-        // 解析json
-        JSONObject jsonObject = JSON.parseObject(body);
-        // 获取 用户名密码
-        String username = jsonObject.getString("username");
-        String password = jsonObject.getString("password");
+        // 按客户端限流, 在读取请求体之前拒绝过于频繁的尝试
+        if (rateLimiter != null) {
+            rateLimiter.checkClient(request.getRemoteAddr());
+        }
+
+        // 从流中读取并只解析出 用户名密码, 请求体过大或格式错误时抛出 LoginBodyException
+        LoginBean loginBean = LoginBodyParser.parse(request, maxBodyBytes);
+        String username = loginBean.getUsername();
+        String password = loginBean.getPassword();
 
         if (username == null) {
             username = "";
@@ -99,7 +122,21 @@ public class JwtLoginFilter extends UsernamePasswordAuthenticationFilter {
         // Allow subclasses to set the "details" property
         setDetails(request, authRequest);
 
-        return this.getAuthenticationManager().authenticate(authRequest);
+        if (rateLimiter == null) {
+            return this.getAuthenticationManager().authenticate(authRequest);
+        }
+
+        // 按用户名限流, 在查询用户和 BCrypt 校验之前拒绝, 密码错误计入失败次数
+        rateLimiter.checkUsername(username);
+        Authentication authResult;
+        try {
+            authResult = this.getAuthenticationManager().authenticate(authRequest);
+        } catch (BadCredentialsException e) {
+            rateLimiter.loginFailed(username);
+            throw e;
+        }
+        rateLimiter.loginSucceeded(username);
+        return authResult;
     }
 
     /**
@@ -119,53 +156,37 @@ public class JwtLoginFilter extends UsernamePasswordAuthenticationFilter {
             eventPublisher.publishEvent(new InteractiveAuthenticationSuccessEvent(authResult, this.getClass()));
         }
 
-        // 生成并返回 token 给客户端, 后续访问携带此 token
-        JwtAuthenticationToken token = new JwtAuthenticationToken(null, null
-                , JwtTokenUtils.generateToken(authResult));
-
-        HttpUtils.write(response, token);
+        // 生成并返回 token 给客户端, 后续访问携带此 token, 过期前用刷新令牌换取新的 token
+        HttpUtils.write(response, JwtTokenUtils.generateTokenPair(authResult));
     }
 
     /**
-     * 获取请求Body 从流中读取
-     * @author 程思琦
-     * @date 16:29 2019/8/15
-     * @param request 请求
-     * @return String
+     * 认证失败后的操作
      */
-    private String getBody(HttpServletRequest request){
-        StringBuilder sb = new StringBuilder();
-        InputStream is = null;
-        BufferedReader br = null;
-
-        try {
-            is = request.getInputStream();
-            // 缓冲字符输入流
-            br = new BufferedReader(new InputStreamReader(is, Charset.forName("UTF-8")));
-
-            String line ;
-            while ((line = br.readLine()) != null ){
-                sb.append(line);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            // 关闭 流资源
-            if(is != null){
-                try {
-                    is.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-            if(br != null) {
-                try {
-                    br.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
+    @Override
+    protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response
+            , AuthenticationException failed) throws IOException, ServletException {
+        if(failed instanceof LoginRateLimitedException){
+            // 尝试过于频繁或用户名已被锁定, 返回 429
+            SecurityContextHolder.clearContext();
+            response.setHeader("Retry-After", String.valueOf(((LoginRateLimitedException) failed).getRetryAfterSeconds()));
+            HttpUtils.write(response, EncodedHttpResult.error(HttpStatus.SC_TOO_MANY_REQUESTS, failed.getMessage()));
+            return;
+        }
+        if(failed instanceof LoginOverloadedException){
+            // 登录校验线程池已满, 快速返回 503, 提示客户端稍后重试
+            SecurityContextHolder.clearContext();
+            response.setHeader("Retry-After", "1");
+            HttpUtils.write(response, EncodedHttpResult.error(HttpStatus.SC_SERVICE_UNAVAILABLE, failed.getMessage()));
+            return;
+        }
+        if(failed instanceof LoginBodyException){
+            // 请求体过大(413)或格式错误(400)
+            SecurityContextHolder.clearContext();
+            HttpUtils.write(response, EncodedHttpResult.error(((LoginBodyException) failed).getStatus()
+                    , failed.getMessage()));
+            return;
         }
-        return sb.toString();
+        super.unsuccessfulAuthentication(request, response, failed);
     }
 }
@@ -0,0 +1,41 @@
+package com.example.demo.security;
+
+import com.example.demo.utils.LoginBodyParser;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 读取登录请求体中的用户名密码, reactive 版本的 JwtLoginFilter.attemptAuthentication
+ *
+ * 与 JwtLoginFilter 使用同一个解析器, 请求体过大或格式错误时以 LoginBodyException 结束
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:15
+ * @description
+ **/
+public class JwtLoginServerAuthenticationConverter implements ServerAuthenticationConverter {
+
+    /**
+     * 登录请求体大小上限, 单位字节
+     */
+    private final int maxBodyBytes;
+
+    public JwtLoginServerAuthenticationConverter(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        return LoginBodyParser.parse(request.getBody(), request.getHeaders().getContentLength(), maxBodyBytes)
+                .map(loginBean -> {
+                    String username = loginBean.getUsername();
+                    String password = loginBean.getPassword();
+                    return new JwtAuthenticationToken(username == null ? "" : username.trim()
+                            , password == null ? "" : password);
+                });
+    }
+}
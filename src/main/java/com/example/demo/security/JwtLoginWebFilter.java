@@ -0,0 +1,127 @@
+package com.example.demo.security;
+
+import com.example.demo.utils.JwtTokenUtils;
+import com.example.demo.utils.ServerHttpUtils;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpStatus;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 启动登录认证流程过滤器, reactive 版本的 JwtLoginFilter
+ *
+ * POST /login 时读取用户名密码并登录认证, 成功后生成令牌返回给客户端, 响应格式与 JwtLoginFilter 一致:
+ * 登录校验线程池已满返回 503, 请求体过大返回 413, 格式错误返回 400, 用户名或密码错误返回 401,
+ * 尝试过于频繁或用户名已被锁定返回 429
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:25
+ * @description
+ **/
+public class JwtLoginWebFilter implements WebFilter {
+
+    private final ServerWebExchangeMatcher requiresAuthenticationMatcher
+            = ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, "/login");
+
+    private final ServerAuthenticationConverter authenticationConverter;
+
+    private final ReactiveAuthenticationManager authenticationManager;
+
+    /**
+     * 登录限流, 为空时不限流
+     */
+    private final LoginRateLimiter rateLimiter;
+
+    public JwtLoginWebFilter(ServerAuthenticationConverter authenticationConverter
+            , ReactiveAuthenticationManager authenticationManager) {
+        this(authenticationConverter, authenticationManager, null);
+    }
+
+    public JwtLoginWebFilter(ServerAuthenticationConverter authenticationConverter
+            , ReactiveAuthenticationManager authenticationManager, LoginRateLimiter rateLimiter) {
+        this.authenticationConverter = authenticationConverter;
+        this.authenticationManager = authenticationManager;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return requiresAuthenticationMatcher.matches(exchange)
+                .flatMap(matchResult -> matchResult.isMatch() ? login(exchange) : chain.filter(exchange));
+    }
+
+    private Mono<Void> login(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        return Mono.defer(() -> {
+                    // 按客户端限流, 在读取请求体之前拒绝过于频繁的尝试
+                    if (rateLimiter != null) {
+                        rateLimiter.checkClient(remoteAddress(exchange));
+                    }
+                    return authenticationConverter.convert(exchange);
+                })
+                .flatMap(this::authenticate)
+                // 生成并返回 token 给客户端, 后续访问携带此 token, 过期前用刷新令牌换取新的 token
+                .flatMap(authentication -> ServerHttpUtils.write(response
+                        , JwtTokenUtils.generateTokenPair(authentication)))
+                .onErrorResume(AuthenticationException.class, failed -> unsuccessfulAuthentication(response, failed));
+    }
+
+    /**
+     * 按用户名限流, 在查询用户和 BCrypt 校验之前拒绝, 密码错误计入失败次数
+     */
+    private Mono<Authentication> authenticate(Authentication authRequest) {
+        if (rateLimiter == null) {
+            return authenticationManager.authenticate(authRequest);
+        }
+        String username = authRequest.getName();
+        return Mono.defer(() -> {
+            rateLimiter.checkUsername(username);
+            return authenticationManager.authenticate(authRequest);
+        })
+                .doOnNext(authentication -> rateLimiter.loginSucceeded(username))
+                .doOnError(BadCredentialsException.class, e -> rateLimiter.loginFailed(username));
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
+        }
+        return address.getAddress().getHostAddress();
+    }
+
+    private static Mono<Void> unsuccessfulAuthentication(ServerHttpResponse response, AuthenticationException failed) {
+        if (failed instanceof LoginRateLimitedException) {
+            // 尝试过于频繁或用户名已被锁定, 返回 429
+            response.getHeaders().set("Retry-After"
+                    , String.valueOf(((LoginRateLimitedException) failed).getRetryAfterSeconds()));
+            return ServerHttpUtils.write(response
+                    , EncodedHttpResult.error(HttpStatus.SC_TOO_MANY_REQUESTS, failed.getMessage()));
+        }
+        if (failed instanceof LoginOverloadedException) {
+            // 登录校验线程池已满, 快速返回 503, 提示客户端稍后重试
+            response.getHeaders().set("Retry-After", "1");
+            return ServerHttpUtils.write(response
+                    , EncodedHttpResult.error(HttpStatus.SC_SERVICE_UNAVAILABLE, failed.getMessage()));
+        }
+        if (failed instanceof LoginBodyException) {
+            // 请求体过大(413)或格式错误(400)
+            return ServerHttpUtils.write(response, EncodedHttpResult.error(((LoginBodyException) failed).getStatus()
+                    , failed.getMessage()));
+        }
+        return ServerHttpUtils.write(response, EncodedHttpResult.error(HttpStatus.SC_UNAUTHORIZED, failed.getMessage()));
+    }
+}
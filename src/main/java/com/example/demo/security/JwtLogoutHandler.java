@@ -0,0 +1,62 @@
+package com.example.demo.security;
+
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.logout.ServerLogoutHandler;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 退出登录处理器, 吊销请求携带的令牌和令牌所属的会话, 同一会话的刷新令牌随之失效。
+ * 令牌的吊销记录保留到令牌过期为止, 会话的吊销记录保留一个刷新令牌有效期
+ *
+ * 同时实现 ServerLogoutHandler, reactive 配置下使用同一个处理器
+ *
+ * @author 程思琦
+ * @date 2026/10/18 22:45
+ * @description
+ **/
+public class JwtLogoutHandler implements LogoutHandler, ServerLogoutHandler {
+
+    private final TokenRevocationStore revocationStore;
+
+    private final JwtTokenCache tokenCache;
+
+    public JwtLogoutHandler(TokenRevocationStore revocationStore, JwtTokenCache tokenCache) {
+        this.revocationStore = revocationStore;
+        this.tokenCache = tokenCache;
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        revoke(JwtTokenUtils.getToken(request));
+    }
+
+    @Override
+    public Mono<Void> logout(WebFilterExchange exchange, Authentication authentication) {
+        revoke(JwtTokenUtils.getToken(exchange.getExchange().getRequest().getHeaders()));
+        return Mono.empty();
+    }
+
+    private void revoke(String token) {
+        if (token == null) {
+            return;
+        }
+        VerifiedJwtAuthenticationToken verified = tokenCache.getAuthentication(token);
+        if (verified == null) {
+            // 非法或已过期的令牌不需要吊销
+            return;
+        }
+        JwtVerifiedClaims claims = verified.getClaims();
+        revocationStore.revoke(claims.getTokenId(), verified.getExpiration());
+        if (claims.getSessionId() != null) {
+            revocationStore.revoke(claims.getSessionId()
+                    , System.currentTimeMillis() + JwtTokenUtils.getRefreshExpireTime());
+        }
+        tokenCache.invalidate(token);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * 令牌验证, reactive 版本的 JwtAuthenticationFilter 第二步
+ *
+ * 与 SecurityUtils.checkAuthentication 相同: 已验证过的令牌直接从 JwtTokenCache 获取认证信息,
+ * 已吊销的令牌视为未登录。验签和查询吊销记录都是内存计算, 直接在事件循环线程上完成
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:05
+ * @description
+ **/
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtTokenCache tokenCache;
+
+    private final TokenRevocationStore revocationStore;
+
+    /**
+     * @param tokenCache 令牌验证缓存
+     * @param revocationStore 令牌吊销记录, 为 null 时不检查
+     */
+    public JwtReactiveAuthenticationManager(JwtTokenCache tokenCache, TokenRevocationStore revocationStore) {
+        this.tokenCache = tokenCache;
+        this.revocationStore = revocationStore;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = ((JwtAuthenticationToken) authentication).getToken();
+        VerifiedJwtAuthenticationToken verified = tokenCache.getAuthentication(token);
+        if (verified == null || (revocationStore != null
+                && revocationStore.isRevoked(verified.getClaims()))) {
+            return Mono.error(new BadCredentialsException("令牌无效或已过期"));
+        }
+        return Mono.just(verified);
+    }
+}
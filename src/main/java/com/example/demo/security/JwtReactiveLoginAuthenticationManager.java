@@ -0,0 +1,73 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 登录认证, reactive 版本的 JwtAuthenticationProvider
+ *
+ * 用户查询交给 ReactiveUserDetailsService, 账号状态检查与 DaoAuthenticationProvider 相同,
+ * BCrypt 校验提交到 LoginVerificationExecutor 后不等待, 校验完成时再继续, 事件循环线程不会被阻塞;
+ * 线程池已满时同样以 LoginOverloadedException 结束
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:15
+ * @description
+ **/
+public class JwtReactiveLoginAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveUserDetailsService userDetailsService;
+
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * 密码校验线程池, 为空时在 parallel 调度器上校验
+     */
+    private final LoginVerificationExecutor verificationExecutor;
+
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+    public JwtReactiveLoginAuthenticationManager(ReactiveUserDetailsService userDetailsService
+            , PasswordEncoder passwordEncoder, LoginVerificationExecutor verificationExecutor) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.verificationExecutor = verificationExecutor;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String presentedPassword = (String) authentication.getCredentials();
+        return userDetailsService.findByUsername(authentication.getName())
+                // 与 DaoAuthenticationProvider 一样不区分用户不存在和密码错误
+                .switchIfEmpty(Mono.defer(() -> Mono.error(badCredentials())))
+                .doOnNext(userDetailsChecker::check)
+                .flatMap(userDetails -> verify(userDetails, presentedPassword).thenReturn(userDetails))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, null
+                        , userDetails.getAuthorities()));
+    }
+
+    private Mono<Void> verify(UserDetails userDetails, String presentedPassword) {
+        Runnable verification = () -> {
+            if (presentedPassword == null || !passwordEncoder.matches(presentedPassword, userDetails.getPassword())) {
+                throw badCredentials();
+            }
+        };
+        if (verificationExecutor == null) {
+            return Mono.fromRunnable(verification).subscribeOn(Schedulers.parallel()).then();
+        }
+        return Mono.defer(() -> Mono.fromFuture(verificationExecutor.verifyAsync(verification)));
+    }
+
+    private static BadCredentialsException badCredentials() {
+        return new BadCredentialsException("用户名或密码错误");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.security;
+
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 从请求头中取出令牌, reactive 版本的 JwtAuthenticationFilter 第一步
+ *
+ * 令牌的读取规则与 JwtTokenUtils.getToken 一致, 请求没有携带令牌时返回空的 Mono, 按未登录继续处理
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:00
+ * @description
+ **/
+public class JwtServerAuthenticationConverter implements ServerAuthenticationConverter {
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String token = JwtTokenUtils.getToken(exchange.getRequest().getHeaders());
+        if (token == null) {
+            return Mono.empty();
+        }
+        return Mono.just(new JwtAuthenticationToken(null, null, token));
+    }
+}
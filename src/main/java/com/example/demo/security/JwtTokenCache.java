@@ -0,0 +1,132 @@
+package com.example.demo.security;
+
+import com.example.demo.utils.ExpiringCache;
+import com.example.demo.utils.JwtTokenUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ *
+ * 令牌验证缓存
+ *
+ * 客户端在令牌有效期内会反复携带同一个令牌访问接口, 每次都重新进行
+ * Base64解码、JSON解析和 HS512 验签代价较高。这里以令牌的 SHA-256 摘要为键,
+ * 缓存验签后得到的不可变认证信息, 条目在令牌过期(exp)时自动失效。
+ * 密钥轮换移除或替换了密钥时(密钥环的信任代数变化)清空缓存, 已下线密钥签发的令牌需要重新验签。
+ *
+ * @author 程思琦
+ * @date 2026/10/18 14:40
+ * @description
+ **/
+public class JwtTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ExpiringCache<TokenDigest, VerifiedJwtAuthenticationToken> cache;
+
+    /**
+     * 缓存内容对应的密钥环信任代数
+     */
+    private volatile long keyGeneration = JwtTokenUtils.getKeyring().getGeneration();
+
+    public JwtTokenCache(int maximumSize) {
+        this.cache = new ExpiringCache<>(maximumSize);
+    }
+
+    /**
+     * 根据令牌获取认证信息, 未命中缓存时验签解析并放入缓存
+     * @author 程思琦
+     * @date 14:45 2026/10/18
+     * @param token 令牌
+     * @return 认证信息, 令牌非法或已过期时返回 null
+     */
+    public VerifiedJwtAuthenticationToken getAuthentication(String token) {
+        JwtKeyring keyring = JwtTokenUtils.getKeyring();
+        long generation = keyring.getGeneration();
+        if (generation != keyGeneration) {
+            cache.invalidateAll();
+            keyGeneration = generation;
+        }
+        TokenDigest key = TokenDigest.of(token);
+        VerifiedJwtAuthenticationToken authentication = cache.get(key);
+        if (authentication == null) {
+            authentication = JwtTokenUtils.getAuthenticationFromToken(token);
+            if (authentication != null) {
+                cache.put(key, authentication, authentication.getExpiration());
+                if (keyring.getGeneration() != generation) {
+                    // 验签期间密钥发生了轮换, 可能是用已移除的密钥验签的, 不保留
+                    cache.invalidate(key);
+                }
+            }
+        }
+        return authentication;
+    }
+
+    /**
+     * 移除令牌对应的缓存
+     * @author 程思琦
+     * @date 14:48 2026/10/18
+     * @param token 令牌
+     */
+    public void invalidate(String token) {
+        cache.invalidate(TokenDigest.of(token));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * 令牌摘要, 作为缓存键
+     */
+    private static final class TokenDigest {
+
+        private final byte[] digest;
+
+        private final int hash;
+
+        private TokenDigest(byte[] digest) {
+            this.digest = digest;
+            // 摘要本身分布均匀, 直接取前4个字节作为哈希值
+            this.hash = (digest[0] << 24) | ((digest[1] & 0xff) << 16) | ((digest[2] & 0xff) << 8) | (digest[3] & 0xff);
+        }
+
+        static TokenDigest of(String token) {
+            return new TokenDigest(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof TokenDigest && Arrays.equals(digest, ((TokenDigest) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
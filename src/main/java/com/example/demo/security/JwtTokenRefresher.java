@@ -0,0 +1,194 @@
+package com.example.demo.security;
+
+import com.example.demo.utils.ExpiringCache;
+import com.example.demo.utils.JwtTokenUtils;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌刷新
+ *
+ * 客户端用刷新令牌换取新的访问令牌和刷新令牌, 旧的刷新令牌随即吊销(轮换)。
+ * 每次刷新需要验签、查询用户并签发两个令牌, 为了避免客户端频繁刷新放大签名开销:
+ *
+ * 1、新签发的令牌对在刷新阈值时间内缓存, 以旧刷新令牌和新刷新令牌为键, 阈值内再次刷新直接返回同一对令牌,
+ *    不再签名; 旧刷新令牌在阈值时间之后才真正失效, 重试和网络重发不会被误判为重放
+ * 2、同一刷新令牌的并发请求只有一个执行刷新, 其余等待并返回同一个结果(single-flight)
+ *
+ * 新令牌对沿用刷新令牌的会话ID; 退出登录吊销会话后, 缓存中的令牌对和等待中的结果同样不再返回
+ *
+ * 合并返回和实际签发的次数分别统计
+ *
+ * @author 程思琦
+ * @date 2026/10/19 05:50
+ * @description
+ **/
+public class JwtTokenRefresher {
+
+    private final UserDetailsService userDetailsService;
+
+    private final TokenRevocationStore revocationStore;
+
+    /**
+     * 刷新阈值, 令牌对签发后在此时间内被重复刷新时直接返回
+     */
+    private final long thresholdMillis;
+
+    private final ExpiringCache<String, RefreshedTokens> recentTokens;
+
+    private final ConcurrentHashMap<String, CompletableFuture<RefreshedTokens>> inFlight
+            = new ConcurrentHashMap<>();
+
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+    private final LongAdder signedCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public JwtTokenRefresher(UserDetailsService userDetailsService, TokenRevocationStore revocationStore
+            , long thresholdMillis, int maximumSize) {
+        this.userDetailsService = userDetailsService;
+        this.revocationStore = revocationStore;
+        this.thresholdMillis = thresholdMillis;
+        this.recentTokens = new ExpiringCache<>(maximumSize);
+    }
+
+    /**
+     * 刷新令牌
+     * @author 程思琦
+     * @date 05:55 2026/10/19
+     * @param refreshToken 刷新令牌
+     * @return 新的令牌对, token 为访问令牌, refreshToken 为新的刷新令牌
+     * @throws BadCredentialsException 刷新令牌非法、已过期、已吊销或用户不可用
+     */
+    public JwtAuthenticationToken refresh(String refreshToken) {
+        if (refreshToken == null) {
+            throw invalid();
+        }
+        RefreshedTokens tokens = recentTokens.get(refreshToken);
+        if (tokens != null) {
+            coalescedCount.increment();
+            return checkSession(tokens);
+        }
+
+        CompletableFuture<RefreshedTokens> flight = new CompletableFuture<>();
+        CompletableFuture<RefreshedTokens> existing = inFlight.putIfAbsent(refreshToken, flight);
+        if (existing != null) {
+            coalescedCount.increment();
+            return checkSession(join(existing));
+        }
+        try {
+            // 上一次刷新可能在 get 和 putIfAbsent 之间完成
+            tokens = recentTokens.get(refreshToken);
+            if (tokens != null) {
+                coalescedCount.increment();
+            } else {
+                tokens = sign(refreshToken);
+                signedCount.increment();
+            }
+            flight.complete(tokens);
+            return checkSession(tokens);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(refreshToken, flight);
+        }
+    }
+
+    /**
+     * 会话已吊销(退出登录)时不再返回缓存或合并得到的令牌对
+     */
+    private JwtAuthenticationToken checkSession(RefreshedTokens tokens) {
+        if (revocationStore.isRevoked(tokens.sessionId)) {
+            throw invalid();
+        }
+        return tokens.tokens;
+    }
+
+    private RefreshedTokens sign(String refreshToken) {
+        JwtVerifiedClaims claims = JwtTokenUtils.verifyRefreshToken(refreshToken);
+        if (claims == null || revocationStore.isRevoked(claims)) {
+            throw invalid();
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            throw invalid();
+        }
+        // 用户被禁用或锁定时不再签发
+        userDetailsChecker.check(userDetails);
+
+        // 没有会话ID的早期刷新令牌换取时开启新会话
+        UUID sessionId = claims.getSessionId() == null ? UUID.randomUUID() : claims.getSessionId();
+        RefreshedTokens tokens = new RefreshedTokens(JwtTokenUtils.generateTokenPair(userDetails.getUsername()
+                , userDetails.getAuthorities(), sessionId), sessionId);
+        String newRefreshToken = tokens.tokens.getRefreshToken();
+
+        long expiresAt = System.currentTimeMillis() + thresholdMillis;
+        recentTokens.put(refreshToken, tokens, expiresAt);
+        recentTokens.put(newRefreshToken, tokens, expiresAt);
+        // 轮换: 旧刷新令牌在阈值时间之后不再可用
+        revocationStore.revoke(claims.getTokenId(), claims.getExpiration());
+        return tokens;
+    }
+
+    private static RefreshedTokens join(CompletableFuture<RefreshedTokens> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static BadCredentialsException invalid() {
+        return new BadCredentialsException("刷新令牌无效或已过期");
+    }
+
+    /**
+     * 签发的令牌对及其会话ID
+     */
+    private static final class RefreshedTokens {
+
+        private final JwtAuthenticationToken tokens;
+
+        private final UUID sessionId;
+
+        private RefreshedTokens(JwtAuthenticationToken tokens, UUID sessionId) {
+            this.tokens = tokens;
+            this.sessionId = sessionId;
+        }
+    }
+
+    /**
+     * 实际签发新令牌对的次数
+     */
+    public long getSignedCount() {
+        return signedCount.sum();
+    }
+
+    /**
+     * 直接返回已签发令牌对的次数, 包括阈值内的重复刷新和并发合并
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+}
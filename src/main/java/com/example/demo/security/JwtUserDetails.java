@@ -20,6 +20,10 @@ import java.util.Collection;
  **/
 public class JwtUserDetails extends User {
 
+    /**
+     * 权限集合, 反序列化后按权限列表重新计算
+     */
+    private transient PermissionSet permissions;
 
     public JwtUserDetails(String username, String password
             , Collection<? extends GrantedAuthority> authorities) {
@@ -30,5 +34,21 @@ public class JwtUserDetails extends User {
             , boolean accountNonExpired, boolean credentialsNonExpired
             , boolean accountNonLocked, Collection<? extends GrantedAuthority> authorities) {
         super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.permissions = PermissionSet.of(authorities);
+    }
+
+    /**
+     * 获取权限集合
+     * @author 程思琦
+     * @date 19:40 2026/10/18
+     * @return PermissionSet
+     */
+    public PermissionSet getPermissions() {
+        PermissionSet result = permissions;
+        if (result == null) {
+            result = PermissionSet.of(getAuthorities());
+            permissions = result;
+        }
+        return result;
     }
 }
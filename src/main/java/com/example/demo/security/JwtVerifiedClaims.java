@@ -0,0 +1,104 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * 已验签的令牌声明
+ *
+ * 令牌只需验签解析一次, 得到的用户名、过期时间、创建时间和权限列表都保存在这里,
+ * 供校验、刷新和构造认证信息等场景复用, 创建后不可修改
+ *
+ * @author 程思琦
+ * @date 2026/10/18 15:20
+ * @description
+ **/
+public class JwtVerifiedClaims {
+
+    private final String token;
+
+    /**
+     * 令牌ID, 取自 jti 声明; 没有 jti 的旧令牌由令牌内容派生, 保证每个令牌都可以被吊销
+     */
+    private final UUID tokenId;
+
+    /**
+     * 会话ID, 取自 sid 声明, 一次登录签发的访问令牌和刷新令牌以及之后刷新得到的令牌共用;
+     * 没有 sid 的旧令牌为 null
+     */
+    private final UUID sessionId;
+
+    private final String subject;
+
+    /**
+     * 过期时间点(毫秒时间戳)
+     */
+    private final long expiration;
+
+    /**
+     * 创建时间点(毫秒时间戳), 令牌中没有创建时间时为 0
+     */
+    private final long created;
+
+    private final PermissionSet permissions;
+
+    public JwtVerifiedClaims(String token, UUID tokenId, String subject, long expiration, long created
+            , PermissionSet permissions) {
+        this(token, tokenId, null, subject, expiration, created, permissions);
+    }
+
+    public JwtVerifiedClaims(String token, UUID tokenId, UUID sessionId, String subject, long expiration
+            , long created, PermissionSet permissions) {
+        this.token = token;
+        this.tokenId = tokenId;
+        this.sessionId = sessionId;
+        this.subject = subject;
+        this.expiration = expiration;
+        this.created = created;
+        this.permissions = permissions;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public UUID getTokenId() {
+        return tokenId;
+    }
+
+    public UUID getSessionId() {
+        return sessionId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public Collection<GrantedAuthority> getAuthorities() {
+        return permissions;
+    }
+
+    public PermissionSet getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * 判断是否已过期
+     * @author 程思琦
+     * @date 15:22 2026/10/18
+     * @return boolean
+     */
+    public boolean isExpired() {
+        return expiration <= System.currentTimeMillis();
+    }
+}
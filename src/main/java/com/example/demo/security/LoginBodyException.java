@@ -0,0 +1,26 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 登录请求体不合法, 携带要返回的响应状态码: 格式错误 400, 超出大小限制 413
+ *
+ * @author 程思琦
+ * @date 2026/10/18 21:00
+ * @description
+ **/
+public class LoginBodyException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public LoginBodyException(int status, String msg) {
+        super(msg);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 登录校验线程池已满, 请求被快速拒绝, 对应 503 响应
+ *
+ * @author 程思琦
+ * @date 2026/10/18 17:00
+ * @description
+ **/
+public class LoginOverloadedException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoginOverloadedException(String msg) {
+        super(msg);
+    }
+}
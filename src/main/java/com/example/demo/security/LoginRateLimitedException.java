@@ -0,0 +1,29 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 登录尝试过于频繁或已被锁定, 请求在查询用户和 BCrypt 校验之前被拒绝, 对应 429 响应
+ *
+ * @author 程思琦
+ * @date 2026/10/19 04:00
+ * @description
+ **/
+public class LoginRateLimitedException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 建议客户端等待的秒数
+     */
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
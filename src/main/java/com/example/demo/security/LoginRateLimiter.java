@@ -0,0 +1,357 @@
+package com.example.demo.security;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 登录限流和防暴力破解
+ *
+ * 每次登录尝试在读取用户和 BCrypt 校验之前, 按客户端 IP 和用户名各消耗一个令牌, 令牌不足时抛出
+ * LoginRateLimitedException, 由调用方返回 429。同一用户名在失败窗口内连续失败达到上限后被锁定一段时间,
+ * 锁定期间的尝试同样直接拒绝, 登录成功后清零失败计数。
+ *
+ * 令牌桶按 GCRA 实现, 每个桶只有一个 AtomicLong 保存"理论到达时间", 取令牌就是一次 CAS, 不加锁;
+ * 桶按键的哈希分散到多个分段中, 每个分段有自己的条目上限和清理锁。已经完全恢复(令牌满、没有失败记录、
+ * 未锁定)的桶与新建的桶等价, 清理时直接移除, 不会丢失状态; 仍然不足时再淘汰一部分未锁定的桶。
+ *
+ * 放行、限流拒绝、锁定拒绝和触发锁定的次数使用 LongAdder 统计, 供监控使用
+ *
+ * @author 程思琦
+ * @date 2026/10/19 04:00
+ * @description
+ **/
+public class LoginRateLimiter {
+
+    /**
+     * 分段数, 必须是 2 的幂
+     */
+    private static final int STRIPES = 16;
+
+    private final BucketMap usernameBuckets;
+
+    private final BucketMap clientBuckets;
+
+    /**
+     * 每个用户名取一个令牌的间隔和突发容忍时间
+     */
+    private final long usernameInterval;
+
+    private final long usernameTolerance;
+
+    /**
+     * 每个客户端取一个令牌的间隔和突发容忍时间
+     */
+    private final long clientInterval;
+
+    private final long clientTolerance;
+
+    /**
+     * 每条失败记录的恢复间隔和容忍时间, 失败窗口内失败次数超过上限即锁定
+     */
+    private final long failureInterval;
+
+    private final long failureTolerance;
+
+    private final long lockoutMillis;
+
+    private final LongAdder admittedCount = new LongAdder();
+
+    private final LongAdder rateLimitedCount = new LongAdder();
+
+    private final LongAdder lockedOutCount = new LongAdder();
+
+    private final LongAdder lockoutCount = new LongAdder();
+
+    /**
+     * @param usernameCapacity 每个用户名在一个周期内允许的尝试次数
+     * @param usernamePeriodMillis 用户名令牌桶的恢复周期
+     * @param clientCapacity 每个客户端 IP 在一个周期内允许的尝试次数
+     * @param clientPeriodMillis 客户端令牌桶的恢复周期
+     * @param maxFailures 失败窗口内允许的失败次数, 超出后锁定用户名
+     * @param failureWindowMillis 失败窗口
+     * @param lockoutMillis 锁定时长
+     * @param maximumSize 每类桶的最大条目数
+     */
+    public LoginRateLimiter(int usernameCapacity, long usernamePeriodMillis, int clientCapacity
+            , long clientPeriodMillis, int maxFailures, long failureWindowMillis, long lockoutMillis
+            , int maximumSize) {
+        if (usernameCapacity <= 0 || clientCapacity <= 0 || maxFailures <= 0 || maximumSize <= 0) {
+            throw new IllegalArgumentException("capacities, maxFailures and maximumSize must be positive");
+        }
+        if (usernamePeriodMillis <= 0 || clientPeriodMillis <= 0 || failureWindowMillis <= 0 || lockoutMillis < 0) {
+            throw new IllegalArgumentException("periods must be positive");
+        }
+        this.usernameInterval = Math.max(1L, usernamePeriodMillis / usernameCapacity);
+        this.usernameTolerance = usernameInterval * (usernameCapacity - 1);
+        this.clientInterval = Math.max(1L, clientPeriodMillis / clientCapacity);
+        this.clientTolerance = clientInterval * (clientCapacity - 1);
+        this.failureInterval = Math.max(1L, failureWindowMillis / maxFailures);
+        this.failureTolerance = failureInterval * (maxFailures - 1);
+        this.lockoutMillis = lockoutMillis;
+        this.usernameBuckets = new BucketMap(maximumSize);
+        this.clientBuckets = new BucketMap(maximumSize);
+    }
+
+    /**
+     * 检查客户端是否还能尝试登录, 在读取请求体之前调用
+     * @author 程思琦
+     * @date 04:05 2026/10/19
+     * @param clientIp 客户端 IP, 为 null 时不检查
+     * @throws LoginRateLimitedException 尝试过于频繁
+     */
+    public void checkClient(String clientIp) {
+        if (clientIp == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Bucket bucket = clientBuckets.get(clientIp, now);
+        long wait = Bucket.acquire(bucket.admitAt, now, clientInterval, clientTolerance);
+        if (wait > 0) {
+            throw rateLimited(wait);
+        }
+    }
+
+    /**
+     * 检查用户名是否还能尝试登录, 在查询用户和校验密码之前调用
+     * @author 程思琦
+     * @date 04:08 2026/10/19
+     * @param username 用户名
+     * @throws LoginRateLimitedException 尝试过于频繁或用户名已被锁定
+     */
+    public void checkUsername(String username) {
+        long now = System.currentTimeMillis();
+        Bucket bucket = usernameBuckets.get(username, now);
+        long lockedUntil = bucket.lockedUntil;
+        if (lockedUntil > now) {
+            lockedOutCount.increment();
+            throw new LoginRateLimitedException("登录失败次数过多, 账号已被临时锁定", toSeconds(lockedUntil - now));
+        }
+        long wait = Bucket.acquire(bucket.admitAt, now, usernameInterval, usernameTolerance);
+        if (wait > 0) {
+            throw rateLimited(wait);
+        }
+        admittedCount.increment();
+    }
+
+    /**
+     * 依次检查客户端和用户名
+     * @author 程思琦
+     * @date 04:10 2026/10/19
+     * @param username 用户名
+     * @param clientIp 客户端 IP
+     */
+    public void acquire(String username, String clientIp) {
+        checkClient(clientIp);
+        checkUsername(username);
+    }
+
+    /**
+     * 记录一次密码错误, 失败次数超出上限时锁定用户名
+     * @author 程思琦
+     * @date 04:12 2026/10/19
+     * @param username 用户名
+     */
+    public void loginFailed(String username) {
+        long now = System.currentTimeMillis();
+        Bucket bucket = usernameBuckets.get(username, now);
+        if (Bucket.acquire(bucket.failureAt, now, failureInterval, failureTolerance) > 0) {
+            bucket.lockedUntil = now + lockoutMillis;
+            lockoutCount.increment();
+        }
+    }
+
+    /**
+     * 登录成功, 清零用户名的失败记录
+     * @author 程思琦
+     * @date 04:12 2026/10/19
+     * @param username 用户名
+     */
+    public void loginSucceeded(String username) {
+        Bucket bucket = usernameBuckets.peek(username);
+        if (bucket != null) {
+            bucket.failureAt.set(0L);
+        }
+    }
+
+    private LoginRateLimitedException rateLimited(long waitMillis) {
+        rateLimitedCount.increment();
+        return new LoginRateLimitedException("登录尝试过于频繁, 请稍后重试", toSeconds(waitMillis));
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(millis + 999L));
+    }
+
+    /**
+     * 通过检查、进入用户查询和密码校验的次数
+     */
+    public long getAdmittedCount() {
+        return admittedCount.sum();
+    }
+
+    /**
+     * 因尝试过于频繁被拒绝的次数
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.sum();
+    }
+
+    /**
+     * 因用户名已被锁定被拒绝的次数
+     */
+    public long getLockedOutCount() {
+        return lockedOutCount.sum();
+    }
+
+    /**
+     * 触发锁定的次数
+     */
+    public long getLockoutCount() {
+        return lockoutCount.sum();
+    }
+
+    public int getUsernameBucketCount() {
+        return usernameBuckets.size();
+    }
+
+    public int getClientBucketCount() {
+        return clientBuckets.size();
+    }
+
+    /**
+     * 一个键的限流状态
+     */
+    private static final class Bucket {
+
+        /**
+         * 登录尝试令牌桶的理论到达时间, 不大于当前时间时令牌是满的
+         */
+        private final AtomicLong admitAt = new AtomicLong();
+
+        /**
+         * 失败记录的理论到达时间, 不大于当前时间时没有失败记录
+         */
+        private final AtomicLong failureAt = new AtomicLong();
+
+        private volatile long lockedUntil;
+
+        /**
+         * 取一个令牌
+         * @param tat 理论到达时间
+         * @param now 当前时间
+         * @param interval 每个令牌的恢复间隔
+         * @param tolerance 突发容忍时间, 即 (容量 - 1) * 间隔
+         * @return 0 表示取到令牌, 否则为需要等待的毫秒数
+         */
+        private static long acquire(AtomicLong tat, long now, long interval, long tolerance) {
+            for (;;) {
+                long current = tat.get();
+                long base = Math.max(current, now);
+                long wait = base - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (tat.compareAndSet(current, base + interval)) {
+                    return 0L;
+                }
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return admitAt.get() <= now && failureAt.get() <= now && lockedUntil <= now;
+        }
+    }
+
+    /**
+     * 分段的有界桶表
+     */
+    private static final class BucketMap {
+
+        /**
+         * 空间不足时, 每次最少淘汰的条目比例 (1/8)
+         */
+        private static final int EVICTION_SHIFT = 3;
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        private BucketMap(int maximumSize) {
+            int stripeSize = Math.max(1, maximumSize / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(stripeSize);
+            }
+        }
+
+        private Bucket peek(String key) {
+            return stripe(key).buckets.get(key);
+        }
+
+        private Bucket get(String key, long now) {
+            Stripe stripe = stripe(key);
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (stripe.buckets.size() >= stripe.maximumSize) {
+                stripe.evict(now);
+            }
+            return stripe.buckets.computeIfAbsent(key, k -> new Bucket());
+        }
+
+        private Stripe stripe(String key) {
+            int h = key.hashCode();
+            return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        }
+
+        private int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                size += stripe.buckets.size();
+            }
+            return size;
+        }
+
+        private static final class Stripe {
+
+            private final ConcurrentHashMap<String, Bucket> buckets;
+
+            private final int maximumSize;
+
+            private final ReentrantLock evictionLock = new ReentrantLock();
+
+            private Stripe(int maximumSize) {
+                this.maximumSize = maximumSize;
+                this.buckets = new ConcurrentHashMap<>(Math.min(maximumSize, 64));
+            }
+
+            /**
+             * 先移除已经完全恢复的桶, 仍然满时再淘汰至少 1/8, 优先淘汰未锁定的桶
+             */
+            private void evict(long now) {
+                if (!evictionLock.tryLock()) {
+                    return;
+                }
+                try {
+                    buckets.values().removeIf(bucket -> bucket.isIdle(now));
+                    int target = maximumSize - Math.max(1, maximumSize >> EVICTION_SHIFT);
+                    Iterator<Bucket> iterator = buckets.values().iterator();
+                    while (buckets.size() > target && iterator.hasNext()) {
+                        if (iterator.next().lockedUntil <= now) {
+                            iterator.remove();
+                        }
+                    }
+                    iterator = buckets.values().iterator();
+                    while (buckets.size() > target && iterator.hasNext()) {
+                        iterator.next();
+                        iterator.remove();
+                    }
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+        }
+    }
+}
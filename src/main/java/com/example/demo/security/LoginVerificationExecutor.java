@@ -0,0 +1,166 @@
+package com.example.demo.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录密码校验线程池
+ *
+ * BCrypt 校验是 /login 的主要 CPU 开销, 登录高峰时如果直接在容器线程上执行,
+ * 会挤占普通接口的处理能力。这里把密码校验放到一个固定大小、队列有界的线程池中执行,
+ * 队列已满时立即抛出 LoginOverloadedException, 由调用方返回 503, 不再排队等待。
+ *
+ * 同时统计排队数、拒绝次数和校验耗时, 供监控使用
+ *
+ * @author 程思琦
+ * @date 2026/10/18 16:50
+ * @description
+ **/
+public class LoginVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final BlockingQueue<Runnable> queue;
+
+    private final LongAdder verificationCount = new LongAdder();
+
+    private final LongAdder verificationNanos = new LongAdder();
+
+    private final LongAccumulator maxVerificationNanos = new LongAccumulator(Math::max, 0L);
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public LoginVerificationExecutor(int poolSize, int queueCapacity) {
+        if (poolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("poolSize and queueCapacity must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "login-verify-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 在校验线程池中执行密码校验, 当前线程等待校验结果
+     * @author 程思琦
+     * @date 16:55 2026/10/18
+     * @param verification 校验逻辑, 校验失败时抛出 AuthenticationException
+     */
+    public void verify(Runnable verification) {
+        Future<?> future;
+        try {
+            future = executor.submit(() -> timed(verification));
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginOverloadedException("登录校验被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * 在校验线程池中执行密码校验, 不等待校验结果, 供 reactive 登录使用, 事件循环线程不会被阻塞
+     * @author 程思琦
+     * @date 02:55 2026/10/19
+     * @param verification 校验逻辑, 校验失败时抛出 AuthenticationException
+     * @return 校验完成或失败时结束的 CompletableFuture, 线程池已满时直接以 LoginOverloadedException 失败
+     */
+    public CompletableFuture<Void> verifyAsync(Runnable verification) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    timed(verification);
+                    result.complete(null);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(overloaded());
+        }
+        return result;
+    }
+
+    private void timed(Runnable verification) {
+        long start = System.nanoTime();
+        try {
+            verification.run();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            verificationCount.increment();
+            verificationNanos.add(elapsed);
+            maxVerificationNanos.accumulate(elapsed);
+        }
+    }
+
+    private LoginOverloadedException overloaded() {
+        rejectedCount.increment();
+        return new LoginOverloadedException("登录请求过多, 请稍后重试");
+    }
+
+    /**
+     * 关闭线程池, 由 Spring 在容器关闭时调用
+     * @author 程思琦
+     * @date 16:58 2026/10/18
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 排队等待校验的请求数
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 正在执行校验的线程数
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getVerificationCount() {
+        return verificationCount.sum();
+    }
+
+    public long getTotalVerificationNanos() {
+        return verificationNanos.sum();
+    }
+
+    public long getMaxVerificationNanos() {
+        return maxVerificationNanos.get();
+    }
+}
@@ -0,0 +1,542 @@
+package com.example.demo.security;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于内存映射文件的令牌吊销记录, 同一台主机上的多个应用实例共享
+ *
+ * 文件由固定大小的槽位组成, 各实例映射同一个文件, 一个实例退出登录吊销的令牌,
+ * 其他实例下一次查询立即可见, 不经过网络, 数据也不在 Java 堆上。
+ *
+ * 槽位布局(32 字节): 状态字、令牌ID高位、令牌ID低位、过期时间。
+ * 状态字低 2 位是阶段(空/写入中/就绪), 其余位是版本号, 读取方按版本号校验读到的是同一次写入的内容。
+ * 查询不加锁; 吊销和清理持有文件锁, 同一时刻只有一个写入方, 写入方进程退出时文件锁由操作系统释放,
+ * 持有文件锁时遇到的写入中槽位一定是崩溃的写入方留下的, 直接复用或清理。
+ *
+ * 线性探测, 已占用槽位数不超过容量的 3/4, 超过时先清理过期记录, 仍然超过则吊销失败并抛出异常, 需要调大容量。
+ * 清理时把后面的记录前移填补空位(backward shift), 槽位重新变为空, 不使用删除标记;
+ * 前移期间文件头的修改序号为奇数, 查询未命中时按修改序号校验, 期间有记录移动则重新查询。
+ *
+ * 通过 sun.misc.Unsafe 在映射内存的绝对地址上读写, 保证各进程之间的可见性和写入顺序。
+ * Unsafe 不是公开 API, 这里在类初始化时反射查找并绑定为 MethodHandle, 编译时不依赖该类;
+ * static final 的 MethodHandle 会被 JIT 内联, 与直接调用没有差别
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:10
+ * @description
+ **/
+public class MappedTokenRevocationStore implements TokenRevocationStore, Closeable {
+
+    /**
+     * 绑定到 Unsafe 实例的方法, 类型分别为 (Object,long)long、(Object,long,long)void、(Object,long)long
+     */
+    private static final MethodHandle GET_LONG_VOLATILE;
+
+    private static final MethodHandle PUT_LONG_VOLATILE;
+
+    private static final MethodHandle GET_LONG;
+
+    /**
+     * 直接缓冲区的内存地址保存在 Buffer.address 中, 按字段偏移读取, 不需要打开字段访问权限
+     */
+    private static final long BUFFER_ADDRESS_OFFSET;
+
+    static {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            GET_LONG_VOLATILE = lookup.findVirtual(unsafeClass, "getLongVolatile"
+                    , MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+            PUT_LONG_VOLATILE = lookup.findVirtual(unsafeClass, "putLongVolatile"
+                    , MethodType.methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe);
+            GET_LONG = lookup.findVirtual(unsafeClass, "getLong"
+                    , MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+            BUFFER_ADDRESS_OFFSET = (long) lookup.findVirtual(unsafeClass, "objectFieldOffset"
+                    , MethodType.methodType(long.class, Field.class)).bindTo(unsafe)
+                    .invokeExact(Buffer.class.getDeclaredField("address"));
+        } catch (Throwable e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 文件标识 "JREVMAP1"
+     */
+    private static final long MAGIC = 0x4A5245564D415031L;
+
+    /**
+     * 版本 3 改为持有文件锁写入, 与无锁写入的版本 2 不能混用
+     */
+    private static final int VERSION = 3;
+
+    private static final int HEADER_SIZE = 64;
+
+    private static final int SLOT_SIZE = 32;
+
+    private static final int MAXIMUM_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE);
+
+    /**
+     * 文件头: 标识、版本、容量、已占用槽位数、修改序号
+     */
+    private static final int MAGIC_OFFSET = 0;
+
+    private static final int VERSION_OFFSET = 8;
+
+    private static final int CAPACITY_OFFSET = 12;
+
+    private static final int COUNT_OFFSET = 16;
+
+    private static final int SEQUENCE_OFFSET = 24;
+
+    /**
+     * 槽位内偏移
+     */
+    private static final int STATE = 0;
+
+    private static final int MSB = 8;
+
+    private static final int LSB = 16;
+
+    private static final int EXPIRES_AT = 24;
+
+    /**
+     * 状态字阶段
+     */
+    private static final long EMPTY = 0;
+
+    private static final long WRITING = 1;
+
+    private static final long READY = 2;
+
+    private static final long PHASE_MASK = 3;
+
+    private static final long VERSION_INCREMENT = 4;
+
+    /**
+     * 查询时等待记录前移完成的最大自旋次数, 超过后认为写入方在前移期间崩溃, 加锁修复修改序号
+     */
+    private static final int MAXIMUM_SEQUENCE_SPINS = 1 << 10;
+
+    /**
+     * 同一个 JVM 内映射同一文件的实例共用的写入锁; 文件锁按进程持有, 同一进程内需要先互斥
+     */
+    private static final ConcurrentMap<Path, Object> WRITE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+
+    /**
+     * 持有映射缓冲区, 防止被回收后映射失效
+     */
+    private final MappedByteBuffer buffer;
+
+    private final long address;
+
+    private final int capacity;
+
+    private final int mask;
+
+    /**
+     * 已占用槽位数上限, 容量的 3/4
+     */
+    private final int threshold;
+
+    private final Object writeLock;
+
+    /**
+     * 加文件锁的通道, 只在持有 writeLock 时访问
+     */
+    private FileChannel channel;
+
+    /**
+     * 映射吊销记录文件, 文件不存在时按指定容量创建; 文件已存在时使用文件中的容量
+     * @author 程思琦
+     * @date 23:10 2026/10/18
+     * @param file 共享文件
+     * @param capacity 槽位数, 向上取 2 的幂
+     */
+    public MappedTokenRevocationStore(Path file, int capacity) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        int slots = tableSizeFor(capacity);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ
+                , StandardOpenOption.WRITE);
+        this.writeLock = WRITE_LOCKS.computeIfAbsent(file.toRealPath(), key -> new Object());
+        synchronized (writeLock) {
+            try (FileLock ignored = channel.lock()) {
+                if (channel.size() >= HEADER_SIZE) {
+                    MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                    long magic = header.getLong(MAGIC_OFFSET);
+                    if (magic == MAGIC && header.getInt(VERSION_OFFSET) == VERSION) {
+                        slots = header.getInt(CAPACITY_OFFSET);
+                    } else if (magic != 0) {
+                        throw new IOException("Unsupported token revocation file: " + file);
+                    }
+                }
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+                if (buffer.getLong(MAGIC_OFFSET) != MAGIC) {
+                    // 新文件, 映射时已按大小填充 0, 最后写入标识
+                    buffer.putInt(VERSION_OFFSET, VERSION);
+                    buffer.putInt(CAPACITY_OFFSET, slots);
+                    buffer.putLong(MAGIC_OFFSET, MAGIC);
+                    buffer.force();
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        this.channel = channel;
+        this.address = getLong(buffer, BUFFER_ADDRESS_OFFSET);
+        this.capacity = slots;
+        this.mask = slots - 1;
+        this.threshold = slots - (slots >>> 2);
+    }
+
+    @Override
+    public void revoke(UUID tokenId, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        long msb = tokenId.getMostSignificantBits();
+        long lsb = tokenId.getLeastSignificantBits();
+        synchronized (writeLock) {
+            try (FileLock ignored = lock()) {
+                repairSequence();
+                if (insert(msb, lsb, expiresAt, now)) {
+                    return;
+                }
+                // 已占用槽位数达到上限, 清理过期记录后再试一次
+                purge(now);
+                if (insert(msb, lsb, expiresAt, now)) {
+                    return;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to lock token revocation file: " + file, e);
+            }
+        }
+        throw new IllegalStateException("Token revocation file is full: " + file + ", capacity " + capacity);
+    }
+
+    @Override
+    public boolean isRevoked(UUID tokenId) {
+        long msb = tokenId.getMostSignificantBits();
+        long lsb = tokenId.getLeastSignificantBits();
+        long now = System.currentTimeMillis();
+        int spins = 0;
+        while (true) {
+            long sequence = getLongVolatile(address + SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                // 清理正在前移记录, 等待完成
+                if (++spins < MAXIMUM_SEQUENCE_SPINS) {
+                    Thread.yield();
+                } else {
+                    recover();
+                    spins = 0;
+                }
+                continue;
+            }
+            if (find(msb, lsb, now)) {
+                return true;
+            }
+            // 未命中时确认探测期间没有记录移动, 否则记录可能被移到已经探测过的位置
+            if (getLongVolatile(address + SEQUENCE_OFFSET) == sequence) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 已占用的槽位数, 包括已过期尚未清理的记录和崩溃的写入方留下的槽位
+     */
+    @Override
+    public int size() {
+        return (int) getLongVolatile(address + COUNT_OFFSET);
+    }
+
+    /**
+     * 清理已过期的记录和崩溃的写入方留下的槽位, 槽位重新变为空。
+     * 吊销时已占用槽位数达到上限会自动清理, 也可以定时调用, 让未命中的查询保持较短的探测链
+     */
+    @Override
+    public void purgeExpired() {
+        synchronized (writeLock) {
+            try (FileLock ignored = lock()) {
+                repairSequence();
+                purge(System.currentTimeMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to lock token revocation file: " + file, e);
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 把映射内容刷到磁盘并关闭通道; 各实例之间通过共享的页缓存可见, 不依赖刷盘
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        synchronized (writeLock) {
+            channel.close();
+        }
+    }
+
+    /**
+     * 加文件锁, 调用方持有 writeLock。
+     * 线程在等待文件锁时被中断会关闭通道, 下一次加锁时重新打开, 映射不受通道关闭影响
+     */
+    private FileLock lock() throws IOException {
+        if (!channel.isOpen()) {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return channel.lock();
+    }
+
+    /**
+     * 查询时修改序号长时间为奇数, 加锁确认写入方已崩溃后修复
+     */
+    private void recover() {
+        synchronized (writeLock) {
+            try (FileLock ignored = lock()) {
+                repairSequence();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to lock token revocation file: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * 持有文件锁时修改序号为奇数, 说明上一个写入方在前移记录时崩溃。
+     * 前移先复制记录再清空原槽位, 中途崩溃只会留下重复的记录, 不会丢失记录, 直接结束即可
+     */
+    private void repairSequence() {
+        long sequence = getLongVolatile(address + SEQUENCE_OFFSET);
+        if ((sequence & 1) != 0) {
+            putLongVolatile(address + SEQUENCE_OFFSET, sequence + 1);
+        }
+    }
+
+    /**
+     * 在探测链上查找令牌, 不加锁; 读取期间槽位被改写时重新读取该槽位
+     */
+    private boolean find(long msb, long lsb, long now) {
+        int index = hash(msb, lsb) & mask;
+        for (int probes = 0; probes < capacity; ) {
+            long slot = slotAddress(index);
+            long state = getLongVolatile(slot + STATE);
+            long phase = state & PHASE_MASK;
+            if (phase == EMPTY) {
+                return false;
+            }
+            if (phase == READY) {
+                long currentMsb = getLongVolatile(slot + MSB);
+                long currentLsb = getLongVolatile(slot + LSB);
+                long currentExpiresAt = getLongVolatile(slot + EXPIRES_AT);
+                if (getLongVolatile(slot + STATE) != state) {
+                    continue;
+                }
+                if (currentMsb == msb && currentLsb == lsb && currentExpiresAt > now) {
+                    return true;
+                }
+            }
+            // 写入中的槽位还没有完成吊销, 按未吊销处理, 继续探测
+            index = (index + 1) & mask;
+            probes++;
+        }
+        return false;
+    }
+
+    /**
+     * 写入吊销记录, 调用方持有文件锁。
+     * 探测到空槽位为止: 令牌已存在时延长过期时间; 否则优先复用探测链上已过期或崩溃留下的槽位,
+     * 没有可复用的槽位时占用空槽位
+     * @return 已占用槽位数达到上限时返回 false
+     */
+    private boolean insert(long msb, long lsb, long expiresAt, long now) {
+        int index = hash(msb, lsb) & mask;
+        long reusable = -1;
+        long empty = -1;
+        for (int probes = 0; probes < capacity; probes++) {
+            long slot = slotAddress(index);
+            long state = getLongVolatile(slot + STATE);
+            long phase = state & PHASE_MASK;
+            if (phase == EMPTY) {
+                empty = slot;
+                break;
+            }
+            if (phase == READY && getLongVolatile(slot + MSB) == msb && getLongVolatile(slot + LSB) == lsb) {
+                if (getLongVolatile(slot + EXPIRES_AT) < expiresAt) {
+                    putLongVolatile(slot + EXPIRES_AT, expiresAt);
+                }
+                return true;
+            }
+            if (reusable < 0 && !isLive(slot, state, now)) {
+                reusable = slot;
+            }
+            index = (index + 1) & mask;
+        }
+        if (reusable >= 0) {
+            write(reusable, msb, lsb, expiresAt);
+            return true;
+        }
+        long count = getLongVolatile(address + COUNT_OFFSET);
+        if (empty < 0 || count >= threshold) {
+            return false;
+        }
+        // 先计数再写入, 写入中崩溃留下的槽位也计入, 清理时再减去
+        putLongVolatile(address + COUNT_OFFSET, count + 1);
+        write(empty, msb, lsb, expiresAt);
+        return true;
+    }
+
+    /**
+     * 清理所有不再有效的槽位, 调用方持有文件锁。
+     * 从一个空槽位之后开始遍历, 前移的记录只会移到当前位置及之后, 清理后重新检查当前位置
+     */
+    private void purge(long now) {
+        int start = 0;
+        for (int i = 0; i < capacity; i++) {
+            if ((getLongVolatile(slotAddress(i) + STATE) & PHASE_MASK) == EMPTY) {
+                start = i;
+                break;
+            }
+        }
+        int removed = 0;
+        int index = (start + 1) & mask;
+        for (int visited = 0; visited < capacity; ) {
+            long slot = slotAddress(index);
+            long state = getLongVolatile(slot + STATE);
+            if ((state & PHASE_MASK) != EMPTY && !isLive(slot, state, now)) {
+                remove(index, now);
+                removed++;
+                continue;
+            }
+            index = (index + 1) & mask;
+            visited++;
+        }
+        if (removed > 0) {
+            putLongVolatile(address + COUNT_OFFSET, getLongVolatile(address + COUNT_OFFSET) - removed);
+        }
+    }
+
+    /**
+     * 清空槽位, 把同一探测链上后面的有效记录前移填补, 保证每条记录从起始位置到所在位置之间没有空槽位。
+     * 起始位置在空位之后、记录所在位置之前(含)的记录留在原处, 其余前移到空位, 原位置成为新的空位。
+     * 无效的槽位留在原处, 由 purge 之后处理
+     */
+    private void remove(int index, long now) {
+        long sequence = getLongVolatile(address + SEQUENCE_OFFSET);
+        putLongVolatile(address + SEQUENCE_OFFSET, sequence + 1);
+        int hole = index;
+        for (int next = (index + 1) & mask; next != index; next = (next + 1) & mask) {
+            long slot = slotAddress(next);
+            long state = getLongVolatile(slot + STATE);
+            if ((state & PHASE_MASK) == EMPTY) {
+                break;
+            }
+            if (!isLive(slot, state, now)) {
+                continue;
+            }
+            long msb = getLongVolatile(slot + MSB);
+            long lsb = getLongVolatile(slot + LSB);
+            int home = hash(msb, lsb) & mask;
+            if (((next - home) & mask) < ((next - hole) & mask)) {
+                continue;
+            }
+            write(slotAddress(hole), msb, lsb, getLongVolatile(slot + EXPIRES_AT));
+            hole = next;
+        }
+        long slot = slotAddress(hole);
+        long version = (getLongVolatile(slot + STATE) & ~PHASE_MASK) + VERSION_INCREMENT;
+        putLongVolatile(slot + STATE, version + EMPTY);
+        putLongVolatile(address + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    /**
+     * 持有文件锁时写入中的槽位没有写入方, 视为无效
+     */
+    private static boolean isLive(long slot, long state, long now) {
+        return (state & PHASE_MASK) == READY && getLongVolatile(slot + EXPIRES_AT) > now;
+    }
+
+    /**
+     * 写入槽位内容并发布, 调用方持有文件锁; 版本号加一, 正在读取旧内容的查询会重新读取
+     */
+    private static void write(long slot, long msb, long lsb, long expiresAt) {
+        long version = (getLongVolatile(slot + STATE) & ~PHASE_MASK) + VERSION_INCREMENT;
+        putLongVolatile(slot + STATE, version + WRITING);
+        putLongVolatile(slot + MSB, msb);
+        putLongVolatile(slot + LSB, lsb);
+        putLongVolatile(slot + EXPIRES_AT, expiresAt);
+        putLongVolatile(slot + STATE, version + READY);
+    }
+
+    private static long getLong(Object base, long offset) {
+        try {
+            return (long) GET_LONG.invokeExact(base, offset);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long getLongVolatile(long address) {
+        try {
+            return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void putLongVolatile(long address, long value) {
+        try {
+            PUT_LONG_VOLATILE.invokeExact((Object) null, address, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long slotAddress(int index) {
+        return address + HEADER_SIZE + (long) index * SLOT_SIZE;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ (lsb * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAXIMUM_CAPACITY);
+        }
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.security;
+
+import com.example.demo.vo.MenuBean;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量权限判断
+ *
+ * 前端渲染菜单时一次提交所有需要判断的权限标识或整棵菜单树, 在调用方已经验签的权限位图上逐个判断,
+ * 不再为每个权限单独发一次经过完整过滤器链的请求。只查找已注册的权限, 请求中的未知标识直接判为无权限,
+ * 不会注册进 AuthorityRegistry
+ *
+ * @author 程思琦
+ * @date 2026/10/19 08:45
+ * @description
+ **/
+public class PermissionBatchChecker {
+
+    private PermissionBatchChecker(){}
+
+    /**
+     * 判断权限列表
+     * @author 程思琦
+     * @date 08:48 2026/10/19
+     * @param granted 调用方的权限集合
+     * @param permissions 权限标识列表
+     * @return 第 i 位对应第 i 个权限标识, toByteArray 的位序与令牌权限字典相同
+     */
+    public static BitSet check(PermissionSet granted, List<String> permissions) {
+        BitSet result = new BitSet(permissions.size());
+        for (int i = 0; i < permissions.size(); i++) {
+            if (granted.contains(permissions.get(i))) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 判断菜单树, 菜单可见的条件是父菜单可见, 并且拥有自身的权限(未配置权限时视为拥有)
+     * @author 程思琦
+     * @date 08:50 2026/10/19
+     * @param granted 调用方的权限集合
+     * @param menus 顶层菜单
+     * @param maxNodes 节点数上限
+     * @return 菜单编号 -> 是否可见, 按先序遍历顺序
+     * @throws IllegalArgumentException 节点数超出上限或菜单编号为空
+     */
+    public static Map<String, Boolean> checkMenus(PermissionSet granted, List<MenuBean> menus, int maxNodes) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        // 显式栈遍历, 不随层级递归; 请求中的层级深度在绑定时由 PermissionCheckBeanDeserializer 限制
+        Deque<PendingMenu> pending = new ArrayDeque<>();
+        pushChildren(pending, menus, true);
+        int count = 0;
+        while (!pending.isEmpty()) {
+            PendingMenu entry = pending.pop();
+            MenuBean menu = entry.menu;
+            if (menu == null) {
+                continue;
+            }
+            if (++count > maxNodes) {
+                throw new IllegalArgumentException("菜单节点数超出上限 " + maxNodes);
+            }
+            if (menu.getId() == null) {
+                throw new IllegalArgumentException("菜单编号不能为空");
+            }
+            boolean visible = entry.parentVisible
+                    && (menu.getPermission() == null || granted.contains(menu.getPermission()));
+            result.put(menu.getId(), visible);
+            pushChildren(pending, menu.getChildren(), visible);
+        }
+        return result;
+    }
+
+    private static void pushChildren(Deque<PendingMenu> pending, List<MenuBean> children, boolean parentVisible) {
+        if (children == null) {
+            return;
+        }
+        // 逆序入栈, 出栈时保持原顺序
+        for (int i = children.size() - 1; i >= 0; i--) {
+            pending.push(new PendingMenu(children.get(i), parentVisible));
+        }
+    }
+
+    private static final class PendingMenu {
+
+        private final MenuBean menu;
+
+        private final boolean parentVisible;
+
+        private PendingMenu(MenuBean menu, boolean parentVisible) {
+            this.menu = menu;
+            this.parentVisible = parentVisible;
+        }
+    }
+}
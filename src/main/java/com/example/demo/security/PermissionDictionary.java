@@ -0,0 +1,148 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌权限字典
+ *
+ * 令牌中不再逐个写出权限标识, 而是写出权限在字典中的序号组成的位图。
+ * AuthorityRegistry 的编号按注册顺序分配, 重启或不同实例之间不一致, 不能写进令牌;
+ * 字典的序号由配置文件固定, 只能在末尾追加。删除或调整顺序时必须增加版本号,
+ * 旧版本字典签发的令牌不再能解码, 需要重新登录。
+ *
+ * 编码结果为 "版本.位图", 位图为不带填充的 Base64URL, 第 i 位对应字典第 i 个权限;
+ * 不同的权限组合很少, 解码结果按位图缓存, 同一组合直接返回同一个 PermissionSet
+ *
+ * @author 程思琦
+ * @date 2026/10/19 01:20
+ * @description
+ **/
+public class PermissionDictionary {
+
+    /**
+     * 空字典, 所有权限都按权限标识写出
+     */
+    public static final PermissionDictionary EMPTY = new PermissionDictionary(0, Collections.emptyList());
+
+    /**
+     * 解码缓存上限, 超出后不再缓存新的组合
+     */
+    private static final int MAXIMUM_CACHED_MASKS = 1024;
+
+    private final int version;
+
+    /**
+     * 编码结果的版本前缀
+     */
+    private final String prefix;
+
+    /**
+     * 字典序号对应的共享权限实例
+     */
+    private final GrantedAuthorityImpl[] permissions;
+
+    /**
+     * 权限注册编号到字典序号, 不在字典中时为 -1
+     */
+    private final int[] indexByRegistryId;
+
+    private final Map<String, PermissionSet> decoded = new ConcurrentHashMap<>();
+
+    public PermissionDictionary(int version, List<String> permissions) {
+        this.version = version;
+        this.prefix = version + ".";
+        this.permissions = new GrantedAuthorityImpl[permissions.size()];
+        Map<String, Integer> seen = new HashMap<>(permissions.size() * 2);
+        int maxId = -1;
+        for (int i = 0; i < permissions.size(); i++) {
+            String permission = permissions.get(i);
+            if (seen.put(permission, i) != null) {
+                throw new IllegalArgumentException("Duplicate permission in dictionary: " + permission);
+            }
+            this.permissions[i] = AuthorityRegistry.intern(permission);
+            maxId = Math.max(maxId, this.permissions[i].id());
+        }
+        this.indexByRegistryId = new int[maxId + 1];
+        Arrays.fill(indexByRegistryId, -1);
+        for (int i = 0; i < this.permissions.length; i++) {
+            indexByRegistryId[this.permissions[i].id()] = i;
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return permissions.length;
+    }
+
+    /**
+     * 把权限编码为字典位图
+     * @author 程思琦
+     * @date 01:20 2026/10/19
+     * @param authorities 权限
+     * @param unknown 收集不在字典中的权限标识
+     * @return "版本.位图"
+     */
+    public String encode(Iterable<? extends GrantedAuthority> authorities, List<String> unknown) {
+        byte[] mask = new byte[(permissions.length + 7) >>> 3];
+        int length = 0;
+        for (GrantedAuthority authority : authorities) {
+            GrantedAuthorityImpl registered = authority instanceof GrantedAuthorityImpl
+                    && ((GrantedAuthorityImpl) authority).id() >= 0
+                    ? (GrantedAuthorityImpl) authority : AuthorityRegistry.find(authority.getAuthority());
+            int index = registered == null || registered.id() >= indexByRegistryId.length
+                    ? -1 : indexByRegistryId[registered.id()];
+            if (index < 0) {
+                unknown.add(authority.getAuthority());
+                continue;
+            }
+            mask[index >>> 3] |= 1 << (index & 7);
+            length = Math.max(length, (index >>> 3) + 1);
+        }
+        return prefix + Base64.getUrlEncoder().withoutPadding().encodeToString(length == mask.length
+                ? mask : Arrays.copyOf(mask, length));
+    }
+
+    /**
+     * 把字典位图解码为权限集合
+     * @author 程思琦
+     * @date 01:20 2026/10/19
+     * @param encoded "版本.位图"
+     * @return 权限集合, 版本与本字典不一致或位图中有字典外的序号时返回 null
+     */
+    public PermissionSet decode(String encoded) {
+        if (encoded == null || !encoded.startsWith(prefix)) {
+            return null;
+        }
+        PermissionSet cached = decoded.get(encoded);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] mask = Base64.getUrlDecoder().decode(encoded.substring(prefix.length()));
+        PermissionSet.Builder builder = new PermissionSet.Builder();
+        for (int i = 0; i < mask.length; i++) {
+            for (int bits = mask[i] & 0xFF; bits != 0; bits &= bits - 1) {
+                int index = (i << 3) + Integer.numberOfTrailingZeros(bits);
+                if (index >= permissions.length) {
+                    return null;
+                }
+                builder.add(permissions[index]);
+            }
+        }
+        PermissionSet result = builder.build();
+        if (decoded.size() < MAXIMUM_CACHED_MASKS) {
+            decoded.put(encoded, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * 方法级权限表达式处理器, 使用 PermissionSecurityExpressionRoot 作为表达式根对象
+ *
+ * @author 程思琦
+ * @date 2026/10/18 19:55
+ * @description
+ **/
+public class PermissionMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication
+            , MethodInvocation invocation) {
+        SecurityExpressionRoot delegate = new SecurityExpressionRoot(authentication) {};
+        delegate.setPermissionEvaluator(getPermissionEvaluator());
+        delegate.setTrustResolver(getTrustResolver());
+        delegate.setRoleHierarchy(getRoleHierarchy());
+        delegate.setDefaultRolePrefix(getDefaultRolePrefix());
+        return new PermissionSecurityExpressionRoot(delegate, invocation.getThis());
+    }
+}
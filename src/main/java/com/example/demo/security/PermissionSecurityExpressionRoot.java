@@ -0,0 +1,143 @@
+package com.example.demo.security;
+
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * 方法级权限表达式根对象
+ *
+ * SecurityExpressionRoot 的 hasAuthority/hasAnyAuthority 是 final 方法, 每次调用都会把
+ * Collection<GrantedAuthority> 转成字符串集合再查找。这里改为在登录认证信息的权限位图 PermissionSet
+ * 上做位运算判断; 角色继承已由 RoleHierarchyIndex 展开进权限集合, hasRole/hasAnyRole 同样在位图上判断。
+ * 其他表达式(isAuthenticated、hasPermission等)仍交给 SecurityExpressionRoot 处理
+ *
+ * @author 程思琦
+ * @date 2026/10/18 19:50
+ * @description
+ **/
+public class PermissionSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    public final boolean permitAll = true;
+
+    public final boolean denyAll = false;
+
+    private final SecurityExpressionRoot delegate;
+
+    private final PermissionSet permissions;
+
+    private final Object target;
+
+    private Object filterObject;
+
+    private Object returnObject;
+
+    public PermissionSecurityExpressionRoot(SecurityExpressionRoot delegate, Object target) {
+        this.delegate = delegate;
+        this.permissions = PermissionSet.of(delegate.getAuthentication());
+        this.target = target;
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return permissions.contains(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        return permissions.containsAny(authorities);
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return permissions.contains(roleAuthority(role));
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (permissions.contains(roleAuthority(role))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String roleAuthority(String role) {
+        return role.startsWith(RoleHierarchyIndex.ROLE_PREFIX) ? role : RoleHierarchyIndex.ROLE_PREFIX + role;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    public Object getPrincipal() {
+        return delegate.getPrincipal();
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 权限集合
+ *
+ * 基于 AuthorityRegistry 权限编号的位图, 不可修改。判断是否拥有某个权限只需要一次位运算,
+ * 不再线性扫描 Collection<GrantedAuthority>; 遍历时返回注册表中的共享权限实例。
+ *
+ * @author 程思琦
+ * @date 2026/10/18 19:15
+ * @description
+ **/
+public final class PermissionSet extends AbstractSet<GrantedAuthority> {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private final int size;
+
+    private final int hash;
+
+    private PermissionSet(long[] words) {
+        int count = 0;
+        int h = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            count += Long.bitCount(word);
+            while (word != 0) {
+                int id = (i << 6) + Long.numberOfTrailingZeros(word);
+                h += AuthorityRegistry.get(id).hashCode();
+                word &= word - 1;
+            }
+        }
+        this.words = words;
+        this.size = count;
+        this.hash = h;
+    }
+
+    /**
+     * 根据权限列表创建权限集合
+     * @author 程思琦
+     * @date 19:20 2026/10/18
+     * @param authorities 权限列表
+     * @return PermissionSet
+     */
+    public static PermissionSet of(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities instanceof PermissionSet) {
+            return (PermissionSet) authorities;
+        }
+        Builder builder = new Builder();
+        for (GrantedAuthority authority : authorities) {
+            builder.add(authority.getAuthority());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 根据权限标识创建权限集合
+     * @author 程思琦
+     * @date 19:22 2026/10/18
+     * @param permissions 权限标识
+     * @return PermissionSet
+     */
+    public static PermissionSet ofPermissions(Collection<String> permissions) {
+        Builder builder = new Builder();
+        for (String permission : permissions) {
+            builder.add(permission);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 获取登录认证信息的权限集合, 令牌认证信息和 JwtUserDetails 已经保存了权限集合, 直接返回
+     * @author 程思琦
+     * @date 19:25 2026/10/18
+     * @param authentication 登录认证信息
+     * @return PermissionSet
+     */
+    public static PermissionSet of(Authentication authentication) {
+        if (authentication == null) {
+            return EMPTY;
+        }
+        if (authentication instanceof VerifiedJwtAuthenticationToken) {
+            return ((VerifiedJwtAuthenticationToken) authentication).getClaims().getPermissions();
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof JwtUserDetails) {
+            return ((JwtUserDetails) principal).getPermissions();
+        }
+        return of(authentication.getAuthorities());
+    }
+
+    /**
+     * 是否拥有指定编号的权限
+     */
+    public boolean contains(int id) {
+        int index = id >>> 6;
+        return id >= 0 && index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否拥有指定权限
+     */
+    public boolean contains(String authority) {
+        GrantedAuthorityImpl registered = AuthorityRegistry.find(authority);
+        return registered != null && contains(registered.id());
+    }
+
+    /**
+     * 是否拥有任意一个指定权限
+     */
+    public boolean containsAny(String... authorities) {
+        for (String authority : authorities) {
+            if (contains(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof GrantedAuthority && contains(((GrantedAuthority) o).getAuthority());
+    }
+
+    @Override
+    public Iterator<GrantedAuthority> iterator() {
+        return new Iterator<GrantedAuthority>() {
+
+            private int index = 0;
+
+            private long word = words.length > 0 ? words[0] : 0L;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && index < words.length - 1) {
+                    word = words[++index];
+                }
+                return word != 0;
+            }
+
+            @Override
+            public GrantedAuthority next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int id = (index << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return AuthorityRegistry.get(id);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PermissionSet) {
+            return Arrays.equals(words, ((PermissionSet) o).words);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * 权限集合构造器
+     */
+    public static final class Builder {
+
+        private long[] words = new long[1];
+
+        public Builder add(String authority) {
+            if (authority != null) {
+                set(AuthorityRegistry.intern(authority).id());
+            }
+            return this;
+        }
+
+        Builder add(GrantedAuthorityImpl registered) {
+            set(registered.id());
+            return this;
+        }
+
+        public Builder addAll(PermissionSet permissions) {
+            if (permissions.words.length > words.length) {
+                words = Arrays.copyOf(words, permissions.words.length);
+            }
+            for (int i = 0; i < permissions.words.length; i++) {
+                words[i] |= permissions.words[i];
+            }
+            return this;
+        }
+
+        private void set(int id) {
+            int index = id >>> 6;
+            if (index >= words.length) {
+                words = Arrays.copyOf(words, index + 1);
+            }
+            words[index] |= 1L << id;
+        }
+
+        public PermissionSet build() {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0) {
+                length--;
+            }
+            return length == 0 ? EMPTY : new PermissionSet(Arrays.copyOf(words, length));
+        }
+    }
+}
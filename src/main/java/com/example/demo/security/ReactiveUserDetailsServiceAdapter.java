@@ -0,0 +1,41 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * 响应式用户登录认证信息查询
+ *
+ * 包装阻塞的 UserDetailsService(带缓存的 UserDetailsServiceImpl, 底层是 UserService),
+ * 查询在指定的调度器上执行, 不占用事件循环线程; 用户不存在时返回空的 Mono
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:00
+ * @description
+ **/
+public class ReactiveUserDetailsServiceAdapter implements ReactiveUserDetailsService {
+
+    private final UserDetailsService delegate;
+
+    private final Scheduler scheduler;
+
+    /**
+     * @param delegate 阻塞的用户查询
+     * @param scheduler 执行查询的调度器
+     */
+    public ReactiveUserDetailsServiceAdapter(UserDetailsService delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.fromCallable(() -> delegate.loadUserByUsername(username))
+                .subscribeOn(scheduler)
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+}
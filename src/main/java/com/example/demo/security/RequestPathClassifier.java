@@ -0,0 +1,230 @@
+package com.example.demo.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求路径分类器
+ *
+ * 免登录(permitAll)的路径规则在启动时编译一次: 不含通配符的路径放入哈希表按路径直接查找,
+ * 以 /** 结尾或末段以 * 结尾的规则转成前缀比较, 只有其余形式的规则才交给 AntPathMatcher。
+ * 匹配语义与 antMatchers 相同(区分大小写, 路径取 servletPath + pathInfo)。
+ *
+ * WebSecurityConfig 用同一个实例配置免登录路径的授权策略, JwtAuthenticationFilter 用它判断请求
+ * 是否需要解析令牌, 免登录路径直接跳过令牌验签, 两条通道的请求数分别统计
+ *
+ * @author 程思琦
+ * @date 2026/10/19 05:00
+ * @description
+ **/
+public class RequestPathClassifier implements RequestMatcher {
+
+    private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * 不含通配符的路径
+     */
+    private final Map<String, Rule[]> exactRules;
+
+    /**
+     * 转成前缀比较的规则
+     */
+    private final Rule[] prefixRules;
+
+    /**
+     * 需要 AntPathMatcher 匹配的规则
+     */
+    private final Rule[] patternRules;
+
+    private final LongAdder permitAllCount = new LongAdder();
+
+    private final LongAdder authenticatedCount = new LongAdder();
+
+    public RequestPathClassifier(Rule... rules) {
+        Map<String, List<Rule>> exact = new HashMap<>();
+        List<Rule> prefix = new ArrayList<>();
+        List<Rule> pattern = new ArrayList<>();
+        for (Rule rule : rules) {
+            switch (rule.kind) {
+                case EXACT:
+                    exact.computeIfAbsent(rule.path, path -> new ArrayList<>()).add(rule);
+                    break;
+                case PREFIX:
+                case SEGMENT_PREFIX:
+                    prefix.add(rule);
+                    break;
+                default:
+                    pattern.add(rule);
+            }
+        }
+        Map<String, Rule[]> exactRules = new HashMap<>(exact.size() * 2);
+        exact.forEach((path, pathRules) -> exactRules.put(path, pathRules.toArray(new Rule[0])));
+        this.exactRules = Collections.unmodifiableMap(exactRules);
+        this.prefixRules = prefix.toArray(new Rule[0]);
+        this.patternRules = pattern.toArray(new Rule[0]);
+    }
+
+    /**
+     * 免登录路径规则
+     * @author 程思琦
+     * @date 05:05 2026/10/19
+     * @param method 请求方法, 为 null 时匹配所有方法
+     * @param pattern Ant 风格路径
+     * @return Rule
+     */
+    public static Rule permitAll(HttpMethod method, String pattern) {
+        return new Rule(method, pattern);
+    }
+
+    public static Rule permitAll(String pattern) {
+        return new Rule(null, pattern);
+    }
+
+    /**
+     * 是否免登录路径, 供授权策略使用, 不计入通道统计
+     */
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = getRequestPath(request);
+
+        Rule[] rules = exactRules.get(path);
+        if (rules != null) {
+            for (Rule rule : rules) {
+                if (rule.matchesMethod(method)) {
+                    return true;
+                }
+            }
+        }
+        for (Rule rule : prefixRules) {
+            if (rule.matchesMethod(method) && rule.matchesPrefix(path)) {
+                return true;
+            }
+        }
+        for (Rule rule : patternRules) {
+            if (rule.matchesMethod(method) && ANT_PATH_MATCHER.match(rule.path, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断请求是否需要解析令牌, 并按通道计数
+     * @author 程思琦
+     * @date 05:10 2026/10/19
+     * @param request 请求
+     * @return 免登录路径返回 false
+     */
+    public boolean requiresAuthentication(HttpServletRequest request) {
+        if (matches(request)) {
+            permitAllCount.increment();
+            return false;
+        }
+        authenticatedCount.increment();
+        return true;
+    }
+
+    private static String getRequestPath(HttpServletRequest request) {
+        String url = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        if (pathInfo != null) {
+            url = StringUtils.hasLength(url) ? url + pathInfo : pathInfo;
+        }
+        return url;
+    }
+
+    /**
+     * 跳过令牌解析的请求数
+     */
+    public long getPermitAllCount() {
+        return permitAllCount.sum();
+    }
+
+    /**
+     * 解析令牌的请求数
+     */
+    public long getAuthenticatedCount() {
+        return authenticatedCount.sum();
+    }
+
+    /**
+     * 一条免登录路径规则
+     */
+    public static final class Rule {
+
+        private final String method;
+
+        private final String pattern;
+
+        private final Kind kind;
+
+        /**
+         * EXACT 时为完整路径, PREFIX 和 SEGMENT_PREFIX 时为前缀, PATTERN 时为原始规则
+         */
+        private final String path;
+
+        private Rule(HttpMethod method, String pattern) {
+            this.method = method == null ? null : method.name();
+            this.pattern = pattern;
+            if (!hasWildcard(pattern)) {
+                this.kind = Kind.EXACT;
+                this.path = pattern;
+                return;
+            }
+            if (pattern.endsWith("/**") && !hasWildcard(pattern.substring(0, pattern.length() - 3))) {
+                // /webjars/** 匹配 /webjars 本身和其下所有路径
+                this.kind = Kind.SEGMENT_PREFIX;
+                this.path = pattern.substring(0, pattern.length() - 3);
+                return;
+            }
+            String base = pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : null;
+            if (base != null && base.endsWith("*")) {
+                // /swagger**/** 的末段以 * 结尾, 后面再跟任意路径, 等价于字符串前缀 /swagger
+                String prefix = base.substring(0, base.length() - (base.endsWith("**") ? 2 : 1));
+                if (!hasWildcard(prefix)) {
+                    this.kind = Kind.PREFIX;
+                    this.path = prefix;
+                    return;
+                }
+            }
+            this.kind = Kind.PATTERN;
+            this.path = pattern;
+        }
+
+        private boolean matchesMethod(String requestMethod) {
+            return method == null || method.equals(requestMethod);
+        }
+
+        private boolean matchesPrefix(String requestPath) {
+            if (!requestPath.startsWith(path)) {
+                return false;
+            }
+            return kind == Kind.PREFIX || requestPath.length() == path.length()
+                    || requestPath.charAt(path.length()) == '/';
+        }
+
+        private static boolean hasWildcard(String pattern) {
+            return pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0 || pattern.indexOf('{') >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return (method == null ? "" : method + " ") + pattern;
+        }
+    }
+
+    private enum Kind {
+        EXACT, PREFIX, SEGMENT_PREFIX, PATTERN
+    }
+}
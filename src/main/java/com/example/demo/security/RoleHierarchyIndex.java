@@ -0,0 +1,274 @@
+package com.example.demo.security;
+
+import com.example.demo.model.Role;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 角色继承索引
+ *
+ * 每个角色的权限闭包(自身和所有祖先角色的权限, 以及这些角色的 ROLE_ 权限标识)预先计算成一个
+ * 不可变的 PermissionSet, 所有拥有该角色的用户共享同一个实例。登录时用户的权限是其角色闭包与直接权限的并集,
+ * 只做位图按位或, 不遍历继承关系; hasRole 判断的是闭包中的 ROLE_ 权限标识, 也不需要额外查询。
+ *
+ * 角色定义变更时只重新计算该角色及其后代角色的闭包, 其余角色的闭包实例保持不变;
+ * 闭包表整体替换, 读取方不加锁。不允许出现循环继承。
+ * 变更后需要由调用方发布 UserChangedEvent(全部用户), 使已缓存的用户权限失效
+ *
+ * @author 程思琦
+ * @date 2026/10/19 07:50
+ * @description
+ **/
+public class RoleHierarchyIndex {
+
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * 角色定义, 写入时加锁
+     */
+    private final Map<String, Role> roles = new HashMap<>();
+
+    /**
+     * 角色 -> 直接继承它的角色
+     */
+    private final Map<String, Set<String>> children = new HashMap<>();
+
+    /**
+     * 角色 -> 权限闭包, 只整体替换
+     */
+    private volatile Map<String, PermissionSet> closures = Collections.emptyMap();
+
+    /**
+     * 获取角色的权限闭包
+     * @author 程思琦
+     * @date 07:55 2026/10/19
+     * @param role 角色
+     * @return 未定义的角色只包含自身的 ROLE_ 权限标识
+     */
+    public PermissionSet closure(String role) {
+        PermissionSet closure = closures.get(role);
+        return closure != null ? closure : new PermissionSet.Builder().add(authority(role)).build();
+    }
+
+    /**
+     * 计算用户的权限集合
+     * @author 程思琦
+     * @date 07:58 2026/10/19
+     * @param userRoles 用户的角色
+     * @param permissions 直接授予用户的权限
+     * @return 角色闭包与直接权限的并集, 只有一个角色且没有直接权限时直接返回共享的闭包
+     */
+    public PermissionSet resolve(Collection<String> userRoles, Collection<String> permissions) {
+        boolean noPermissions = permissions == null || permissions.isEmpty();
+        if (userRoles == null || userRoles.isEmpty()) {
+            return noPermissions ? PermissionSet.EMPTY : PermissionSet.ofPermissions(permissions);
+        }
+        Map<String, PermissionSet> snapshot = closures;
+        if (noPermissions && userRoles.size() == 1) {
+            String role = userRoles.iterator().next();
+            PermissionSet closure = snapshot.get(role);
+            return closure != null ? closure : closure(role);
+        }
+        PermissionSet.Builder builder = new PermissionSet.Builder();
+        for (String role : userRoles) {
+            PermissionSet closure = snapshot.get(role);
+            if (closure != null) {
+                builder.addAll(closure);
+            } else {
+                builder.add(authority(role));
+            }
+        }
+        if (!noPermissions) {
+            for (String permission : permissions) {
+                builder.add(permission);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 替换全部角色定义并重新计算所有闭包
+     * @author 程思琦
+     * @date 08:00 2026/10/19
+     * @param definitions 角色定义
+     * @throws IllegalArgumentException 存在循环继承
+     */
+    public synchronized void defineAll(Collection<Role> definitions) {
+        Map<String, Role> previous = new HashMap<>(roles);
+        roles.clear();
+        for (Role role : definitions) {
+            roles.put(role.getName(), role);
+        }
+        try {
+            rebuildChildren();
+            publish(new HashMap<>(), roles.keySet());
+        } catch (IllegalArgumentException e) {
+            roles.clear();
+            roles.putAll(previous);
+            rebuildChildren();
+            throw e;
+        }
+    }
+
+    /**
+     * 新增或修改一个角色, 只重新计算该角色及其后代角色的闭包
+     * @author 程思琦
+     * @date 08:05 2026/10/19
+     * @param role 角色定义
+     * @throws IllegalArgumentException 形成循环继承
+     */
+    public synchronized void define(Role role) {
+        String name = role.getName();
+        for (String parent : role.getParents()) {
+            if (parent.equals(name) || ancestors(parent).contains(name)) {
+                throw new IllegalArgumentException("Cyclic role inheritance: " + name + " -> " + parent);
+            }
+        }
+        Role previous = roles.put(name, role);
+        if (previous != null) {
+            for (String parent : previous.getParents()) {
+                Set<String> siblings = children.get(parent);
+                if (siblings != null) {
+                    siblings.remove(name);
+                }
+            }
+        }
+        for (String parent : role.getParents()) {
+            children.computeIfAbsent(parent, key -> new HashSet<>()).add(name);
+        }
+        Set<String> affected = descendants(name);
+        Map<String, PermissionSet> updated = new HashMap<>(closures);
+        updated.keySet().removeAll(affected);
+        publish(updated, affected);
+    }
+
+    /**
+     * 删除角色, 继承它的角色不再获得它的权限
+     * @author 程思琦
+     * @date 08:08 2026/10/19
+     * @param name 角色
+     */
+    public synchronized void remove(String name) {
+        Role previous = roles.remove(name);
+        if (previous == null) {
+            return;
+        }
+        for (String parent : previous.getParents()) {
+            Set<String> siblings = children.get(parent);
+            if (siblings != null) {
+                siblings.remove(name);
+            }
+        }
+        Set<String> affected = descendants(name);
+        affected.remove(name);
+        Map<String, PermissionSet> updated = new HashMap<>(closures);
+        updated.remove(name);
+        updated.keySet().removeAll(affected);
+        publish(updated, affected);
+    }
+
+    /**
+     * 已定义的角色数
+     */
+    public int size() {
+        return closures.size();
+    }
+
+    /**
+     * 计算受影响角色的闭包并替换闭包表
+     * @param updated 未受影响角色的闭包
+     * @param affected 需要重新计算的角色
+     */
+    private void publish(Map<String, PermissionSet> updated, Set<String> affected) {
+        Set<String> visiting = new HashSet<>();
+        for (String name : affected) {
+            compute(name, updated, visiting);
+        }
+        closures = Collections.unmodifiableMap(updated);
+    }
+
+    private PermissionSet compute(String name, Map<String, PermissionSet> computed, Set<String> visiting) {
+        PermissionSet closure = computed.get(name);
+        if (closure != null) {
+            return closure;
+        }
+        Role role = roles.get(name);
+        if (role == null) {
+            return null;
+        }
+        if (!visiting.add(name)) {
+            throw new IllegalArgumentException("Cyclic role inheritance: " + name);
+        }
+        PermissionSet.Builder builder = new PermissionSet.Builder().add(authority(name));
+        for (String permission : role.getPermissions()) {
+            builder.add(permission);
+        }
+        for (String parent : role.getParents()) {
+            // 未定义的父角色不贡献任何权限
+            PermissionSet inherited = compute(parent, computed, visiting);
+            if (inherited != null) {
+                builder.addAll(inherited);
+            }
+        }
+        visiting.remove(name);
+        closure = builder.build();
+        computed.put(name, closure);
+        return closure;
+    }
+
+    private void rebuildChildren() {
+        children.clear();
+        for (Role role : roles.values()) {
+            for (String parent : role.getParents()) {
+                children.computeIfAbsent(parent, key -> new HashSet<>()).add(role.getName());
+            }
+        }
+    }
+
+    /**
+     * 角色自身及所有后代角色
+     */
+    private Set<String> descendants(String name) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(name);
+        while (!pending.isEmpty()) {
+            String current = pending.poll();
+            if (result.add(current)) {
+                pending.addAll(children.getOrDefault(current, Collections.emptySet()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 角色自身及所有祖先角色
+     */
+    private Set<String> ancestors(String name) {
+        Set<String> result = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(name);
+        while (!pending.isEmpty()) {
+            String current = pending.poll();
+            if (result.add(current)) {
+                Role role = roles.get(current);
+                if (role != null) {
+                    pending.addAll(role.getParents());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String authority(String role) {
+        return role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+    }
+}
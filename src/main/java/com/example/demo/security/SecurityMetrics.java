@@ -0,0 +1,188 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 安全链路指标
+ *
+ * 记录令牌检查、令牌验签、密码校验、用户查询和 @PreAuthorize 授权的耗时, 以及按原因统计的令牌校验失败次数。
+ * 计时器发布百分位直方图, 由 Prometheus 端汇总计算 p50/p99。
+ *
+ * 过滤器、JwtTokenUtils 等静态入口通过 get() 取得当前实例, 由 SecurityMetricsConfig 在启用时安装;
+ * 未启用时使用 NOOP, start() 不读取时钟, 记录方法只判断一次空引用
+ *
+ * 用法:
+ * long start = metrics.start();
+ * try { ... } finally { metrics.recordXxx(start); }
+ *
+ * @author 程思琦
+ * @date 2026/10/19 09:40
+ * @description
+ **/
+public class SecurityMetrics implements AutoCloseable {
+
+    /**
+     * 未启用时的实例, 不记录任何指标
+     */
+    public static final SecurityMetrics NOOP = new SecurityMetrics();
+
+    private static volatile SecurityMetrics current = NOOP;
+
+    /**
+     * 令牌校验失败原因
+     */
+    public enum TokenFailure {
+        /**
+         * 已过期
+         */
+        EXPIRED("expired"),
+        /**
+         * 密钥不存在或签名不正确
+         */
+        BAD_SIGNATURE("bad_signature"),
+        /**
+         * 格式错误、Base64 或载荷无法解析、缺少必要声明、令牌类型不对或权限字典版本不一致
+         */
+        MALFORMED("malformed"),
+        /**
+         * 需要登录的请求或刷新请求没有携带令牌
+         */
+        MISSING("missing");
+
+        private final String tag;
+
+        TokenFailure(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer filter;
+
+    private final Timer tokenVerify;
+
+    private final Timer passwordCheck;
+
+    private final Timer userLookup;
+
+    private final Timer authorization;
+
+    private final Counter[] tokenFailures;
+
+    private SecurityMetrics() {
+        filter = null;
+        tokenVerify = null;
+        passwordCheck = null;
+        userLookup = null;
+        authorization = null;
+        tokenFailures = null;
+    }
+
+    /**
+     * @param registry 指标注册表
+     */
+    public SecurityMetrics(MeterRegistry registry) {
+        filter = timer(registry, "security.filter.authentication", "登录认证检查过滤器中的令牌检查, 不含后续过滤器"
+                , Duration.ofNanos(500), Duration.ofMillis(100));
+        tokenVerify = timer(registry, "security.token.verify", "令牌验签解析, 不含命中验证缓存的请求"
+                , Duration.ofNanos(500), Duration.ofMillis(100));
+        passwordCheck = timer(registry, "security.password.check", "登录时的 BCrypt 密码校验"
+                , Duration.ofMillis(1), Duration.ofSeconds(10));
+        userLookup = timer(registry, "security.user.lookup", "登录时按用户名查询用户和权限, 不含命中用户缓存的请求"
+                , Duration.ofNanos(500), Duration.ofSeconds(1));
+        authorization = timer(registry, "security.authorization", "@PreAuthorize 授权判断"
+                , Duration.ofNanos(100), Duration.ofMillis(100));
+        TokenFailure[] reasons = TokenFailure.values();
+        tokenFailures = new Counter[reasons.length];
+        for (TokenFailure reason : reasons) {
+            tokenFailures[reason.ordinal()] = Counter.builder("security.token.failures")
+                    .description("令牌校验失败次数")
+                    .tag("reason", reason.tag)
+                    .register(registry);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, Duration min, Duration max) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                // 限定直方图桶的范围, 避免输出大量空桶
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max)
+                .register(registry);
+    }
+
+    /**
+     * 当前实例, 未启用时为 NOOP
+     */
+    public static SecurityMetrics get() {
+        return current;
+    }
+
+    /**
+     * 安装实例, 由 SecurityMetricsConfig 调用
+     */
+    public static void install(SecurityMetrics metrics) {
+        current = metrics == null ? NOOP : metrics;
+    }
+
+    /**
+     * 容器关闭时卸载, 恢复为 NOOP
+     */
+    @Override
+    public void close() {
+        if (current == this) {
+            current = NOOP;
+        }
+    }
+
+    public boolean isEnabled() {
+        return filter != null;
+    }
+
+    /**
+     * 计时起点, 未启用时返回 0 且不读取时钟
+     */
+    public long start() {
+        return filter == null ? 0L : System.nanoTime();
+    }
+
+    public void recordFilter(long start) {
+        record(filter, start);
+    }
+
+    public void recordTokenVerify(long start) {
+        record(tokenVerify, start);
+    }
+
+    public void recordPasswordCheck(long start) {
+        record(passwordCheck, start);
+    }
+
+    public void recordUserLookup(long start) {
+        record(userLookup, start);
+    }
+
+    public void recordAuthorization(long start) {
+        record(authorization, start);
+    }
+
+    /**
+     * 记录一次令牌校验失败
+     */
+    public void tokenFailure(TokenFailure reason) {
+        if (tokenFailures != null) {
+            tokenFailures[reason.ordinal()].increment();
+        }
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
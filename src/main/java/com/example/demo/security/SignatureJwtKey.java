@@ -0,0 +1,308 @@
+package com.example.demo.security;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 非对称签名密钥(ES256/EdDSA)
+ *
+ * 私钥只在签发令牌的实例上配置, 其他实例只持有公钥, 通过 JWKS 文档获取, 验签不再需要共享密钥。
+ * 创建时确定提供者并做一次签名、验签, 校验公私钥匹配; 每个线程第一次使用时按已确定的提供者
+ * 创建并初始化 Signature, 之后复用, 不再遍历提供者列表。
+ *
+ * ES256 的 JWS 签名是 r、s 各 32 字节直接拼接, JCA 输出的是 DER 编码, 签名和验签时互相转换。
+ * EdDSA 使用 Ed25519 曲线, 需要运行在 JDK 15 及以上版本
+ *
+ * @author 程思琦
+ * @date 2026/10/19 00:40
+ * @description
+ **/
+public class SignatureJwtKey extends JwtKey {
+
+    public static final String ES256 = "ES256";
+
+    public static final String EDDSA = "EdDSA";
+
+    /**
+     * P-256 曲线坐标长度
+     */
+    private static final int EC_COORDINATE_SIZE = 32;
+
+    /**
+     * Ed25519 公钥 X.509 编码的固定前缀, 后接 32 字节公钥
+     */
+    private static final byte[] ED25519_X509_PREFIX = {0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03
+            , 0x21, 0x00};
+
+    private final PublicKey publicKey;
+
+    private final PrivateKey privateKey;
+
+    private final String jcaAlgorithm;
+
+    private final Provider provider;
+
+    private final ThreadLocal<Signature> signers;
+
+    private final ThreadLocal<Signature> verifiers;
+
+    /**
+     * @param kid 密钥编号
+     * @param algorithm ES256 或 EdDSA
+     * @param publicKey 公钥
+     * @param privateKey 私钥, 只验签的实例为 null
+     */
+    public SignatureJwtKey(String kid, String algorithm, PublicKey publicKey, PrivateKey privateKey) {
+        super(kid, algorithm);
+        if (!ES256.equals(algorithm) && !EDDSA.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported signature algorithm: " + algorithm);
+        }
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.jcaAlgorithm = ES256.equals(algorithm) ? "SHA256withECDSA" : "Ed25519";
+        try {
+            Signature verifier = Signature.getInstance(jcaAlgorithm);
+            verifier.initVerify(publicKey);
+            this.provider = verifier.getProvider();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid " + algorithm + " key " + kid, e);
+        }
+        this.signers = ThreadLocal.withInitial(this::newSigner);
+        this.verifiers = ThreadLocal.withInitial(this::newVerifier);
+        warmUp();
+    }
+
+    /**
+     * 按密钥类型确定 JWS 算法, 不支持的类型返回 null
+     */
+    public static String algorithmOf(PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey
+                && ((ECPublicKey) publicKey).getParams().getCurve().getField().getFieldSize() == 256) {
+            return ES256;
+        }
+        if ("Ed25519".equals(publicKey.getAlgorithm()) || "EdDSA".equals(publicKey.getAlgorithm())) {
+            return EDDSA;
+        }
+        return null;
+    }
+
+    public boolean canSign() {
+        return privateKey != null;
+    }
+
+    @Override
+    public byte[] sign(byte[] input, int off, int len) {
+        if (privateKey == null) {
+            throw new IllegalStateException("Key " + getKid() + " has no private key");
+        }
+        Signature signer = signers.get();
+        try {
+            signer.update(input, off, len);
+            byte[] signature = signer.sign();
+            return ES256.equals(getAlgorithm()) ? derToConcat(signature) : signature;
+        } catch (SignatureException e) {
+            signers.remove();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean verify(byte[] input, int off, int len, byte[] signature) {
+        byte[] encoded = signature;
+        if (ES256.equals(getAlgorithm())) {
+            if (signature.length != 2 * EC_COORDINATE_SIZE) {
+                return false;
+            }
+            encoded = concatToDer(signature);
+        }
+        Signature verifier = verifiers.get();
+        try {
+            verifier.update(input, off, len);
+            return verifier.verify(encoded);
+        } catch (SignatureException e) {
+            // 签名格式错误时丢弃本线程的实例, 下次重新初始化
+            verifiers.remove();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean sameKeyAs(JwtKey other) {
+        if (!(other instanceof SignatureJwtKey) || !getKid().equals(other.getKid())
+                || !getAlgorithm().equals(other.getAlgorithm())) {
+            return false;
+        }
+        SignatureJwtKey that = (SignatureJwtKey) other;
+        return Arrays.equals(publicKey.getEncoded(), that.publicKey.getEncoded())
+                && (privateKey == null ? that.privateKey == null
+                : that.privateKey != null && Arrays.equals(privateKey.getEncoded(), that.privateKey.getEncoded()));
+    }
+
+    /**
+     * 公钥的 JWK 表示, 用于 JWKS 文档
+     */
+    @Override
+    public Map<String, Object> toJwk() {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        if (ES256.equals(getAlgorithm())) {
+            ECPoint point = ((ECPublicKey) publicKey).getW();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsigned(point.getAffineX())));
+            jwk.put("y", encoder.encodeToString(unsigned(point.getAffineY())));
+        } else {
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(Arrays.copyOfRange(encoded, ED25519_X509_PREFIX.length, encoded.length)));
+        }
+        jwk.put("kid", getKid());
+        jwk.put("alg", getAlgorithm());
+        jwk.put("use", "sig");
+        return jwk;
+    }
+
+    /**
+     * 从 JWK 构造只验签的密钥
+     * @author 程思琦
+     * @date 00:40 2026/10/19
+     * @param jwk JWKS 文档中的一项
+     * @return 密钥, 不是 ES256 或 EdDSA 签名公钥时返回 null
+     */
+    public static SignatureJwtKey fromJwk(Map<String, Object> jwk) throws GeneralSecurityException {
+        Object kid = jwk.get("kid");
+        if (!(kid instanceof String) || (jwk.get("use") != null && !"sig".equals(jwk.get("use")))) {
+            return null;
+        }
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        if ("EC".equals(jwk.get("kty")) && "P-256".equals(jwk.get("crv"))) {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            ECPoint point = new ECPoint(new BigInteger(1, decoder.decode((String) jwk.get("x")))
+                    , new BigInteger(1, decoder.decode((String) jwk.get("y"))));
+            PublicKey publicKey = KeyFactory.getInstance("EC").generatePublic(
+                    new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+            return new SignatureJwtKey((String) kid, ES256, publicKey, null);
+        }
+        if ("OKP".equals(jwk.get("kty")) && "Ed25519".equals(jwk.get("crv"))) {
+            byte[] x = decoder.decode((String) jwk.get("x"));
+            byte[] encoded = Arrays.copyOf(ED25519_X509_PREFIX, ED25519_X509_PREFIX.length + x.length);
+            System.arraycopy(x, 0, encoded, ED25519_X509_PREFIX.length, x.length);
+            PublicKey publicKey = KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+            return new SignatureJwtKey((String) kid, EDDSA, publicKey, null);
+        }
+        return null;
+    }
+
+    /**
+     * 在当前线程初始化签名、验签实例并做一次往返, 私钥与公钥不匹配时直接失败
+     */
+    private void warmUp() {
+        byte[] probe = ("warm-up:" + getKid()).getBytes(StandardCharsets.US_ASCII);
+        verifiers.get();
+        if (privateKey != null && !verify(probe, 0, probe.length, sign(probe, 0, probe.length))) {
+            throw new IllegalArgumentException("Private key does not match public key " + getKid());
+        }
+    }
+
+    private Signature newSigner() {
+        try {
+            Signature signature = Signature.getInstance(jcaAlgorithm, provider);
+            signature.initSign(privateKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Signature newVerifier() {
+        try {
+            Signature signature = Signature.getInstance(jcaAlgorithm, provider);
+            signature.initVerify(publicKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] result = new byte[EC_COORDINATE_SIZE];
+        int length = Math.min(bytes.length, EC_COORDINATE_SIZE);
+        System.arraycopy(bytes, bytes.length - length, result, EC_COORDINATE_SIZE - length, length);
+        return result;
+    }
+
+    /**
+     * DER 编码的 ECDSA 签名 SEQUENCE { INTEGER r, INTEGER s } 转为 r || s
+     */
+    static byte[] derToConcat(byte[] der) throws SignatureException {
+        if (der.length < 8 || der[0] != 0x30) {
+            throw new SignatureException("Invalid ECDSA signature");
+        }
+        // P-256 签名总长不超过 72 字节, 长度字段只有一个字节
+        int offset = 2;
+        byte[] result = new byte[2 * EC_COORDINATE_SIZE];
+        for (int i = 0; i < 2; i++) {
+            if (der[offset] != 0x02) {
+                throw new SignatureException("Invalid ECDSA signature");
+            }
+            int length = der[offset + 1];
+            int start = offset + 2;
+            // 去掉符号位补的 0
+            int skip = Math.max(0, length - EC_COORDINATE_SIZE);
+            System.arraycopy(der, start + skip, result, (i + 1) * EC_COORDINATE_SIZE - (length - skip), length - skip);
+            offset = start + length;
+        }
+        return result;
+    }
+
+    /**
+     * r || s 转为 DER 编码, 整数去掉前导 0, 最高位为 1 时补 0
+     */
+    static byte[] concatToDer(byte[] concat) {
+        byte[] r = derInteger(concat, 0);
+        byte[] s = derInteger(concat, EC_COORDINATE_SIZE);
+        byte[] der = new byte[2 + 2 + r.length + 2 + s.length];
+        der[0] = 0x30;
+        der[1] = (byte) (der.length - 2);
+        der[2] = 0x02;
+        der[3] = (byte) r.length;
+        System.arraycopy(r, 0, der, 4, r.length);
+        der[4 + r.length] = 0x02;
+        der[5 + r.length] = (byte) s.length;
+        System.arraycopy(s, 0, der, 6 + r.length, s.length);
+        return der;
+    }
+
+    private static byte[] derInteger(byte[] concat, int offset) {
+        int start = offset;
+        int end = offset + EC_COORDINATE_SIZE;
+        while (start < end - 1 && concat[start] == 0) {
+            start++;
+        }
+        boolean pad = (concat[start] & 0x80) != 0;
+        byte[] integer = new byte[end - start + (pad ? 1 : 0)];
+        System.arraycopy(concat, start, integer, pad ? 1 : 0, end - start);
+        return integer;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collection;
+
+/**
+ * 记录授权耗时的 AccessDecisionManager, 包装方法级安全的投票器链
+ *
+ * 预编译规则和 SpEL 表达式都经过这里, 拒绝访问时同样计时
+ *
+ * @author 程思琦
+ * @date 2026/10/19 09:50
+ * @description
+ **/
+public class TimedAccessDecisionManager implements AccessDecisionManager {
+
+    private final AccessDecisionManager delegate;
+
+    public TimedAccessDecisionManager(AccessDecisionManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void decide(Authentication authentication, Object object, Collection<ConfigAttribute> configAttributes)
+            throws AccessDeniedException, InsufficientAuthenticationException {
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
+        try {
+            delegate.decide(authentication, object, configAttributes);
+        } finally {
+            metrics.recordAuthorization(start);
+        }
+    }
+
+    @Override
+    public boolean supports(ConfigAttribute attribute) {
+        return delegate.supports(attribute);
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌吊销记录快照任务
+ *
+ * 启动时加载快照文件, 之后按固定间隔清理过期记录并写入快照, 关闭时再写一次,
+ * 重启后已退出登录的令牌不会重新生效
+ *
+ * @author 程思琦
+ * @date 2026/10/18 22:40
+ * @description
+ **/
+public class TokenRevocationSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationSnapshotter.class);
+
+    private final InMemoryTokenRevocationStore store;
+
+    private final Path file;
+
+    private final long intervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    public TokenRevocationSnapshotter(InMemoryTokenRevocationStore store, Path file, long intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("intervalSeconds must be positive");
+        }
+        this.store = store;
+        this.file = file;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * 加载快照并开始定时写入
+     * @author 程思琦
+     * @date 22:40 2026/10/18
+     */
+    public void start() throws IOException {
+        if (Files.exists(file)) {
+            int loaded = store.loadSnapshot(file);
+            log.info("Loaded {} revoked tokens from {}", loaded, file);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshot, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时任务并写入最后一次快照
+     * @author 程思琦
+     * @date 22:40 2026/10/18
+     */
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        snapshot();
+    }
+
+    private void snapshot() {
+        try {
+            store.purgeExpired();
+            store.writeSnapshot(file);
+        } catch (IOException | RuntimeException e) {
+            // 写入失败不影响吊销查询, 下一轮重试
+            log.warn("Failed to write token revocation snapshot to {}", file, e);
+        }
+    }
+}
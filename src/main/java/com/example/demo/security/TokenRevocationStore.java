@@ -0,0 +1,60 @@
+package com.example.demo.security;
+
+import java.util.UUID;
+
+/**
+ * 令牌吊销记录
+ *
+ * 按令牌ID记录已吊销(退出登录)的令牌, 每条记录只保留到令牌本身过期为止,
+ * 登录状态检查过滤器在每次请求时查询, 实现需要保证查询是 O(1) 且不加锁等待
+ *
+ * @author 程思琦
+ * @date 2026/10/18 22:20
+ * @description
+ **/
+public interface TokenRevocationStore {
+
+    /**
+     * 吊销令牌
+     * @author 程思琦
+     * @date 22:20 2026/10/18
+     * @param tokenId 令牌ID
+     * @param expiresAt 令牌过期时间点(毫秒时间戳), 之后记录可以丢弃
+     */
+    void revoke(UUID tokenId, long expiresAt);
+
+    /**
+     * 判断令牌是否已被吊销
+     * @author 程思琦
+     * @date 22:20 2026/10/18
+     * @param tokenId 令牌ID
+     * @return boolean
+     */
+    boolean isRevoked(UUID tokenId);
+
+    /**
+     * 判断令牌本身或令牌所属的会话是否已被吊销
+     * @author 程思琦
+     * @date 10:50 2026/10/19
+     * @param claims 已验签的令牌声明
+     * @return boolean
+     */
+    default boolean isRevoked(JwtVerifiedClaims claims) {
+        return isRevoked(claims.getTokenId()) || (claims.getSessionId() != null && isRevoked(claims.getSessionId()));
+    }
+
+    /**
+     * 记录条数, 可能包含已过期但尚未清理的记录
+     * @author 程思琦
+     * @date 22:20 2026/10/18
+     * @return int
+     */
+    int size();
+
+    /**
+     * 清理已过期的记录
+     * @author 程思琦
+     * @date 22:20 2026/10/18
+     */
+    void purgeExpired();
+}
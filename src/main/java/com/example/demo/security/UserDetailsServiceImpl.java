@@ -5,15 +5,12 @@ import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.config.core.GrantedAuthorityDefaults;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  *
@@ -31,6 +28,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RoleHierarchyIndex roleHierarchyIndex;
+
     /**
      * 一般而言, 定制UserDetailsService 就可以满足大部分需求了,在UserDetailsService满足不了
      * 我们的需求的时候考虑定制AuthenticationProvider
@@ -46,6 +46,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // 查询耗时记入 SecurityMetrics, 包含用户不存在的情况
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
+        try {
+            return loadUser(username);
+        } finally {
+            metrics.recordUserLookup(start);
+        }
+    }
+
+    private UserDetails loadUser(String username) {
         User user = userService.findByUsername(username);
         if(user == null){
             throw new UsernameNotFoundException("该用户不存在");
@@ -56,7 +67,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
          * 接口对比, 决定是否可以调用接口
          */
         Set<String> permissions = userService.findPermissions(username);
-        List<GrantedAuthority> grantedAuthorities = permissions.stream().map(GrantedAuthorityImpl::new).collect(Collectors.toList());
+        // 角色闭包已预先计算, 与直接权限按位合并, 使用注册表中的共享权限实例
+        PermissionSet grantedAuthorities = roleHierarchyIndex.resolve(user.getRoles(), permissions);
         return new JwtUserDetails(username, user.getPassword(), grantedAuthorities);
     }
 }
@@ -0,0 +1,54 @@
+package com.example.demo.security;
+
+/**
+ * 已验签的令牌认证信息
+ *
+ * 由令牌解析得到, 创建后不可修改, 可以被令牌缓存在多个请求之间共享,
+ * 所有修改方法都会抛出 UnsupportedOperationException
+ *
+ * @author 程思琦
+ * @date 2026/10/18 14:30
+ * @description
+ **/
+public class VerifiedJwtAuthenticationToken extends JwtAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient JwtVerifiedClaims claims;
+
+    public VerifiedJwtAuthenticationToken(JwtVerifiedClaims claims) {
+        super(claims.getSubject(), null, claims.getAuthorities(), claims.getToken());
+        this.claims = claims;
+    }
+
+    public JwtVerifiedClaims getClaims() {
+        return claims;
+    }
+
+    /**
+     * 令牌过期时间点(毫秒时间戳)
+     */
+    public long getExpiration() {
+        return claims.getExpiration();
+    }
+
+    @Override
+    public void setToken(String token) {
+        throw new UnsupportedOperationException("VerifiedJwtAuthenticationToken is immutable");
+    }
+
+    @Override
+    public void setDetails(Object details) {
+        throw new UnsupportedOperationException("VerifiedJwtAuthenticationToken is immutable");
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        throw new UnsupportedOperationException("VerifiedJwtAuthenticationToken is immutable");
+    }
+
+    @Override
+    public void eraseCredentials() {
+        // 不持有任何凭证, 无需擦除
+    }
+}
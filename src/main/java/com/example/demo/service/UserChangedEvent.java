@@ -0,0 +1,36 @@
+package com.example.demo.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 用户信息或权限变更事件
+ *
+ * 用户、权限发生变化后发布此事件, 用户相关缓存收到后立即失效对应条目,
+ * 用户名为空时表示全部失效
+ *
+ * @author 程思琦
+ * @date 2026/10/18 18:10
+ * @description
+ **/
+public class UserChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String username;
+
+    public UserChangedEvent(Object source, String username) {
+        super(source);
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 是否全部失效
+     */
+    public boolean isAllUsers() {
+        return username == null;
+    }
+}
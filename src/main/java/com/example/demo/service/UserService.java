@@ -1,7 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.model.Role;
 import com.example.demo.model.User;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -30,4 +33,14 @@ public interface UserService {
      * @return
      */
     Set<String> findPermissions(String username);
+
+    /**
+     * 查询全部角色定义, 用于构建角色继承关系
+     * @author 程思琦
+     * @date 07:45 2026/10/19
+     * @return 角色列表
+     */
+    default Collection<Role> findRoles() {
+        return Collections.emptyList();
+    }
 }
@@ -0,0 +1,904 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import com.example.demo.security.RoleHierarchyIndex;
+import com.example.demo.service.UserChangedEvent;
+import com.example.demo.service.UserService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.CRC32;
+
+/**
+ * 基于追加日志的用户服务
+ *
+ * 用户、角色的新增、修改和删除都以记录的形式追加到日志文件末尾, 启动时顺序扫描一遍重建内存索引,
+ * 文件末尾不完整的记录(写入中途宕机)被截掉。
+ *
+ * 内存中只保存一个 long[] 开放寻址哈希表, 每个用户占两个 long: 用户名的 64 位哈希,
+ * 以及记录在文件中的偏移和授权编号, 没有每用户的对象, 千万级用户约占 256MB。
+ * findByUsername 按哈希定位后从文件读取这一条记录(页缓存命中时为一次 pread), 核对用户名后返回。
+ *
+ * 用户的角色和直接权限组合称为授权, 相同的授权只保存一份并编号, 角色集合和权限集合都是不可变的共享实例。
+ * findPermissions 只查哈希表和授权编号, 不读文件。角色定义(含继承关系)由 findRoles 提供给
+ * RoleHierarchyIndex, 角色的权限在那里展开, 这里不展开角色。
+ *
+ * 查询使用 StampedLock 乐观读; 写入串行执行, 一批记录只写一次文件、最多刷一次盘, 然后更新索引。
+ * 用户写入后需要由调用方发布 UserChangedEvent, 使用户缓存失效; 角色的新增、修改和删除由这里同步到
+ * RoleHierarchyIndex 并发布全部用户的 UserChangedEvent, 形成循环继承的角色定义不会写入日志
+ *
+ * @author 程思琦
+ * @date 2026/10/19 06:30
+ * @description
+ **/
+public class AppendLogUserService implements UserService, ApplicationEventPublisherAware, Closeable {
+
+    /**
+     * 文件标识 "JUSR" 和格式版本
+     */
+    private static final int MAGIC = 0x4A555352;
+
+    /**
+     * 版本 3 增加了删除角色的记录
+     */
+    private static final int VERSION = 3;
+
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * 记录头: 记录体长度和 CRC32
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final int MAX_RECORD_SIZE = 1 << 16;
+
+    private static final byte PUT_USER = 1;
+
+    private static final byte DELETE_USER = 2;
+
+    private static final byte PUT_ROLE = 3;
+
+    private static final byte DELETE_ROLE = 4;
+
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    /**
+     * 槽位值: 高 40 位为记录偏移, 低 24 位为授权编号
+     */
+    private static final int GRANT_BITS = 24;
+
+    private static final long GRANT_MASK = (1L << GRANT_BITS) - 1;
+
+    private static final long MAX_OFFSET = (1L << (64 - GRANT_BITS)) - 1;
+
+    /**
+     * 已删除用户的槽位值, 哈希保留以免打断探测链
+     */
+    private static final long TOMBSTONE = -1L;
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(512));
+
+    private final FileChannel channel;
+
+    private final FileLock fileLock;
+
+    private final boolean sync;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * 写入锁, 串行化文件追加、授权和角色的变更
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 哈希表, 每个槽位两个 long: 用户名哈希(0 表示空槽位)、槽位值
+     */
+    private long[] table;
+
+    private int mask;
+
+    /**
+     * 已占用槽位数, 包括已删除的槽位
+     */
+    private int used;
+
+    /**
+     * 用户数
+     */
+    private int size;
+
+    /**
+     * 下一条记录的写入位置
+     */
+    private long end;
+
+    /**
+     * 授权编号 -> 授权, 授权内容 -> 授权编号
+     */
+    private final Map<ByteBuffer, Integer> grantIds = new HashMap<>();
+
+    private int grantCount;
+
+    /**
+     * 授权编号 -> 授权, 数组按倍数扩容, 末尾可能有空位
+     */
+    private volatile Grant[] grants = new Grant[16];
+
+    /**
+     * 相同的角色集合、权限集合共享同一个不可变实例
+     */
+    private final Map<Set<String>, Set<String>> canonicalSets = new HashMap<>();
+
+    /**
+     * 角色 -> 角色定义
+     */
+    private final Map<String, Role> roles = new LinkedHashMap<>();
+
+    /**
+     * 角色变更时同步更新的角色继承索引, 为空时只写日志
+     */
+    private volatile RoleHierarchyIndex roleHierarchyIndex;
+
+    private volatile ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 打开日志文件, 文件不存在时创建
+     * @param file 日志文件
+     * @param sync 每批写入后是否刷盘
+     */
+    public AppendLogUserService(Path file, boolean sync) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.sync = sync;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ
+                , StandardOpenOption.WRITE);
+        try {
+            this.fileLock = channel.tryLock();
+            if (fileLock == null) {
+                throw new IOException("User store is used by another process: " + file);
+            }
+            int capacity = tableSizeFor(Math.max(MINIMUM_CAPACITY, (int) Math.min(channel.size() / 64, 1 << 26)));
+            this.table = new long[capacity * 2];
+            this.mask = capacity - 1;
+            load(file);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        byte[] key = username.getBytes(StandardCharsets.UTF_8);
+        long value = lookup(key);
+        if (value == TOMBSTONE) {
+            return null;
+        }
+        ByteBuffer record = readRecord(value >>> GRANT_BITS);
+        // 跳过记录类型
+        record.get();
+        User user = new User();
+        user.setId(record.getLong());
+        user.setUsername(username);
+        skipString(record);
+        user.setPassword(readString(record));
+        user.setRoles(grants[(int) (value & GRANT_MASK)].roles);
+        return user;
+    }
+
+    @Override
+    public Set<String> findPermissions(String username) {
+        if (username == null) {
+            return Collections.emptySet();
+        }
+        long value = lookup(username.getBytes(StandardCharsets.UTF_8));
+        if (value == TOMBSTONE) {
+            return Collections.emptySet();
+        }
+        return grants[(int) (value & GRANT_MASK)].permissions;
+    }
+
+    @Override
+    public Collection<Role> findRoles() {
+        writeLock.lock();
+        try {
+            return new ArrayList<>(roles.values());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 新增或修改一个用户
+     * @author 程思琦
+     * @date 06:40 2026/10/19
+     * @param user 用户, 密码为编码后的哈希
+     * @param roles 角色
+     * @param permissions 直接授予的权限
+     */
+    public void save(User user, Collection<String> roles, Collection<String> permissions) throws IOException {
+        saveAll(Collections.singletonList(new UserRecord(user, roles, permissions)));
+    }
+
+    /**
+     * 批量新增或修改用户, 整批只写一次文件、最多刷一次盘
+     * @author 程思琦
+     * @date 06:40 2026/10/19
+     * @param records 用户记录
+     */
+    public void saveAll(Collection<UserRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<byte[]> bodies = new ArrayList<>(records.size());
+        for (UserRecord record : records) {
+            bodies.add(encodeUser(record));
+        }
+        writeLock.lock();
+        try {
+            long offset = append(bodies);
+            for (byte[] body : bodies) {
+                index(ByteBuffer.wrap(body), offset);
+                offset += RECORD_HEADER_SIZE + body.length;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 删除用户
+     * @author 程思琦
+     * @date 06:45 2026/10/19
+     * @param username 用户名
+     */
+    public void delete(String username) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE_USER);
+        writeString(out, username);
+        byte[] body = toBody(bytes, username);
+        writeLock.lock();
+        try {
+            long offset = append(Collections.singletonList(body));
+            index(ByteBuffer.wrap(body), offset);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 新增或修改角色, 同步更新 RoleHierarchyIndex 并使全部用户缓存失效
+     * @author 程思琦
+     * @date 06:45 2026/10/19
+     * @param role 角色定义
+     * @throws IllegalArgumentException 形成循环继承, 此时不写入日志
+     */
+    public void saveRole(Role role) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT_ROLE);
+        writeString(out, role.getName());
+        writeStrings(out, role.getParents());
+        writeStrings(out, role.getPermissions());
+        byte[] body = toBody(bytes, role.getName());
+        writeLock.lock();
+        try {
+            Role previous = roles.get(role.getName());
+            RoleHierarchyIndex index = roleHierarchyIndex;
+            if (index != null) {
+                // 先更新索引, 循环继承在写入日志之前被拒绝
+                index.define(role);
+            }
+            try {
+                long offset = append(Collections.singletonList(body));
+                index(ByteBuffer.wrap(body), offset);
+            } catch (IOException | RuntimeException e) {
+                if (index != null) {
+                    restore(index, role.getName(), previous);
+                }
+                throw e;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        publishRolesChanged();
+    }
+
+    /**
+     * 删除角色, 同步更新 RoleHierarchyIndex 并使全部用户缓存失效; 拥有该角色的用户不再获得它的权限
+     * @author 程思琦
+     * @date 10:55 2026/10/19
+     * @param name 角色
+     */
+    public void deleteRole(String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE_ROLE);
+        writeString(out, name);
+        byte[] body = toBody(bytes, name);
+        writeLock.lock();
+        try {
+            if (!roles.containsKey(name)) {
+                return;
+            }
+            long offset = append(Collections.singletonList(body));
+            index(ByteBuffer.wrap(body), offset);
+            RoleHierarchyIndex index = roleHierarchyIndex;
+            if (index != null) {
+                index.remove(name);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        publishRolesChanged();
+    }
+
+    /**
+     * 设置角色继承索引, 由 UserStoreConfig 在索引按已有角色初始化后调用
+     */
+    public void setRoleHierarchyIndex(RoleHierarchyIndex roleHierarchyIndex) {
+        this.roleHierarchyIndex = roleHierarchyIndex;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 用户数
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 不同授权(角色和直接权限的组合)的个数
+     */
+    public int getGrantCount() {
+        writeLock.lock();
+        try {
+            return grantCount;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            fileLock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * 写入日志失败时把角色继承索引恢复为原来的定义
+     */
+    private static void restore(RoleHierarchyIndex index, String name, Role previous) {
+        if (previous == null) {
+            index.remove(name);
+        } else {
+            index.define(previous);
+        }
+    }
+
+    /**
+     * 角色的权限闭包变化会影响拥有该角色及其后代角色的所有用户, 使全部用户缓存失效
+     */
+    private void publishRolesChanged() {
+        ApplicationEventPublisher publisher = eventPublisher;
+        if (publisher != null) {
+            publisher.publishEvent(new UserChangedEvent(this, null));
+        }
+    }
+
+    /**
+     * 顺序扫描日志重建索引, 遇到不完整或校验失败的记录时截掉文件剩余部分
+     */
+    private void load(Path file) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            writeFully(header, 0);
+            channel.force(true);
+            end = HEADER_SIZE;
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        buffer.flip();
+        channel.position(0);
+        if (!fill(buffer, HEADER_SIZE) || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unsupported user store: " + file);
+        }
+        long position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (fill(buffer, RECORD_HEADER_SIZE)) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE || !fill(buffer, length)) {
+                break;
+            }
+            ByteBuffer body = buffer.slice();
+            body.limit(length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            index(body, position);
+            buffer.position(buffer.position() + length);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (position < fileSize) {
+            // 末尾是写入中途宕机留下的不完整记录
+            channel.truncate(position);
+            channel.force(true);
+        }
+        end = position;
+    }
+
+    /**
+     * 保证缓冲区中至少有 required 个未读字节, 文件已读完时返回 false
+     */
+    private boolean fill(ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < required) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * 把一批记录追加到文件末尾, 调用方持有写入锁
+     * @return 第一条记录的偏移
+     */
+    private long append(List<byte[]> bodies) throws IOException {
+        int total = 0;
+        for (byte[] body : bodies) {
+            total += RECORD_HEADER_SIZE + body.length;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (byte[] body : bodies) {
+            crc.reset();
+            crc.update(body, 0, body.length);
+            batch.putInt(body.length).putInt((int) crc.getValue()).put(body);
+        }
+        batch.flip();
+        long offset = end;
+        if (offset + total > MAX_OFFSET) {
+            throw new IOException("User store is full");
+        }
+        writeFully(batch, offset);
+        if (sync) {
+            channel.force(false);
+        }
+        end = offset + total;
+        return offset;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * 把一条记录应用到索引, 调用方持有写入锁或正在加载
+     * @param body 记录体, 从 position 开始读取
+     * @param offset 记录在文件中的偏移
+     */
+    private void index(ByteBuffer body, long offset) {
+        body = body.duplicate();
+        byte type = body.get();
+        if (type == PUT_ROLE) {
+            String name = readString(body);
+            Set<String> parents = readStrings(body);
+            roles.put(name, new Role(name, parents, readStrings(body)));
+            return;
+        }
+        if (type == DELETE_ROLE) {
+            roles.remove(readString(body));
+            return;
+        }
+        if (type == PUT_USER) {
+            body.getLong();
+        }
+        byte[] key = readBytes(body);
+        if (type == DELETE_USER) {
+            put(key, TOMBSTONE);
+            return;
+        }
+        skipString(body);
+        put(key, (offset << GRANT_BITS) | internGrant(body));
+    }
+
+    /**
+     * 授权编号, 新的授权分配下一个编号, 保证索引指向它之前授权已经可见
+     * @param body 位于授权(角色和直接权限)开头的记录体
+     */
+    private int internGrant(ByteBuffer body) {
+        Integer id = grantIds.get(body);
+        if (id != null) {
+            return id;
+        }
+        byte[] content = new byte[body.remaining()];
+        body.duplicate().get(content);
+        ByteBuffer grant = ByteBuffer.wrap(content);
+        id = grantCount;
+        if (id > GRANT_MASK) {
+            throw new IllegalStateException("Too many distinct grants");
+        }
+        Set<String> grantRoles = canonicalSets.computeIfAbsent(readStrings(grant), set -> set);
+        Set<String> grantPermissions = canonicalSets.computeIfAbsent(readStrings(grant), set -> set);
+        Grant[] table = grants;
+        if (id >= table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+        }
+        table[id] = new Grant(grantRoles, grantPermissions);
+        grants = table;
+        grantIds.put(ByteBuffer.wrap(content), id);
+        grantCount++;
+        return id;
+    }
+
+    /**
+     * 查找用户名对应的槽位值, 不存在时返回 TOMBSTONE
+     */
+    private long lookup(byte[] key) {
+        long hash = hash(key);
+        long stamp = lock.tryOptimisticRead();
+        long value = probe(table, hash);
+        if (lock.validate(stamp) && (value == TOMBSTONE || matches(value, key))) {
+            return value;
+        }
+        // 读取期间有写入, 或 64 位哈希冲突, 加读锁逐个核对用户名
+        stamp = lock.readLock();
+        try {
+            int slot = find(key, hash);
+            return slot < 0 ? TOMBSTONE : table[slot * 2 + 1];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 返回第一个哈希相同且未删除的槽位值, 乐观读期间数组可能被替换, 最多探测一轮
+     */
+    private static long probe(long[] table, long hash) {
+        int mask = table.length / 2 - 1;
+        int index = spread(hash) & mask;
+        for (int i = 0; i <= mask; i++) {
+            long h = table[index * 2];
+            if (h == 0) {
+                return TOMBSTONE;
+            }
+            if (h == hash && table[index * 2 + 1] != TOMBSTONE) {
+                return table[index * 2 + 1];
+            }
+            index = (index + 1) & mask;
+        }
+        return TOMBSTONE;
+    }
+
+    /**
+     * 查找用户名所在的槽位, 调用方持有锁
+     * @return 槽位下标, 不存在时返回 -1
+     */
+    private int find(byte[] key, long hash) {
+        int index = spread(hash) & mask;
+        while (true) {
+            long h = table[index * 2];
+            if (h == 0) {
+                return -1;
+            }
+            long value = table[index * 2 + 1];
+            if (h == hash && value != TOMBSTONE && matches(value, key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * 写入或删除索引项, 调用方持有写入锁或正在加载
+     */
+    private void put(byte[] key, long value) {
+        long hash = hash(key);
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(key, hash);
+            if (slot >= 0) {
+                table[slot * 2 + 1] = value;
+                if (value == TOMBSTONE) {
+                    size--;
+                }
+                return;
+            }
+            if (value == TOMBSTONE) {
+                return;
+            }
+            // 负载因子 0.75
+            if (used + 1 > (mask + 1) - ((mask + 1) >>> 2)) {
+                rehash(size + 1);
+            }
+            int index = spread(hash) & mask;
+            while (table[index * 2] != 0 && table[index * 2 + 1] != TOMBSTONE) {
+                index = (index + 1) & mask;
+            }
+            if (table[index * 2] == 0) {
+                used++;
+            }
+            table[index * 2] = hash;
+            table[index * 2 + 1] = value;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 按用户数重建哈希表, 丢弃已删除的槽位, 调用方持有写锁
+     */
+    private void rehash(int required) {
+        int capacity = tableSizeFor(Math.max(MINIMUM_CAPACITY, required + (required >>> 1)));
+        long[] oldTable = table;
+        long[] newTable = new long[capacity * 2];
+        int newMask = capacity - 1;
+        for (int i = 0; i < oldTable.length; i += 2) {
+            if (oldTable[i] != 0 && oldTable[i + 1] != TOMBSTONE) {
+                int index = spread(oldTable[i]) & newMask;
+                while (newTable[index * 2] != 0) {
+                    index = (index + 1) & newMask;
+                }
+                newTable[index * 2] = oldTable[i];
+                newTable[index * 2 + 1] = oldTable[i + 1];
+            }
+        }
+        table = newTable;
+        mask = newMask;
+        used = size;
+    }
+
+    /**
+     * 核对槽位指向的记录是否属于该用户名
+     */
+    private boolean matches(long value, byte[] key) {
+        ByteBuffer record = readRecord(value >>> GRANT_BITS);
+        byte type = record.get();
+        if (type == PUT_USER) {
+            record.getLong();
+        }
+        int length = record.getShort() & 0xFFFF;
+        if (length != key.length) {
+            return false;
+        }
+        for (byte b : key) {
+            if (record.get() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从文件读取一条记录体, 返回的缓冲区属于当前线程, 下一次读取前有效
+     */
+    private ByteBuffer readRecord(long offset) {
+        ByteBuffer buffer = READ_BUFFER.get();
+        try {
+            buffer.clear();
+            read(buffer, offset);
+            buffer.flip();
+            int length = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                throw new IllegalStateException("Corrupt user record at " + offset);
+            }
+            buffer.getInt();
+            if (buffer.remaining() < length) {
+                if (buffer.capacity() < RECORD_HEADER_SIZE + length) {
+                    buffer = ByteBuffer.allocate(Integer.highestOneBit(RECORD_HEADER_SIZE + length) << 1);
+                    READ_BUFFER.set(buffer);
+                }
+                buffer.clear();
+                buffer.limit(RECORD_HEADER_SIZE + length);
+                read(buffer, offset);
+                buffer.flip();
+                buffer.position(RECORD_HEADER_SIZE);
+            }
+            buffer.limit(RECORD_HEADER_SIZE + length);
+            return buffer;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read user record at " + offset, e);
+        }
+    }
+
+    private void read(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    private static byte[] encodeUser(UserRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        User user = record.user;
+        out.writeByte(PUT_USER);
+        out.writeLong(user.getId() == null ? 0L : user.getId());
+        writeString(out, user.getUsername());
+        writeString(out, user.getPassword());
+        writeStrings(out, record.roles);
+        writeStrings(out, record.permissions);
+        return toBody(bytes, user.getUsername());
+    }
+
+    /**
+     * 所有记录写入前检查大小; 加载时遇到超过 MAX_RECORD_SIZE 的记录会截掉文件剩余部分, 之后的记录全部丢失
+     */
+    private static byte[] toBody(ByteArrayOutputStream bytes, String name) throws IOException {
+        if (bytes.size() > MAX_RECORD_SIZE) {
+            throw new IOException("Record too large: " + name);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        if (values == null) {
+            out.writeShort(0);
+            return;
+        }
+        if (values.size() > 0xFFFF) {
+            throw new IOException("Too many values: " + values.size());
+        }
+        out.writeShort(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        buffer.position(buffer.position() + length);
+    }
+
+    private static Set<String> readStrings(ByteBuffer buffer) {
+        int count = buffer.getShort() & 0xFFFF;
+        if (count == 0) {
+            return Collections.emptySet();
+        }
+        Set<String> values = new LinkedHashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(buffer));
+        }
+        return Collections.unmodifiableSet(values);
+    }
+
+    /**
+     * 用户名 UTF-8 字节的 64 位哈希(FNV-1a 后再混合), 0 保留给空槽位
+     */
+    private static long hash(byte[] key) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : key) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        if (n <= 0 || n > (1 << 28)) {
+            throw new IllegalStateException("User index too large: " + capacity);
+        }
+        return n;
+    }
+
+    /**
+     * 一条待写入的用户记录
+     */
+    public static final class UserRecord {
+
+        private final User user;
+
+        private final Collection<String> roles;
+
+        private final Collection<String> permissions;
+
+        public UserRecord(User user, Collection<String> roles, Collection<String> permissions) {
+            this.user = user;
+            this.roles = roles == null ? Collections.emptyList() : roles;
+            this.permissions = permissions == null ? Collections.emptyList() : permissions;
+        }
+    }
+
+    /**
+     * 角色和直接权限的组合
+     */
+    private static final class Grant {
+
+        private final Set<String> roles;
+
+        private final Set<String> permissions;
+
+        private Grant(Set<String> roles, Set<String> permissions) {
+            this.roles = roles;
+            this.permissions = permissions;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import com.example.demo.service.UserChangedEvent;
+import com.example.demo.service.UserService;
+import com.example.demo.utils.ExpiringCache;
+import org.springframework.context.event.EventListener;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 带缓存的用户服务
+ *
+ * 包装实际的 UserService, 用户和权限查询结果缓存一段时间(ttl),
+ * 不存在的用户也会缓存较短时间(negativeTtl), 避免不存在的用户名反复访问存储。
+ * 用户或权限变更时调用 invalidate, 或发布 UserChangedEvent 使缓存失效
+ *
+ * @author 程思琦
+ * @date 2026/10/18 18:15
+ * @description
+ **/
+public class CachedUserService implements UserService {
+
+    private final UserService delegate;
+
+    private final long ttlMillis;
+
+    private final long negativeTtlMillis;
+
+    private final ExpiringCache<String, Optional<User>> users;
+
+    private final ExpiringCache<String, Set<String>> permissions;
+
+    public CachedUserService(UserService delegate, long ttlMillis, long negativeTtlMillis, int maximumSize) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.users = new ExpiringCache<>(maximumSize);
+        this.permissions = new ExpiringCache<>(maximumSize);
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        Optional<User> user = users.get(username);
+        if (user == null) {
+            user = Optional.ofNullable(delegate.findByUsername(username));
+            long ttl = user.isPresent() ? ttlMillis : negativeTtlMillis;
+            users.put(username, user, System.currentTimeMillis() + ttl);
+        }
+        return user.orElse(null);
+    }
+
+    @Override
+    public Set<String> findPermissions(String username) {
+        Set<String> userPermissions = permissions.get(username);
+        if (userPermissions == null) {
+            userPermissions = delegate.findPermissions(username);
+            if (userPermissions != null) {
+                permissions.put(username, userPermissions, System.currentTimeMillis() + ttlMillis);
+            }
+        }
+        return userPermissions;
+    }
+
+    /**
+     * 角色定义只在启动和变更时读取, 不缓存
+     */
+    @Override
+    public Collection<Role> findRoles() {
+        return delegate.findRoles();
+    }
+
+    /**
+     * 使指定用户的缓存失效
+     * @author 程思琦
+     * @date 18:20 2026/10/18
+     * @param username 用户名
+     */
+    public void invalidate(String username) {
+        users.invalidate(username);
+        permissions.invalidate(username);
+    }
+
+    /**
+     * 使全部缓存失效
+     * @author 程思琦
+     * @date 18:20 2026/10/18
+     */
+    public void invalidateAll() {
+        users.invalidateAll();
+        permissions.invalidateAll();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isAllUsers()) {
+            invalidateAll();
+        } else {
+            invalidate(event.getUsername());
+        }
+    }
+
+    public long getHitCount() {
+        return users.getHitCount() + permissions.getHitCount();
+    }
+
+    public long getMissCount() {
+        return users.getMissCount() + permissions.getMissCount();
+    }
+
+    public int size() {
+        return users.size();
+    }
+}
@@ -1,41 +1,122 @@
 package com.example.demo.service.impl;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.example.demo.model.Role;
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
 
-import java.util.HashSet;
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * 用户服务实现, 目前只是简单获取返回模拟数据, 实际场景根据情况从DAO获取即可
+ * 用户服务实现
+ *
+ * 启动时从用户数据文件(默认 classpath:users.json)加载用户、角色和权限,
+ * 从角色数据文件(默认 classpath:roles.json, 可选)加载角色定义和继承关系。用户数据文件中保存的是
+ * 预先计算好的 BCrypt 密码哈希, 查询时不再重复编码密码, 一次登录只需要一次 BCrypt 校验。
+ * 实际场景根据情况从DAO获取即可, 用户量大时使用 AppendLogUserService(user.store.type=log)
  *
  * @author 程思琦
  * @date 2019/8/16 15:00
  * @description
  **/
-@Service
 public class UserServiceImpl implements UserService {
 
+    @Value("${user.store.location:classpath:users.json}")
+    private Resource location;
+
+    @Value("${user.store.roles-location:classpath:roles.json}")
+    private Resource rolesLocation;
+
+    private Map<String, User> users = Collections.emptyMap();
+
+    private List<Role> roles = Collections.emptyList();
+
+    private Map<String, Set<String>> permissions = Collections.emptyMap();
+
+    /**
+     * 加载用户数据文件
+     *
+     * @author 程思琦
+     * @date 17:40 2026/10/18
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        JSONArray records = JSON.parseArray(read(location));
+        Map<String, User> loadedUsers = new HashMap<>(records.size() * 2);
+        Map<String, Set<String>> loadedPermissions = new HashMap<>(records.size() * 2);
+        for (int i = 0; i < records.size(); i++) {
+            JSONObject record = records.getJSONObject(i);
+            User user = new User();
+            user.setId(record.getLong("id"));
+            user.setUsername(record.getString("username"));
+            // 已经是 BCrypt 编码后的密码
+            user.setPassword(record.getString("password"));
+            user.setRoles(strings(record.getJSONArray("roles")));
+            loadedUsers.put(user.getUsername(), user);
+
+            loadedPermissions.put(user.getUsername(), strings(record.getJSONArray("permissions")));
+        }
+
+        List<Role> loadedRoles = new ArrayList<>();
+        if (rolesLocation != null && rolesLocation.exists()) {
+            JSONArray roleRecords = JSON.parseArray(read(rolesLocation));
+            for (int i = 0; i < roleRecords.size(); i++) {
+                JSONObject record = roleRecords.getJSONObject(i);
+                loadedRoles.add(new Role(record.getString("name"), strings(record.getJSONArray("parents"))
+                        , strings(record.getJSONArray("permissions"))));
+            }
+        }
+        this.users = loadedUsers;
+        this.permissions = loadedPermissions;
+        this.roles = Collections.unmodifiableList(loadedRoles);
+    }
+
+    private static String read(Resource resource) throws IOException {
+        try (InputStream is = resource.getInputStream()) {
+            return StreamUtils.copyToString(is, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Set<String> strings(JSONArray array) {
+        if (array == null || array.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> values = new LinkedHashSet<>();
+        for (int i = 0; i < array.size(); i++) {
+            values.add(array.getString(i));
+        }
+        return Collections.unmodifiableSet(values);
+    }
+
     @Override
     public User findByUsername(String username) {
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("admin");
-        // 使用BCrypt 对密码进行编码
-        String password = new BCryptPasswordEncoder().encode("123");
-        user.setPassword(password);
-        return user;
+        return users.get(username);
     }
 
     @Override
     public Set<String> findPermissions(String username) {
-        Set<String> permissions = new HashSet<>();
-        permissions.add("sys:user:view");
-        permissions.add("sys:user:add");
-        permissions.add("sys:user:edit");
-        permissions.add("sys:user:delete");
-        return permissions;
+        Set<String> userPermissions = permissions.get(username);
+        return userPermissions == null ? Collections.emptySet() : userPermissions;
+    }
+
+    @Override
+    public Collection<Role> findRoles() {
+        return roles;
     }
 }
@@ -0,0 +1,86 @@
+package com.example.demo.utils;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 异步执行控制器方法的 RequestMappingHandlerAdapter
+ *
+ * 匹配指定路径的请求, 参数解析仍在容器线程上完成, 控制器方法本身包装成 Callable 返回,
+ * 由 Spring MVC 的异步支持提交到独立线程池执行, 容器线程立即释放去处理其他连接。
+ * 控制器方法的声明不需要修改, 返回值在异步派发时按原声明类型输出。
+ *
+ * 登录认证信息由 Spring Security 的 WebAsyncManagerIntegrationFilter 带到执行线程,
+ * 方法级权限校验(@PreAuthorize)在执行线程上进行, 执行完毕后清空执行线程的上下文
+ *
+ * @author 程思琦
+ * @date 2026/10/19 02:10
+ * @description
+ **/
+public class AsyncRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final List<String> asyncPaths;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    /**
+     * @param asyncPaths 异步执行的路径(Ant 风格)
+     */
+    public AsyncRequestMappingHandlerAdapter(List<String> asyncPaths) {
+        this.asyncPaths = asyncPaths;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (isAsyncReturnType(handlerMethod.getReturnType().getParameterType())) {
+            // 本身已经是异步返回值的方法保持原样
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        return new ServletInvocableHandlerMethod(handlerMethod) {
+            @Override
+            public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer
+                    , Object... providedArgs) throws Exception {
+                if (!isAsyncPath(request.getNativeRequest(HttpServletRequest.class))) {
+                    return super.invokeForRequest(request, mavContainer, providedArgs);
+                }
+                Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+                return (Callable<Object>) () -> doInvoke(args);
+            }
+        };
+    }
+
+    private boolean isAsyncPath(HttpServletRequest request) {
+        if (request == null) {
+            return false;
+        }
+        String path = urlPathHelper.getLookupPathForRequest(request);
+        for (String pattern : asyncPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsyncReturnType(Class<?> type) {
+        return Callable.class.isAssignableFrom(type) || WebAsyncTask.class.isAssignableFrom(type)
+                || DeferredResult.class.isAssignableFrom(type) || CompletionStage.class.isAssignableFrom(type)
+                || ListenableFuture.class.isAssignableFrom(type);
+    }
+}
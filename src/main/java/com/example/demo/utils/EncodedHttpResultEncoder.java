@@ -0,0 +1,38 @@
+package com.example.demo.utils;
+
+import com.example.demo.vo.EncodedHttpResult;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * 预先编码结果信息的 WebFlux 编码器, 与 EncodedHttpResultMessageConverter 相同, 直接写出字节, 只支持 application/json
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:20
+ * @description
+ **/
+public class EncodedHttpResultEncoder extends AbstractEncoder<EncodedHttpResult> {
+
+    public EncodedHttpResultEncoder() {
+        super(MimeType.valueOf("application/json;charset=UTF-8"));
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return EncodedHttpResult.class == elementType.toClass() && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends EncodedHttpResult> inputStream
+            , DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType
+            , Map<String, Object> hints) {
+        return Flux.from(inputStream).map(result -> ServerHttpUtils.encode(bufferFactory, result));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.utils;
+
+import com.example.demo.vo.EncodedHttpResult;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * 预先编码结果信息的消息转换器, 控制器返回 EncodedHttpResult 时直接写出字节并带上 Content-Length。
+ * 字节是 UTF-8 编码的 JSON, 只支持 application/json, 客户端只接受其他类型(如 text/html)时返回 406
+ *
+ * @author 程思琦
+ * @date 2026/10/18 21:45
+ * @description
+ **/
+public class EncodedHttpResultMessageConverter extends AbstractHttpMessageConverter<EncodedHttpResult> {
+
+    public EncodedHttpResultMessageConverter() {
+        super(MediaType.APPLICATION_JSON_UTF8);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedHttpResult.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedHttpResult readInternal(Class<? extends EncodedHttpResult> clazz
+            , HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("EncodedHttpResult is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(EncodedHttpResult result, MediaType contentType) {
+        return (long) result.getContentLength();
+    }
+
+    @Override
+    protected void writeInternal(EncodedHttpResult result, HttpOutputMessage outputMessage) throws IOException {
+        result.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.demo.utils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界过期缓存
+ *
+ * 每个条目都带有自己的过期时间点, 读取时发现已过期即移除; 条目数达到上限时
+ * 先清理已过期条目, 仍然不足时再淘汰一部分条目, 保证缓存不会无限增长。
+ * 命中/未命中/淘汰次数使用 LongAdder 统计, 高并发下不会成为争用点。
+ *
+ * @author 程思琦
+ * @date 2026/10/18 14:10
+ * @description
+ **/
+public class ExpiringCache<K, V> {
+
+    /**
+     * 空间不足时, 每次最少淘汰的条目比例 (1/8)
+     */
+    private static final int EVICTION_SHIFT = 3;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries;
+
+    private final int maximumSize;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    public ExpiringCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+    }
+
+    /**
+     * 获取缓存值, 不存在或已过期时返回 null
+     * @author 程思琦
+     * @date 14:12 2026/10/18
+     * @param key 键
+     * @return V
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                evictionCount.increment();
+            }
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * 放入缓存
+     * @author 程思琦
+     * @date 14:15 2026/10/18
+     * @param key 键
+     * @param value 值
+     * @param expiresAt 过期时间点(毫秒时间戳)
+     */
+    public void put(K key, V value, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maximumSize && !evict(now)) {
+            // 其他线程正在清理且空间仍然不足, 本次不缓存
+            return;
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * 移除指定缓存
+     * @author 程思琦
+     * @date 14:18 2026/10/18
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 清空缓存
+     * @author 程思琦
+     * @date 14:18 2026/10/18
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * 清理空间, 先移除已过期条目, 仍然满时再淘汰至少 1/8 的条目
+     * @author 程思琦
+     * @date 14:20 2026/10/18
+     * @param now 当前时间
+     * @return 是否有空余空间
+     */
+    private boolean evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return entries.size() < maximumSize;
+        }
+        try {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt <= now) {
+                    iterator.remove();
+                    evictionCount.increment();
+                }
+            }
+            int target = maximumSize - Math.max(1, maximumSize >> EVICTION_SHIFT);
+            iterator = entries.values().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+            return entries.size() < maximumSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package com.example.demo.utils;
 
-import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSON;
+import com.example.demo.vo.EncodedHttpResult;
 import com.example.demo.vo.HttpResult;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * HTTP 工具类
  *
+ * 结果信息直接序列化为 UTF-8 字节写入线程复用的缓冲区, 设置 Content-Length 后
+ * 一次写入响应输出流, 不再生成中间的 JSON 字符串
+ *
  * @author 程思琦
  * @date 2019/8/16 17:31
  * @description
  **/
 public class HttpUtils {
 
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    /**
+     * 超过此大小的缓冲区用完后不保留, 避免偶发的大响应长期占用内存
+     */
+    private static final int MAXIMUM_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<ResponseBuffer> BUFFERS = ThreadLocal.withInitial(ResponseBuffer::new);
+
     /**
      * 输出信息到浏览器
      *
@@ -24,12 +40,72 @@ public class HttpUtils {
      * @param data
      */
     public static void write(HttpServletResponse response, Object data)throws IOException {
-        // 设置响应的数据格式
-        response.setContentType("application/json; charset=utf-8");
-        HttpResult result = HttpResult.ok(data);
-        String json = JSONObject.toJSONString(result);
-        response.getWriter().print(json);
-        response.getWriter().flush();
-        response.getWriter().close();
+        writeJson(response, HttpResult.ok(data));
+    }
+
+    /**
+     * 按指定状态码输出结果信息到浏览器
+     *
+     * @author 程思琦
+     * @date 17:10 2026/10/18
+     * @param response
+     * @param status HTTP 状态码
+     * @param result 结果信息
+     */
+    public static void write(HttpServletResponse response, int status, HttpResult result)throws IOException {
+        response.setStatus(status);
+        writeJson(response, result);
+    }
+
+    /**
+     * 输出预先编码好的结果信息到浏览器, 状态码取自结果信息
+     *
+     * @author 程思琦
+     * @date 21:40 2026/10/18
+     * @param response
+     * @param result 预先编码好的结果信息
+     */
+    public static void write(HttpServletResponse response, EncodedHttpResult result)throws IOException {
+        response.setStatus(result.getStatus());
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(result.getContentLength());
+        ServletOutputStream out = response.getOutputStream();
+        result.writeTo(out);
+        out.flush();
+        out.close();
+    }
+
+    private static void writeJson(HttpServletResponse response, HttpResult result) throws IOException {
+        ResponseBuffer buffer = BUFFERS.get();
+        try {
+            JSON.writeJSONString(buffer, StandardCharsets.UTF_8, result);
+            // 设置响应的数据格式
+            response.setContentType(CONTENT_TYPE);
+            response.setContentLength(buffer.size());
+            ServletOutputStream out = response.getOutputStream();
+            buffer.writeTo(out);
+            out.flush();
+            out.close();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * 线程复用的响应缓冲区
+     */
+    private static final class ResponseBuffer extends ByteArrayOutputStream {
+
+        ResponseBuffer() {
+            super(1024);
+        }
+
+        void release() {
+            if (buf.length > MAXIMUM_RETAINED_BUFFER) {
+                BUFFERS.remove();
+            } else {
+                reset();
+            }
+        }
     }
 }
@@ -0,0 +1,164 @@
+package com.example.demo.utils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.example.demo.security.JwtKey;
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.security.SecurityMetrics;
+import com.example.demo.security.SecurityMetrics.TokenFailure;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * JWS 紧凑格式编解码
+ *
+ * 令牌格式为 "头部.载荷.签名", 三段都是不带填充的 Base64URL 编码。
+ * 解码时只接受规范编码: 带 '=' 填充或末尾字符含多余比特的段视为格式错误,
+ * 否则同一签名可以写成多个不同的令牌字符串, 按令牌内容派生ID的早期令牌吊销后可以换个写法再次使用。
+ * 签名和验签由密钥环中的密钥完成, 头部由密钥预先编码, 本工具只负责拼接和拆分。
+ * 验签失败时按原因记入 SecurityMetrics: 格式错误为 malformed, 密钥不存在或签名不正确为 bad_signature
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:55
+ * @description
+ **/
+public class JwsCodec {
+
+    private JwsCodec(){}
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * 用密钥签发令牌
+     * @author 程思琦
+     * @date 23:55 2026/10/18
+     * @param key 签名密钥
+     * @param payload 载荷 JSON 字节
+     * @return 令牌
+     */
+    public static String sign(JwtKey key, byte[] payload){
+        String signingInput = key.getEncodedHeader() + '.' + ENCODER.encodeToString(payload);
+        byte[] input = signingInput.getBytes(StandardCharsets.US_ASCII);
+        return signingInput + '.' + ENCODER.encodeToString(key.sign(input, 0, input.length));
+    }
+
+    /**
+     * 按头部的 kid 选择密钥验签
+     * @author 程思琦
+     * @date 23:55 2026/10/18
+     * @param keyring 密钥环
+     * @param token 令牌
+     * @return 载荷 JSON 字节, 令牌格式错误、密钥不存在或签名不正确时返回 null;
+     *         早期密钥签发的令牌超出过渡期时同样返回 null
+     */
+    public static byte[] verify(JwtKeyring keyring, String token){
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if(second < 0 || token.indexOf('.', second + 1) >= 0){
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        try {
+            String encodedHeader = token.substring(0, first);
+            JwtKey key = keyring.getKeyByEncodedHeader(encodedHeader);
+            if(key == null){
+                key = resolveKey(keyring, encodedHeader);
+                if(key == null){
+                    return null;
+                }
+            }
+            byte[] input = token.getBytes(StandardCharsets.US_ASCII);
+            byte[] signature = decode(token.substring(second + 1));
+            if(!key.verify(input, 0, second, signature)){
+                SecurityMetrics.get().tokenFailure(TokenFailure.BAD_SIGNATURE);
+                return null;
+            }
+            byte[] payload = decode(token.substring(first + 1, second));
+            if(JwtKeyring.LEGACY_KID.equals(key.getKid()) && !acceptsLegacy(keyring, payload)){
+                // 早期密钥已公开, 过渡期之外的签名视同不正确
+                SecurityMetrics.get().tokenFailure(TokenFailure.BAD_SIGNATURE);
+                return null;
+            }
+            return payload;
+        } catch (IllegalArgumentException e) {
+            // Base64 格式错误
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+    }
+
+    /**
+     * 解码不带填充的规范 Base64URL, 不规范时抛出 IllegalArgumentException
+     */
+    private static byte[] decode(String encoded){
+        int remainder = encoded.length() & 3;
+        if(remainder == 1 || encoded.indexOf('=') >= 0){
+            throw new IllegalArgumentException("Non-canonical base64url");
+        }
+        if(remainder != 0){
+            // 末尾字符只有高位属于最后一个字节, 剩余比特必须为 0
+            int unused = remainder == 2 ? 0x0F : 0x03;
+            if((valueOf(encoded.charAt(encoded.length() - 1)) & unused) != 0){
+                throw new IllegalArgumentException("Non-canonical base64url");
+            }
+        }
+        return DECODER.decode(encoded);
+    }
+
+    private static int valueOf(char c){
+        if(c >= 'A' && c <= 'Z'){
+            return c - 'A';
+        }
+        if(c >= 'a' && c <= 'z'){
+            return c - 'a' + 26;
+        }
+        if(c >= '0' && c <= '9'){
+            return c - '0' + 52;
+        }
+        if(c == '-'){
+            return 62;
+        }
+        // '_' 为 63, 其他字符由解码器拒绝
+        return c == '_' ? 63 : 0;
+    }
+
+    /**
+     * 早期密钥签发的令牌, 过期时间必须在过渡期内
+     */
+    private static boolean acceptsLegacy(JwtKeyring keyring, byte[] payload){
+        JSONObject claims;
+        try {
+            claims = JSON.parseObject(new String(payload, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            return false;
+        }
+        Object exp = claims == null ? null : claims.get("exp");
+        return exp instanceof Number && keyring.acceptsLegacy(((Number) exp).longValue() * 1000);
+    }
+
+    /**
+     * 解析不是本密钥环签发的头部, 头部声明的算法必须与密钥一致, 失败时记入失败原因
+     */
+    private static JwtKey resolveKey(JwtKeyring keyring, String encodedHeader){
+        JSONObject header;
+        try {
+            header = JSON.parseObject(new String(decode(encodedHeader), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        if(header == null){
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        JwtKey key = keyring.getKey(header.getString("kid"));
+        if(key == null || !key.getAlgorithm().equals(header.getString("alg"))){
+            SecurityMetrics.get().tokenFailure(TokenFailure.BAD_SIGNATURE);
+            return null;
+        }
+        return key;
+    }
+}
@@ -1,19 +1,41 @@
 package com.example.demo.utils;
 
-import com.example.demo.security.GrantedAuthorityImpl;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
 import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.security.JwtVerifiedClaims;
+import com.example.demo.security.PermissionDictionary;
+import com.example.demo.security.PermissionSet;
+import com.example.demo.security.SecurityMetrics;
+import com.example.demo.security.SecurityMetrics.TokenFailure;
+import com.example.demo.security.VerifiedJwtAuthenticationToken;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
 import javax.servlet.http.HttpServletRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * JWT工具类
  *
+ * 签发和验签使用密钥环 getKeyring(), 默认只包含启动时随机生成的临时密钥, 由 JwtKeyConfig 按配置替换
+ *
+ * 令牌声明使用紧凑格式: 权限写成权限字典中的序号位图, p 声明为 "字典版本.位图",
+ * 过期时间使用秒级时间戳, 令牌ID使用 16 字节的 Base64URL 编码。
+ * 有效期固定, 创建时间由过期时间推算, 不再单独写出。
+ * 早期格式(权限为 {"authority": "..."} 列表、created 为毫秒时间戳)的令牌仍然可以验签解析
+ *
+ * 刷新令牌与访问令牌成对签发, 只包含令牌ID、会话ID、用户名、过期时间和 typ 声明, 不能当作访问令牌使用。
+ * 同一次登录签发的令牌对以及之后刷新得到的令牌共用一个会话ID(sid), 退出登录时吊销会话ID, 整个会话失效
+ *
+ * 验签耗时和失败原因记入 SecurityMetrics, 签名相关的失败由 JwsCodec 记录
+ *
  * @author 程思琦
  * @date 2019/8/15 18:02
  * @description
@@ -22,31 +44,83 @@ public class JwtTokenUtils {
 
     private JwtTokenUtils(){}
 
+    /**
+     * 令牌ID, 用于吊销令牌
+     */
+    private static final String TOKEN_ID = Claims.ID;
+
+    /**
+     * 会话ID, 用于退出登录时吊销整个会话
+     */
+    private static final String SESSION_ID = "sid";
+
     /**
      * 用户名称
      */
     private static final String USERNAME = Claims.SUBJECT;
 
     /**
-     * 创建时间
+     * 创建时间(秒), 签发时不写出, 其他系统签发的令牌带有时优先使用
+     */
+    private static final String ISSUED_AT = Claims.ISSUED_AT;
+
+    /**
+     * 权限字典版本和位图
+     */
+    private static final String PERMISSIONS = "p";
+
+    /**
+     * 不在权限字典中的权限标识
+     */
+    private static final String EXTRA_PERMISSIONS = "px";
+
+    /**
+     * 早期格式的创建时间(毫秒)
      */
     private static final String CREATED = "created";
 
     /**
-     * 权限列表
+     * 早期格式的权限列表
      */
     private static final String AUTHORITIES = "authorities";
 
     /**
-     * 密钥
+     * 过期时间(秒)
      */
-    private static final String SECRET = "abcdefgh";
+    private static final String EXPIRATION = Claims.EXPIRATION;
+
+    /**
+     * 令牌类型, 只有刷新令牌带有此声明
+     */
+    private static final String TOKEN_TYPE = "typ";
+
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    /**
+     * 签名密钥环
+     */
+    private static final JwtKeyring KEYRING = JwtKeyring.ephemeral();
+
+    /**
+     * 权限字典, 由 PermissionDictionaryConfig 按配置替换
+     */
+    private static volatile PermissionDictionary permissionDictionary = PermissionDictionary.EMPTY;
 
     /**
      * 有效期12小时
      */
     private static final long EXPIRE_TIME = 12 * 60 * 60 * 1000;
 
+    /**
+     * 刷新令牌有效期, 默认7天, 由 TokenRefreshConfig 按配置替换
+     */
+    private static volatile long refreshExpireTime = 7 * 24 * 60 * 60 * 1000L;
+
+    /**
+     * 紧凑格式令牌ID的长度, 16 字节 Base64URL 编码后为 22 个字符
+     */
+    private static final int COMPACT_TOKEN_ID_LENGTH = 22;
+
     /**
      * 生成令牌
      * @author 程思琦
@@ -55,24 +129,141 @@ public class JwtTokenUtils {
      * @return String
      */
     public static String generateToken(Authentication authentication){
-        Map<String, Object> claims = new HashMap<>(3);
-        claims.put(USERNAME, SecurityUtils.getUsername(authentication));
-        claims.put(CREATED, new Date());
-        claims.put(AUTHORITIES, authentication.getAuthorities());
-        return generateToken(claims);
+        return generateToken(SecurityUtils.getUsername(authentication), authentication.getAuthorities());
     }
 
     /**
-     * 从数据声明生成令牌
+     * 生成紧凑格式的令牌
      * @author 程思琦
      * @date 10:58 2019/8/16
-     * @param claims 数据声明
+     * @param username 用户名
+     * @param authorities 权限
+     * @return String
+     */
+    public static String generateToken(String username, Collection<? extends GrantedAuthority> authorities){
+        return generateToken(username, authorities, UUID.randomUUID());
+    }
+
+    /**
+     * 生成属于指定会话的紧凑格式令牌
+     * @author 程思琦
+     * @date 10:50 2026/10/19
+     * @param username 用户名
+     * @param authorities 权限
+     * @param sessionId 会话ID
+     * @return String
+     */
+    public static String generateToken(String username, Collection<? extends GrantedAuthority> authorities
+            , UUID sessionId){
+        PermissionDictionary dictionary = permissionDictionary;
+        List<String> extras = new ArrayList<>(0);
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, Object> claims = new LinkedHashMap<>(8);
+        claims.put(TOKEN_ID, encodeTokenId(UUID.randomUUID()));
+        claims.put(SESSION_ID, encodeTokenId(sessionId));
+        claims.put(USERNAME, username);
+        claims.put(EXPIRATION, now + EXPIRE_TIME / 1000);
+        claims.put(PERMISSIONS, dictionary.encode(authorities, extras));
+        if(!extras.isEmpty()){
+            claims.put(EXTRA_PERMISSIONS, extras);
+        }
+        return JwsCodec.sign(KEYRING.getSigningKey(), JSON.toJSONBytes(claims));
+    }
+
+    /**
+     * 生成刷新令牌
+     * @author 程思琦
+     * @date 05:40 2026/10/19
+     * @param username 用户名
      * @return String
      */
-    private static String generateToken(Map<String, Object> claims){
-        Date expirationDate = new Date(System.currentTimeMillis()+EXPIRE_TIME);
-        return Jwts.builder().setClaims(claims).setExpiration(expirationDate)
-                .signWith(SignatureAlgorithm.HS512, SECRET).compact();
+    public static String generateRefreshToken(String username){
+        return generateRefreshToken(username, UUID.randomUUID());
+    }
+
+    /**
+     * 生成属于指定会话的刷新令牌
+     * @author 程思琦
+     * @date 10:50 2026/10/19
+     * @param username 用户名
+     * @param sessionId 会话ID
+     * @return String
+     */
+    public static String generateRefreshToken(String username, UUID sessionId){
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, Object> claims = new LinkedHashMap<>(8);
+        claims.put(TOKEN_ID, encodeTokenId(UUID.randomUUID()));
+        claims.put(SESSION_ID, encodeTokenId(sessionId));
+        claims.put(USERNAME, username);
+        claims.put(EXPIRATION, now + refreshExpireTime / 1000);
+        claims.put(TOKEN_TYPE, REFRESH_TOKEN_TYPE);
+        return JwsCodec.sign(KEYRING.getSigningKey(), JSON.toJSONBytes(claims));
+    }
+
+    /**
+     * 登录时签发一个新会话的访问令牌和刷新令牌
+     * @author 程思琦
+     * @date 10:50 2026/10/19
+     * @param authentication 认证信息
+     * @return 令牌对, token 为访问令牌, refreshToken 为刷新令牌
+     */
+    public static JwtAuthenticationToken generateTokenPair(Authentication authentication){
+        return generateTokenPair(SecurityUtils.getUsername(authentication), authentication.getAuthorities()
+                , UUID.randomUUID());
+    }
+
+    /**
+     * 签发属于指定会话的访问令牌和刷新令牌, 刷新时沿用原会话ID
+     * @author 程思琦
+     * @date 10:50 2026/10/19
+     * @param username 用户名
+     * @param authorities 权限
+     * @param sessionId 会话ID
+     * @return 令牌对, token 为访问令牌, refreshToken 为刷新令牌
+     */
+    public static JwtAuthenticationToken generateTokenPair(String username
+            , Collection<? extends GrantedAuthority> authorities, UUID sessionId){
+        JwtAuthenticationToken tokens = new JwtAuthenticationToken(null, null
+                , generateToken(username, authorities, sessionId));
+        tokens.setRefreshToken(generateRefreshToken(username, sessionId));
+        return tokens;
+    }
+
+    /**
+     * 刷新令牌有效期(毫秒), 会话吊销记录至少保留这么久
+     */
+    public static long getRefreshExpireTime(){
+        return refreshExpireTime;
+    }
+
+    /**
+     * 设置刷新令牌有效期, 之后签发的刷新令牌生效
+     * @author 程思琦
+     * @date 05:40 2026/10/19
+     * @param expireTime 有效期(毫秒)
+     */
+    public static void setRefreshExpireTime(long expireTime){
+        refreshExpireTime = expireTime;
+    }
+
+    /**
+     * 设置权限字典, 新签发的令牌使用该字典编码权限
+     * @author 程思琦
+     * @date 01:30 2026/10/19
+     * @param dictionary 权限字典
+     */
+    public static void setPermissionDictionary(PermissionDictionary dictionary){
+        permissionDictionary = dictionary;
+    }
+
+    /**
+     * 签名密钥环, 轮换密钥时更新其中的密钥, 不需要重启
+     * @author 程思琦
+     * @date 23:55 2026/10/18
+     * @return JwtKeyring
+     */
+    public static JwtKeyring getKeyring(){
+        return KEYRING;
     }
 
     /**
@@ -83,33 +274,200 @@ public class JwtTokenUtils {
      * @return 用户名
      */
     public static String getUsernameFromToken(String token){
-        String username;
+        JwtVerifiedClaims claims = verifyToken(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    /**
+     * 验签并解析令牌, 所有读取令牌内容的入口都经过此方法, 每次校验只解析一次
+     *
+     * @author 程思琦
+     * @date 15:30 2026/10/18
+     * @param token 令牌
+     * @return 已验签的令牌声明, 令牌非法或已过期时返回 null
+     */
+    public static JwtVerifiedClaims verifyToken(String token){
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
         try {
-            Claims claims = getClaimsFromToken(token);
-            username = claims.getSubject();
-        } catch (Exception e){
-            username = null;
+            return decodeToken(token);
+        } finally {
+            metrics.recordTokenVerify(start);
         }
-        return username;
+    }
+
+    private static JwtVerifiedClaims decodeToken(String token){
+        JSONObject claims = verifyClaims(token);
+        if(claims == null){
+            return null;
+        }
+        if(claims.containsKey(TOKEN_TYPE)){
+            // 刷新令牌不能当作访问令牌使用
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        String username = claims.getString(USERNAME);
+        long expiration = claims.getLongValue(EXPIRATION) * 1000;
+        PermissionSet permissions;
+        long created;
+        if(claims.containsKey(PERMISSIONS)){
+            permissions = getPermissions(claims);
+            Object issuedAt = claims.get(ISSUED_AT);
+            created = issuedAt instanceof Number ? ((Number) issuedAt).longValue() * 1000 : expiration - EXPIRE_TIME;
+        } else {
+            permissions = getLegacyPermissions(claims);
+            Object createdAt = claims.get(CREATED);
+            created = createdAt instanceof Number ? ((Number) createdAt).longValue() : 0L;
+        }
+        if(permissions == null){
+            // 权限字典版本不一致
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        return new JwtVerifiedClaims(token, getTokenId(claims.getString(TOKEN_ID), token)
+                , getSessionId(claims.getString(SESSION_ID)), username, expiration, created, permissions);
     }
 
     /**
-     * 从令牌中获取数据声明
+     * 验签并解析刷新令牌
+     *
      * @author 程思琦
-     * @date 11:02 2019/8/16
-     * @param token 令牌
-     * @return 数据声明
+     * @date 05:45 2026/10/19
+     * @param token 刷新令牌
+     * @return 已验签的令牌声明, 不含权限; 令牌非法、已过期或不是刷新令牌时返回 null
      */
-    private static Claims getClaimsFromToken(String token){
-        Claims claims;
+    public static JwtVerifiedClaims verifyRefreshToken(String token){
+        SecurityMetrics metrics = SecurityMetrics.get();
+        long start = metrics.start();
         try {
-            claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
-        } catch (Exception e) {
-            claims = null;
+            JSONObject claims = verifyClaims(token);
+            if(claims == null){
+                return null;
+            }
+            if(!REFRESH_TOKEN_TYPE.equals(claims.getString(TOKEN_TYPE))){
+                metrics.tokenFailure(TokenFailure.MALFORMED);
+                return null;
+            }
+            return new JwtVerifiedClaims(token, getTokenId(claims.getString(TOKEN_ID), token)
+                    , getSessionId(claims.getString(SESSION_ID)), claims.getString(USERNAME)
+                    , claims.getLongValue(EXPIRATION) * 1000, 0L, PermissionSet.EMPTY);
+        } finally {
+            metrics.recordTokenVerify(start);
+        }
+    }
+
+    /**
+     * 验签并解析令牌声明, 检查用户名和过期时间
+     * @return 令牌声明, 令牌非法或已过期时返回 null, 并记入失败原因
+     */
+    private static JSONObject verifyClaims(String token){
+        if(token == null){
+            SecurityMetrics.get().tokenFailure(TokenFailure.MISSING);
+            return null;
+        }
+        byte[] payload = JwsCodec.verify(KEYRING, token);
+        if(payload == null){
+            return null;
+        }
+        JSONObject claims;
+        try {
+            claims = JSON.parseObject(new String(payload, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        if(claims == null){
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        Object exp = claims.get(EXPIRATION);
+        if(claims.getString(USERNAME) == null || !(exp instanceof Number)){
+            SecurityMetrics.get().tokenFailure(TokenFailure.MALFORMED);
+            return null;
+        }
+        if(((Number) exp).longValue() * 1000 < System.currentTimeMillis()){
+            SecurityMetrics.get().tokenFailure(TokenFailure.EXPIRED);
+            return null;
         }
         return claims;
     }
 
+    /**
+     * 解码紧凑格式的权限, 字典版本与当前不一致或位图超出字典时返回 null
+     */
+    private static PermissionSet getPermissions(JSONObject claims){
+        PermissionSet permissions;
+        try {
+            permissions = permissionDictionary.decode(claims.getString(PERMISSIONS));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        JSONArray extras = claims.getJSONArray(EXTRA_PERMISSIONS);
+        if(permissions == null || extras == null){
+            return permissions;
+        }
+        PermissionSet.Builder builder = new PermissionSet.Builder().addAll(permissions);
+        for (int i = 0; i < extras.size(); i++) {
+            builder.add(extras.getString(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 解析早期格式的权限列表
+     */
+    private static PermissionSet getLegacyPermissions(JSONObject claims){
+        Object authors = claims.get(AUTHORITIES);
+        // 权限使用注册表中的共享实例, 以位图保存
+        PermissionSet.Builder authorities = new PermissionSet.Builder();
+        if(authors != null && authors instanceof List){
+            for (Object object : (List)authors){
+                authorities.add( (String)((Map)object).get("authority") );
+            }
+        }
+        return authorities.build();
+    }
+
+    /**
+     * 解析令牌ID, 紧凑格式为 16 字节的 Base64URL 编码, 早期格式为 UUID 字符串;
+     * 没有 jti 或格式不对时由签名覆盖的 "头部.载荷" 派生, 不含签名段, 签名的不同写法得到同一个ID
+     */
+    private static UUID getTokenId(String id, String token){
+        if(id != null){
+            try {
+                if(id.length() == COMPACT_TOKEN_ID_LENGTH){
+                    ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(id));
+                    return new UUID(buffer.getLong(), buffer.getLong());
+                }
+                return UUID.fromString(id);
+            } catch (IllegalArgumentException e) {
+                // 格式不对的 jti 同样按令牌内容派生
+            }
+        }
+        return UUID.nameUUIDFromBytes(token.substring(0, token.lastIndexOf('.')).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析会话ID, 没有 sid 或格式不对时返回 null
+     */
+    private static UUID getSessionId(String id){
+        if(id == null || id.length() != COMPACT_TOKEN_ID_LENGTH){
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(id));
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String encodeTokenId(UUID id){
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
     /**
      *
      * 根据请求令牌获取登录认证信息
@@ -127,22 +485,7 @@ public class JwtTokenUtils {
             // 请求令牌不能为空
             if(SecurityUtils.getAuthentication() == null){
                 // 上下文中Authentication为空
-                Claims claims = getClaimsFromToken(token);
-                if(claims == null){
-                    return null;
-                }
-                String username = claims.getSubject();
-                if(username == null){
-                    return null;
-                }
-                Object authors = claims.get(AUTHORITIES);
-                List<GrantedAuthority> authorities = new ArrayList<>();
-                if(authors != null && authors instanceof List){
-                    for (Object object : (List)authors){
-                        authorities.add(new GrantedAuthorityImpl( (String)((Map)object).get("authority") ));
-                    }
-                }
-                authentication = new JwtAuthenticationToken(username, null, authorities, token);
+                authentication = getAuthenticationFromToken(token);
             } else {
                 if(validateToken(token, SecurityUtils.getUsername())){
                     // 如果上下文中 Authentication非空, 且请求令牌合法, 直接返回当前登录认证信息
@@ -153,6 +496,19 @@ public class JwtTokenUtils {
         return authentication;
     }
 
+    /**
+     * 验签并解析令牌得到认证信息
+     *
+     * @author 程思琦
+     * @date 14:50 2026/10/18
+     * @param token 令牌
+     * @return 不可变的认证信息, 令牌非法或已过期时返回 null
+     */
+    public static VerifiedJwtAuthenticationToken getAuthenticationFromToken(String token){
+        JwtVerifiedClaims claims = verifyToken(token);
+        return claims == null ? null : new VerifiedJwtAuthenticationToken(claims);
+    }
+
     /**
      * 验证令牌
      *
@@ -163,8 +519,8 @@ public class JwtTokenUtils {
      * @return
      */
     public static boolean validateToken(String token, String username){
-        String userName = getUsernameFromToken(token);
-        return (userName.equals(username) && !isTokenExpired(token));
+        JwtVerifiedClaims claims = verifyToken(token);
+        return claims != null && claims.getSubject().equals(username) && !claims.isExpired();
     }
 
     /**
@@ -176,32 +532,25 @@ public class JwtTokenUtils {
      * @return String
      */
     public static String refreshToken(String token){
-        String refreshedToken;
-        try {
-            Claims claims = getClaimsFromToken(token);
-            claims.put(CREATED, new Date());
-            refreshedToken = generateToken(claims);
-        } catch (Exception e){
-            refreshedToken = null;
+        JwtVerifiedClaims verifiedClaims = verifyToken(token);
+        if(verifiedClaims == null){
+            return null;
         }
-        return refreshedToken;
+        UUID sessionId = verifiedClaims.getSessionId();
+        return generateToken(verifiedClaims.getSubject(), verifiedClaims.getPermissions()
+                , sessionId == null ? UUID.randomUUID() : sessionId);
     }
 
     /**
-     * 判断令牌是否过期
+     * 判断令牌是否过期, 非法令牌同样视为已过期
      * @author 程思琦
      * @date 16:14 2019/8/16
      * @param token
      * @return boolean
      */
     public static boolean isTokenExpired(String token){
-        try {
-            Claims claims = getClaimsFromToken(token);
-            Date expiration = claims.getExpiration();
-            return expiration.before(new Date());
-        } catch (Exception e){
-            return false;
-        }
+        JwtVerifiedClaims claims = verifyToken(token);
+        return claims == null || claims.isExpired();
     }
 
     /**
@@ -212,12 +561,30 @@ public class JwtTokenUtils {
      * @return
      */
     public static String getToken(HttpServletRequest request){
-        String token = request.getHeader("Authorization");
+        String authorization = request.getHeader("Authorization");
+        return getToken(authorization, authorization == null ? request.getHeader("token") : null);
+    }
+
+    /**
+     * 获取 reactive 请求中的 token, 规则与 servlet 请求相同
+     * @author 程思琦
+     * @date 02:50 2026/10/19
+     * @param headers 请求头
+     * @return 令牌, 没有时返回 null
+     */
+    public static String getToken(HttpHeaders headers){
+        String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        return getToken(authorization, authorization == null ? headers.getFirst("token") : null);
+    }
+
+    private static String getToken(String authorization, String tokenHeader){
+        String token = authorization;
         String tokenHead = "Bearer";
         if(token == null){
-            token = request.getHeader("token");
+            token = tokenHeader;
         }else if(token.contains(tokenHead)){
-            token = token.substring(tokenHead.length());
+            // "Bearer" 与令牌之间的空格不属于令牌
+            token = token.substring(tokenHead.length()).trim();
         }
         if("".equals(token)){
             return null;
@@ -0,0 +1,432 @@
+package com.example.demo.utils;
+
+import com.example.demo.security.LoginBodyException;
+import com.example.demo.vo.HttpStatus;
+import com.example.demo.vo.LoginBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 登录请求体解析工具类
+ *
+ * 把请求体从 ServletInputStream 读入线程复用的字节缓冲区, 超过大小上限立即拒绝(413),
+ * 然后在字节上一次扫描, 只取出 username 和 password 两个字段, 不生成请求体字符串和 JSONObject。
+ * JwtLoginFilter 和 LoginController 两条登录路径, 以及 reactive 配置下的登录共用此解析逻辑
+ *
+ * @author 程思琦
+ * @date 2026/10/18 21:05
+ * @description
+ **/
+public class LoginBodyParser {
+
+    /**
+     * 默认请求体大小上限, 单位字节
+     */
+    public static final int DEFAULT_MAX_BYTES = 4096;
+
+    private static final byte[] USERNAME = "username".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] PASSWORD = "password".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 每个线程复用的读取缓冲区, 多留一个字节用于判断是否超出上限
+     */
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[DEFAULT_MAX_BYTES + 1]);
+
+    /**
+     * 解析登录请求体, 使用默认大小上限
+     * @author 程思琦
+     * @date 21:05 2026/10/18
+     * @param request 请求
+     * @return LoginBean
+     */
+    public static LoginBean parse(HttpServletRequest request) {
+        return parse(request, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * 解析登录请求体
+     * @author 程思琦
+     * @date 21:05 2026/10/18
+     * @param request 请求
+     * @param maxBytes 请求体大小上限, 单位字节
+     * @return LoginBean, 缺少的字段为 null
+     */
+    public static LoginBean parse(HttpServletRequest request, int maxBytes) {
+        // 声明了长度的请求不读取直接拒绝
+        if (request.getContentLengthLong() > maxBytes) {
+            throw tooLarge(maxBytes);
+        }
+        byte[] buffer = buffer(maxBytes);
+        int length = -1;
+        try {
+            length = read(request.getInputStream(), buffer, maxBytes);
+            return parse(buffer, 0, length);
+        } catch (IOException e) {
+            throw new LoginBodyException(HttpStatus.SC_BAD_REQUEST, "读取登录请求失败");
+        } finally {
+            // 缓冲区会被复用, 不保留密码; 读取中途失败时不知道已读长度, 清空整个缓冲区
+            Arrays.fill(buffer, 0, length < 0 ? buffer.length : length, (byte) 0);
+        }
+    }
+
+    /**
+     * 读取并解析 reactive 请求的登录请求体, 数据块到达时复制到缓冲区并立即释放, 超过大小上限立即拒绝(413)
+     * @author 程思琦
+     * @date 03:10 2026/10/19
+     * @param body 请求体
+     * @param contentLength 请求声明的长度, 未声明时为 -1
+     * @param maxBytes 请求体大小上限, 单位字节
+     * @return LoginBean, 缺少的字段为 null
+     */
+    public static Mono<LoginBean> parse(Flux<DataBuffer> body, long contentLength, int maxBytes) {
+        // 声明了长度的请求不读取直接拒绝
+        if (contentLength > maxBytes) {
+            return Mono.error(tooLarge(maxBytes));
+        }
+        return Mono.defer(() -> {
+            // 数据块可能在不同线程上到达, 不使用线程复用的缓冲区
+            byte[] buffer = new byte[contentLength >= 0 ? (int) contentLength : maxBytes];
+            int[] length = new int[1];
+            return body.doOnNext(dataBuffer -> {
+                try {
+                    int n = dataBuffer.readableByteCount();
+                    if (n > buffer.length - length[0]) {
+                        Arrays.fill(buffer, 0, length[0], (byte) 0);
+                        throw contentLength >= 0 ? malformed() : tooLarge(maxBytes);
+                    }
+                    dataBuffer.read(buffer, length[0], n);
+                    length[0] += n;
+                } finally {
+                    DataBufferUtils.release(dataBuffer);
+                }
+            }).then(Mono.fromCallable(() -> {
+                try {
+                    return parse(buffer, 0, length[0]);
+                } finally {
+                    Arrays.fill(buffer, 0, length[0], (byte) 0);
+                }
+            }));
+        });
+    }
+
+    /**
+     * 解析字节数组中的登录请求体
+     * @author 程思琦
+     * @date 21:05 2026/10/18
+     * @param body 请求体
+     * @param offset 起始位置
+     * @param length 长度
+     * @return LoginBean, 缺少的字段为 null
+     */
+    public static LoginBean parse(byte[] body, int offset, int length) {
+        return new Scanner(body, offset, offset + length).parse();
+    }
+
+    private static byte[] buffer(int maxBytes) {
+        byte[] buffer = BUFFERS.get();
+        if (buffer.length <= maxBytes) {
+            buffer = new byte[maxBytes + 1];
+            BUFFERS.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * 读取请求体到缓冲区, 超出上限时清空已读内容并拒绝
+     */
+    private static int read(InputStream in, byte[] buffer, int maxBytes) throws IOException {
+        int length = 0;
+        int n;
+        while ((n = in.read(buffer, length, maxBytes + 1 - length)) != -1) {
+            length += n;
+            if (length > maxBytes) {
+                Arrays.fill(buffer, 0, length, (byte) 0);
+                throw tooLarge(maxBytes);
+            }
+        }
+        return length;
+    }
+
+    private static LoginBodyException tooLarge(int maxBytes) {
+        return new LoginBodyException(HttpStatus.SC_REQUEST_TOO_LONG, "登录请求超过 " + maxBytes + " 字节");
+    }
+
+    private static LoginBodyException malformed() {
+        return new LoginBodyException(HttpStatus.SC_BAD_REQUEST, "登录请求格式错误");
+    }
+
+    /**
+     * 单次扫描的 JSON 对象读取器, 只解码 username 和 password 的值, 其余字段直接跳过
+     */
+    private static final class Scanner {
+
+        private final byte[] buf;
+
+        private final int end;
+
+        private int pos;
+
+        Scanner(byte[] buf, int pos, int end) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        LoginBean parse() {
+            LoginBean loginBean = new LoginBean();
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    expect('"');
+                    int keyStart = pos;
+                    boolean escaped = skipString();
+                    int keyEnd = pos - 1;
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    if (!escaped && matches(keyStart, keyEnd, USERNAME)) {
+                        loginBean.setUsername(readValue());
+                    } else if (!escaped && matches(keyStart, keyEnd, PASSWORD)) {
+                        loginBean.setPassword(readValue());
+                    } else {
+                        skipValue();
+                    }
+                    skipWhitespace();
+                    int c = next();
+                    if (c == '}') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw malformed();
+                    }
+                    skipWhitespace();
+                }
+            }
+            skipWhitespace();
+            if (pos != end) {
+                throw malformed();
+            }
+            return loginBean;
+        }
+
+        /**
+         * 读取字段值, 字符串解码, 数字和布尔值保留原文, null 和对象、数组返回 null
+         */
+        private String readValue() {
+            int c = peek();
+            if (c == '"') {
+                pos++;
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                skipValue();
+                return null;
+            }
+            int start = pos;
+            skipScalar();
+            if (pos - start == 4 && buf[start] == 'n' && buf[start + 1] == 'u'
+                    && buf[start + 2] == 'l' && buf[start + 3] == 'l') {
+                return null;
+            }
+            return new String(buf, start, pos - start, StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * 读取字符串, 起始引号已消费; 没有转义字符时直接按 UTF-8 解码
+         */
+        private String readString() {
+            int start = pos;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == '"') {
+                    pos++;
+                    return new String(buf, start, pos - 1 - start, StandardCharsets.UTF_8);
+                }
+                if (b == '\\') {
+                    return readEscapedString(start);
+                }
+                pos++;
+            }
+            throw malformed();
+        }
+
+        private String readEscapedString(int start) {
+            StringBuilder sb = new StringBuilder(pos - start + 16);
+            // 转义符都是 ASCII, 两个转义之间的字节一定是完整的 UTF-8 序列
+            int runStart = start;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == '"') {
+                    sb.append(new String(buf, runStart, pos - runStart, StandardCharsets.UTF_8));
+                    pos++;
+                    return sb.toString();
+                }
+                if (b != '\\') {
+                    pos++;
+                    continue;
+                }
+                sb.append(new String(buf, runStart, pos - runStart, StandardCharsets.UTF_8));
+                pos++;
+                int c = next();
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append((char) c);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        sb.append(readHexChar());
+                        break;
+                    default:
+                        throw malformed();
+                }
+                runStart = pos;
+            }
+            throw malformed();
+        }
+
+        private char readHexChar() {
+            if (end - pos < 4) {
+                throw malformed();
+            }
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(buf[pos++], 16);
+                if (digit < 0) {
+                    throw malformed();
+                }
+                value = (value << 4) | digit;
+            }
+            return (char) value;
+        }
+
+        /**
+         * 跳过字符串, 起始引号已消费, 返回是否包含转义字符
+         */
+        private boolean skipString() {
+            boolean escaped = false;
+            while (pos < end) {
+                byte b = buf[pos++];
+                if (b == '"') {
+                    return escaped;
+                }
+                if (b == '\\') {
+                    escaped = true;
+                    pos++;
+                }
+            }
+            throw malformed();
+        }
+
+        private void skipValue() {
+            int c = peek();
+            if (c == '"') {
+                pos++;
+                skipString();
+                return;
+            }
+            if (c != '{' && c != '[') {
+                skipScalar();
+                return;
+            }
+            int depth = 0;
+            while (pos < end) {
+                byte b = buf[pos++];
+                if (b == '"') {
+                    skipString();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) {
+                        return;
+                    }
+                }
+            }
+            throw malformed();
+        }
+
+        private void skipScalar() {
+            int start = pos;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw malformed();
+            }
+        }
+
+        private boolean matches(int start, int stop, byte[] expected) {
+            if (stop - start != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (buf[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && isWhitespace(buf[pos])) {
+                pos++;
+            }
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private int peek() {
+            if (pos >= end) {
+                throw malformed();
+            }
+            return buf[pos];
+        }
+
+        private int next() {
+            if (pos >= end) {
+                throw malformed();
+            }
+            return buf[pos++];
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw malformed();
+            }
+        }
+    }
+}
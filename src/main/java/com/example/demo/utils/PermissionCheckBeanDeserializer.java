@@ -0,0 +1,227 @@
+package com.example.demo.utils;
+
+import com.example.demo.vo.MenuBean;
+import com.example.demo.vo.PermissionCheckBean;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 批量权限判断请求的反序列化器
+ *
+ * Jackson 默认按 MenuBean.children 递归绑定, 嵌套很深的菜单树会在绑定阶段栈溢出(500)。
+ * 这里逐个读取 token, 用显式栈构建菜单树, 并在创建对象之前检查:
+ * 已读取的字节数超过 MAX_BYTES 返回 413, 嵌套层级超过 MAX_DEPTH 或权限标识数、菜单节点数超过 MAX_ITEMS 返回 400。
+ * servlet 和 reactive 配置下都经过 Jackson 绑定, 共用此限制;
+ * 大小按解析位置计算, reactive 配置下 Jackson2JsonDecoder 会先聚合整个请求体再解析
+ *
+ * @author 程思琦
+ * @date 2026/10/19 12:10
+ * @description
+ **/
+public class PermissionCheckBeanDeserializer extends StdDeserializer<PermissionCheckBean> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 请求体大小上限, 单位字节
+     */
+    public static final int MAX_BYTES = 128 * 1024;
+
+    /**
+     * JSON 嵌套层级上限, 请求对象为第 1 层, 第 n 层菜单位于第 2n + 1 层
+     */
+    public static final int MAX_DEPTH = 32;
+
+    /**
+     * 权限标识数和菜单节点数上限
+     */
+    public static final int MAX_ITEMS = 1024;
+
+    public PermissionCheckBeanDeserializer() {
+        super(PermissionCheckBean.class);
+    }
+
+    @Override
+    public PermissionCheckBean deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_OBJECT) {
+            return (PermissionCheckBean) ctxt.handleUnexpectedToken(PermissionCheckBean.class, p);
+        }
+        Reader reader = new Reader(p, ctxt);
+        PermissionCheckBean bean = new PermissionCheckBean();
+        JsonToken token;
+        while ((token = reader.next()) == JsonToken.FIELD_NAME) {
+            String name = p.getCurrentName();
+            token = reader.next();
+            if ("permissions".equals(name)) {
+                bean.setPermissions(token == JsonToken.VALUE_NULL ? null : reader.readPermissions());
+            } else if ("menus".equals(name)) {
+                bean.setMenus(token == JsonToken.VALUE_NULL ? null : reader.readMenus());
+            } else {
+                reader.skip();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 单次反序列化的读取状态
+     */
+    private static final class Reader {
+
+        private final JsonParser p;
+
+        private final DeserializationContext ctxt;
+
+        /**
+         * 当前嵌套层级, 进入时已位于请求对象内
+         */
+        private int depth = 1;
+
+        Reader(JsonParser p, DeserializationContext ctxt) {
+            this.p = p;
+            this.ctxt = ctxt;
+        }
+
+        /**
+         * 权限标识数组, 当前 token 为数组开始
+         */
+        List<String> readPermissions() throws IOException {
+            expect(JsonToken.START_ARRAY);
+            List<String> permissions = new ArrayList<>();
+            JsonToken token;
+            while ((token = next()) != JsonToken.END_ARRAY) {
+                if (permissions.size() >= MAX_ITEMS) {
+                    throw new IllegalArgumentException("权限标识数超出上限 " + MAX_ITEMS);
+                }
+                permissions.add(readScalar(token));
+            }
+            return permissions;
+        }
+
+        /**
+         * 菜单树, 当前 token 为顶层菜单数组开始。
+         * 数组中读到对象开始时创建菜单, 对象中读到 children 数组时入栈, 数组结束时出栈回到所属菜单
+         */
+        List<MenuBean> readMenus() throws IOException {
+            expect(JsonToken.START_ARRAY);
+            List<MenuBean> top = new ArrayList<>();
+            Deque<List<MenuBean>> lists = new ArrayDeque<>();
+            Deque<MenuBean> menus = new ArrayDeque<>();
+            lists.push(top);
+            int count = 0;
+            while (true) {
+                JsonToken token = next();
+                if (token == JsonToken.END_ARRAY) {
+                    lists.pop();
+                    if (lists.isEmpty()) {
+                        return top;
+                    }
+                } else if (token == JsonToken.START_OBJECT) {
+                    if (++count > MAX_ITEMS) {
+                        throw new IllegalArgumentException("菜单节点数超出上限 " + MAX_ITEMS);
+                    }
+                    MenuBean menu = new MenuBean();
+                    lists.peek().add(menu);
+                    menus.push(menu);
+                } else if (token == JsonToken.END_OBJECT) {
+                    menus.pop();
+                } else if (token == JsonToken.VALUE_NULL && lists.size() > menus.size()) {
+                    lists.peek().add(null);
+                } else if (token == JsonToken.FIELD_NAME) {
+                    MenuBean menu = menus.peek();
+                    String name = p.getCurrentName();
+                    token = next();
+                    if ("id".equals(name)) {
+                        menu.setId(readScalar(token));
+                    } else if ("permission".equals(name)) {
+                        menu.setPermission(readScalar(token));
+                    } else if ("children".equals(name) && token == JsonToken.START_ARRAY) {
+                        List<MenuBean> children = new ArrayList<>();
+                        menu.setChildren(children);
+                        lists.push(children);
+                    } else if ("children".equals(name) && token == JsonToken.VALUE_NULL) {
+                        menu.setChildren(null);
+                    } else if ("children".equals(name)) {
+                        ctxt.handleUnexpectedToken(List.class, p);
+                    } else {
+                        skip();
+                    }
+                } else {
+                    ctxt.handleUnexpectedToken(MenuBean.class, p);
+                }
+            }
+        }
+
+        /**
+         * 字符串、数字和布尔值按文本读取, null 返回 null
+         */
+        private String readScalar(JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (!token.isScalarValue()) {
+                ctxt.handleUnexpectedToken(String.class, p);
+            }
+            String text = p.getText();
+            // 字符串在读取内容后才推进解析位置
+            checkSize();
+            return text;
+        }
+
+        /**
+         * 跳过当前值, 对象和数组逐个 token 跳过, 同样受大小和层级限制
+         */
+        void skip() throws IOException {
+            int target = depth;
+            JsonToken token = p.getCurrentToken();
+            if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+                return;
+            }
+            target--;
+            while (depth > target) {
+                next();
+            }
+        }
+
+        JsonToken next() throws IOException {
+            JsonToken token = p.nextToken();
+            if (token == null) {
+                ctxt.reportInputMismatch(PermissionCheckBean.class, "批量权限判断请求不完整");
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                if (++depth > MAX_DEPTH) {
+                    throw new IllegalArgumentException("请求嵌套层级超出上限 " + MAX_DEPTH);
+                }
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                depth--;
+            }
+            checkSize();
+            return token;
+        }
+
+        private void expect(JsonToken expected) throws IOException {
+            if (p.getCurrentToken() != expected) {
+                ctxt.handleUnexpectedToken(PermissionCheckBean.class, p);
+            }
+        }
+
+        private void checkSize() {
+            JsonLocation location = p.getCurrentLocation();
+            long offset = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+            if (offset > MAX_BYTES) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "请求超过 " + MAX_BYTES + " 字节");
+            }
+        }
+    }
+}
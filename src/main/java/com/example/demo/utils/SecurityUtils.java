@@ -1,6 +1,10 @@
 package com.example.demo.utils;
 
 import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.SecurityMetrics;
+import com.example.demo.security.TokenRevocationStore;
+import com.example.demo.security.VerifiedJwtAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -49,7 +53,9 @@ public class SecurityUtils {
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         // 生成令牌并返回给客户端
-        authRequest.setToken(JwtTokenUtils.generateToken(authentication));
+        JwtAuthenticationToken tokens = JwtTokenUtils.generateTokenPair(authentication);
+        authRequest.setToken(tokens.getToken());
+        authRequest.setRefreshToken(tokens.getRefreshToken());
 
         return authRequest;
     }
@@ -69,6 +75,45 @@ public class SecurityUtils {
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
+    /**
+     * 获取令牌进行验证, 已验证过的令牌直接从缓存获取认证信息
+     *
+     * @author 程思琦
+     * @date 14:55 2026/10/18
+     * @param request 请求
+     * @param tokenCache 令牌验证缓存
+     */
+    public static void checkAuthentication(HttpServletRequest request, JwtTokenCache tokenCache){
+        checkAuthentication(request, tokenCache, null);
+    }
+
+    /**
+     * 获取令牌进行验证, 已验证过的令牌直接从缓存获取认证信息, 已吊销的令牌视为未登录
+     *
+     * @author 程思琦
+     * @date 22:55 2026/10/18
+     * @param request 请求
+     * @param tokenCache 令牌验证缓存
+     * @param revocationStore 令牌吊销记录, 为 null 时不检查
+     */
+    public static void checkAuthentication(HttpServletRequest request, JwtTokenCache tokenCache
+            , TokenRevocationStore revocationStore){
+        VerifiedJwtAuthenticationToken authentication = null;
+        String token = JwtTokenUtils.getToken(request);
+        if(token != null){
+            authentication = tokenCache.getAuthentication(token);
+            if(authentication != null && revocationStore != null
+                    && revocationStore.isRevoked(authentication.getClaims())){
+                authentication = null;
+            }
+        } else {
+            // 需要登录的请求没有携带令牌
+            SecurityMetrics.get().tokenFailure(SecurityMetrics.TokenFailure.MISSING);
+        }
+        // 设置登录认证信息到上下文
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     /**
      * 获取当前用户名
      * @author 程思琦
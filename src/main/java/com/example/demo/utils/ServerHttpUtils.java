@@ -0,0 +1,74 @@
+package com.example.demo.utils;
+
+import com.alibaba.fastjson.JSON;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * reactive 响应输出工具类, 与 HttpUtils 的输出格式一致
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:20
+ * @description
+ **/
+public class ServerHttpUtils {
+
+    private ServerHttpUtils(){
+    }
+
+    /**
+     * 输出信息到浏览器
+     *
+     * @author 程思琦
+     * @date 03:20 2026/10/19
+     * @param response
+     * @param data
+     * @return 写出完成时结束的 Mono
+     */
+    public static Mono<Void> write(ServerHttpResponse response, Object data) {
+        byte[] body = JSON.toJSONBytes(HttpResult.ok(data));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON_UTF8);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * 输出预先编码好的结果信息到浏览器, 状态码取自结果信息
+     *
+     * @author 程思琦
+     * @date 03:20 2026/10/19
+     * @param response
+     * @param result 预先编码好的结果信息
+     * @return 写出完成时结束的 Mono
+     */
+    public static Mono<Void> write(ServerHttpResponse response, EncodedHttpResult result) {
+        response.setStatusCode(HttpStatus.valueOf(result.getStatus()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON_UTF8);
+        response.getHeaders().setContentLength(result.getContentLength());
+        return response.writeWith(Mono.fromSupplier(() -> encode(response.bufferFactory(), result)));
+    }
+
+    /**
+     * 把预先编码好的结果信息复制到新分配的缓冲区
+     */
+    public static DataBuffer encode(DataBufferFactory bufferFactory, EncodedHttpResult result) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(result.getContentLength());
+        try {
+            result.writeTo(buffer.asOutputStream());
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.vo;
+
+import com.alibaba.fastjson.JSON;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预先编码好的结果信息
+ *
+ * 内容固定的响应(固定提示语的 ok 结果、按状态码构造的错误结果)只在第一次使用时序列化成 UTF-8 字节,
+ * 之后直接写出字节数组, 不再经过 HttpResult 和 JSON 序列化
+ *
+ * @author 程思琦
+ * @date 2026/10/18 21:30
+ * @description
+ **/
+public final class EncodedHttpResult {
+
+    /**
+     * 错误结果缓存上限, 错误提示语都是固定文案, 正常情况下远达不到上限
+     */
+    private static final int MAXIMUM_CACHED_ERRORS = 256;
+
+    private static final Map<String, EncodedHttpResult> ERRORS = new ConcurrentHashMap<>();
+
+    private final int status;
+
+    private final byte[] body;
+
+    private EncodedHttpResult(int status, byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * 编码结果信息
+     * @author 程思琦
+     * @date 21:30 2026/10/18
+     * @param status HTTP 状态码
+     * @param result 结果信息
+     * @return EncodedHttpResult
+     */
+    public static EncodedHttpResult of(int status, HttpResult result) {
+        return new EncodedHttpResult(status, JSON.toJSONBytes(result));
+    }
+
+    /**
+     * 编码固定提示语的成功结果, 应在启动时创建并保存为常量
+     * @author 程思琦
+     * @date 21:30 2026/10/18
+     * @param msg 提示语
+     * @return EncodedHttpResult
+     */
+    public static EncodedHttpResult ok(String msg) {
+        return of(HttpStatus.SC_OK, HttpResult.ok(msg));
+    }
+
+    /**
+     * 获取按状态码和提示语编码的错误结果, 相同的状态码和提示语只编码一次
+     * @author 程思琦
+     * @date 21:30 2026/10/18
+     * @param status HTTP 状态码, 同时作为结果信息中的 code
+     * @param msg 提示语
+     * @return EncodedHttpResult
+     */
+    public static EncodedHttpResult error(int status, String msg) {
+        String key = status + ":" + msg;
+        EncodedHttpResult result = ERRORS.get(key);
+        if (result == null) {
+            result = of(status, HttpResult.error(status, msg));
+            if (ERRORS.size() < MAXIMUM_CACHED_ERRORS) {
+                ERRORS.putIfAbsent(key, result);
+            }
+        }
+        return result;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getContentLength() {
+        return body.length;
+    }
+
+    /**
+     * 写出编码后的字节
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(body);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.vo;
+
+import java.util.List;
+
+/**
+ *
+ * 菜单节点, 批量权限判断的菜单树
+ *
+ * @author 程思琦
+ * @date 2026/10/19 08:40
+ * @description
+ **/
+public class MenuBean {
+
+    private String id;
+    /**
+     * 显示该菜单需要的权限, 为空时只要父菜单可见即可见
+     */
+    private String permission;
+    private List<MenuBean> children;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPermission() {
+        return permission;
+    }
+
+    public void setPermission(String permission) {
+        this.permission = permission;
+    }
+
+    public List<MenuBean> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<MenuBean> children) {
+        this.children = children;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.vo;
+
+import com.example.demo.utils.PermissionCheckBeanDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.List;
+
+/**
+ *
+ * 批量权限判断接口封装对象, 权限列表和菜单树可以只传其一。
+ * 由 PermissionCheckBeanDeserializer 绑定, 限制请求大小、嵌套层级和条目数
+ *
+ * @author 程思琦
+ * @date 2026/10/19 08:40
+ * @description
+ **/
+@JsonDeserialize(using = PermissionCheckBeanDeserializer.class)
+public class PermissionCheckBean {
+
+    private List<String> permissions;
+    private List<MenuBean> menus;
+
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(List<String> permissions) {
+        this.permissions = permissions;
+    }
+
+    public List<MenuBean> getMenus() {
+        return menus;
+    }
+
+    public void setMenus(List<MenuBean> menus) {
+        this.menus = menus;
+    }
+}
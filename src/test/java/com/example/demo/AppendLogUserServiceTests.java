@@ -0,0 +1,269 @@
+package com.example.demo;
+
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import com.example.demo.security.CachedUserDetailsService;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.PermissionSet;
+import com.example.demo.security.RoleHierarchyIndex;
+import com.example.demo.service.UserChangedEvent;
+import com.example.demo.service.impl.AppendLogUserService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 追加日志用户存储测试
+ *
+ * 批量写入后重新打开文件, 索引和角色定义需要与写入前一致; 相同授权的用户共享同一个角色集合和权限集合;
+ * 末尾写了一半的记录在打开时被截掉; 超过大小上限的记录在写入前被拒绝, 不会导致重新打开时截掉之后的记录;
+ * 角色变更同步到 RoleHierarchyIndex, 已缓存的用户权限随之失效
+ *
+ * @author 程思琦
+ * @date 2026/10/19 07:10
+ * @description
+ **/
+public class AppendLogUserServiceTests {
+
+	private static final int USERS = 50000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void usersSurviveReopen() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("users.log");
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			store.saveRole(new Role("viewer", null, Collections.singleton("sys:user:view")));
+			List<AppendLogUserService.UserRecord> batch = new ArrayList<>();
+			for (int i = 0; i < USERS; i++) {
+				batch.add(new AppendLogUserService.UserRecord(user(i), Collections.singletonList("viewer")
+						, i % 2 == 0 ? Collections.singletonList("sys:user:edit") : null));
+				if (batch.size() == 1000) {
+					store.saveAll(batch);
+					batch.clear();
+				}
+			}
+			assertEquals(USERS, store.size());
+			assertEquals(2, store.getGrantCount());
+		}
+
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			assertEquals(USERS, store.size());
+			for (int i = 0; i < USERS; i++) {
+				User user = store.findByUsername("user" + i);
+				assertNotNull(user);
+				assertEquals(Long.valueOf(i), user.getId());
+				assertEquals("hash" + i, user.getPassword());
+				assertEquals(Collections.singleton("viewer"), user.getRoles());
+			}
+			assertEquals(Collections.singleton("sys:user:edit"), store.findPermissions("user0"));
+			assertTrue(store.findPermissions("user1").isEmpty());
+			// 相同授权共享同一个角色集合和权限集合
+			assertSame(store.findPermissions("user0"), store.findPermissions("user2"));
+			assertSame(store.findByUsername("user0").getRoles(), store.findByUsername("user1").getRoles());
+			Role viewer = store.findRoles().iterator().next();
+			assertEquals("viewer", viewer.getName());
+			assertEquals(Collections.singleton("sys:user:view"), viewer.getPermissions());
+			assertNull(store.findByUsername("nobody"));
+			assertTrue(store.findPermissions("nobody").isEmpty());
+		}
+	}
+
+	@Test
+	public void updatesDeletesAndRoleChanges() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("users.log");
+		try (AppendLogUserService store = new AppendLogUserService(file, true)) {
+			store.save(user(1), Collections.singletonList("admin"), null);
+			store.save(user(2), Collections.singletonList("admin"), null);
+			assertTrue(store.findPermissions("user1").isEmpty());
+
+			store.saveRole(new Role("viewer", null, Collections.singleton("sys:user:view")));
+			store.saveRole(new Role("admin", Collections.singleton("viewer")
+					, new HashSet<>(Arrays.asList("sys:user:add", "sys:user:delete"))));
+			store.saveRole(new Role("admin", Collections.singleton("viewer"), Collections.singleton("sys:user:add")));
+			assertEquals(2, store.findRoles().size());
+
+			User changed = user(1);
+			changed.setPassword("changed");
+			store.save(changed, null, Collections.singletonList("sys:user:add"));
+			assertEquals("changed", store.findByUsername("user1").getPassword());
+			assertEquals(Collections.singleton("sys:user:add"), store.findPermissions("user1"));
+			assertTrue(store.findByUsername("user1").getRoles().isEmpty());
+
+			store.delete("user2");
+			assertNull(store.findByUsername("user2"));
+			assertEquals(1, store.size());
+			store.save(user(2), null, null);
+			assertNotNull(store.findByUsername("user2"));
+		}
+
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			assertEquals(2, store.size());
+			assertEquals("changed", store.findByUsername("user1").getPassword());
+			assertTrue(store.findPermissions("user2").isEmpty());
+			for (Role role : store.findRoles()) {
+				if ("admin".equals(role.getName())) {
+					assertEquals(Collections.singleton("viewer"), role.getParents());
+					assertEquals(Collections.singleton("sys:user:add"), role.getPermissions());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void roleChangesUpdateCachedAuthorities() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("users.log");
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			store.saveRole(new Role("viewer", null, Collections.singleton("sys:user:view")));
+			store.save(user(1), Collections.singletonList("viewer"), null);
+
+			RoleHierarchyIndex index = new RoleHierarchyIndex();
+			index.defineAll(store.findRoles());
+			store.setRoleHierarchyIndex(index);
+			// 与 UserDetailsServiceImpl 相同, 用户的权限为角色闭包与直接权限的并集, 缓存解析后的结果
+			CachedUserDetailsService users = new CachedUserDetailsService(username -> new JwtUserDetails(username, ""
+					, index.resolve(store.findByUsername(username).getRoles(), store.findPermissions(username)))
+					, 60_000L, 60_000L, 100);
+			List<UserChangedEvent> events = new ArrayList<>();
+			store.setApplicationEventPublisher(event -> {
+				events.add((UserChangedEvent) event);
+				users.onUserChanged((UserChangedEvent) event);
+			});
+
+			PermissionSet before = authorities(users, "user1");
+			assertTrue(before.contains("sys:user:view"));
+			assertFalse(before.contains("sys:user:edit"));
+
+			store.saveRole(new Role("editor", null, Collections.singleton("sys:user:edit")));
+			store.saveRole(new Role("viewer", Collections.singleton("editor"), Collections.singleton("sys:user:view")));
+			assertEquals(2, events.size());
+			assertTrue(events.get(1).isAllUsers());
+			assertTrue(authorities(users, "user1").contains("sys:user:edit"));
+
+			// 循环继承被拒绝, 不写入日志, 索引保持原样
+			try {
+				store.saveRole(new Role("editor", Collections.singleton("viewer"), null));
+				fail("cyclic role was saved");
+			} catch (IllegalArgumentException expected) {
+			}
+			assertEquals(2, events.size());
+
+			store.deleteRole("editor");
+			assertEquals(3, events.size());
+			PermissionSet after = authorities(users, "user1");
+			assertTrue(after.contains("sys:user:view"));
+			assertFalse(after.contains("sys:user:edit"));
+		}
+
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			assertEquals(1, store.findRoles().size());
+			RoleHierarchyIndex index = new RoleHierarchyIndex();
+			index.defineAll(store.findRoles());
+			assertFalse(index.closure("viewer").contains("sys:user:edit"));
+		}
+	}
+
+	@Test
+	public void tornTailIsTruncated() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("users.log");
+		long size;
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			store.save(user(1), null, Collections.singletonList("sys:user:view"));
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			size = channel.size();
+			// 模拟写入中途宕机: 只写了记录头
+			ByteBuffer partial = ByteBuffer.allocate(6);
+			partial.putInt(100).putShort((short) 1);
+			partial.flip();
+			channel.write(partial, size);
+		}
+
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			assertEquals(1, store.size());
+			store.save(user(2), null, null);
+		}
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			assertEquals(2, store.size());
+			assertNotNull(store.findByUsername("user1"));
+			assertNotNull(store.findByUsername("user2"));
+		}
+	}
+
+	@Test
+	public void oversizedRecordsAreRejected() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("users.log");
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			store.saveRole(new Role("viewer", null, Collections.singleton("sys:user:view")));
+			Set<String> permissions = new HashSet<>();
+			for (int i = 0; i < 4000; i++) {
+				permissions.add("sys:generated:permission:" + i);
+			}
+			try {
+				store.saveRole(new Role("large", null, permissions));
+				fail("oversized role was saved");
+			} catch (IOException expected) {
+			}
+			assertEquals(1, store.findRoles().size());
+
+			List<String> many = new ArrayList<>(Collections.nCopies(0x10000, ""));
+			try {
+				store.save(user(1), null, many);
+				fail("more than 0xFFFF permissions were saved");
+			} catch (IOException expected) {
+			}
+			char[] name = new char[0xFFFF];
+			Arrays.fill(name, 'x');
+			try {
+				store.delete(new String(name));
+				fail("oversized delete was saved");
+			} catch (IOException expected) {
+			}
+			// 被拒绝的记录之后写入的记录在重新打开后仍然存在
+			store.save(user(1), Collections.singletonList("viewer"), null);
+			store.saveRole(new Role("editor", null, Collections.singleton("sys:user:edit")));
+		}
+
+		try (AppendLogUserService store = new AppendLogUserService(file, false)) {
+			assertEquals(1, store.size());
+			assertEquals(Collections.singleton("viewer"), store.findByUsername("user1").getRoles());
+			assertEquals(2, store.findRoles().size());
+			for (Role role : store.findRoles()) {
+				assertFalse("large".equals(role.getName()));
+			}
+		}
+	}
+
+	private static PermissionSet authorities(CachedUserDetailsService users, String username) {
+		return PermissionSet.of(users.loadUserByUsername(username).getAuthorities());
+	}
+
+	private static User user(int i) {
+		User user = new User();
+		user.setId((long) i);
+		user.setUsername("user" + i);
+		user.setPassword("hash" + i);
+		return user;
+	}
+}
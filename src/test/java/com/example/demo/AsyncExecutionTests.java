@@ -0,0 +1,81 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 异步执行模式测试, 控制器方法交给线程池执行后, 登录认证信息和方法级权限校验仍然生效
+ *
+ * @author 程思琦
+ * @date 2026/10/19 02:25
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "web.async.enabled=true")
+@AutoConfigureMockMvc
+public class AsyncExecutionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void securityContextPropagatesToAsyncExecution() throws Exception {
+		String token = token("sys:user:view");
+		MvcResult result = mockMvc.perform(get("/user/findAll").header("Authorization", "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("findAll")));
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+	}
+
+	@Test
+	public void missingPermissionIsDeniedOnAsyncExecution() throws Exception {
+		String token = token("sys:user:view");
+		MvcResult result = mockMvc.perform(get("/user/delete").header("Authorization", "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	public void unauthenticatedRequestIsRejectedBeforeHandOff() throws Exception {
+		mockMvc.perform(get("/user/findAll"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isForbidden());
+	}
+
+	private static String token(String... permissions) {
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		for (String permission : permissions) {
+			authorities.add(new GrantedAuthorityImpl(permission));
+		}
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+}
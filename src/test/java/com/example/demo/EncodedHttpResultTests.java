@@ -0,0 +1,163 @@
+package com.example.demo;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.EncodedHttpResultEncoder;
+import com.example.demo.utils.EncodedHttpResultMessageConverter;
+import com.example.demo.utils.HttpUtils;
+import com.example.demo.utils.JwtTokenUtils;
+import com.example.demo.vo.EncodedHttpResult;
+import com.example.demo.vo.HttpResult;
+import com.example.demo.vo.HttpStatus;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 结果信息输出测试
+ *
+ * HttpUtils 写出的字节、Content-Type 和 Content-Length, 大响应之后复用的缓冲区不残留内容;
+ * 预先编码的结果信息只编码一次, 消息转换器只输出 application/json
+ *
+ * @author 程思琦
+ * @date 2026/10/19 12:40
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EncodedHttpResultTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void httpUtilsWritesUtf8JsonWithLength() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HttpUtils.write(response, "中文数据");
+		assertJson(response, HttpStatus.SC_OK, "中文数据");
+
+		// 超过保留大小的响应之后, 复用的缓冲区不残留上一次的内容
+		StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 100 * 1024; i++) {
+			large.append('x');
+		}
+		response = new MockHttpServletResponse();
+		HttpUtils.write(response, large.toString());
+		assertJson(response, HttpStatus.SC_OK, large.toString());
+		for (String data : new String[]{"a", "bb"}) {
+			response = new MockHttpServletResponse();
+			HttpUtils.write(response, data);
+			assertJson(response, HttpStatus.SC_OK, data);
+		}
+
+		response = new MockHttpServletResponse();
+		HttpUtils.write(response, HttpStatus.SC_FORBIDDEN, HttpResult.error(HttpStatus.SC_FORBIDDEN, "没有访问权限"));
+		assertEquals(HttpStatus.SC_FORBIDDEN, response.getStatus());
+		assertEquals("没有访问权限", JSON.parseObject(new String(response.getContentAsByteArray(), StandardCharsets.UTF_8))
+				.getString("msg"));
+	}
+
+	@Test
+	public void encodedResultIsWrittenAsIs() throws Exception {
+		EncodedHttpResult result = EncodedHttpResult.error(HttpStatus.SC_TOO_MANY_REQUESTS, "请求过于频繁");
+		assertSame(result, EncodedHttpResult.error(HttpStatus.SC_TOO_MANY_REQUESTS, "请求过于频繁"));
+		byte[] expected = JSON.toJSONBytes(HttpResult.error(HttpStatus.SC_TOO_MANY_REQUESTS, "请求过于频繁"));
+		assertEquals(expected.length, result.getContentLength());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HttpUtils.write(response, result);
+		assertEquals(HttpStatus.SC_TOO_MANY_REQUESTS, response.getStatus());
+		assertEquals(expected.length, response.getContentLength());
+		assertArrayEquals(expected, response.getContentAsByteArray());
+
+		EncodedHttpResultMessageConverter converter = new EncodedHttpResultMessageConverter();
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+		converter.write(result, null, message);
+		assertEquals(MediaType.APPLICATION_JSON_UTF8, message.getHeaders().getContentType());
+		assertEquals(expected.length, message.getHeaders().getContentLength());
+		assertArrayEquals(expected, message.getBodyAsBytes());
+	}
+
+	@Test
+	public void converterOnlyWritesJson() {
+		EncodedHttpResultMessageConverter converter = new EncodedHttpResultMessageConverter();
+		assertEquals(Collections.singletonList(MediaType.APPLICATION_JSON_UTF8), converter.getSupportedMediaTypes());
+		assertTrue(converter.canWrite(EncodedHttpResult.class, null));
+		assertTrue(converter.canWrite(EncodedHttpResult.class, MediaType.ALL));
+		assertTrue(converter.canWrite(EncodedHttpResult.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canWrite(EncodedHttpResult.class, MediaType.TEXT_HTML));
+		assertFalse(converter.canWrite(EncodedHttpResult.class, MediaType.TEXT_PLAIN));
+		assertFalse(converter.canWrite(HttpResult.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canRead(EncodedHttpResult.class, MediaType.APPLICATION_JSON));
+
+		EncodedHttpResultEncoder encoder = new EncodedHttpResultEncoder();
+		ResolvableType type = ResolvableType.forClass(EncodedHttpResult.class);
+		assertTrue(encoder.canEncode(type, null));
+		assertTrue(encoder.canEncode(type, MimeType.valueOf("application/json")));
+		assertFalse(encoder.canEncode(type, MimeType.valueOf("text/html")));
+	}
+
+	@Test
+	public void htmlIsNotAcceptable() throws Exception {
+		String authorization = "Bearer " + token();
+		MvcResult result = mockMvc.perform(get("/user/findAll").header("Authorization", authorization))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+				.andReturn();
+		assertEquals(result.getResponse().getContentAsByteArray().length, result.getResponse().getContentLength());
+
+		mockMvc.perform(get("/user/findAll").header("Authorization", authorization)
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8));
+		mockMvc.perform(get("/user/findAll").header("Authorization", authorization)
+				.accept(MediaType.TEXT_HTML))
+				.andExpect(status().isNotAcceptable())
+				.andExpect(header().doesNotExist("Content-Type"));
+	}
+
+	private static void assertJson(MockHttpServletResponse response, int status, String data) throws Exception {
+		byte[] body = response.getContentAsByteArray();
+		assertEquals(status, response.getStatus());
+		assertEquals("application/json;charset=utf-8", response.getContentType().replace(" ", ""));
+		assertEquals(body.length, response.getContentLength());
+		JSONObject json = JSON.parseObject(new String(body, StandardCharsets.UTF_8));
+		assertEquals(status, json.getIntValue("code"));
+		assertEquals(data, json.getString("data"));
+	}
+
+	private static String token() {
+		List<GrantedAuthority> authorities = Collections.singletonList(new GrantedAuthorityImpl("sys:user:view"));
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+}
@@ -0,0 +1,284 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.HmacJwtKey;
+import com.example.demo.security.JwtKey;
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.security.JwtKeyringLoader;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.SignatureJwtKey;
+import com.example.demo.utils.JwsCodec;
+import com.example.demo.utils.JwtTokenUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 密钥环和密钥加载测试
+ *
+ * 早期密钥已经公开, 不能用于签发, 只有早期密钥时加载失败, 接受早期令牌时必须配置切换时间;
+ * 移除密钥后, 已缓存的由该密钥签发的令牌不再有效。
+ * 验签按头部的 kid 选择密钥, 未知的 kid 和与密钥不一致的算法一律拒绝; 密钥库变化后重新加载不需要重启;
+ * 早期实现使用的 jjwt 签发的令牌可以验签
+ *
+ * @author 程思琦
+ * @date 2026/10/19 10:30
+ * @description
+ **/
+public class JwtKeyringTests {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(
+			"a-secret-used-only-by-the-keyring-tests-0123456789".getBytes(StandardCharsets.UTF_8));
+
+	private static final byte[] PAYLOAD = "{\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void legacyKeyNeverSigns() {
+		JwtKey legacy = JwtKeyring.legacyKey();
+		try {
+			new JwtKeyring(Collections.singletonList(legacy), JwtKeyring.LEGACY_KID);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+
+		JwtKeyring keyring = new JwtKeyring(Arrays.asList(legacy
+				, new HmacJwtKey("k1", "HS512", Base64.getDecoder().decode(SECRET))), "k1");
+		assertEquals("k1", keyring.getSigningKey().getKid());
+		// 没有切换时间时不接受早期令牌
+		assertFalse(keyring.acceptsLegacy(System.currentTimeMillis() + 1000));
+	}
+
+	@Test
+	public void legacyTransitionEndsTwelveHoursAfterCutover() {
+		long cutover = System.currentTimeMillis();
+		JwtKeyring keyring = new JwtKeyring(Arrays.asList(JwtKeyring.legacyKey()
+				, new HmacJwtKey("k1", "HS512", Base64.getDecoder().decode(SECRET))), "k1", cutover);
+		assertTrue(keyring.acceptsLegacy(cutover + JwtKeyring.LEGACY_TOKEN_LIFETIME));
+		assertFalse(keyring.acceptsLegacy(cutover + JwtKeyring.LEGACY_TOKEN_LIFETIME + 1000));
+	}
+
+	@Test
+	public void loaderFailsWithOnlyLegacyKey() throws Exception {
+		JwtKeyringLoader loader = new JwtKeyringLoader(JwtKeyring.ephemeral(), "HS512", "", null, true
+				, System.currentTimeMillis(), null, "JCEKS", null, 30, null);
+		try {
+			loader.load();
+			fail();
+		} catch (IllegalStateException expected) {
+		}
+	}
+
+	@Test
+	public void loaderRequiresCutoverForLegacyTokens() {
+		try {
+			new JwtKeyringLoader(JwtKeyring.ephemeral(), "HS512", "k1:" + SECRET, null, true, 0L, null, "JCEKS"
+					, null, 30, null);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test
+	public void loaderSignsWithConfiguredKey() throws Exception {
+		JwtKeyring keyring = JwtKeyring.ephemeral();
+		long cutover = System.currentTimeMillis();
+		new JwtKeyringLoader(keyring, "HS512", "k1:" + SECRET, null, true, cutover, null, "JCEKS", null, 30, null)
+				.load();
+		assertEquals("k1", keyring.getActiveKid());
+		assertEquals(cutover, keyring.getLegacyCutover());
+		assertNull(keyring.getKey(JwtKeyring.EPHEMERAL_KID));
+
+		try {
+			new JwtKeyringLoader(keyring, "HS512", "k1:" + SECRET, JwtKeyring.LEGACY_KID, true, cutover, null
+					, "JCEKS", null, 30, null).load();
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+		// 加载失败不影响原有密钥
+		assertEquals("k1", keyring.getActiveKid());
+	}
+
+	@Test
+	public void removedKeyInvalidatesCachedTokens() {
+		JwtKeyring keyring = JwtTokenUtils.getKeyring();
+		List<JwtKey> keys = new ArrayList<>(keyring.getKeys());
+		String activeKid = keyring.getActiveKid();
+		long legacyCutover = keyring.getLegacyCutover();
+		try {
+			HmacJwtKey k1 = new HmacJwtKey("k1", "HS512", Base64.getDecoder().decode(SECRET));
+			keyring.update(Collections.singletonList(k1), "k1");
+			JwtTokenCache cache = new JwtTokenCache(16);
+			String token = JwtTokenUtils.generateToken("admin"
+					, Collections.singletonList(new GrantedAuthorityImpl("sys:user:view")));
+			assertNotNull(cache.getAuthentication(token));
+
+			// 新增密钥并切换签发密钥不影响已签发的令牌
+			long generation = keyring.getGeneration();
+			HmacJwtKey k2 = new HmacJwtKey("k2", "HS512", new byte[64]);
+			keyring.update(Arrays.asList(k1, k2), "k2");
+			assertEquals(generation, keyring.getGeneration());
+			assertNotNull(cache.getAuthentication(token));
+			assertEquals(1, cache.size());
+
+			keyring.update(Collections.singletonList(k2), "k2");
+			assertNull(cache.getAuthentication(token));
+			assertEquals(0, cache.size());
+		} finally {
+			keyring.update(keys, activeKid, legacyCutover);
+		}
+	}
+
+	@Test
+	public void verifiesWithTheKeyNamedByKid() {
+		HmacJwtKey k1 = hmac("k1", 1);
+		HmacJwtKey k2 = hmac("k2", 2);
+		JwtKeyring keyring = new JwtKeyring(Arrays.asList(k1, k2), "k2");
+		// 不是签发密钥的旧密钥签发的令牌仍按 kid 验签
+		assertNotNull(JwsCodec.verify(keyring, JwsCodec.sign(k1, PAYLOAD)));
+		assertNotNull(JwsCodec.verify(keyring, JwsCodec.sign(k2, PAYLOAD)));
+
+		// kid 指向另一个密钥时签名不匹配
+		String token = JwsCodec.sign(k1, PAYLOAD);
+		String forged = k2.getEncodedHeader() + token.substring(token.indexOf('.'));
+		assertNull(JwsCodec.verify(keyring, forged));
+	}
+
+	@Test
+	public void unknownKidIsRejected() {
+		JwtKeyring keyring = new JwtKeyring(Collections.singletonList(hmac("k1", 1)), "k1");
+		assertNull(JwsCodec.verify(keyring, JwsCodec.sign(hmac("k3", 1), PAYLOAD)));
+		// 没有 kid 的早期令牌在没有早期密钥时同样拒绝
+		assertNull(JwsCodec.verify(keyring, JwsCodec.sign(JwtKeyring.legacyKey(), PAYLOAD)));
+	}
+
+	@Test
+	public void algorithmMustMatchTheKey() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		KeyPair pair = generator.generateKeyPair();
+		SignatureJwtKey ec = new SignatureJwtKey("ec", SignatureJwtKey.ES256, pair.getPublic(), pair.getPrivate());
+		JwtKeyring keyring = new JwtKeyring(Collections.singletonList(ec), "ec");
+		assertNotNull(JwsCodec.verify(keyring, JwsCodec.sign(ec, PAYLOAD)));
+
+		// 头部声明 HS512 而 kid 指向 ES256 公钥: 用公开的公钥当作 HMAC 密钥伪造签名
+		HmacJwtKey confused = new HmacJwtKey("ec", "HS512", pair.getPublic().getEncoded());
+		assertNull(JwsCodec.verify(keyring, JwsCodec.sign(confused, PAYLOAD)));
+	}
+
+	@Test
+	public void wrongMacIsRejected() {
+		HmacJwtKey key = hmac("k1", 1);
+		byte[] input = "header.payload".getBytes(StandardCharsets.US_ASCII);
+		byte[] signature = key.sign(input, 0, input.length);
+		assertTrue(key.verify(input, 0, input.length, signature));
+
+		byte[] lastByte = signature.clone();
+		lastByte[lastByte.length - 1] ^= 1;
+		assertFalse(key.verify(input, 0, input.length, lastByte));
+		assertFalse(key.verify(input, 0, input.length, Arrays.copyOf(signature, signature.length - 1)));
+		assertFalse(key.verify(input, 0, input.length, new byte[0]));
+		assertFalse(hmac("k1", 2).verify(input, 0, input.length, signature));
+	}
+
+	@Test
+	public void keyStoreChangesAreReloadedWithoutRestart() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("jwt.jceks");
+		KeyStore keyStore = KeyStore.getInstance("JCEKS");
+		keyStore.load(null, null);
+		addSecret(keyStore, "a", 1);
+		store(keyStore, file);
+
+		JwtKeyring keyring = JwtKeyring.ephemeral();
+		JwtKeyringLoader loader = new JwtKeyringLoader(keyring, "HS512", "", null, false, 0L, file, "JCEKS"
+				, "changeit", 30, null);
+		loader.load();
+		assertEquals("a", keyring.getActiveKid());
+		JwtKey a = keyring.getKey("a");
+		String token = JwsCodec.sign(keyring.getSigningKey(), PAYLOAD);
+
+		// 新增条目后最新创建的条目成为签发密钥, 原有密钥继续验签且仍是原实例
+		Thread.sleep(10);
+		addSecret(keyStore, "b", 2);
+		store(keyStore, file);
+		loader.load();
+		assertEquals("b", keyring.getActiveKid());
+		assertSame(a, keyring.getKey("a"));
+		assertNotNull(JwsCodec.verify(keyring, token));
+
+		keyStore.deleteEntry("a");
+		store(keyStore, file);
+		loader.load();
+		assertNull(keyring.getKey("a"));
+		assertNull(JwsCodec.verify(keyring, token));
+	}
+
+	@Test
+	public void tokensSignedByJjwtAreVerified() throws Exception {
+		byte[] secret = Base64.getDecoder().decode(SECRET);
+		JwtKeyring keyring = new JwtKeyring(Collections.singletonList(new HmacJwtKey("k1", "HS512", secret)), "k1");
+		Date expiration = new Date(System.currentTimeMillis() + 60_000L);
+		String token = Jwts.builder().setHeaderParam("kid", "k1").setSubject("admin").setExpiration(expiration)
+				.signWith(SignatureAlgorithm.HS512, secret).compact();
+		assertNotNull(JwsCodec.verify(keyring, token));
+
+		// jjwt 的 ES256 签名同样是 r || s
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		KeyPair pair = generator.generateKeyPair();
+		JwtKeyring ecKeyring = new JwtKeyring(Collections.singletonList(
+				new SignatureJwtKey("ec", SignatureJwtKey.ES256, pair.getPublic(), null)), null);
+		for (int i = 0; i < 32; i++) {
+			String ecToken = Jwts.builder().setHeaderParam("kid", "ec").setSubject("admin" + i)
+					.signWith(SignatureAlgorithm.ES256, pair.getPrivate()).compact();
+			assertNotNull(JwsCodec.verify(ecKeyring, ecToken));
+		}
+	}
+
+	private static HmacJwtKey hmac(String kid, int seed) {
+		byte[] secret = new byte[64];
+		Arrays.fill(secret, (byte) seed);
+		return new HmacJwtKey(kid, "HS512", secret);
+	}
+
+	private static void addSecret(KeyStore keyStore, String alias, int seed) throws Exception {
+		byte[] secret = new byte[64];
+		Arrays.fill(secret, (byte) seed);
+		keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(new SecretKeySpec(secret, "HmacSHA512"))
+				, new KeyStore.PasswordProtection("changeit".toCharArray()));
+	}
+
+	private static void store(KeyStore keyStore, Path file) throws Exception {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			keyStore.store(out, "changeit".toCharArray());
+		}
+	}
+}
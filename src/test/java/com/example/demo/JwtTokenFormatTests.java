@@ -0,0 +1,179 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtKey;
+import com.example.demo.security.JwtKeyring;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.JwtVerifiedClaims;
+import com.example.demo.security.PermissionDictionary;
+import com.example.demo.security.PermissionSet;
+import com.example.demo.utils.JwsCodec;
+import com.example.demo.utils.JwtTokenUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 令牌格式测试, 紧凑格式的令牌长度不到早期格式的一半, 早期格式的令牌在过渡期内仍然可以解析,
+ * 不规范的 Base64URL 写法不能得到新的令牌ID
+ *
+ * @author 程思琦
+ * @date 2026/10/19 01:45
+ * @description
+ **/
+public class JwtTokenFormatTests {
+
+	private static final List<String> DICTIONARY = Arrays.asList("sys:user:view", "sys:user:add", "sys:user:edit"
+			, "sys:user:delete");
+
+	private List<GrantedAuthority> authorities;
+
+	private List<JwtKey> keys;
+
+	private String activeKid;
+
+	private long legacyCutover;
+
+	@Before
+	public void setup() {
+		JwtKeyring keyring = JwtTokenUtils.getKeyring();
+		keys = new ArrayList<>(keyring.getKeys());
+		activeKid = keyring.getActiveKid();
+		legacyCutover = keyring.getLegacyCutover();
+		JwtTokenUtils.setPermissionDictionary(new PermissionDictionary(1, DICTIONARY));
+		authorities = Arrays.asList(new GrantedAuthorityImpl("sys:user:view"), new GrantedAuthorityImpl("sys:user:add")
+				, new GrantedAuthorityImpl("sys:user:edit"), new GrantedAuthorityImpl("sys:user:delete"));
+	}
+
+	@After
+	public void cleanup() {
+		JwtTokenUtils.setPermissionDictionary(PermissionDictionary.EMPTY);
+		JwtTokenUtils.getKeyring().update(keys, activeKid, legacyCutover);
+	}
+
+	@Test
+	public void compactTokenIsLessThanHalfOfLegacyToken() {
+		String compact = JwtTokenUtils.generateToken(authentication(authorities));
+		String legacy = legacyToken(authorities);
+		// 比较载荷, 签发密钥的头部带有 kid, 早期令牌的头部没有
+		String compactPayload = compact.split("\\.")[1];
+		String legacyPayload = legacy.split("\\.")[1];
+		assertTrue(compactPayload.length() + " vs " + legacyPayload.length()
+				, compactPayload.length() * 2 < legacyPayload.length());
+
+		JwtVerifiedClaims claims = JwtTokenUtils.verifyToken(compact);
+		assertNotNull(claims);
+		assertEquals("admin", claims.getSubject());
+		assertEquals(PermissionSet.of(authorities), claims.getPermissions());
+		assertTrue(claims.getCreated() > 0 && claims.getCreated() < claims.getExpiration());
+	}
+
+	@Test
+	public void permissionsOutsideDictionaryAreKept() {
+		List<GrantedAuthority> withExtra = Arrays.asList(new GrantedAuthorityImpl("sys:user:view")
+				, new GrantedAuthorityImpl("sys:report:export"));
+		JwtVerifiedClaims claims = JwtTokenUtils.verifyToken(JwtTokenUtils.generateToken(authentication(withExtra)));
+		assertNotNull(claims);
+		assertEquals(PermissionSet.of(withExtra), claims.getPermissions());
+	}
+
+	@Test
+	public void legacyTokenIsAccepted() {
+		acceptLegacyTokensFrom(System.currentTimeMillis());
+		String legacy = legacyToken(authorities);
+		JwtVerifiedClaims claims = JwtTokenUtils.verifyToken(legacy);
+		assertNotNull(claims);
+		assertEquals("admin", claims.getSubject());
+		assertEquals(PermissionSet.of(authorities), claims.getPermissions());
+		// 刷新后换成紧凑格式
+		String refreshed = JwtTokenUtils.refreshToken(legacy);
+		assertTrue(refreshed.length() < legacy.length());
+		assertEquals(claims.getPermissions(), JwtTokenUtils.verifyToken(refreshed).getPermissions());
+	}
+
+	@Test
+	public void legacyTokenIsRejectedOutsideTransition() {
+		// 没有配置切换时间
+		assertNull(JwtTokenUtils.verifyToken(legacyToken(authorities)));
+
+		// 用公开的早期密钥伪造的令牌, 过期时间晚于切换时间加12小时
+		acceptLegacyTokensFrom(System.currentTimeMillis() - 3600 * 1000);
+		assertNotNull(JwtTokenUtils.verifyToken(legacyToken(authorities)));
+		assertNull(JwtTokenUtils.verifyToken(legacyToken(authorities, 24 * 3600 * 1000L)));
+
+		// 切换时间已经过去12小时以上
+		acceptLegacyTokensFrom(System.currentTimeMillis() - 13 * 3600 * 1000L);
+		assertNull(JwtTokenUtils.verifyToken(legacyToken(authorities)));
+	}
+
+	@Test
+	public void nonCanonicalSignatureIsRejected() {
+		long exp = System.currentTimeMillis() / 1000 + 60;
+		// 没有 jti 的令牌, 令牌ID由令牌内容派生
+		String token = JwsCodec.sign(JwtTokenUtils.getKeyring().getSigningKey()
+				, ("{\"sub\":\"admin\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8));
+		JwtVerifiedClaims claims = JwtTokenUtils.verifyToken(token);
+		assertNotNull(claims);
+		assertEquals(claims.getTokenId(), JwtTokenUtils.verifyToken(token).getTokenId());
+
+		assertNull(JwtTokenUtils.verifyToken(token + "=="));
+		// HS512 签名 64 字节, 末尾字符的低 4 位不属于签名
+		char last = token.charAt(token.length() - 1);
+		char altered = last == 'A' ? 'B' : (char) (last ^ 1);
+		assertNull(JwtTokenUtils.verifyToken(token.substring(0, token.length() - 1) + altered));
+	}
+
+	@Test
+	public void tokenFromOtherDictionaryVersionIsRejected() {
+		String token = JwtTokenUtils.generateToken(authentication(authorities));
+		JwtTokenUtils.setPermissionDictionary(new PermissionDictionary(2, DICTIONARY));
+		assertNull(JwtTokenUtils.verifyToken(token));
+	}
+
+	private static JwtAuthenticationToken authentication(List<GrantedAuthority> authorities) {
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return new JwtAuthenticationToken(userDetails, null, authorities, null);
+	}
+
+	private void acceptLegacyTokensFrom(long cutover) {
+		List<JwtKey> withLegacy = new ArrayList<>(keys);
+		withLegacy.removeIf(key -> JwtKeyring.LEGACY_KID.equals(key.getKid()));
+		withLegacy.add(JwtKeyring.legacyKey());
+		JwtTokenUtils.getKeyring().update(withLegacy, activeKid, cutover);
+	}
+
+	private static String legacyToken(List<GrantedAuthority> authorities) {
+		return legacyToken(authorities, 3600 * 1000L);
+	}
+
+	/**
+	 * 按早期实现用 jjwt 签发
+	 */
+	private static String legacyToken(List<GrantedAuthority> authorities, long expiresIn) {
+		Map<String, Object> claims = new HashMap<>(4);
+		claims.put("jti", UUID.randomUUID().toString());
+		claims.put("sub", "admin");
+		claims.put("created", new Date());
+		claims.put("authorities", authorities);
+		return Jwts.builder().setClaims(claims).setExpiration(new Date(System.currentTimeMillis() + expiresIn))
+				.signWith(SignatureAlgorithm.HS512, JwtKeyring.LEGACY_SECRET).compact();
+	}
+}
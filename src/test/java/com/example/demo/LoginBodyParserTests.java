@@ -0,0 +1,299 @@
+package com.example.demo;
+
+import com.example.demo.security.LoginBodyException;
+import com.example.demo.utils.LoginBodyParser;
+import com.example.demo.vo.HttpStatus;
+import com.example.demo.vo.LoginBean;
+import org.junit.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * 登录请求体解析测试
+ *
+ * 字节扫描器的转义、重复字段、跳过嵌套值、尾部多余内容和截断输入; 声明长度和未声明长度时的 413 上限;
+ * 读取中途失败时线程复用的缓冲区被清空; reactive 请求体分块到达
+ *
+ * @author 程思琦
+ * @date 2026/10/19 11:30
+ * @description
+ **/
+public class LoginBodyParserTests {
+
+	@Test
+	public void escapesAreDecoded() {
+		LoginBean bean = parse("{\"username\":\"a\\\"b\\\\c\\/d\\n\",\"password\":\"\\u00e9\\u4E2D\\t\\b\\f\\r x\"}");
+		assertEquals("a\"b\\c/d\n", bean.getUsername());
+		assertEquals("\u00e9\u4e2d\t\b\f\r x", bean.getPassword());
+
+		// 转义前后的多字节 UTF-8 字符保持完整
+		bean = parse("{\"username\":\"中\\n文\",\"password\":\"\\ud83d\\ude00密\"}");
+		assertEquals("中\n文", bean.getUsername());
+		assertEquals("\ud83d\ude00密", bean.getPassword());
+
+		assertMalformed("{\"username\":\"a\\x\"}");
+		assertMalformed("{\"username\":\"\\u00g0\"}");
+		assertMalformed("{\"username\":\"\\u00\"}");
+	}
+
+	@Test
+	public void escapedKeysAreNotMatched() {
+		LoginBean bean = parse("{\"user\\u006eame\":\"x\",\"pass\\\"word\":\"y\",\"username\":\"admin\"}");
+		assertEquals("admin", bean.getUsername());
+		assertNull(bean.getPassword());
+	}
+
+	@Test
+	public void duplicateKeysKeepTheLastValue() {
+		LoginBean bean = parse("{\"username\":\"a\",\"password\":\"1\",\"username\":\"b\",\"password\":null}");
+		assertEquals("b", bean.getUsername());
+		assertNull(bean.getPassword());
+	}
+
+	@Test
+	public void nestedValuesAreSkipped() {
+		LoginBean bean = parse(" {\"meta\" : {\"a\":[1,{\"b\":\"}\"}],\"c\":\"]\\\"{\"} , \"list\":[[],{}],"
+				+ "\"flag\":true,\"n\":-1.5e3,\"username\":\"admin\",\"password\":\"123\"} \r\n");
+		assertEquals("admin", bean.getUsername());
+		assertEquals("123", bean.getPassword());
+
+		// 对象和数组作为字段值时按缺失处理, 数字和布尔值保留原文
+		bean = parse("{\"username\":{\"name\":\"admin\"},\"password\":123}");
+		assertNull(bean.getUsername());
+		assertEquals("123", bean.getPassword());
+		bean = parse("{}");
+		assertNull(bean.getUsername());
+		assertNull(bean.getPassword());
+	}
+
+	@Test
+	public void trailingGarbageIsRejected() {
+		assertMalformed("{\"username\":\"admin\"} x");
+		assertMalformed("{\"username\":\"admin\"},");
+		assertMalformed("{\"username\":\"admin\"}{}");
+		assertMalformed("{\"username\":\"admin\",}");
+		assertMalformed("{\"username\":\"admin\" \"password\":\"123\"}");
+		assertMalformed("[{\"username\":\"admin\"}]");
+		assertMalformed("");
+	}
+
+	@Test
+	public void truncatedInputIsRejected() {
+		String body = "{\"username\":\"admin\",\"meta\":{\"a\":[1,2]},\"password\":\"\\u4e2d123\"}";
+		assertEquals("admin", parse(body).getUsername());
+		for (int i = 0; i < body.length(); i++) {
+			assertMalformed(body.substring(0, i));
+		}
+	}
+
+	@Test
+	public void declaredLengthOverLimitIsRejectedBeforeReading() {
+		MockHttpServletRequest request = request(body(64));
+		try {
+			LoginBodyParser.parse(new HttpServletRequestWrapper(request) {
+				@Override
+				public ServletInputStream getInputStream() {
+					throw new AssertionError("请求体不应被读取");
+				}
+			}, 32);
+			fail();
+		} catch (LoginBodyException e) {
+			assertEquals(HttpStatus.SC_REQUEST_TOO_LONG, e.getStatus());
+		}
+		assertEquals("admin", LoginBodyParser.parse(request(body(32)), 32).getUsername());
+	}
+
+	@Test
+	public void undeclaredLengthOverLimitIsRejected() {
+		try {
+			LoginBodyParser.parse(undeclared(request(body(33))), 32);
+			fail();
+		} catch (LoginBodyException e) {
+			assertEquals(HttpStatus.SC_REQUEST_TOO_LONG, e.getStatus());
+		}
+		assertCleared();
+		assertEquals("admin", LoginBodyParser.parse(undeclared(request(body(32))), 32).getUsername());
+		assertEquals("admin", LoginBodyParser.parse(undeclared(request(body(LoginBodyParser.DEFAULT_MAX_BYTES))))
+				.getUsername());
+	}
+
+	@Test
+	public void failedReadClearsTheBuffer() {
+		byte[] body = "{\"username\":\"admin\",\"password\":\"secret\"}".getBytes(StandardCharsets.UTF_8);
+		MockHttpServletRequest request = request(body);
+		try {
+			LoginBodyParser.parse(new HttpServletRequestWrapper(request) {
+				@Override
+				public ServletInputStream getInputStream() {
+					return new FailingInputStream(body, body.length - 4);
+				}
+			});
+			fail();
+		} catch (LoginBodyException e) {
+			assertEquals(HttpStatus.SC_BAD_REQUEST, e.getStatus());
+		}
+		assertCleared();
+
+		// 格式错误时同样清空
+		try {
+			LoginBodyParser.parse(request("{\"password\":\"secret\"".getBytes(StandardCharsets.UTF_8)));
+			fail();
+		} catch (LoginBodyException e) {
+			assertEquals(HttpStatus.SC_BAD_REQUEST, e.getStatus());
+		}
+		assertCleared();
+	}
+
+	@Test
+	public void reactiveChunksAreJoined() {
+		byte[] body = "{\"username\":\"中文\",\"password\":\"\\u00e9123\"}".getBytes(StandardCharsets.UTF_8);
+		// 每个字节一块, 多字节字符和转义被拆开
+		LoginBean bean = LoginBodyParser.parse(chunks(body, 1), body.length, 64).block();
+		assertEquals("中文", bean.getUsername());
+		assertEquals("\u00e9123", bean.getPassword());
+		bean = LoginBodyParser.parse(chunks(body, 7), -1, 64).block();
+		assertEquals("中文", bean.getUsername());
+		assertStatus(HttpStatus.SC_BAD_REQUEST, () -> LoginBodyParser.parse(Flux.empty(), -1, 64).block());
+
+		assertStatus(HttpStatus.SC_REQUEST_TOO_LONG, () -> LoginBodyParser.parse(chunks(body, 5), body.length, 16)
+				.block());
+		assertStatus(HttpStatus.SC_REQUEST_TOO_LONG, () -> LoginBodyParser.parse(chunks(body, 5), -1, 16).block());
+		// 实际长度超过声明长度
+		assertStatus(HttpStatus.SC_BAD_REQUEST, () -> LoginBodyParser.parse(chunks(body, 5), 16, 64).block());
+		// 截断
+		byte[] truncated = Arrays.copyOf(body, body.length - 2);
+		assertStatus(HttpStatus.SC_BAD_REQUEST, () -> LoginBodyParser.parse(chunks(truncated, 3), -1, 64).block());
+	}
+
+	private static LoginBean parse(String body) {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		// 前后放入其他内容, 验证偏移量
+		byte[] padded = new byte[bytes.length + 8];
+		Arrays.fill(padded, (byte) '}');
+		System.arraycopy(bytes, 0, padded, 4, bytes.length);
+		return LoginBodyParser.parse(padded, 4, bytes.length);
+	}
+
+	private static void assertMalformed(String body) {
+		assertStatus(HttpStatus.SC_BAD_REQUEST, () -> parse(body));
+	}
+
+	private static void assertStatus(int status, Runnable runnable) {
+		try {
+			runnable.run();
+			fail();
+		} catch (LoginBodyException e) {
+			assertEquals(status, e.getStatus());
+		}
+	}
+
+	/**
+	 * 当前线程复用的缓冲区中不留有请求内容
+	 */
+	private static void assertCleared() {
+		@SuppressWarnings("unchecked")
+		ThreadLocal<byte[]> buffers = (ThreadLocal<byte[]>) ReflectionTestUtils.getField(LoginBodyParser.class
+				, "BUFFERS");
+		byte[] buffer = buffers.get();
+		assertArrayEquals(new byte[buffer.length], buffer);
+	}
+
+	/**
+	 * 指定长度的登录请求体, 用空格补足
+	 */
+	private static byte[] body(int length) {
+		byte[] body = new byte[length];
+		Arrays.fill(body, (byte) ' ');
+		byte[] json = "{\"username\":\"admin\"}".getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(json, 0, body, 0, json.length);
+		return body;
+	}
+
+	private static MockHttpServletRequest request(byte[] body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		request.setContent(body);
+		return request;
+	}
+
+	/**
+	 * 未声明长度的请求, 如分块传输
+	 */
+	private static HttpServletRequestWrapper undeclared(MockHttpServletRequest request) {
+		return new HttpServletRequestWrapper(request) {
+			@Override
+			public int getContentLength() {
+				return -1;
+			}
+
+			@Override
+			public long getContentLengthLong() {
+				return -1;
+			}
+		};
+	}
+
+	private static Flux<DataBuffer> chunks(byte[] body, int size) {
+		DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < body.length; i += size) {
+			buffers.add(factory.wrap(Arrays.copyOfRange(body, i, Math.min(body.length, i + size))));
+		}
+		return Flux.fromIterable(buffers);
+	}
+
+	/**
+	 * 读出指定字节数后抛出 IOException, 模拟连接中断
+	 */
+	private static final class FailingInputStream extends ServletInputStream {
+
+		private final byte[] body;
+
+		private final int failAt;
+
+		private int pos;
+
+		FailingInputStream(byte[] body, int failAt) {
+			this.body = body;
+			this.failAt = failAt;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (pos >= failAt) {
+				throw new IOException("connection reset");
+			}
+			return body[pos++];
+		}
+
+		@Override
+		public boolean isFinished() {
+			return false;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+		}
+	}
+}
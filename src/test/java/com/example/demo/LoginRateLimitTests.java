@@ -0,0 +1,104 @@
+package com.example.demo;
+
+import com.example.demo.controller.LoginController;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.security.LoginVerificationExecutor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 登录限流测试, 超出尝试次数或用户名被锁定后返回 429, 且不再进行 BCrypt 校验; 缺少用户名的登录按认证失败处理
+ *
+ * @author 程思琦
+ * @date 2026/10/19 04:30
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"login.rate-limit.client.capacity=6", "login.rate-limit.lockout.max-failures=3"})
+@AutoConfigureMockMvc
+public class LoginRateLimitTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private LoginRateLimiter loginRateLimiter;
+
+	@Autowired
+	private LoginVerificationExecutor loginVerificationExecutor;
+
+	@Autowired
+	private LoginController loginController;
+
+	@Test
+	public void repeatedFailuresLockTheUsername() throws Exception {
+		for (int i = 0; i < 4; i++) {
+			login("10.0.0.1", "admin", "wrong").andExpect(status().isUnauthorized());
+		}
+		long verifications = loginVerificationExecutor.getVerificationCount();
+		long lockouts = loginRateLimiter.getLockedOutCount();
+
+		// 锁定后即使密码正确也直接拒绝
+		login("10.0.0.1", "admin", "123")
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists("Retry-After"));
+		assertEquals(verifications, loginVerificationExecutor.getVerificationCount());
+		assertEquals(lockouts + 1, loginRateLimiter.getLockedOutCount());
+		assertTrue(loginRateLimiter.getLockoutCount() > 0);
+	}
+
+	@Test
+	public void tooManyAttemptsFromOneClientAreRejected() throws Exception {
+		for (int i = 0; i < 6; i++) {
+			login("10.0.0.2", "user" + i, "wrong").andExpect(status().isUnauthorized());
+		}
+		long admitted = loginRateLimiter.getAdmittedCount();
+
+		login("10.0.0.2", "user6", "wrong").andExpect(status().isTooManyRequests());
+		assertEquals(admitted, loginRateLimiter.getAdmittedCount());
+
+		// 其他客户端不受影响
+		login("10.0.0.3", "user7", "wrong").andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	public void controllerLoginWithoutUsernameIsUnauthorized() throws Exception {
+		// /login 由 JwtLoginFilter 处理, 这里直接调用控制器
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		request.setRemoteAddr("10.0.0.4");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent("{\"password\":\"wrong\"}".getBytes(StandardCharsets.UTF_8));
+		try {
+			loginController.login(request);
+			fail("login without username was accepted");
+		} catch (BadCredentialsException expected) {
+		}
+	}
+
+	private ResultActions login(String clientIp, String username, String password) throws Exception {
+		return mockMvc.perform(post("/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}")
+				.with(request -> {
+					request.setRemoteAddr(clientIp);
+					return request;
+				}));
+	}
+}
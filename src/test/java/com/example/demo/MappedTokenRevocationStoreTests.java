@@ -0,0 +1,246 @@
+package com.example.demo;
+
+import com.example.demo.security.MappedTokenRevocationStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 内存映射吊销记录多进程测试
+ *
+ * 父进程先吊销一个令牌, 再启动多个子进程在同一时刻开始写入同一个映射文件,
+ * 子进程需要能看到父进程的吊销记录, 父进程需要能看到所有子进程的吊销记录;
+ * 已占用槽位数不超过容量的 3/4, 清理后过期记录的槽位重新变为空, 同一探测链上的记录仍能查到;
+ * 写入中崩溃的进程留下的槽位和修改序号由下一个写入方恢复
+ *
+ * @author 程思琦
+ * @date 2026/10/18 23:20
+ * @description
+ **/
+public class MappedTokenRevocationStoreTests {
+
+	private static final int PROCESSES = 4;
+
+	private static final int TOKENS_PER_PROCESS = 2000;
+
+	/**
+	 * 所有子进程都会吊销的令牌, 用于覆盖多个进程同时写入同一个令牌的情况
+	 */
+	private static final int SHARED_TOKENS = 500;
+
+	private static final long EXPIRES_IN = TimeUnit.HOURS.toMillis(1);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void revocationsAreSharedAcrossProcesses() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("revoked-tokens.map");
+		// 容量较小, 让各进程的探测链相互交错
+		MappedTokenRevocationStore store = new MappedTokenRevocationStore(file, 16384);
+		UUID parentToken = UUID.randomUUID();
+		store.revoke(parentToken, System.currentTimeMillis() + EXPIRES_IN);
+
+		// 子进程启动后等到同一时刻再开始写入
+		long startAt = System.currentTimeMillis() + 2000;
+		List<Process> processes = new ArrayList<>();
+		for (int i = 0; i < PROCESSES; i++) {
+			processes.add(new ProcessBuilder(javaExecutable(), "-cp", System.getProperty("java.class.path")
+					, Child.class.getName(), file.toString(), parentToken.toString(), String.valueOf(i)
+					, String.valueOf(startAt))
+					.inheritIO().start());
+		}
+		for (Process process : processes) {
+			assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+			assertEquals(0, process.exitValue());
+		}
+
+		for (int i = 0; i < PROCESSES; i++) {
+			for (int j = 0; j < TOKENS_PER_PROCESS; j++) {
+				assertTrue(store.isRevoked(tokenId(i, j)));
+			}
+		}
+		for (int j = 0; j < SHARED_TOKENS; j++) {
+			assertTrue(store.isRevoked(tokenId(PROCESSES, j)));
+		}
+		assertFalse(store.isRevoked(UUID.randomUUID()));
+		// 多个进程同时吊销同一个令牌的次数不确定, 只检查占用槽位数的范围
+		int distinct = PROCESSES * TOKENS_PER_PROCESS + SHARED_TOKENS + 1;
+		assertTrue(store.size() >= distinct);
+		assertTrue(store.size() <= distinct + (PROCESSES - 1) * SHARED_TOKENS);
+		store.close();
+	}
+
+	@Test
+	public void occupancyIsCapped() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("capped.map");
+		// 16 个槽位最多占用 12 个
+		MappedTokenRevocationStore store = new MappedTokenRevocationStore(file, 16);
+		long expiresAt = System.currentTimeMillis() + EXPIRES_IN;
+		for (int i = 0; i < 12; i++) {
+			store.revoke(tokenId(0, i), expiresAt);
+		}
+		// 再次吊销已有的令牌不占用新槽位
+		store.revoke(tokenId(0, 0), expiresAt + 1);
+		assertEquals(12, store.size());
+		try {
+			store.revoke(tokenId(0, 12), expiresAt);
+			fail("revocation file was filled beyond three quarters");
+		} catch (IllegalStateException expected) {
+		}
+		assertEquals(12, store.size());
+		assertFalse(store.isRevoked(tokenId(0, 12)));
+		store.close();
+	}
+
+	@Test
+	public void expiredSlotsAreReclaimed() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("purge.map");
+		// 容量较小, 长短有效期的记录落在同一探测链上
+		MappedTokenRevocationStore store = new MappedTokenRevocationStore(file, 64);
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 48; i++) {
+			store.revoke(tokenId(0, i), i % 2 == 0 ? now + 200 : now + EXPIRES_IN);
+		}
+		assertEquals(48, store.size());
+		Thread.sleep(300);
+
+		store.purgeExpired();
+		assertEquals(24, store.size());
+		assertEquals(64 - 24, emptySlots(file));
+		for (int i = 0; i < 48; i++) {
+			assertEquals(i % 2 != 0, store.isRevoked(tokenId(0, i)));
+		}
+
+		// 达到上限时吊销会先清理过期记录
+		now = System.currentTimeMillis();
+		for (int i = 0; i < 24; i++) {
+			store.revoke(tokenId(1, i), now + 200);
+		}
+		assertEquals(48, store.size());
+		Thread.sleep(300);
+		for (int i = 0; i < 24; i++) {
+			store.revoke(tokenId(2, i), System.currentTimeMillis() + EXPIRES_IN);
+		}
+		assertEquals(48, store.size());
+		for (int i = 0; i < 24; i++) {
+			assertTrue(store.isRevoked(tokenId(0, 2 * i + 1)));
+			assertTrue(store.isRevoked(tokenId(2, i)));
+			assertFalse(store.isRevoked(tokenId(1, i)));
+		}
+		store.close();
+	}
+
+	@Test
+	public void crashedWriterIsRecovered() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("crashed.map");
+		// 只有一个槽位, 探测链上只有崩溃进程留下的槽位
+		MappedTokenRevocationStore store = new MappedTokenRevocationStore(file, 1);
+		markWriting(file);
+
+		UUID tokenId = UUID.randomUUID();
+		store.revoke(tokenId, System.currentTimeMillis() + EXPIRES_IN);
+		assertTrue(store.isRevoked(tokenId));
+		assertEquals(1, store.size());
+
+		// 前移记录时崩溃, 修改序号停留在奇数, 查询等待一段时间后加锁修复
+		setSequence(file, 7);
+		assertTrue(store.isRevoked(tokenId));
+		assertFalse(store.isRevoked(UUID.randomUUID()));
+		assertEquals(8, map(file).getLong(24));
+		store.close();
+	}
+
+	/**
+	 * 模拟写入方在占用第一个槽位并计数后崩溃: 状态字为写入中。
+	 * 槽位从文件头(64 字节)之后开始, 状态字在偏移 0; 文件头偏移 16 是已占用槽位数, 按本机字节序存储
+	 */
+	private static void markWriting(Path file) throws Exception {
+		MappedByteBuffer buffer = map(file);
+		buffer.putLong(16, 1);
+		buffer.putLong(64, 4 + 1);
+		buffer.force();
+	}
+
+	/**
+	 * 文件头偏移 24 是修改序号
+	 */
+	private static void setSequence(Path file, long sequence) throws Exception {
+		MappedByteBuffer buffer = map(file);
+		buffer.putLong(24, sequence);
+		buffer.force();
+	}
+
+	private static int emptySlots(Path file) throws Exception {
+		MappedByteBuffer buffer = map(file);
+		int empty = 0;
+		for (int offset = 64; offset < buffer.capacity(); offset += 32) {
+			if ((buffer.getLong(offset) & 3) == 0) {
+				empty++;
+			}
+		}
+		return empty;
+	}
+
+	private static MappedByteBuffer map(Path file) throws Exception {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			buffer.order(ByteOrder.nativeOrder());
+			return buffer;
+		}
+	}
+
+	private static UUID tokenId(int process, int index) {
+		return new UUID(0x5EED000000000000L | ((long) process << 32) | index, ~((long) process << 32 | index));
+	}
+
+	private static String javaExecutable() {
+		return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+	}
+
+	/**
+	 * 子进程: 检查父进程的吊销记录, 然后写入自己的吊销记录
+	 */
+	public static class Child {
+
+		public static void main(String[] args) throws Exception {
+			MappedTokenRevocationStore store = new MappedTokenRevocationStore(new File(args[0]).toPath(), 16384);
+			if (!store.isRevoked(UUID.fromString(args[1]))) {
+				System.exit(2);
+			}
+			int process = Integer.parseInt(args[2]);
+			long startAt = Long.parseLong(args[3]);
+			while (System.currentTimeMillis() < startAt) {
+				Thread.sleep(1);
+			}
+			long expiresAt = System.currentTimeMillis() + EXPIRES_IN;
+			for (int j = 0; j < TOKENS_PER_PROCESS; j++) {
+				store.revoke(tokenId(process, j), expiresAt);
+				if (!store.isRevoked(tokenId(process, j))) {
+					System.exit(3);
+				}
+				if (j < SHARED_TOKENS) {
+					store.revoke(tokenId(PROCESSES, j), expiresAt);
+				}
+			}
+			store.close();
+			System.exit(0);
+		}
+	}
+}
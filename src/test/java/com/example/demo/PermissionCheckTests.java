@@ -0,0 +1,174 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 批量权限判断测试, 结果按请求令牌中的权限集合计算, 子菜单在父菜单不可见时同样不可见;
+ * 嵌套过深返回 400, 请求体过大返回 413
+ *
+ * @author 程思琦
+ * @date 2026/10/19 09:05
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PermissionCheckTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void permissionListReturnsMapAndBitmap() throws Exception {
+		String token = token("sys:user:view", "sys:user:edit");
+		mockMvc.perform(post("/permissions/check").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"permissions\":[\"sys:user:view\",\"sys:user:delete\",\"sys:user:edit\",\"no:such:perm\"]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.permissions['sys:user:view']").value(true))
+				.andExpect(jsonPath("$.data.permissions['sys:user:delete']").value(false))
+				.andExpect(jsonPath("$.data.permissions['sys:user:edit']").value(true))
+				.andExpect(jsonPath("$.data.permissions['no:such:perm']").value(false))
+				// 第 0 位和第 2 位: 0b101
+				.andExpect(jsonPath("$.data.bitmap").value("BQ"));
+	}
+
+	@Test
+	public void menuTreeHidesChildrenOfHiddenMenus() throws Exception {
+		String token = token("sys:user:view", "sys:log:view");
+		String menus = "{\"menus\":[{\"id\":\"system\",\"children\":["
+				+ "{\"id\":\"user\",\"permission\":\"sys:user:view\",\"children\":["
+				+ "{\"id\":\"user-delete\",\"permission\":\"sys:user:delete\"}]},"
+				+ "{\"id\":\"role\",\"permission\":\"sys:role:view\",\"children\":["
+				+ "{\"id\":\"log\",\"permission\":\"sys:log:view\"}]}]}]}";
+		mockMvc.perform(post("/permissions/check").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(menus))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.menus.system").value(true))
+				.andExpect(jsonPath("$.data.menus.user").value(true))
+				.andExpect(jsonPath("$.data.menus['user-delete']").value(false))
+				.andExpect(jsonPath("$.data.menus.role").value(false))
+				.andExpect(jsonPath("$.data.menus.log").value(false));
+	}
+
+	@Test
+	public void tooManyPermissionsIsBadRequest() throws Exception {
+		StringBuilder content = new StringBuilder("{\"permissions\":[");
+		for (int i = 0; i <= 1024; i++) {
+			content.append(i == 0 ? "" : ",").append("\"p").append(i).append('"');
+		}
+		content.append("]}");
+		mockMvc.perform(post("/permissions/check").header("Authorization", "Bearer " + token("sys:user:view"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(content.toString()))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void bitmapOmitsTrailingZeroBytes() throws Exception {
+		String token = token("sys:user:view");
+		// 10 个权限标识只拥有第 0 个, 第二个字节全为 0 被省略
+		StringBuilder content = new StringBuilder("{\"permissions\":[\"sys:user:view\"");
+		for (int i = 1; i < 10; i++) {
+			content.append(",\"p").append(i).append('"');
+		}
+		content.append("]}");
+		check(token, content.toString())
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.bitmap").value("AQ"));
+		check(token, "{\"permissions\":[\"sys:user:edit\",\"sys:user:delete\"]}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.bitmap").value(""));
+	}
+
+	@Test
+	public void deeplyNestedMenusAreBadRequest() throws Exception {
+		String token = token("sys:user:view");
+		// 递归绑定时会栈溢出的层级
+		check(token, nestedMenus(10000)).andExpect(status().isBadRequest());
+		// 未知字段中的深层嵌套同样拒绝
+		StringBuilder content = new StringBuilder("{\"extra\":");
+		for (int i = 0; i < 10000; i++) {
+			content.append('[');
+		}
+		for (int i = 0; i < 10000; i++) {
+			content.append(']');
+		}
+		check(token, content.append('}').toString()).andExpect(status().isBadRequest());
+
+		// 上限以内的层级正常判断
+		check(token, nestedMenus(15))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.menus.m0").value(true))
+				.andExpect(jsonPath("$.data.menus.m14").value(true));
+	}
+
+	@Test
+	public void oversizedBodyIsRejected() throws Exception {
+		StringBuilder content = new StringBuilder("{\"extra\":\"");
+		for (int i = 0; i < 200 * 1024; i++) {
+			content.append('x');
+		}
+		content.append("\",\"permissions\":[\"sys:user:view\"]}");
+		check(token("sys:user:view"), content.toString()).andExpect(status().isPayloadTooLarge());
+	}
+
+	@Test
+	public void unauthenticatedRequestIsRejected() throws Exception {
+		mockMvc.perform(post("/permissions/check")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"permissions\":[\"sys:user:view\"]}"))
+				.andExpect(status().isForbidden());
+	}
+
+	private ResultActions check(String token, String content) throws Exception {
+		return mockMvc.perform(post("/permissions/check").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(content));
+	}
+
+	/**
+	 * 每层一个菜单的菜单树, 编号为 m0、m1 ...
+	 */
+	private static String nestedMenus(int levels) {
+		StringBuilder content = new StringBuilder("{\"menus\":");
+		for (int i = 0; i < levels; i++) {
+			content.append("[{\"id\":\"m").append(i).append("\",\"children\":");
+		}
+		content.append("null");
+		for (int i = 0; i < levels; i++) {
+			content.append("}]");
+		}
+		return content.append('}').toString();
+	}
+
+	private static String token(String... permissions) {
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		for (String permission : permissions) {
+			authorities.add(new GrantedAuthorityImpl(permission));
+		}
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+}
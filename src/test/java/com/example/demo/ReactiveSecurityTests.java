@@ -0,0 +1,125 @@
+package com.example.demo;
+
+import com.alibaba.fastjson.JSON;
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * reactive 配置测试, 登录、令牌认证、按 @PreAuthorize 授权和退出登录与 servlet 配置行为一致
+ *
+ * @author 程思琦
+ * @date 2026/10/19 03:50
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveSecurityTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	public void loginThenAccessWithToken() {
+		byte[] body = webTestClient.post().uri("/login").contentType(MediaType.APPLICATION_JSON)
+				.syncBody("{\"username\":\"admin\",\"password\":\"123\"}")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().returnResult().getResponseBody();
+		String token = JSON.parseObject(new String(body, StandardCharsets.UTF_8)).getJSONObject("data").getString("token");
+		assertNotNull(token);
+
+		webTestClient.get().uri("/user/findAll").header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).value(s -> assertTrue(s, s.contains("findAll")));
+	}
+
+	@Test
+	public void wrongPasswordIsRejected() {
+		webTestClient.post().uri("/login").contentType(MediaType.APPLICATION_JSON)
+				.syncBody("{\"username\":\"admin\",\"password\":\"wrong\"}")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	@Test
+	public void missingPermissionIsDenied() {
+		String token = token("sys:user:view");
+		webTestClient.get().uri("/user/findAll").header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk();
+		webTestClient.get().uri("/user/delete").header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isForbidden();
+	}
+
+	@Test
+	public void missingAndRevokedTokensAreDenied() {
+		webTestClient.get().uri("/user/findAll")
+				.exchange()
+				.expectStatus().isForbidden();
+
+		String token = token("sys:user:view");
+		webTestClient.post().uri("/logout").header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isOk();
+		webTestClient.get().uri("/user/findAll").header("Authorization", "Bearer " + token)
+				.exchange()
+				.expectStatus().isForbidden();
+	}
+
+	@Test
+	public void permissionCheckLimitsNesting() {
+		String token = token("sys:user:view");
+		webTestClient.post().uri("/permissions/check").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.syncBody("{\"menus\":[{\"id\":\"user\",\"permission\":\"sys:user:view\"}]}")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).value(s -> assertTrue(s, s.contains("\"user\":true")));
+
+		StringBuilder nested = new StringBuilder("{\"menus\":");
+		for (int i = 0; i < 10000; i++) {
+			nested.append("[{\"id\":\"m").append(i).append("\",\"children\":");
+		}
+		nested.append("null");
+		for (int i = 0; i < 10000; i++) {
+			nested.append("}]");
+		}
+		webTestClient.post().uri("/permissions/check").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.syncBody(nested.append('}').toString())
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	private static String token(String... permissions) {
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		for (String permission : permissions) {
+			authorities.add(new GrantedAuthorityImpl(permission));
+		}
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+}
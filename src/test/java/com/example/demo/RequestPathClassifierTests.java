@@ -0,0 +1,73 @@
+package com.example.demo;
+
+import com.example.demo.security.RequestPathClassifier;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static com.example.demo.security.RequestPathClassifier.permitAll;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 请求路径分类测试, 编译后的免登录规则与 antMatchers 的匹配结果一致
+ *
+ * @author 程思琦
+ * @date 2026/10/19 05:20
+ * @description
+ **/
+public class RequestPathClassifierTests {
+
+	private static final String[] METHODS = {"GET", "POST", "OPTIONS"};
+
+	private static final String[] PATHS = {"/", "/login", "/login/", "/Login", "/loginx", "/logout"
+			, "/.well-known/jwks.json", "/.well-known/jwks.jsonx", "/swagger-ui.html", "/swagger"
+			, "/swagger-resources/configuration/ui", "/swagge", "/webjars", "/webjars/springfox/a.js"
+			, "/webjarsx", "/v2/api-docs", "/v2", "/v21", "/user/findAll", "/user/v2/x"};
+
+	private final RequestPathClassifier classifier = new RequestPathClassifier(
+			permitAll(HttpMethod.OPTIONS, "/**"),
+			permitAll("/login"),
+			permitAll(HttpMethod.GET, "/.well-known/jwks.json"),
+			permitAll("/swagger**/**"),
+			permitAll("/webjars/**"),
+			permitAll("/v2/**"),
+			permitAll("/user/*/x"));
+
+	private final RequestMatcher antMatchers = new OrRequestMatcher(
+			new AntPathRequestMatcher("/**", "OPTIONS"),
+			new AntPathRequestMatcher("/login"),
+			new AntPathRequestMatcher("/.well-known/jwks.json", "GET"),
+			new AntPathRequestMatcher("/swagger**/**"),
+			new AntPathRequestMatcher("/webjars/**"),
+			new AntPathRequestMatcher("/v2/**"),
+			new AntPathRequestMatcher("/user/*/x"));
+
+	@Test
+	public void matchesLikeAntMatchers() {
+		for (String method : METHODS) {
+			for (String path : PATHS) {
+				MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+				request.setServletPath(path);
+				assertEquals(method + " " + path, antMatchers.matches(request), classifier.matches(request));
+			}
+		}
+	}
+
+	@Test
+	public void countsEachLane() {
+		MockHttpServletRequest login = new MockHttpServletRequest("POST", "/login");
+		login.setServletPath("/login");
+		MockHttpServletRequest user = new MockHttpServletRequest("GET", "/user/findAll");
+		user.setServletPath("/user/findAll");
+
+		classifier.requiresAuthentication(login);
+		classifier.requiresAuthentication(user);
+		classifier.requiresAuthentication(user);
+
+		assertEquals(1, classifier.getPermitAllCount());
+		assertEquals(2, classifier.getAuthenticatedCount());
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.demo;
+
+import com.example.demo.model.Role;
+import com.example.demo.security.CompiledAuthorizationAttribute;
+import com.example.demo.security.CompiledAuthorizationMetadataSource;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.PermissionSet;
+import com.example.demo.security.RoleHierarchyIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 角色继承索引测试
+ *
+ * 角色闭包包含所有祖先角色的权限和 ROLE_ 权限标识; 只有一个角色的用户直接共享角色闭包;
+ * 修改角色只重新计算它和它的后代, 其余角色的闭包实例不变; 循环继承被拒绝
+ *
+ * @author 程思琦
+ * @date 2026/10/19 08:20
+ * @description
+ **/
+public class RoleHierarchyIndexTests {
+
+	private RoleHierarchyIndex index;
+
+	@Before
+	public void setUp() {
+		index = new RoleHierarchyIndex();
+		index.defineAll(Arrays.asList(
+				role("VIEWER", null, "sys:user:view"),
+				role("EDITOR", "VIEWER", "sys:user:edit"),
+				role("ADMIN", "EDITOR", "sys:user:delete"),
+				role("AUDITOR", null, "sys:log:view")));
+	}
+
+	@Test
+	public void closureIsTransitive() {
+		PermissionSet admin = index.closure("ADMIN");
+		assertTrue(admin.contains("sys:user:view"));
+		assertTrue(admin.contains("sys:user:edit"));
+		assertTrue(admin.contains("sys:user:delete"));
+		assertTrue(admin.contains("ROLE_ADMIN"));
+		assertTrue(admin.contains("ROLE_VIEWER"));
+		assertFalse(admin.contains("sys:log:view"));
+		assertEquals(6, admin.size());
+	}
+
+	@Test
+	public void usersShareRoleClosures() {
+		assertSame(index.closure("EDITOR"), index.resolve(Collections.singleton("EDITOR"), null));
+
+		PermissionSet combined = index.resolve(Arrays.asList("EDITOR", "AUDITOR")
+				, Collections.singleton("sys:user:add"));
+		assertTrue(combined.contains("sys:user:view"));
+		assertTrue(combined.contains("sys:log:view"));
+		assertTrue(combined.contains("sys:user:add"));
+		assertTrue(combined.contains("ROLE_AUDITOR"));
+		assertFalse(combined.contains("ROLE_ADMIN"));
+	}
+
+	@Test
+	public void redefinitionOnlyRecomputesDescendants() {
+		PermissionSet auditor = index.closure("AUDITOR");
+		PermissionSet admin = index.closure("ADMIN");
+
+		index.define(role("VIEWER", null, "sys:user:view", "sys:user:export"));
+		assertSame(auditor, index.closure("AUDITOR"));
+		assertNotSame(admin, index.closure("ADMIN"));
+		assertTrue(index.closure("ADMIN").contains("sys:user:export"));
+
+		// ADMIN 改为继承 AUDITOR, 不再继承 EDITOR
+		index.define(role("ADMIN", "AUDITOR", "sys:user:delete"));
+		assertTrue(index.closure("ADMIN").contains("sys:log:view"));
+		assertFalse(index.closure("ADMIN").contains("sys:user:edit"));
+
+		index.remove("AUDITOR");
+		assertFalse(index.closure("ADMIN").contains("sys:log:view"));
+		assertFalse(index.closure("ADMIN").contains("ROLE_AUDITOR"));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	public void cyclesAreRejected() {
+		PermissionSet viewer = index.closure("VIEWER");
+		try {
+			index.define(role("VIEWER", "ADMIN", "sys:user:view"));
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+		try {
+			index.defineAll(Arrays.asList(role("A", "B"), role("B", "A")));
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+		// 失败的变更不影响原有定义
+		assertSame(viewer, index.closure("VIEWER"));
+		assertTrue(index.closure("ADMIN").contains("sys:user:view"));
+	}
+
+	@Test
+	public void hasRoleUsesClosure() {
+		PermissionSet permissions = index.resolve(Collections.singleton("ADMIN"), null);
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", permissions);
+		Authentication authentication = new UsernamePasswordAuthenticationToken(userDetails, null, permissions);
+
+		CompiledAuthorizationAttribute hasViewer = CompiledAuthorizationMetadataSource.compile("hasRole('VIEWER')");
+		CompiledAuthorizationAttribute hasAuditor = CompiledAuthorizationMetadataSource.compile(
+				"hasAnyRole('AUDITOR', 'ROLE_GUEST')");
+		assertTrue(hasViewer.isGranted(authentication));
+		assertFalse(hasAuditor.isGranted(authentication));
+	}
+
+	private static Role role(String name, String parent, String... permissions) {
+		return new Role(name, parent == null ? null : Collections.singleton(parent)
+				, new HashSet<>(Arrays.asList(permissions)));
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.SecurityMetrics;
+import com.example.demo.utils.JwsCodec;
+import com.example.demo.utils.JwtTokenUtils;
+import com.example.demo.utils.SecurityUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 安全链路指标测试, 令牌校验失败按原因计数, 未启用时不记录
+ *
+ * @author 程思琦
+ * @date 2026/10/19 10:05
+ * @description
+ **/
+public class SecurityMetricsTests {
+
+	private SimpleMeterRegistry registry;
+
+	private SecurityMetrics metrics;
+
+	@Before
+	public void setup() {
+		registry = new SimpleMeterRegistry();
+		metrics = new SecurityMetrics(registry);
+		SecurityMetrics.install(metrics);
+	}
+
+	@After
+	public void cleanup() {
+		metrics.close();
+	}
+
+	@Test
+	public void validTokenIsTimedWithoutFailures() {
+		assertNotNull(JwtTokenUtils.verifyToken(token()));
+		assertEquals(1, registry.get("security.token.verify").timer().count());
+		assertEquals(0, failures("expired") + failures("bad_signature") + failures("malformed")
+				+ failures("missing"), 0);
+	}
+
+	@Test
+	public void failuresAreCountedByReason() {
+		String token = token();
+		int signature = token.lastIndexOf('.') + 2;
+		char replaced = token.charAt(signature) == 'A' ? 'B' : 'A';
+		String tampered = token.substring(0, signature) + replaced + token.substring(signature + 1);
+		assertNull(JwtTokenUtils.verifyToken(tampered));
+		assertEquals(1, failures("bad_signature"), 0);
+
+		assertNull(JwtTokenUtils.verifyToken("not-a-token"));
+		assertNull(JwtTokenUtils.verifyToken("a.b!.c"));
+		assertEquals(2, failures("malformed"), 0);
+
+		long exp = System.currentTimeMillis() / 1000 - 60;
+		String expired = JwsCodec.sign(JwtTokenUtils.getKeyring().getSigningKey()
+				, ("{\"sub\":\"admin\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8));
+		assertNull(JwtTokenUtils.verifyToken(expired));
+		assertEquals(1, failures("expired"), 0);
+
+		SecurityUtils.checkAuthentication(new MockHttpServletRequest("GET", "/user/findAll"), new JwtTokenCache(16)
+				, null);
+		assertEquals(1, failures("missing"), 0);
+		assertEquals(4, registry.get("security.token.verify").timer().count());
+	}
+
+	@Test
+	public void closedMetricsAreNotRecorded() {
+		metrics.close();
+		assertFalse(SecurityMetrics.get().isEnabled());
+		assertNull(JwtTokenUtils.verifyToken("not-a-token"));
+		assertEquals(0, failures("malformed"), 0);
+		assertEquals(0, registry.get("security.token.verify").timer().count());
+	}
+
+	private double failures(String reason) {
+		return registry.get("security.token.failures").tag("reason", reason).counter().count();
+	}
+
+	private static String token() {
+		List<GrantedAuthority> authorities = Collections.singletonList(new GrantedAuthorityImpl("sys:user:view"));
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+}
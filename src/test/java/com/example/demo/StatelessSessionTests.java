@@ -0,0 +1,84 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 无状态会话测试, 登录和携带令牌的请求都不应创建 HttpSession, 请求结束后上下文为空
+ *
+ * @author 程思琦
+ * @date 2026/10/18 22:10
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StatelessSessionTests {
+
+	private static final int CALLS = 10000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private String token;
+
+	@Before
+	public void setup() {
+		List<GrantedAuthority> authorities = Arrays.asList(new GrantedAuthorityImpl("sys:user:view"));
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		token = JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+
+	@Test
+	public void authenticatedCallsCreateNoSession() throws Exception {
+		int sessions = 0;
+		for (int i = 0; i < CALLS; i++) {
+			MvcResult result = mockMvc.perform(get("/user/findAll").header("Authorization", "Bearer " + token))
+					.andExpect(status().isOk())
+					.andReturn();
+			if (result.getRequest().getSession(false) != null) {
+				sessions++;
+			}
+			assertNull(SecurityContextHolder.getContext().getAuthentication());
+		}
+		assertEquals(0, sessions);
+	}
+
+	@Test
+	public void loginAndRejectedCallsCreateNoSession() throws Exception {
+		MvcResult login = mockMvc.perform(post("/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"admin\",\"password\":\"123\"}"))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertNull(login.getRequest().getSession(false));
+
+		MvcResult rejected = mockMvc.perform(get("/user/findAll"))
+				.andExpect(status().isForbidden())
+				.andReturn();
+		assertNull(rejected.getRequest().getSession(false));
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+	}
+}
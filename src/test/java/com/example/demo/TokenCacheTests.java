@@ -0,0 +1,147 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.security.VerifiedJwtAuthenticationToken;
+import com.example.demo.utils.ExpiringCache;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 令牌验证缓存测试
+ *
+ * ExpiringCache 的过期、容量上限和淘汰统计; JwtTokenCache 命中时返回同一份认证信息,
+ * 非法令牌不缓存, 移除后重新验签
+ *
+ * @author 程思琦
+ * @date 2026/10/19 13:00
+ * @description
+ **/
+public class TokenCacheTests {
+
+	private static final long HOUR = 3600_000L;
+
+	@Test
+	public void expiredEntriesAreNotReturned() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(16);
+		long now = System.currentTimeMillis();
+		cache.put("live", "a", now + HOUR);
+		cache.put("short", "b", now + 100);
+		// 已过期的条目不放入
+		cache.put("expired", "c", now - 1);
+		assertEquals(2, cache.size());
+		assertEquals("a", cache.get("live"));
+		assertEquals("b", cache.get("short"));
+
+		Thread.sleep(200);
+		assertNull(cache.get("short"));
+		assertNull(cache.get("expired"));
+		assertEquals(1, cache.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+
+		cache.invalidate("live");
+		assertNull(cache.get("live"));
+		cache.put("x", "x", now + HOUR);
+		cache.put("y", "y", now + HOUR);
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void fullCacheEvictsExpiredEntriesFirst() throws Exception {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(64);
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 32; i++) {
+			cache.put(i, i, now + 100);
+		}
+		for (int i = 32; i < 64; i++) {
+			cache.put(i, i, now + HOUR);
+		}
+		assertEquals(64, cache.size());
+		Thread.sleep(200);
+
+		// 已过期的条目足够腾出空间, 未过期的条目都保留
+		cache.put(64, 64, System.currentTimeMillis() + HOUR);
+		assertEquals(33, cache.size());
+		assertEquals(32, cache.getEvictionCount());
+		for (int i = 32; i <= 64; i++) {
+			assertEquals(Integer.valueOf(i), cache.get(i));
+		}
+	}
+
+	@Test
+	public void fullCacheEvictsAnEighth() {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(64);
+		long expiresAt = System.currentTimeMillis() + HOUR;
+		for (int i = 0; i < 10_000; i++) {
+			cache.put(i, i, expiresAt);
+			assertTrue(cache.size() <= cache.getMaximumSize());
+		}
+		assertEquals(Integer.valueOf(9999), cache.get(9999));
+		assertTrue(cache.getEvictionCount() >= 10_000 - 64);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maximumSizeMustBePositive() {
+		new ExpiringCache<String, String>(0);
+	}
+
+	@Test
+	public void verifiedTokensAreCached() {
+		JwtTokenCache cache = new JwtTokenCache(16);
+		String token = token();
+		VerifiedJwtAuthenticationToken first = cache.getAuthentication(token);
+		assertNotNull(first);
+		assertEquals("admin", first.getName());
+		assertSame(first, cache.getAuthentication(token));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.size());
+
+		// 同一用户的另一个令牌单独缓存
+		String other = token();
+		assertNotSame(first, cache.getAuthentication(other));
+		assertEquals(2, cache.size());
+
+		cache.invalidate(token);
+		assertEquals(1, cache.size());
+		VerifiedJwtAuthenticationToken reverified = cache.getAuthentication(token);
+		assertNotSame(first, reverified);
+		assertEquals(first.getExpiration(), reverified.getExpiration());
+	}
+
+	@Test
+	public void invalidTokensAreNotCached() {
+		JwtTokenCache cache = new JwtTokenCache(16);
+		String token = token();
+		int signature = token.lastIndexOf('.') + 2;
+		char replaced = token.charAt(signature) == 'A' ? 'B' : 'A';
+		String tampered = token.substring(0, signature) + replaced + token.substring(signature + 1);
+		assertNull(cache.getAuthentication(tampered));
+		assertNull(cache.getAuthentication(tampered));
+		assertNull(cache.getAuthentication("not-a-token"));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+	}
+
+	private static String token() {
+		List<GrantedAuthority> authorities = Collections.singletonList(new GrantedAuthorityImpl("sys:user:view"));
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", authorities);
+		return JwtTokenUtils.generateToken(new JwtAuthenticationToken(userDetails, null, authorities, null));
+	}
+}
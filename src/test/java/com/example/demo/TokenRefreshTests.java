@@ -0,0 +1,181 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.InMemoryTokenRevocationStore;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.JwtLogoutHandler;
+import com.example.demo.security.JwtTokenCache;
+import com.example.demo.security.JwtTokenRefresher;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 令牌刷新测试, 阈值内的重复刷新和并发刷新只签发一次, 轮换后的旧刷新令牌不再可用,
+ * 退出登录后同一会话的刷新令牌和缓存的令牌对都不再可用
+ *
+ * @author 程思琦
+ * @date 2026/10/19 06:10
+ * @description
+ **/
+public class TokenRefreshTests {
+
+	private static final List<GrantedAuthority> AUTHORITIES
+			= Collections.singletonList(new GrantedAuthorityImpl("sys:user:view"));
+
+	private final UserDetailsService userDetailsService = username -> {
+		if (!"admin".equals(username)) {
+			throw new UsernameNotFoundException("该用户不存在");
+		}
+		return new JwtUserDetails("admin", "", AUTHORITIES);
+	};
+
+	private InMemoryTokenRevocationStore revocationStore;
+
+	@Before
+	public void setup() {
+		revocationStore = new InMemoryTokenRevocationStore(16);
+	}
+
+	@Test
+	public void refreshTokenIsNotAnAccessToken() {
+		String refreshToken = JwtTokenUtils.generateRefreshToken("admin");
+		assertNull(JwtTokenUtils.verifyToken(refreshToken));
+		assertNotNull(JwtTokenUtils.verifyRefreshToken(refreshToken));
+
+		String accessToken = JwtTokenUtils.generateToken("admin", AUTHORITIES);
+		assertNull(JwtTokenUtils.verifyRefreshToken(accessToken));
+	}
+
+	@Test
+	public void repeatedRefreshWithinThresholdSignsOnce() {
+		JwtTokenRefresher refresher = new JwtTokenRefresher(userDetailsService, revocationStore, 60_000L, 100);
+		String refreshToken = JwtTokenUtils.generateRefreshToken("admin");
+
+		JwtAuthenticationToken first = refresher.refresh(refreshToken);
+		assertSame(first, refresher.refresh(refreshToken));
+		// 新刷新令牌在阈值内同样返回同一对令牌
+		assertSame(first, refresher.refresh(first.getRefreshToken()));
+		assertNotNull(JwtTokenUtils.verifyToken(first.getToken()));
+
+		assertEquals(1, refresher.getSignedCount());
+		assertEquals(2, refresher.getCoalescedCount());
+	}
+
+	@Test
+	public void rotatedRefreshTokenIsRejectedAfterThreshold() {
+		JwtTokenRefresher refresher = new JwtTokenRefresher(userDetailsService, revocationStore, 0L, 100);
+		String refreshToken = JwtTokenUtils.generateRefreshToken("admin");
+
+		JwtAuthenticationToken refreshed = refresher.refresh(refreshToken);
+		assertNotEquals(refreshToken, refreshed.getRefreshToken());
+		try {
+			refresher.refresh(refreshToken);
+		} catch (BadCredentialsException e) {
+			assertNotNull(refresher.refresh(refreshed.getRefreshToken()));
+			return;
+		}
+		throw new AssertionError("rotated refresh token was accepted");
+	}
+
+	@Test
+	public void concurrentRefreshesAreCoalesced() throws Exception {
+		JwtTokenRefresher refresher = new JwtTokenRefresher(userDetailsService, revocationStore, 60_000L, 100);
+		String refreshToken = JwtTokenUtils.generateRefreshToken("admin");
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<JwtAuthenticationToken>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				Callable<JwtAuthenticationToken> refresh = () -> {
+					start.await();
+					return refresher.refresh(refreshToken);
+				};
+				results.add(executor.submit(refresh));
+			}
+			start.countDown();
+			JwtAuthenticationToken first = results.get(0).get();
+			for (Future<JwtAuthenticationToken> result : results) {
+				assertSame(first, result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, refresher.getSignedCount());
+		assertEquals(threads - 1, refresher.getCoalescedCount());
+	}
+
+	@Test
+	public void tokenPairSharesSessionAcrossRefresh() {
+		JwtTokenRefresher refresher = new JwtTokenRefresher(userDetailsService, revocationStore, 0L, 100);
+		JwtAuthenticationToken login = JwtTokenUtils.generateTokenPair("admin", AUTHORITIES, UUID.randomUUID());
+		UUID sessionId = JwtTokenUtils.verifyToken(login.getToken()).getSessionId();
+		assertNotNull(sessionId);
+		assertEquals(sessionId, JwtTokenUtils.verifyRefreshToken(login.getRefreshToken()).getSessionId());
+
+		JwtAuthenticationToken refreshed = refresher.refresh(login.getRefreshToken());
+		assertEquals(sessionId, JwtTokenUtils.verifyToken(refreshed.getToken()).getSessionId());
+		assertEquals(sessionId, JwtTokenUtils.verifyRefreshToken(refreshed.getRefreshToken()).getSessionId());
+	}
+
+	@Test
+	public void logoutRevokesRefreshTokenAndCachedPair() {
+		JwtTokenRefresher refresher = new JwtTokenRefresher(userDetailsService, revocationStore, 60_000L, 100);
+		JwtAuthenticationToken login = JwtTokenUtils.generateTokenPair("admin", AUTHORITIES, UUID.randomUUID());
+		// 阈值内缓存了令牌对
+		JwtAuthenticationToken refreshed = refresher.refresh(login.getRefreshToken());
+
+		logout(refreshed.getToken());
+		assertTrue(revocationStore.isRevoked(JwtTokenUtils.verifyToken(login.getToken())));
+		assertRejected(refresher, login.getRefreshToken());
+		assertRejected(refresher, refreshed.getRefreshToken());
+		assertEquals(1, refresher.getSignedCount());
+
+		// 用访问令牌退出后, 尚未用过的刷新令牌同样失效
+		JwtAuthenticationToken other = JwtTokenUtils.generateTokenPair("admin", AUTHORITIES, UUID.randomUUID());
+		logout(other.getToken());
+		assertRejected(refresher, other.getRefreshToken());
+	}
+
+	private void logout(String accessToken) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/logout");
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+		new JwtLogoutHandler(revocationStore, new JwtTokenCache(16))
+				.logout(request, new MockHttpServletResponse(), null);
+	}
+
+	private static void assertRejected(JwtTokenRefresher refresher, String refreshToken) {
+		try {
+			refresher.refresh(refreshToken);
+			fail("refresh token of a logged out session was accepted");
+		} catch (BadCredentialsException expected) {
+		}
+	}
+}
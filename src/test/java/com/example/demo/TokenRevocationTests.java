@@ -0,0 +1,262 @@
+package com.example.demo;
+
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.InMemoryTokenRevocationStore;
+import com.example.demo.security.JwtAuthenticationToken;
+import com.example.demo.security.TokenRevocationSnapshotter;
+import com.example.demo.utils.JwtTokenUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 令牌吊销测试
+ *
+ * 并发写入触发扩容时查询不丢失已吊销的记录; 过期记录的清理; 快照写入和重新加载;
+ * 退出登录后同一令牌再次访问返回 403
+ *
+ * @author 程思琦
+ * @date 2026/10/19 11:50
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenRevocationTests {
+
+	private static final long HOUR = 3600_000L;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void rehashUnderLoadKeepsRevokedTokens() throws Exception {
+		InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore();
+		long expiresAt = System.currentTimeMillis() + HOUR;
+		List<UUID> checked = ids(512);
+		for (UUID id : checked) {
+			store.revoke(id, expiresAt);
+		}
+
+		int writers = 4;
+		int perWriter = 50_000;
+		List<List<UUID>> written = new ArrayList<>();
+		for (int i = 0; i < writers; i++) {
+			written.add(ids(perWriter));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean writing = new AtomicBoolean(true);
+		try {
+			List<Future<?>> writes = new ArrayList<>();
+			for (List<UUID> ids : written) {
+				writes.add(executor.submit(() -> {
+					start.await();
+					for (UUID id : ids) {
+						store.revoke(id, expiresAt);
+					}
+					return null;
+				}));
+			}
+			// 扩容期间查询走乐观读, 已吊销的令牌不能查不到, 未吊销的不能误判
+			List<Future<Integer>> reads = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				reads.add(executor.submit(() -> {
+					start.await();
+					int lookups = 0;
+					UUID unknown = UUID.randomUUID();
+					while (writing.get()) {
+						for (UUID id : checked) {
+							if (!store.isRevoked(id)) {
+								throw new AssertionError("revoked token lost during rehash: " + id);
+							}
+						}
+						if (store.isRevoked(unknown)) {
+							throw new AssertionError("unknown token reported as revoked");
+						}
+						lookups += checked.size() + 1;
+					}
+					return lookups;
+				}));
+			}
+			start.countDown();
+			for (Future<?> write : writes) {
+				write.get(60, TimeUnit.SECONDS);
+			}
+			writing.set(false);
+			for (Future<Integer> read : reads) {
+				assertTrue(read.get(60, TimeUnit.SECONDS) > 0);
+			}
+		} finally {
+			writing.set(false);
+			executor.shutdownNow();
+		}
+
+		assertEquals(checked.size() + writers * perWriter, store.size());
+		for (List<UUID> ids : written) {
+			for (UUID id : ids) {
+				assertTrue(store.isRevoked(id));
+			}
+		}
+	}
+
+	@Test
+	public void expiredRecordsArePurged() throws Exception {
+		InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore();
+		long now = System.currentTimeMillis();
+		// 已过期的令牌不记录
+		store.revoke(UUID.randomUUID(), now - 1);
+		assertEquals(0, store.size());
+
+		List<UUID> shortLived = ids(100);
+		for (UUID id : shortLived) {
+			store.revoke(id, now + 200);
+		}
+		List<UUID> longLived = ids(100);
+		for (UUID id : longLived) {
+			store.revoke(id, now + HOUR);
+		}
+		// 重复吊销保留较晚的过期时间
+		UUID extended = shortLived.get(0);
+		store.revoke(extended, now + HOUR);
+		store.revoke(extended, now + 100);
+		assertEquals(200, store.size());
+
+		Thread.sleep(300);
+		for (int i = 1; i < shortLived.size(); i++) {
+			assertFalse(store.isRevoked(shortLived.get(i)));
+		}
+		// 过期记录在清理前仍占用槽位
+		assertEquals(200, store.size());
+
+		store.purgeExpired();
+		assertEquals(101, store.size());
+		assertTrue(store.isRevoked(extended));
+		for (UUID id : longLived) {
+			assertTrue(store.isRevoked(id));
+		}
+	}
+
+	@Test
+	public void snapshotIsWrittenAndReloaded() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("snapshots/revoked-tokens.bin");
+		InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore();
+		long now = System.currentTimeMillis();
+		List<UUID> live = ids(3000);
+		for (UUID id : live) {
+			store.revoke(id, now + HOUR);
+		}
+		UUID shortLived = UUID.randomUUID();
+		store.revoke(shortLived, now + 200);
+
+		assertEquals(3001, store.writeSnapshot(file));
+		assertFalse(Files.exists(file.resolveSibling("revoked-tokens.bin.tmp")));
+		Thread.sleep(300);
+
+		// 加载时跳过写入后才过期的记录
+		InMemoryTokenRevocationStore reloaded = new InMemoryTokenRevocationStore();
+		assertEquals(3000, reloaded.loadSnapshot(file));
+		assertEquals(3000, reloaded.size());
+		for (UUID id : live) {
+			assertTrue(reloaded.isRevoked(id));
+		}
+		assertFalse(reloaded.isRevoked(shortLived));
+
+		Path corrupt = folder.newFile("corrupt.bin").toPath();
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(corrupt))) {
+			out.writeInt(0x12345678);
+			out.writeInt(1);
+			out.writeInt(0);
+		}
+		try {
+			reloaded.loadSnapshot(corrupt);
+			fail();
+		} catch (IOException expected) {
+		}
+		assertEquals(3000, reloaded.size());
+	}
+
+	@Test
+	public void snapshotterReloadsAfterRestart() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("revoked-tokens.bin");
+		UUID revoked = UUID.randomUUID();
+
+		InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore();
+		TokenRevocationSnapshotter snapshotter = new TokenRevocationSnapshotter(store, file, 3600);
+		// 文件不存在时正常启动
+		snapshotter.start();
+		store.revoke(revoked, System.currentTimeMillis() + HOUR);
+		snapshotter.shutdown();
+		assertTrue(Files.exists(file));
+
+		InMemoryTokenRevocationStore restarted = new InMemoryTokenRevocationStore();
+		TokenRevocationSnapshotter next = new TokenRevocationSnapshotter(restarted, file, 3600);
+		next.start();
+		try {
+			assertTrue(restarted.isRevoked(revoked));
+			assertEquals(1, restarted.size());
+		} finally {
+			next.shutdown();
+		}
+	}
+
+	@Test
+	public void loggedOutTokenIsRejected() throws Exception {
+		List<GrantedAuthority> authorities = Collections.singletonList(new GrantedAuthorityImpl("sys:user:view"));
+		JwtAuthenticationToken tokens = JwtTokenUtils.generateTokenPair("admin", authorities, UUID.randomUUID());
+		String authorization = "Bearer " + tokens.getToken();
+
+		mockMvc.perform(get("/user/findAll").header("Authorization", authorization))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/logout").header("Authorization", authorization))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/user/findAll").header("Authorization", authorization))
+				.andExpect(status().isForbidden());
+
+		// 同一会话新签发的访问令牌同样失效
+		String sameSession = JwtTokenUtils.refreshToken(tokens.getToken());
+		mockMvc.perform(get("/user/findAll").header("Authorization", "Bearer " + sameSession))
+				.andExpect(status().isForbidden());
+	}
+
+	private static List<UUID> ids(int count) {
+		List<UUID> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(UUID.randomUUID());
+		}
+		return ids;
+	}
+}
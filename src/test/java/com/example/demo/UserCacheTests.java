@@ -0,0 +1,220 @@
+package com.example.demo;
+
+import com.example.demo.model.User;
+import com.example.demo.security.CachedUserDetailsService;
+import com.example.demo.security.GrantedAuthorityImpl;
+import com.example.demo.security.JwtUserDetails;
+import com.example.demo.service.UserChangedEvent;
+import com.example.demo.service.UserService;
+import com.example.demo.service.impl.CachedUserService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 用户缓存测试
+ *
+ * 缓存有效期内不再查询被包装的服务, 不存在的用户按较短的有效期缓存,
+ * UserChangedEvent 使单个用户或全部用户的缓存失效, 容器中的缓存 bean 能收到事件
+ *
+ * @author 程思琦
+ * @date 2026/10/19 13:20
+ * @description
+ **/
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class UserCacheTests {
+
+	@Autowired
+	private CachedUserService cachedUserService;
+
+	@Autowired
+	private CachedUserDetailsService cachedUserDetailsService;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	@Test
+	public void usersAreCachedUntilTtl() throws Exception {
+		CountingUserService store = new CountingUserService();
+		store.add("admin", "sys:user:view");
+		CachedUserService users = new CachedUserService(store, 300, 60_000L, 100);
+
+		User admin = users.findByUsername("admin");
+		assertSame(admin, users.findByUsername("admin"));
+		Set<String> permissions = users.findPermissions("admin");
+		assertSame(permissions, users.findPermissions("admin"));
+		assertEquals(1, store.userLookups);
+		assertEquals(1, store.permissionLookups);
+		assertEquals(2, users.getHitCount());
+		assertEquals(2, users.getMissCount());
+
+		Thread.sleep(400);
+		users.findByUsername("admin");
+		users.findPermissions("admin");
+		assertEquals(2, store.userLookups);
+		assertEquals(2, store.permissionLookups);
+	}
+
+	@Test
+	public void missingUsersAreCachedForTheNegativeTtl() throws Exception {
+		CountingUserService store = new CountingUserService();
+		CachedUserService users = new CachedUserService(store, 60_000L, 300, 100);
+
+		assertNull(users.findByUsername("nobody"));
+		assertNull(users.findByUsername("nobody"));
+		assertEquals(1, store.userLookups);
+		// 没有权限记录时不缓存
+		assertNull(users.findPermissions("nobody"));
+		assertNull(users.findPermissions("nobody"));
+		assertEquals(2, store.permissionLookups);
+
+		// 用户创建后, 负缓存过期前仍返回不存在
+		store.add("nobody", "sys:user:view");
+		assertNull(users.findByUsername("nobody"));
+		Thread.sleep(400);
+		assertNotNull(users.findByUsername("nobody"));
+		assertEquals(2, store.userLookups);
+	}
+
+	@Test
+	public void userChangedEventInvalidatesUserService() {
+		CountingUserService store = new CountingUserService();
+		store.add("admin", "sys:user:view");
+		store.add("guest");
+		CachedUserService users = new CachedUserService(store, 60_000L, 60_000L, 100);
+		users.findByUsername("admin");
+		users.findByUsername("guest");
+		users.findPermissions("admin");
+		assertEquals(2, users.size());
+
+		store.add("admin", "sys:user:view", "sys:user:edit");
+		users.onUserChanged(new UserChangedEvent(this, "admin"));
+		assertTrue(users.findPermissions("admin").contains("sys:user:edit"));
+		// 其他用户的缓存不受影响
+		users.findByUsername("guest");
+		assertEquals(2, store.userLookups);
+		assertEquals(2, store.permissionLookups);
+
+		users.onUserChanged(new UserChangedEvent(this, null));
+		assertEquals(0, users.size());
+		users.findByUsername("guest");
+		assertEquals(3, store.userLookups);
+	}
+
+	@Test
+	public void userDetailsAreCachedAsCopies() {
+		CountingUserService store = new CountingUserService();
+		store.add("admin", "sys:user:view");
+		CachedUserDetailsService users = new CachedUserDetailsService(username -> {
+			User user = store.findByUsername(username);
+			if (user == null) {
+				throw new UsernameNotFoundException("该用户不存在");
+			}
+			return new JwtUserDetails(username, user.getPassword()
+					, Collections.singletonList(new GrantedAuthorityImpl("sys:user:view")));
+		}, 60_000L, 60_000L, 100);
+
+		JwtUserDetails first = (JwtUserDetails) users.loadUserByUsername("admin");
+		// 认证成功后擦除返回对象中的密码, 缓存中的密码不受影响
+		first.eraseCredentials();
+		UserDetails second = users.loadUserByUsername("admin");
+		assertNotSame(first, second);
+		assertEquals("{noop}admin", second.getPassword());
+		assertTrue(((JwtUserDetails) second).getPermissions().contains("sys:user:view"));
+		assertEquals(1, store.userLookups);
+		assertEquals(1, users.getHitCount());
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				users.loadUserByUsername("nobody");
+				fail();
+			} catch (UsernameNotFoundException expected) {
+			}
+		}
+		assertEquals(2, store.userLookups);
+		assertEquals(2, users.size());
+
+		users.onUserChanged(new UserChangedEvent(this, "nobody"));
+		store.add("nobody");
+		assertEquals("nobody", users.loadUserByUsername("nobody").getUsername());
+		users.onUserChanged(new UserChangedEvent(this, null));
+		assertEquals(0, users.size());
+	}
+
+	@Test
+	public void publishedEventsReachTheCacheBeans() {
+		cachedUserService.findByUsername("admin");
+		cachedUserDetailsService.loadUserByUsername("admin");
+		long userMisses = cachedUserService.getMissCount();
+		long misses = cachedUserDetailsService.getMissCount();
+		cachedUserDetailsService.loadUserByUsername("admin");
+		assertEquals(misses, cachedUserDetailsService.getMissCount());
+
+		publisher.publishEvent(new UserChangedEvent(this, "admin"));
+		cachedUserService.findByUsername("admin");
+		assertEquals(userMisses + 1, cachedUserService.getMissCount());
+		cachedUserDetailsService.loadUserByUsername("admin");
+		assertEquals(misses + 1, cachedUserDetailsService.getMissCount());
+
+		publisher.publishEvent(new UserChangedEvent(this, null));
+		assertEquals(0, cachedUserDetailsService.size());
+		assertEquals(0, cachedUserService.size());
+		assertFalse(cachedUserDetailsService.loadUserByUsername("admin").getAuthorities().isEmpty());
+	}
+
+	/**
+	 * 记录查询次数的用户存储
+	 */
+	private static final class CountingUserService implements UserService {
+
+		private final Map<String, Set<String>> permissions = new HashMap<>();
+
+		private int userLookups;
+
+		private int permissionLookups;
+
+		void add(String username, String... granted) {
+			permissions.put(username, new HashSet<>(Arrays.asList(granted)));
+		}
+
+		@Override
+		public User findByUsername(String username) {
+			userLookups++;
+			if (!permissions.containsKey(username)) {
+				return null;
+			}
+			User user = new User();
+			user.setUsername(username);
+			user.setPassword("{noop}" + username);
+			return user;
+		}
+
+		@Override
+		public Set<String> findPermissions(String username) {
+			permissionLookups++;
+			return permissions.get(username);
+		}
+	}
+}
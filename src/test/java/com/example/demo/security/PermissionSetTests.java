@@ -0,0 +1,229 @@
+package com.example.demo.security;
+
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 权限注册表和权限集合测试
+ *
+ * 权限标识只注册一次并分配连续编号, 反序列化后换成共享实例;
+ * 权限集合的位运算跨越多个 long, 与普通 Set 的 equals/hashCode 一致。
+ * 编号和按编号查找是包内可见的, 测试放在同一个包下。
+ * 注册表是全局的, 每个测试使用不重复的权限标识
+ *
+ * @author 程思琦
+ * @date 2026/10/19 13:40
+ * @description
+ **/
+public class PermissionSetTests {
+
+	@Test
+	public void authoritiesAreInternedOnce() throws Exception {
+		String prefix = prefix();
+		assertNull(AuthorityRegistry.find(prefix + "0"));
+		int before = AuthorityRegistry.size();
+
+		List<String> names = names(prefix, 200);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<List<GrantedAuthorityImpl>>> results = new ArrayList<>();
+		try {
+			for (int t = 0; t < 8; t++) {
+				results.add(executor.submit((Callable<List<GrantedAuthorityImpl>>) () -> {
+					List<GrantedAuthorityImpl> interned = new ArrayList<>();
+					for (String name : names) {
+						interned.add(AuthorityRegistry.intern(name));
+					}
+					return interned;
+				}));
+			}
+			List<GrantedAuthorityImpl> first = results.get(0).get();
+			for (Future<List<GrantedAuthorityImpl>> result : results) {
+				List<GrantedAuthorityImpl> interned = result.get();
+				for (int i = 0; i < names.size(); i++) {
+					assertSame(first.get(i), interned.get(i));
+				}
+			}
+			// 编号唯一, 按编号能取回同一实例
+			Set<Integer> ids = new HashSet<>();
+			for (GrantedAuthorityImpl authority : first) {
+				assertTrue(ids.add(authority.id()));
+				assertSame(authority, AuthorityRegistry.get(authority.id()));
+				assertSame(authority, AuthorityRegistry.find(authority.getAuthority()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(AuthorityRegistry.size() >= before + names.size());
+		assertNull(AuthorityRegistry.find(null));
+		assertEquals(-1, new GrantedAuthorityImpl(prefix + "0").id());
+	}
+
+	@Test
+	public void deserializedAuthoritiesAreShared() throws Exception {
+		String prefix = prefix();
+		GrantedAuthorityImpl registered = AuthorityRegistry.intern(prefix + "registered");
+		assertSame(registered, deserialize(serialize(registered)));
+
+		// 未注册的实例反序列化时注册
+		GrantedAuthorityImpl unregistered = new GrantedAuthorityImpl(prefix + "unregistered");
+		GrantedAuthorityImpl resolved = (GrantedAuthorityImpl) deserialize(serialize(unregistered));
+		assertSame(AuthorityRegistry.find(prefix + "unregistered"), resolved);
+		assertTrue(resolved.id() >= 0);
+		assertEquals(unregistered, resolved);
+		assertEquals(unregistered.hashCode(), resolved.hashCode());
+		assertTrue(PermissionSet.of(Collections.singletonList(unregistered)).contains(resolved));
+	}
+
+	@Test
+	public void bitOperationsSpanWords() {
+		String prefix = prefix();
+		List<String> names = names(prefix, 200);
+		List<String> granted = new ArrayList<>();
+		for (int i = 0; i < names.size(); i += 3) {
+			granted.add(names.get(i));
+		}
+		PermissionSet permissions = PermissionSet.ofPermissions(granted);
+		assertEquals(granted.size(), permissions.size());
+		for (int i = 0; i < names.size(); i++) {
+			GrantedAuthorityImpl authority = AuthorityRegistry.find(names.get(i));
+			boolean expected = i % 3 == 0;
+			assertEquals(expected, permissions.contains(names.get(i)));
+			assertEquals(expected, permissions.contains((Object) new GrantedAuthorityImpl(names.get(i))));
+			if (authority != null) {
+				assertEquals(expected, permissions.contains(authority.id()));
+			}
+		}
+		assertFalse(permissions.contains(-1));
+		assertFalse(permissions.contains(Integer.MAX_VALUE));
+		assertTrue(permissions.containsAny(prefix + "missing", names.get(3)));
+		assertFalse(permissions.containsAny(prefix + "missing", names.get(1)));
+
+		// 判断未注册的权限不会注册
+		int size = AuthorityRegistry.size();
+		assertFalse(permissions.contains(prefix + "missing"));
+		assertNull(AuthorityRegistry.find(prefix + "missing"));
+		assertEquals(size, AuthorityRegistry.size());
+
+		// 遍历按编号升序返回共享实例
+		int last = -1;
+		Set<String> iterated = new HashSet<>();
+		for (GrantedAuthority authority : permissions) {
+			GrantedAuthorityImpl shared = (GrantedAuthorityImpl) authority;
+			assertSame(AuthorityRegistry.find(shared.getAuthority()), shared);
+			assertTrue(shared.id() > last);
+			last = shared.id();
+			iterated.add(shared.getAuthority());
+		}
+		assertEquals(new HashSet<>(granted), iterated);
+		Iterator<GrantedAuthority> iterator = PermissionSet.EMPTY.iterator();
+		assertFalse(iterator.hasNext());
+		try {
+			iterator.next();
+			fail();
+		} catch (NoSuchElementException expected) {
+		}
+		try {
+			permissions.add(new GrantedAuthorityImpl(prefix + "x"));
+			fail();
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	@Test
+	public void equalityMatchesOtherSets() {
+		String prefix = prefix();
+		List<String> names = names(prefix, 130);
+		PermissionSet all = PermissionSet.ofPermissions(names);
+		PermissionSet low = PermissionSet.ofPermissions(names.subList(0, 2));
+
+		// 构造时扩展到高位再合并低位, 末尾的空 long 被去掉, 与直接构造相等
+		PermissionSet merged = new PermissionSet.Builder().add(names.get(129)).addAll(low).build();
+		PermissionSet direct = PermissionSet.ofPermissions(Arrays.asList(names.get(0), names.get(1), names.get(129)));
+		assertEquals(direct, merged);
+		assertEquals(direct.hashCode(), merged.hashCode());
+		assertEquals(all, new PermissionSet.Builder().addAll(all).build());
+
+		Set<GrantedAuthority> plain = new HashSet<>();
+		for (String name : names.subList(0, 2)) {
+			plain.add(new GrantedAuthorityImpl(name));
+		}
+		assertEquals(plain, low);
+		assertEquals(low, plain);
+		assertEquals(plain.hashCode(), low.hashCode());
+		assertNotEquals(low, all);
+		assertSame(low, PermissionSet.of(low));
+		assertEquals(low, PermissionSet.of(new ArrayList<>(plain)));
+
+		assertSame(PermissionSet.EMPTY, new PermissionSet.Builder().build());
+		assertSame(PermissionSet.EMPTY, PermissionSet.ofPermissions(Collections.emptyList()));
+		assertEquals(Collections.emptySet(), PermissionSet.EMPTY);
+		assertEquals(0, PermissionSet.EMPTY.hashCode());
+	}
+
+	@Test
+	public void authenticationPermissionsAreReused() {
+		String prefix = prefix();
+		PermissionSet permissions = PermissionSet.ofPermissions(names(prefix, 3));
+		JwtUserDetails userDetails = new JwtUserDetails("admin", "", permissions);
+		UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails
+				, null, permissions);
+		assertSame(userDetails.getPermissions(), PermissionSet.of(authentication));
+		assertEquals(permissions, PermissionSet.of(new UsernamePasswordAuthenticationToken("admin", null
+				, new ArrayList<>(permissions))));
+		assertSame(PermissionSet.EMPTY, PermissionSet.of((Authentication) null));
+	}
+
+	private static String prefix() {
+		return "test:" + UUID.randomUUID() + ":";
+	}
+
+	private static List<String> names(String prefix, int count) {
+		List<String> names = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			names.add(prefix + i);
+		}
+		return names;
+	}
+
+	private static byte[] serialize(Object value) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes) throws Exception {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		}
+	}
+}
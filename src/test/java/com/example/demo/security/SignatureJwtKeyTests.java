@@ -0,0 +1,168 @@
+package com.example.demo.security;
+
+import com.alibaba.fastjson.JSON;
+import com.example.demo.controller.JwksController;
+import com.example.demo.utils.JwsCodec;
+import io.jsonwebtoken.impl.crypto.EllipticCurveProvider;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 非对称签名密钥测试
+ *
+ * ES256 签名在 DER 和 r || s 之间的转换需要处理前导 0 和最高位为 1 的整数, 结果与 jjwt 的转换一致;
+ * EdDSA 签名和验签; JWK 往返后得到的公钥可以验签; JWKS 文档中不会出现对称密钥。
+ * 转换方法是包内可见的, 测试放在同一个包下
+ *
+ * @author 程思琦
+ * @date 2026/10/19 11:10
+ * @description
+ **/
+public class SignatureJwtKeyTests {
+
+	private static final byte[] PAYLOAD = "{\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void es256ConversionHandlesLeadingZerosAndHighBits() throws Exception {
+		List<byte[]> signatures = Arrays.asList(
+				concat(0x00, 0x00, 0x7F, 0x80),
+				concat(0x80, 0x00, 0x80, 0x01),
+				concat(0x00, 0x80, 0xFF, 0x00),
+				concat(0x01, 0x01, 0x00, 0x00));
+		for (byte[] signature : signatures) {
+			byte[] der = SignatureJwtKey.concatToDer(signature);
+			assertArrayEquals(EllipticCurveProvider.transcodeSignatureToDER(signature), der);
+			assertArrayEquals(signature, SignatureJwtKey.derToConcat(der));
+		}
+
+		// r 最高位为 1 时 DER 整数补一个 0, 共 33 字节
+		byte[] der = SignatureJwtKey.concatToDer(concat(0x80, 0x00, 0x01, 0x00));
+		assertEquals(33, der[3]);
+		// s 有两个前导 0 时 DER 整数只有 30 字节
+		der = SignatureJwtKey.concatToDer(concat(0x01, 0x00, 0x00, 0x00));
+		assertEquals(30, der[6 + der[3] - 1]);
+
+		// JCA 输出的 DER 签名往返后不变
+		KeyPair pair = ecKeyPair();
+		Signature signer = Signature.getInstance("SHA256withECDSA");
+		signer.initSign(pair.getPrivate());
+		for (int i = 0; i < 64; i++) {
+			signer.update(PAYLOAD);
+			byte[] jca = signer.sign();
+			assertArrayEquals(jca, SignatureJwtKey.concatToDer(SignatureJwtKey.derToConcat(jca)));
+		}
+	}
+
+	@Test
+	public void es256SignsAndVerifies() throws Exception {
+		KeyPair pair = ecKeyPair();
+		SignatureJwtKey key = new SignatureJwtKey("ec", SignatureJwtKey.ES256, pair.getPublic(), pair.getPrivate());
+		byte[] signature = key.sign(PAYLOAD, 0, PAYLOAD.length);
+		assertEquals(64, signature.length);
+		assertTrue(key.verify(PAYLOAD, 0, PAYLOAD.length, signature));
+		signature[10] ^= 1;
+		assertFalse(key.verify(PAYLOAD, 0, PAYLOAD.length, signature));
+		assertFalse(key.verify(PAYLOAD, 0, PAYLOAD.length, Arrays.copyOf(signature, 63)));
+	}
+
+	@Test
+	public void eddsaSignsAndVerifies() throws Exception {
+		KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		SignatureJwtKey key = new SignatureJwtKey("ed", SignatureJwtKey.EDDSA, pair.getPublic(), pair.getPrivate());
+		assertEquals(SignatureJwtKey.EDDSA, SignatureJwtKey.algorithmOf(pair.getPublic()));
+
+		JwtKeyring keyring = new JwtKeyring(Collections.singletonList(key), "ed");
+		String token = JwsCodec.sign(key, PAYLOAD);
+		assertArrayEquals(PAYLOAD, JwsCodec.verify(keyring, token));
+
+		byte[] signature = key.sign(PAYLOAD, 0, PAYLOAD.length);
+		assertEquals(64, signature.length);
+		signature[0] ^= 1;
+		assertFalse(key.verify(PAYLOAD, 0, PAYLOAD.length, signature));
+	}
+
+	@Test
+	public void jwkRoundTripVerifiesSignatures() throws Exception {
+		KeyPair ec = ecKeyPair();
+		KeyPair ed = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		for (SignatureJwtKey key : Arrays.asList(
+				new SignatureJwtKey("ec", SignatureJwtKey.ES256, ec.getPublic(), ec.getPrivate()),
+				new SignatureJwtKey("ed", SignatureJwtKey.EDDSA, ed.getPublic(), ed.getPrivate()))) {
+			// 经过 JSON 序列化, 与从 JWKS 文档读取一致
+			Map<String, Object> jwk = JSON.parseObject(JSON.toJSONString(key.toJwk()));
+			SignatureJwtKey publicKey = SignatureJwtKey.fromJwk(jwk);
+			assertNotNull(publicKey);
+			assertFalse(publicKey.canSign());
+			assertEquals(key.getKid(), publicKey.getKid());
+			assertEquals(key.getAlgorithm(), publicKey.getAlgorithm());
+			assertEquals(key.toJwk(), publicKey.toJwk());
+			assertTrue(publicKey.verify(PAYLOAD, 0, PAYLOAD.length, key.sign(PAYLOAD, 0, PAYLOAD.length)));
+		}
+
+		Map<String, Object> oct = new HashMap<>();
+		oct.put("kty", "oct");
+		oct.put("kid", "k1");
+		oct.put("k", "c2VjcmV0");
+		assertNull(SignatureJwtKey.fromJwk(oct));
+	}
+
+	@Test
+	public void jwksNeverContainsHmacSecrets() throws Exception {
+		byte[] secret = new byte[64];
+		new Random(1).nextBytes(secret);
+		KeyPair ec = ecKeyPair();
+		JwtKeyring keyring = new JwtKeyring(Arrays.asList(new HmacJwtKey("k1", "HS512", secret)
+				, new SignatureJwtKey("ec", SignatureJwtKey.ES256, ec.getPublic(), ec.getPrivate())), "ec");
+		JwksController controller = new JwksController();
+		ReflectionTestUtils.setField(controller, "jwtKeyring", keyring);
+
+		Map<String, Object> document = controller.jwks();
+		List<?> keys = (List<?>) document.get("keys");
+		assertEquals(1, keys.size());
+		assertEquals("ec", ((Map<?, ?>) keys.get(0)).get("kid"));
+		assertFalse(((Map<?, ?>) keys.get(0)).containsKey("d"));
+		String json = JSON.toJSONString(document);
+		assertFalse(json.contains("k1"));
+		assertFalse(json.contains(Base64.getUrlEncoder().withoutPadding().encodeToString(secret)));
+		assertFalse(json.contains(Base64.getEncoder().encodeToString(secret)));
+	}
+
+	/**
+	 * 构造 r || s, r、s 的前两个字节分别为指定值, 其余字节非 0
+	 */
+	private static byte[] concat(int r0, int r1, int s0, int s1) {
+		byte[] signature = new byte[64];
+		Arrays.fill(signature, (byte) 0x5A);
+		signature[0] = (byte) r0;
+		signature[1] = (byte) r1;
+		signature[32] = (byte) s0;
+		signature[33] = (byte) s1;
+		return signature;
+	}
+
+	private static KeyPair ecKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		return generator.generateKeyPair();
+	}
+}